@@ -0,0 +1,66 @@
+package com.actio.actio_api.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for the circuit breakers guarding the Alpha Vantage endpoints.
+ *
+ * Properties are bound from the "alphavantage.circuit-breaker" prefix. Every endpoint has its
+ * own breaker with these settings. Outcomes are tracked over the last {@code window-size}
+ * calls; once at least {@code minimum-calls} are recorded, the circuit opens when either the
+ * failure rate or the slow call rate reaches its threshold.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "alphavantage.circuit-breaker")
+public class CircuitBreakerProperties {
+
+    /**
+     * Number of most recent calls used to compute failure and slow call rates.
+     */
+    private int windowSize = 20;
+
+    /**
+     * Minimum number of recorded calls before the rates are evaluated.
+     */
+    private int minimumCalls = 5;
+
+    /**
+     * Failure rate, in percent, at which the circuit opens.
+     */
+    private int failureRateThreshold = 50;
+
+    /**
+     * Duration above which a call counts as slow.
+     */
+    private Duration slowCallDuration = Duration.ofSeconds(3);
+
+    /**
+     * Slow call rate, in percent, at which the circuit opens.
+     */
+    private int slowCallRateThreshold = 50;
+
+    /**
+     * Maximum duration of a single upstream call; longer calls are cancelled and count as failures.
+     */
+    private Duration callTimeout = Duration.ofSeconds(5);
+
+    /**
+     * How long the circuit stays open before probe calls are let through.
+     */
+    private Duration openDuration = Duration.ofSeconds(30);
+
+    /**
+     * Number of probe calls allowed while half-open. The circuit closes once all of them succeed.
+     */
+    private int halfOpenProbes = 2;
+
+    /**
+     * Interval of the check moving open circuits to half-open once their open duration has elapsed.
+     */
+    private Duration probeCheckInterval = Duration.ofSeconds(5);
+}
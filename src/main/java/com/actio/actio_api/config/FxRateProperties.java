@@ -0,0 +1,132 @@
+package com.actio.actio_api.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Configuration properties for the currency exchange rate table.
+ *
+ * Properties are bound from the "fx" prefix. Only the base pairs (base currency to each of
+ * the quote currencies, e.g. USD-EUR and USD-BRL) are fetched from the upstream; every other
+ * pair is derived from them in memory.
+ *
+ * A base pair is valid for its TTL; a refresh is started in the background once less than
+ * {@code refresh-ahead} of that validity remains, so the cached rate is replaced before it expires.
+ * Pairs are written as "FROM-TO", for example:
+ * <pre>
+ * fx.ttl-by-pair.USD-BRL=PT12H
+ * fx.fallback-rates.USD-EUR=0.90
+ * fx.currency-by-suffix.SA=BRL
+ * </pre>
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "fx")
+public class FxRateProperties {
+
+    /**
+     * Currency all base pairs are fetched from.
+     */
+    private String baseCurrency = "USD";
+
+    /**
+     * Currencies fetched against the base currency.
+     */
+    private List<String> quoteCurrencies = List.of("EUR", "BRL");
+
+    /**
+     * How long a fetched base pair is considered valid when it has no specific TTL.
+     */
+    private Duration ttl = Duration.ofDays(1);
+
+    /**
+     * Validity per base pair, overriding the default TTL.
+     */
+    private Map<String, Duration> ttlByPair = new HashMap<>();
+
+    /**
+     * How long before expiry a background refresh is started.
+     */
+    private Duration refreshAhead = Duration.ofHours(1);
+
+    /**
+     * Interval of the scheduled check that triggers refresh-ahead even when no request arrives.
+     */
+    private Duration refreshCheckInterval = Duration.ofMinutes(5);
+
+    /**
+     * How long a fallback rate is used before the upstream is tried again.
+     */
+    private Duration fallbackTtl = Duration.ofMinutes(1);
+
+    /**
+     * Rates used for a base pair that could never be fetched.
+     */
+    private Map<String, BigDecimal> fallbackRates = new HashMap<>(Map.of(
+            "USD-EUR", new BigDecimal("0.90"),
+            "USD-BRL", new BigDecimal("5.50")));
+
+    /**
+     * Trading currency per exchange suffix (e.g. "LS" to "EUR").
+     */
+    private Map<String, String> currencyBySuffix = new HashMap<>(Map.of(
+            "LS", "EUR",
+            "PA", "EUR",
+            "SA", "BRL"));
+
+    /**
+     * Trading currency of symbols without a configured exchange suffix.
+     */
+    private String defaultCurrency = "USD";
+
+    /**
+     * Resolves the validity of the given pair.
+     *
+     * @param pair the pair in "FROM-TO" form
+     * @return the configured TTL for the pair, or the default TTL
+     */
+    public Duration ttlFor(String pair) {
+        return lookup(ttlByPair, pair).orElse(ttl);
+    }
+
+    /**
+     * Resolves the fallback rate of the given pair.
+     *
+     * @param pair the pair in "FROM-TO" form
+     * @return the configured fallback rate, or empty if none is configured
+     */
+    public Optional<BigDecimal> fallbackRateFor(String pair) {
+        return lookup(fallbackRates, pair);
+    }
+
+    /**
+     * Resolves the trading currency of the given symbol from its exchange suffix.
+     *
+     * @param symbol the stock ticker symbol (e.g. "PETR4.SA")
+     * @return the trading currency code (e.g. "BRL")
+     */
+    public String currencyFor(String symbol) {
+        int dot = symbol.lastIndexOf('.');
+        if (dot < 0) {
+            return defaultCurrency;
+        }
+        return lookup(currencyBySuffix, symbol.substring(dot + 1))
+                .map(String::toUpperCase)
+                .orElse(defaultCurrency);
+    }
+
+    private static <V> Optional<V> lookup(Map<String, V> map, String key) {
+        return map.entrySet().stream()
+                .filter(entry -> entry.getKey().equalsIgnoreCase(key))
+                .map(Map.Entry::getValue)
+                .findFirst();
+    }
+}
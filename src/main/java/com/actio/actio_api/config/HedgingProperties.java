@@ -0,0 +1,66 @@
+package com.actio.actio_api.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for hedged Alpha Vantage quote requests.
+ *
+ * Properties are bound from the "alphavantage.hedging" prefix. When enabled, a quote request
+ * that has not answered within the {@code percentile} of recent quote latencies, clamped to
+ * {@code min-delay} and {@code max-delay}, is sent a second time and the first answer wins.
+ * Hedges are only sent while a request slot is free, and never more than
+ * {@code max-quota-fraction} of the daily request quota.
+ *
+ * Example:
+ * <pre>
+ * alphavantage.hedging.enabled=true
+ * alphavantage.hedging.percentile=0.95
+ * alphavantage.hedging.max-quota-fraction=0.05
+ * </pre>
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "alphavantage.hedging")
+public class HedgingProperties {
+
+    /**
+     * Whether slow quote requests are hedged.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Latency percentile, between 0 and 1, after which a hedge is sent.
+     */
+    private double percentile = 0.95;
+
+    /**
+     * Number of most recent quote latencies the percentile is computed from.
+     */
+    private int windowSize = 100;
+
+    /**
+     * Minimum number of recorded latencies before the percentile is used; until then
+     * {@code max-delay} applies.
+     */
+    private int minSamples = 20;
+
+    /**
+     * Lower bound of the hedge delay.
+     */
+    private Duration minDelay = Duration.ofMillis(500);
+
+    /**
+     * Upper bound of the hedge delay.
+     */
+    private Duration maxDelay = Duration.ofSeconds(3);
+
+    /**
+     * Maximum share of the daily request quota ({@code alphavantage.rate-limit.requests-per-day})
+     * that may be spent on hedges.
+     */
+    private double maxQuotaFraction = 0.1;
+}
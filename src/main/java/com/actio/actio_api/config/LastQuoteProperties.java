@@ -0,0 +1,41 @@
+package com.actio.actio_api.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for the persisted last known quotes.
+ *
+ * Properties are bound from the "quote.last-known" prefix, for example:
+ * <pre>
+ * quote.last-known.enabled=true
+ * quote.last-known.flush-interval=PT5S
+ * quote.last-known.batch-size=100
+ * </pre>
+ *
+ * Quotes are written behind: each symbol keeps only its newest pending quote, and pending
+ * quotes are written together at every flush.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "quote.last-known")
+public class LastQuoteProperties {
+
+    /**
+     * Whether fetched quotes are persisted and read back as fallback.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Delay between the end of a flush and the start of the next one.
+     */
+    private Duration flushInterval = Duration.ofSeconds(5);
+
+    /**
+     * Maximum number of quotes sent to the database in a single JDBC batch.
+     */
+    private int batchSize = 100;
+}
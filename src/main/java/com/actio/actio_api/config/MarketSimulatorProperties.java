@@ -0,0 +1,85 @@
+package com.actio.actio_api.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Configuration properties for the local market simulator (profile "simulator").
+ *
+ * Properties are bound from the "simulator" prefix. Every response is delayed by a latency
+ * drawn from a log-normal distribution with the given median and shape, capped at
+ * {@code latency-max}. A response is a rate limit "Note" with probability
+ * {@code rate-limit-rate}, an HTTP 500 with probability {@code error-rate}, and a quote
+ * without a price with probability {@code malformed-rate}. All draws come from random
+ * generators seeded with {@code seed}, one per symbol or currency pair, so a given sequence
+ * of requests always gets the same answers.
+ *
+ * Example:
+ * <pre>
+ * simulator.seed=7
+ * simulator.latency-median=PT0.2S
+ * simulator.error-rate=0.05
+ * simulator.requests-per-minute=5
+ * </pre>
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "simulator")
+public class MarketSimulatorProperties {
+
+    /**
+     * Seed of the random walks and of every latency and failure draw.
+     */
+    private long seed = 42;
+
+    /**
+     * Standard deviation of the relative price change per quote request.
+     */
+    private double volatility = 0.002;
+
+    /**
+     * Median response latency.
+     */
+    private Duration latencyMedian = Duration.ofMillis(120);
+
+    /**
+     * Shape of the log-normal latency distribution; larger values give a longer tail.
+     */
+    private double latencySigma = 0.6;
+
+    /**
+     * Upper bound of the response latency.
+     */
+    private Duration latencyMax = Duration.ofSeconds(3);
+
+    /**
+     * Probability of answering with an HTTP 500 error.
+     */
+    private double errorRate = 0.0;
+
+    /**
+     * Probability of answering with a quote that has no price.
+     */
+    private double malformedRate = 0.0;
+
+    /**
+     * Probability of answering with a rate limit "Note".
+     */
+    private double rateLimitRate = 0.0;
+
+    /**
+     * Requests accepted per calendar minute before answering with a rate limit "Note";
+     * 0 means unlimited.
+     */
+    private int requestsPerMinute = 0;
+
+    /**
+     * Symbols answered with an empty quote, as Alpha Vantage does for unknown symbols.
+     */
+    private Set<String> unknownSymbols = new HashSet<>();
+}
@@ -0,0 +1,75 @@
+package com.actio.actio_api.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Period;
+
+/**
+ * Configuration properties for the daily portfolio NAV job.
+ *
+ * Properties are bound from the "portfolio.nav" prefix, for example:
+ * <pre>
+ * portfolio.nav.cron=0 30 0 * * *
+ * portfolio.nav.zone=Europe/Lisbon
+ * portfolio.nav.chunk-size=200
+ * portfolio.nav.parallelism=4
+ * portfolio.nav.initial-backfill=P30D
+ * </pre>
+ *
+ * The job values every active account at the end of each day not computed yet, up to
+ * yesterday. Accounts are processed in chunks of {@code chunk-size}, with at most
+ * {@code parallelism} chunks in progress.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "portfolio.nav")
+public class PortfolioNavProperties {
+
+    /**
+     * Whether the job runs on schedule and catches up on startup.
+     */
+    private boolean enabled = true;
+
+    /**
+     * When the job runs, after midnight so that yesterday is over.
+     */
+    private String cron = "0 30 0 * * *";
+
+    /**
+     * Time zone of the cron expression and of the NAV dates.
+     */
+    private String zone = "Europe/Lisbon";
+
+    /**
+     * Number of accounts valued and written per batch.
+     */
+    private int chunkSize = 200;
+
+    /**
+     * Maximum number of chunks processed at the same time.
+     */
+    private int parallelism = 4;
+
+    /**
+     * Days computed on the very first run, ending with yesterday.
+     */
+    private Period initialBackfill = Period.ofDays(30);
+
+    /**
+     * Delay after startup before missed days up to yesterday are computed.
+     */
+    private Duration startupDelay = Duration.ofMinutes(1);
+
+    /**
+     * Maximum wait for the exchange rate of a symbol.
+     */
+    private Duration rateTimeout = Duration.ofSeconds(5);
+
+    /**
+     * Range returned when the request does not give a start date.
+     */
+    private Period defaultRange = Period.ofYears(1);
+}
@@ -0,0 +1,37 @@
+package com.actio.actio_api.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for the in-memory portfolio snapshots backing the wallet.
+ *
+ * Properties are bound from the "wallet.snapshot" prefix. A snapshot is built on the first
+ * wallet request of an account and then kept up to date by trades and quote updates, until
+ * it has not been read for {@code expire-after-access} or is evicted to keep at most
+ * {@code maximum-size} accounts in memory.
+ *
+ * Example:
+ * <pre>
+ * wallet.snapshot.maximum-size=10000
+ * wallet.snapshot.expire-after-access=PT30M
+ * </pre>
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "wallet.snapshot")
+public class PortfolioSnapshotProperties {
+
+    /**
+     * Maximum number of accounts kept in memory. Least recently used entries are evicted first.
+     */
+    private long maximumSize = 10_000;
+
+    /**
+     * Time after the last read of a snapshot when it is dropped.
+     */
+    private Duration expireAfterAccess = Duration.ofMinutes(30);
+}
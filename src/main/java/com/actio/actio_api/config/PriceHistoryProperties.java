@@ -0,0 +1,79 @@
+package com.actio.actio_api.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.time.Period;
+
+/**
+ * Configuration properties for the daily price history.
+ *
+ * Properties are bound from the "price.history" prefix, for example:
+ * <pre>
+ * price.history.ingest-enabled=true
+ * price.history.ingest-check-interval=PT15M
+ * price.history.max-age=PT12H
+ * price.history.reserved-permits=1
+ * price.history.default-range=P1Y
+ * price.history.max-response-size=4MB
+ * price.history.unknown-ttl=PT10M
+ * </pre>
+ *
+ * Like the quote warmer, background ingestion only spends upstream calls that are
+ * available right away, minus the reserved permits.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "price.history")
+public class PriceHistoryProperties {
+
+    /**
+     * Whether the history of held and recently requested symbols is ingested in the background.
+     */
+    private boolean ingestEnabled = true;
+
+    /**
+     * Delay between two checks for symbols whose history is due for ingestion.
+     */
+    private Duration ingestCheckInterval = Duration.ofMinutes(15);
+
+    /**
+     * How long an ingested history is considered current.
+     */
+    private Duration maxAge = Duration.ofHours(12);
+
+    /**
+     * Upstream calls left untouched in each check for user requests.
+     */
+    private int reservedPermits = 1;
+
+    /**
+     * Calendar days covered by the compact upstream series (its latest 100 trading days).
+     * Histories missing more days than this are ingested with the full series.
+     */
+    private int compactDays = 140;
+
+    /**
+     * Range returned when the request does not give a start date.
+     */
+    private Period defaultRange = Period.ofYears(1);
+
+    /**
+     * Maximum size of a daily series response. A full series spans decades of bars and is
+     * far larger than the responses allowed by {@code alphavantage.http.max-in-memory-size}.
+     */
+    private DataSize maxResponseSize = DataSize.ofMegabytes(4);
+
+    /**
+     * How long a symbol without a stock row is answered as unknown without querying the database.
+     */
+    private Duration unknownTtl = Duration.ofMinutes(10);
+
+    /**
+     * Maximum number of unknown symbols remembered.
+     */
+    private long unknownMaximumSize = 10_000;
+}
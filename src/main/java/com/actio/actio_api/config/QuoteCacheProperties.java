@@ -0,0 +1,77 @@
+package com.actio.actio_api.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Configuration properties for the per-symbol stock quote cache.
+ *
+ * Properties are bound from the "quote.cache" prefix, for example:
+ * <pre>
+ * quote.cache.maximum-size=1000
+ * quote.cache.default-ttl=PT1M
+ * quote.cache.max-stale=PT1H
+ * quote.cache.ttl-by-suffix.LS=PT5M
+ * </pre>
+ *
+ * The TTL of a symbol is resolved from its exchange suffix (the text after the last dot,
+ * e.g. "LS" for "NOS.LS"). Symbols without a configured suffix use the default TTL.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "quote.cache")
+public class QuoteCacheProperties {
+
+    /**
+     * Maximum number of symbols kept in memory. Least recently used entries are evicted first.
+     */
+    private long maximumSize = 1_000;
+
+    /**
+     * Freshness window for symbols whose exchange suffix has no specific TTL.
+     */
+    private Duration defaultTtl = Duration.ofMinutes(1);
+
+    /**
+     * How long an entry may still be served after its TTL has elapsed, while a refresh runs
+     * in the background. Once this window is over the entry is evicted.
+     */
+    private Duration maxStale = Duration.ofHours(1);
+
+    /**
+     * Freshness window per exchange suffix (e.g. "LS", "PA", "SA").
+     */
+    private Map<String, Duration> ttlBySuffix = new HashMap<>();
+
+    /**
+     * Resolves the freshness window for the given symbol based on its exchange suffix.
+     *
+     * @param symbol the stock ticker symbol (e.g. "NOS.LS")
+     * @return the configured TTL for the symbol's exchange, or the default TTL
+     */
+    public Duration ttlFor(String symbol) {
+        int dot = symbol.lastIndexOf('.');
+        if (dot < 0) {
+            return defaultTtl;
+        }
+        String suffix = symbol.substring(dot + 1);
+        return ttlBySuffix.entrySet().stream()
+                .filter(entry -> entry.getKey().equalsIgnoreCase(suffix))
+                .map(Map.Entry::getValue)
+                .findFirst()
+                .orElse(defaultTtl);
+    }
+
+    /**
+     * Returns the longest TTL configured, used to size the hard expiry of cache entries.
+     */
+    public Duration longestTtl() {
+        return ttlBySuffix.values().stream()
+                .reduce(defaultTtl, (a, b) -> a.compareTo(b) >= 0 ? a : b);
+    }
+}
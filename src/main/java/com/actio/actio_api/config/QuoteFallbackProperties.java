@@ -0,0 +1,43 @@
+package com.actio.actio_api.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Configuration properties for the fallback quote store.
+ *
+ * Properties are bound from the "quote.fallback" prefix, for example:
+ * <pre>
+ * quote.fallback.resource=mock/mock-stock-responses.json
+ * quote.fallback.files=/etc/actio/fallback-quotes.json
+ * quote.fallback.reload-interval=PT30S
+ * </pre>
+ *
+ * Every source uses the format of the Alpha Vantage GLOBAL_QUOTE response, wrapped in a JSON
+ * array. Entries of external files override the bundled ones; later files override earlier ones.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "quote.fallback")
+public class QuoteFallbackProperties {
+
+    /**
+     * Classpath resource with the bundled fallback quotes.
+     */
+    private String resource = "mock/mock-stock-responses.json";
+
+    /**
+     * Optional external files with additional or overriding fallback quotes.
+     */
+    private List<String> files = new ArrayList<>();
+
+    /**
+     * Interval of the check reloading the store when one of its sources has changed.
+     */
+    private Duration reloadInterval = Duration.ofSeconds(30);
+}
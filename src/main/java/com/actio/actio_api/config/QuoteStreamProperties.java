@@ -0,0 +1,38 @@
+package com.actio.actio_api.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for the streaming quote endpoint.
+ *
+ * Properties are bound from the "quote.stream" prefix, for example:
+ * <pre>
+ * quote.stream.max-symbols-per-connection=20
+ * quote.stream.refresh-interval=PT15S
+ * quote.stream.heartbeat-interval=PT15S
+ * </pre>
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "quote.stream")
+public class QuoteStreamProperties {
+
+    /**
+     * Maximum number of symbols a single stream connection may subscribe to.
+     */
+    private int maxSymbolsPerConnection = 20;
+
+    /**
+     * Interval of the check refreshing stale quotes of subscribed symbols.
+     */
+    private Duration refreshInterval = Duration.ofSeconds(15);
+
+    /**
+     * Interval of the comment events keeping idle connections open through proxies.
+     */
+    private Duration heartbeatInterval = Duration.ofSeconds(15);
+}
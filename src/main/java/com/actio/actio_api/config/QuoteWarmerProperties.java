@@ -0,0 +1,57 @@
+package com.actio.actio_api.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for the background quote warmer.
+ *
+ * Properties are bound from the "quote.warmer" prefix, for example:
+ * <pre>
+ * quote.warmer.enabled=true
+ * quote.warmer.interval=PT1M
+ * quote.warmer.refresh-ahead=PT30S
+ * quote.warmer.reserved-permits=1
+ * </pre>
+ *
+ * The warmer only spends upstream calls that are available right away, minus the reserved
+ * permits, so that warming never delays trade-time or wallet requests.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "quote.warmer")
+public class QuoteWarmerProperties {
+
+    /**
+     * Whether held symbols are refreshed in the background.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Delay between the end of a warming run and the start of the next one.
+     */
+    private Duration interval = Duration.ofMinutes(1);
+
+    /**
+     * How long before the end of its TTL a cached quote is already refreshed.
+     */
+    private Duration refreshAhead = Duration.ofSeconds(30);
+
+    /**
+     * Upstream calls left untouched in each run for user requests.
+     */
+    private int reservedPermits = 1;
+
+    /**
+     * Maximum number of warming calls in progress at the same time.
+     */
+    private int maxConcurrency = 2;
+
+    /**
+     * Maximum time a single warming run may take.
+     */
+    private Duration runTimeout = Duration.ofSeconds(30);
+}
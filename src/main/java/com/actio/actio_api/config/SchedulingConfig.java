@@ -0,0 +1,13 @@
+package com.actio.actio_api.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Configuration class enabling Spring's scheduled task execution,
+ * used by background jobs such as cache refresh-ahead.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -0,0 +1,55 @@
+package com.actio.actio_api.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Configuration properties for the validation of ticker symbols.
+ *
+ * Properties are bound from the "quote.symbols" prefix, for example:
+ * <pre>
+ * quote.symbols.pattern=[A-Z0-9][A-Z0-9-]*(\\.[A-Z]{1,4})?
+ * quote.symbols.max-length=10
+ * quote.symbols.allow-list=NOS.LS,BCP.LS,AIR.PA
+ * quote.symbols.unknown-ttl=PT1H
+ * </pre>
+ *
+ * Symbols are checked upper-case. When the allow-list is empty, every symbol matching the
+ * pattern and the maximum length is accepted.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "quote.symbols")
+public class SymbolValidationProperties {
+
+    /**
+     * Regular expression a symbol must fully match: a ticker, optionally followed by a dot
+     * and an exchange suffix.
+     */
+    private String pattern = "[A-Z0-9][A-Z0-9-]*(\\.[A-Z]{1,4})?";
+
+    /**
+     * Maximum length of a symbol, bounded by the stock_name column.
+     */
+    private int maxLength = 10;
+
+    /**
+     * Symbols accepted exclusively, or empty to accept any symbol matching the pattern.
+     */
+    private Set<String> allowList = new HashSet<>();
+
+    /**
+     * How long a symbol reported as unknown by the upstream is rejected without asking again.
+     */
+    private Duration unknownTtl = Duration.ofHours(1);
+
+    /**
+     * Maximum number of unknown symbols remembered.
+     */
+    private long unknownMaximumSize = 10_000;
+}
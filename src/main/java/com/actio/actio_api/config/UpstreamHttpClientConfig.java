@@ -0,0 +1,86 @@
+package com.actio.actio_api.config;
+
+import com.actio.actio_api.service.UpstreamConnectionPoolMonitor;
+import io.netty.channel.ChannelOption;
+import io.netty.handler.timeout.ReadTimeoutHandler;
+import io.netty.handler.timeout.WriteTimeoutHandler;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Configuration class registering the shared WebClient used for every Alpha Vantage call.
+ *
+ * The client uses a bounded pool of keep-alive connections, connect/read/write/response
+ * timeouts and a limit on the size of buffered response bodies, all configurable through
+ * {@link UpstreamHttpClientProperties}. Pool usage is reported to the
+ * {@link UpstreamConnectionPoolMonitor}.
+ *
+ * Caches used by the quote pipeline are owned by their services (see QuoteCacheService
+ * and CurrencyCacheService), since they need refresh behavior that Spring's cache
+ * abstraction does not provide.
+ */
+@Configuration
+public class UpstreamHttpClientConfig {
+
+    /**
+     * Registers the connection pool of the upstream HTTP client. Disposed on shutdown,
+     * which closes all pooled connections.
+     *
+     * @param properties pool settings
+     * @param poolMonitor registrar receiving the pool metrics
+     * @return the connection provider
+     */
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider upstreamConnectionProvider(UpstreamHttpClientProperties properties,
+                                                         UpstreamConnectionPoolMonitor poolMonitor) {
+        return ConnectionProvider.builder("alphavantage")
+                .maxConnections(properties.getMaxConnections())
+                .pendingAcquireMaxCount(properties.getPendingAcquireMaxCount())
+                .pendingAcquireTimeout(properties.getPendingAcquireTimeout())
+                .maxIdleTime(properties.getMaxIdleTime())
+                .maxLifeTime(properties.getMaxLifeTime())
+                .evictInBackground(properties.getEvictionInterval())
+                .lifo()
+                .metrics(true, () -> poolMonitor)
+                .build();
+    }
+
+    /**
+     * Registers the WebClient bean used by every service calling Alpha Vantage.
+     *
+     * Read and write timeout handlers are attached per request, since Reactor Netty removes
+     * them when a connection returns to the pool; idle pooled connections are governed by
+     * the pool's idle time instead.
+     *
+     * @param connectionProvider the pooled connection provider
+     * @param properties timeout and buffering settings
+     * @param baseUrl base URL of the Alpha Vantage API
+     * @return a WebClient with the Alpha Vantage base URL
+     */
+    @Bean
+    public WebClient alphaVantageWebClient(ConnectionProvider connectionProvider,
+                                           UpstreamHttpClientProperties properties,
+                                           @Value("${alphavantage.base-url:https://www.alphavantage.co}") String baseUrl) {
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+                .keepAlive(true)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) properties.getConnectTimeout().toMillis())
+                .option(ChannelOption.SO_KEEPALIVE, true)
+                .responseTimeout(properties.getResponseTimeout())
+                .doOnRequest((request, connection) -> connection
+                        .addHandlerLast(new ReadTimeoutHandler(properties.getReadTimeout().toMillis(), TimeUnit.MILLISECONDS))
+                        .addHandlerLast(new WriteTimeoutHandler(properties.getWriteTimeout().toMillis(), TimeUnit.MILLISECONDS)));
+
+        return WebClient.builder()
+                .baseUrl(baseUrl)
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize((int) properties.getMaxInMemorySize().toBytes()))
+                .build();
+    }
+}
@@ -0,0 +1,83 @@
+package com.actio.actio_api.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for the HTTP client used to call Alpha Vantage.
+ *
+ * Properties are bound from the "alphavantage.http" prefix, for example:
+ * <pre>
+ * alphavantage.http.max-connections=16
+ * alphavantage.http.connect-timeout=PT2S
+ * alphavantage.http.response-timeout=PT5S
+ * alphavantage.http.max-in-memory-size=256KB
+ * </pre>
+ *
+ * Connections are kept alive and reused from a bounded pool. Idle connections are closed
+ * after {@code max-idle-time}, before the upstream or an intermediate proxy drops them.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "alphavantage.http")
+public class UpstreamHttpClientProperties {
+
+    /**
+     * Maximum number of open connections to the upstream.
+     */
+    private int maxConnections = 16;
+
+    /**
+     * Maximum number of requests waiting for a free connection when the pool is exhausted.
+     */
+    private int pendingAcquireMaxCount = 64;
+
+    /**
+     * Maximum time a request waits for a free connection.
+     */
+    private Duration pendingAcquireTimeout = Duration.ofSeconds(5);
+
+    /**
+     * Time after which an idle connection is closed.
+     */
+    private Duration maxIdleTime = Duration.ofSeconds(30);
+
+    /**
+     * Time after which a connection is closed once released, however active it has been.
+     */
+    private Duration maxLifeTime = Duration.ofMinutes(5);
+
+    /**
+     * Interval of the background check closing idle and expired connections.
+     */
+    private Duration evictionInterval = Duration.ofSeconds(30);
+
+    /**
+     * Maximum time to establish a TCP connection.
+     */
+    private Duration connectTimeout = Duration.ofSeconds(2);
+
+    /**
+     * Maximum time between the request being sent and the full response being received.
+     */
+    private Duration responseTimeout = Duration.ofSeconds(5);
+
+    /**
+     * Maximum time without reading data on an open connection.
+     */
+    private Duration readTimeout = Duration.ofSeconds(5);
+
+    /**
+     * Maximum time without writing data on an open connection.
+     */
+    private Duration writeTimeout = Duration.ofSeconds(5);
+
+    /**
+     * Maximum size of a response body buffered in memory.
+     */
+    private DataSize maxInMemorySize = DataSize.ofKilobytes(256);
+}
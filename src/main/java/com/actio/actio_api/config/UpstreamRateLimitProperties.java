@@ -0,0 +1,39 @@
+package com.actio.actio_api.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for the Alpha Vantage request quota.
+ *
+ * Properties are bound from the "alphavantage.rate-limit" prefix. The defaults match the
+ * Alpha Vantage free tier (5 requests per minute, 25 requests per day).
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "alphavantage.rate-limit")
+public class UpstreamRateLimitProperties {
+
+    /**
+     * Maximum number of upstream calls per minute, refilled continuously.
+     */
+    private int requestsPerMinute = 5;
+
+    /**
+     * Maximum number of upstream calls per calendar day (UTC).
+     */
+    private int requestsPerDay = 25;
+
+    /**
+     * Maximum number of calls waiting for a free slot. Further calls are rejected immediately.
+     */
+    private int maxQueueSize = 100;
+
+    /**
+     * Maximum time a call may wait for a free slot before it is rejected.
+     */
+    private Duration maxWait = Duration.ofSeconds(10);
+}
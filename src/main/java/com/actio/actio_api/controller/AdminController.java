@@ -0,0 +1,135 @@
+package com.actio.actio_api.controller;
+
+import com.actio.actio_api.model.UpstreamPriority;
+import com.actio.actio_api.model.response.CircuitBreakerStatsResponse;
+import com.actio.actio_api.model.response.ConnectionPoolStatsResponse;
+import com.actio.actio_api.model.response.QuoteCacheStatsResponse;
+import com.actio.actio_api.model.response.QuoteWarmerStatsResponse;
+import com.actio.actio_api.model.response.UpstreamSchedulerStatsResponse;
+import com.actio.actio_api.service.PriceHistoryService;
+import com.actio.actio_api.service.QuoteCacheService;
+import com.actio.actio_api.service.QuoteWarmer;
+import com.actio.actio_api.service.UpstreamCallScheduler;
+import com.actio.actio_api.service.UpstreamCircuitBreaker;
+import com.actio.actio_api.service.UpstreamConnectionPoolMonitor;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * REST controller exposing operational information about the quote pipeline to administrators.
+ *
+ * All endpoints are restricted to users with the ADMIN role.
+ */
+@RestController
+@RequestMapping("/admin")
+@CrossOrigin(origins = "*")
+@RequiredArgsConstructor
+public class AdminController {
+
+    private final QuoteCacheService quoteCacheService;
+    private final UpstreamCallScheduler upstreamCallScheduler;
+    private final QuoteWarmer quoteWarmer;
+    private final UpstreamCircuitBreaker upstreamCircuitBreaker;
+    private final UpstreamConnectionPoolMonitor upstreamConnectionPoolMonitor;
+    private final PriceHistoryService priceHistoryService;
+
+    /**
+     * Retrieves the counters of the per-symbol quote cache.
+     *
+     * @return a ResponseEntity containing cache size, hit, stale hit, miss and refresh counts
+     */
+    @GetMapping("/quote-cache")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<QuoteCacheStatsResponse> getQuoteCacheStats() {
+        return ResponseEntity.ok(quoteCacheService.getStats());
+    }
+
+    /**
+     * Retrieves the state of the Alpha Vantage call scheduler.
+     *
+     * @return a ResponseEntity containing queue depth per priority, quota usage and wait times
+     */
+    @GetMapping("/upstream-scheduler")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<UpstreamSchedulerStatsResponse> getUpstreamSchedulerStats() {
+        return ResponseEntity.ok(upstreamCallScheduler.getStats());
+    }
+
+    /**
+     * Retrieves the warm coverage of held symbols measured by the background quote warmer.
+     *
+     * @return a ResponseEntity containing held and fresh symbol counts, coverage and warming counts
+     */
+    @GetMapping("/quote-warmer")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<QuoteWarmerStatsResponse> getQuoteWarmerStats() {
+        return ResponseEntity.ok(quoteWarmer.getStats());
+    }
+
+    /**
+     * Retrieves the state of the circuit breakers guarding the Alpha Vantage endpoints.
+     *
+     * @return a ResponseEntity containing state, failure and slow call rates and transition counts per endpoint
+     */
+    @GetMapping("/circuit-breakers")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<CircuitBreakerStatsResponse>> getCircuitBreakerStats() {
+        return ResponseEntity.ok(upstreamCircuitBreaker.getStats());
+    }
+
+    /**
+     * Forces the circuit of the given Alpha Vantage endpoint back to closed.
+     *
+     * @param endpoint the Alpha Vantage function name (e.g. "GLOBAL_QUOTE")
+     * @return a ResponseEntity with status 204 (No Content) if successful,
+     *         or 404 (Not Found) if no circuit exists for the endpoint
+     */
+    @PostMapping("/circuit-breakers/{endpoint}/reset")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> resetCircuitBreaker(@PathVariable String endpoint) {
+        try {
+            upstreamCircuitBreaker.reset(endpoint);
+            return ResponseEntity.noContent().build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * Retrieves the state of the Alpha Vantage HTTP connection pool.
+     *
+     * @return a ResponseEntity containing acquired, idle and pending connection counts per remote address
+     */
+    @GetMapping("/upstream-http-pool")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<ConnectionPoolStatsResponse>> getUpstreamHttpPoolStats() {
+        return ResponseEntity.ok(upstreamConnectionPoolMonitor.getStats());
+    }
+
+    /**
+     * Ingests the daily price history of a stock from Alpha Vantage right away.
+     *
+     * @param symbol the stock ticker symbol (e.g. "NOS.LS")
+     * @return a ResponseEntity containing the number of daily bars written,
+     *         404 (Not Found) if the symbol is not a known stock,
+     *         or 502 (Bad Gateway) if the series could not be fetched
+     */
+    @PostMapping("/price-history/{symbol}/ingest")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> ingestPriceHistory(@PathVariable String symbol) {
+        try {
+            Integer stored = priceHistoryService.ingest(symbol, UpstreamPriority.TRADE).block();
+            return ResponseEntity.ok(Map.of("symbol", symbol.toUpperCase(), "storedBars", stored));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.BAD_GATEWAY).body(Map.of("error", "Could not ingest price history", "details", String.valueOf(e.getMessage())));
+        }
+    }
+}
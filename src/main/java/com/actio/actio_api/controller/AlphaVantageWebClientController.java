@@ -1,12 +1,26 @@
 package com.actio.actio_api.controller;
 
+import com.actio.actio_api.config.QuoteStreamProperties;
 import com.actio.actio_api.model.response.GetAlphaVantageStockResponse;
+import com.actio.actio_api.model.response.StockQuoteBatchItemResponse;
+import com.actio.actio_api.model.response.StockQuoteStreamEvent;
+import com.actio.actio_api.model.response.StockSearchItemResponse;
 import com.actio.actio_api.service.AlphaVantageWebClientService;
+import com.actio.actio_api.service.PriceHistoryService;
+import com.actio.actio_api.service.QuoteStreamHub;
+import com.actio.actio_api.service.SymbolSearchIndex;
+import com.actio.actio_api.service.UnknownSymbolException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
 
+import java.time.LocalDate;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -16,7 +30,7 @@ import java.util.Map;
  * from the Alpha Vantage API (via {@link AlphaVantageWebClientService}), and returns
  * the result formatted as JSON.
  *
- * The quotes returned are automatically converted from USD to EUR.
+ * The quotes returned are automatically converted from the stock's trading currency to EUR.
  */
 @RestController
 @RequestMapping("/stocks")
@@ -25,6 +39,10 @@ import java.util.Map;
 public class AlphaVantageWebClientController {
 
     private final AlphaVantageWebClientService service;
+    private final QuoteStreamHub quoteStreamHub;
+    private final PriceHistoryService priceHistoryService;
+    private final QuoteStreamProperties quoteStreamProperties;
+    private final SymbolSearchIndex symbolSearchIndex;
 
     /**
      * Retrieves a stock quote in EUR based on the provided symbol by querying the Alpha Vantage API.
@@ -33,7 +51,8 @@ public class AlphaVantageWebClientController {
      * currency conversion via Alpha Vantage. If the request is successful, it returns a stock quote
      * response wrapped in an HTTP 200 OK.
      *
-     * If the service detects an invalid or unresolvable symbol and throws an IllegalStateException,
+     * If the symbol is malformed or unknown to Alpha Vantage, the response will be a 404 Not Found.
+     * If the stock data cannot be resolved and the service throws an IllegalStateException,
      * the response will be a 400 Bad Request with an explanatory error message.
      *
      * Any other unexpected exceptions result in a 500 Internal Server Error response.
@@ -48,6 +67,10 @@ public class AlphaVantageWebClientController {
             GetAlphaVantageStockResponse quote = service.getStock(symbol).block();
             return ResponseEntity.ok(quote);
 
+        } catch (UnknownSymbolException ex) {
+            return ResponseEntity
+                    .status(HttpStatus.NOT_FOUND)
+                    .body(Map.of("error", "Unknown stock symbol", "details", ex.getMessage()));
         } catch (IllegalStateException ex) {
             return ResponseEntity
                     .status(HttpStatus.BAD_REQUEST)
@@ -59,4 +82,127 @@ public class AlphaVantageWebClientController {
         }
     }
 
+    /**
+     * Retrieves stock quotes in EUR for several symbols in a single request.
+     *
+     * Symbols are given as a comma-separated list (e.g. "/stocks?symbols=NOS.LS,BCP.LS,AIR.PA").
+     * Quotes are resolved concurrently with a bounded fan-out. Symbols that cannot be resolved
+     * are returned with an error marker, while the remaining symbols are still answered.
+     *
+     * If the list is empty or exceeds the configured maximum, the response will be a 400 Bad Request.
+     * Any other unexpected exceptions result in a 500 Internal Server Error response.
+     *
+     * @param symbols the stock symbols to query
+     * @return ResponseEntity containing one entry per distinct symbol on success,
+     *         or an error description with appropriate HTTP status code on failure
+     */
+    @GetMapping(params = "symbols")
+    public ResponseEntity<?> getAlphaVantageStocks(@RequestParam List<String> symbols) {
+        try {
+            List<StockQuoteBatchItemResponse> quotes = service.getStocks(symbols).block();
+            return ResponseEntity.ok(quotes);
+
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity
+                    .status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("error", "Invalid symbols parameter", "details", ex.getMessage()));
+        } catch (Exception ex) {
+            return ResponseEntity
+                    .status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Unexpected error occurred", "details", ex.getMessage()));
+        }
+    }
+
+    /**
+     * Searches known symbols by ticker or company name prefix, for autocomplete.
+     *
+     * Every word of the query must start a word of the ticker or company name
+     * (e.g. "/stocks/search?q=petr" or "/stocks/search?q=banco bra"). Results are served
+     * from an in-memory index, without database or Alpha Vantage access.
+     *
+     * If the query is blank, the response will be a 400 Bad Request.
+     *
+     * @param q the text typed by the user
+     * @param limit the maximum number of results
+     * @return ResponseEntity containing the matching symbols, best matches first
+     */
+    @GetMapping("/search")
+    public ResponseEntity<?> searchStocks(@RequestParam String q, @RequestParam(defaultValue = "10") int limit) {
+        if (q.isBlank()) {
+            return ResponseEntity
+                    .status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("error", "Invalid search query", "details", "Parameter q must not be blank."));
+        }
+        List<StockSearchItemResponse> matches = symbolSearchIndex.search(q, limit);
+        return ResponseEntity.ok(matches);
+    }
+
+    /**
+     * Retrieves the daily price history of a stock, in its trading currency.
+     *
+     * Dates use the ISO format (e.g. "/stocks/NOS.LS/history?from=2025-01-01&to=2025-06-30").
+     * Without "to", the range ends at the last stored day; without "from", it covers the
+     * configured default range before the end. The bars are returned in column form and
+     * are served from memory.
+     *
+     * If "from" is after "to", the response will be a 400 Bad Request. If the symbol is not
+     * a known stock, the response will be a 404 Not Found.
+     *
+     * @param symbol the stock symbol to query
+     * @param from the first day of the range, inclusive
+     * @param to the last day of the range, inclusive
+     * @return ResponseEntity containing the daily bars of the range on success,
+     *         or an error description with appropriate HTTP status code on failure
+     */
+    @GetMapping("/{symbol}/history")
+    public ResponseEntity<?> getStockPriceHistory(@PathVariable String symbol,
+                                                  @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                  @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        try {
+            return priceHistoryService.getHistory(symbol, from, to)
+                    .<ResponseEntity<?>>map(ResponseEntity::ok)
+                    .orElseGet(() -> ResponseEntity
+                            .status(HttpStatus.NOT_FOUND)
+                            .body(Map.of("error", "Unknown stock", "details", symbol)));
+
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity
+                    .status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("error", "Invalid date range", "details", ex.getMessage()));
+        }
+    }
+
+    /**
+     * Streams stock quotes in EUR for several symbols as Server-Sent Events.
+     *
+     * Symbols are given as a comma-separated list (e.g. "/stocks/stream?symbols=NOS.LS,BCP.LS").
+     * The current price of each symbol is sent right after subscribing, followed by a "quote"
+     * event every time a new price is received. All subscribers of a symbol share the same
+     * upstream refreshes. A comment is sent periodically to keep idle connections open.
+     *
+     * If the list is empty or exceeds the configured maximum per connection, the response
+     * will be a 400 Bad Request with a JSON error description.
+     *
+     * @param symbols the stock symbols to follow
+     * @return ResponseEntity containing the event stream on success, or an error description
+     *         with 400 (Bad Request)
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<?> streamAlphaVantageStocks(@RequestParam List<String> symbols) {
+        try {
+            Flux<ServerSentEvent<StockQuoteStreamEvent>> quotes = quoteStreamHub.stream(symbols)
+                    .map(event -> ServerSentEvent.builder(event)
+                            .event("quote")
+                            .build());
+            Flux<ServerSentEvent<StockQuoteStreamEvent>> heartbeats = Flux.interval(quoteStreamProperties.getHeartbeatInterval())
+                    .map(tick -> ServerSentEvent.<StockQuoteStreamEvent>builder().comment("heartbeat").build());
+            return ResponseEntity.ok(Flux.merge(quotes, heartbeats));
+
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity
+                    .status(HttpStatus.BAD_REQUEST)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(Map.of("error", "Invalid symbols", "details", ex.getMessage()));
+        }
+    }
 }
@@ -0,0 +1,42 @@
+package com.actio.actio_api.controller;
+
+import com.actio.actio_api.service.MarketSimulator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+/**
+ * REST controller serving the local market simulator as an Alpha Vantage compatible API.
+ *
+ * Only registered in the "simulator" profile, where {@code alphavantage.base-url} points the
+ * upstream WebClient at {@code /simulator} on this application. No authentication is required,
+ * like the real API.
+ */
+@RestController
+@RequestMapping("/simulator")
+@Profile("simulator")
+@RequiredArgsConstructor
+public class MarketSimulatorController {
+
+    private final MarketSimulator marketSimulator;
+
+    /**
+     * Answers an Alpha Vantage {@code /query} request (GLOBAL_QUOTE or CURRENCY_EXCHANGE_RATE).
+     *
+     * @param params the query parameters, as sent to Alpha Vantage
+     * @return a Mono of the simulated response, emitted after the simulated latency
+     */
+    @GetMapping(value = "/query", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<String>> query(@RequestParam Map<String, String> params) {
+        return marketSimulator.query(params)
+                .map(response -> ResponseEntity.status(response.getStatus()).body(response.getBody()));
+    }
+}
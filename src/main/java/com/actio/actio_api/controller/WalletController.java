@@ -1,19 +1,29 @@
 package com.actio.actio_api.controller;
 
 import com.actio.actio_api.model.ActioUser;
+import com.actio.actio_api.model.LotMethod;
+import com.actio.actio_api.model.response.PnlResponse;
 import com.actio.actio_api.model.response.StockQuantityResponse;
 import com.actio.actio_api.model.response.WalletResponse;
+import com.actio.actio_api.model.response.WalletSummaryResponse;
 import com.actio.actio_api.service.ActioUserService;
+import com.actio.actio_api.service.PnlService;
+import com.actio.actio_api.service.PortfolioNavService;
 import com.actio.actio_api.service.WalletService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 
 /**
  * REST controller responsible for handling wallet-related operations for authenticated users.
@@ -32,6 +42,8 @@ public class WalletController {
 
     private final WalletService walletService;
     private final ActioUserService  actioUserService;
+    private final PnlService pnlService;
+    private final PortfolioNavService portfolioNavService;
 
     /**
      * Retrieves user wallet (list of stock holdings).
@@ -48,6 +60,51 @@ public class WalletController {
 
     }
 
+    /**
+     * Retrieves the invested and market value totals of the user wallet.
+     * Accessible to users with CLIENT role.
+     */
+    @PreAuthorize("hasRole('CLIENT')")
+    @GetMapping("/summary")
+    public ResponseEntity<WalletSummaryResponse> getWalletSummary() {
+        ActioUser user = actioUserService.getAuthenticatedUser();
+        return ResponseEntity.ok(walletService.getWalletSummaryForUser(user));
+    }
+
+    /**
+     * Retrieves the unrealized and realized profit and loss of the user wallet, per stock
+     * and in total. Accessible to users with CLIENT role.
+     *
+     * @param method lot method matching sales with purchases, FIFO or AVERAGE_COST
+     */
+    @PreAuthorize("hasRole('CLIENT')")
+    @GetMapping("/pnl")
+    public ResponseEntity<PnlResponse> getPnl(@RequestParam(defaultValue = "FIFO") LotMethod method) {
+        ActioUser user = actioUserService.getAuthenticatedUser();
+        return ResponseEntity.ok(pnlService.getPnlForUser(user, method));
+    }
+
+    /**
+     * Retrieves the daily net asset value of the user account between two dates, both
+     * inclusive. Accessible to users with CLIENT role.
+     *
+     * @param from the first day of the range; defaults to one year before {@code to}
+     * @param to the last day of the range; defaults to today
+     */
+    @PreAuthorize("hasRole('CLIENT')")
+    @GetMapping("/nav")
+    public ResponseEntity<?> getNav(@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                    @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        ActioUser user = actioUserService.getAuthenticatedUser();
+        try {
+            return ResponseEntity.ok(portfolioNavService.getNavForUser(user, from, to));
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity
+                    .status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("error", "Invalid date range", "details", ex.getMessage()));
+        }
+    }
+
     /**
      * Retrieves the quantity of a specific stock held by the authenticated user.
      *
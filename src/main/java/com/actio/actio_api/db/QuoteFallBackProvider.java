@@ -1,85 +1,217 @@
 package com.actio.actio_api.db;
 
+import com.actio.actio_api.config.QuoteFallbackProperties;
 import com.actio.actio_api.model.webclient.GlobalQuote;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.annotation.PostConstruct;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
 
-
+/**
+ * Store of fallback stock quotes, used when neither a cached nor a live quote is available.
+ *
+ * Quotes are read from the bundled JSON resource and from optional external files (see
+ * {@link QuoteFallbackProperties}). Each source is streamed entry by entry, so memory use
+ * while loading does not depend on the size of the file, and the result is published as an
+ * immutable snapshot. Readers never lock and always see either the previous or the new
+ * snapshot in full.
+ *
+ * A scheduled check compares the last-modified time of every source with the one recorded
+ * in the current snapshot and rebuilds the store when one of them has changed. If a source
+ * cannot be read or parsed, the current snapshot is kept.
+ */
+@Slf4j
 @Service
 public class QuoteFallBackProvider {
 
-    private static Map<String, GlobalQuote> quotes;
+    private static final String DEFAULT_SYMBOL = "DEFAULT";
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final QuoteFallbackProperties properties;
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>(new Snapshot(Map.of(), Map.of()));
 
+    public QuoteFallBackProvider(QuoteFallbackProperties properties) {
+        this.properties = properties;
+    }
+
+    /**
+     * Loads the initial snapshot.
+     */
     @PostConstruct
-    public static  void initQuoteFallBackMap() {
-        quotes = new HashMap<>();
-
-        quotes.put("EDP.LS", GlobalQuote.builder().symbol("EDP.LS").open(new BigDecimal("3.92")).high(new BigDecimal("3.98")).low(new BigDecimal("3.90")).price(new BigDecimal("3.94")).volume(new BigInteger("62500")).latestTradingDay("2025-07-18").previousClose(new BigDecimal("3.92")).change(new BigDecimal("0.02")).changePercent("0.51%").build());
-        quotes.put("PETR4.SA", GlobalQuote.builder().symbol("PETR4.SA").open(new BigDecimal("31.10")).high(new BigDecimal("32.00")).low(new BigDecimal("30.90")).price(new BigDecimal("31.50")).volume(new BigInteger("2350000")).latestTradingDay("2025-07-18").previousClose(new BigDecimal("31.10")).change(new BigDecimal("0.40")).changePercent("1.29%").build());
-        quotes.put("AIR.PA", GlobalQuote.builder().symbol("AIR.PA").open(new BigDecimal("12.15")).high(new BigDecimal("12.45")).low(new BigDecimal("12.00")).price(new BigDecimal("12.30")).volume(new BigInteger("72000")).latestTradingDay("2025-07-18").previousClose(new BigDecimal("12.15")).change(new BigDecimal("0.15")).changePercent("1.23%").build());
-        quotes.put("OR.PA", GlobalQuote.builder().symbol("OR.PA").open(new BigDecimal("361.20")).high(new BigDecimal("364.50")).low(new BigDecimal("359.00")).price(new BigDecimal("362.80")).volume(new BigInteger("89000")).latestTradingDay("2025-07-18").previousClose(new BigDecimal("361.20")).change(new BigDecimal("1.60")).changePercent("0.44%").build());
-        quotes.put("GALP.LS", GlobalQuote.builder().symbol("GALP.LS").open(new BigDecimal("15.70")).high(new BigDecimal("15.95")).low(new BigDecimal("15.60")).price(new BigDecimal("15.85")).volume(new BigInteger("54000")).latestTradingDay("2025-07-18").previousClose(new BigDecimal("15.70")).change(new BigDecimal("0.15")).changePercent("0.96%").build());
-        quotes.put("NOS.LS", GlobalQuote.builder().symbol("NOS.LS").open(new BigDecimal("4.32")).high(new BigDecimal("4.37")).low(new BigDecimal("4.30")).price(new BigDecimal("4.34")).volume(new BigInteger("32000")).latestTradingDay("2025-07-18").previousClose(new BigDecimal("4.32")).change(new BigDecimal("0.02")).changePercent("0.46%").build());
-        quotes.put("BCP.LS", GlobalQuote.builder().symbol("BCP.LS").open(new BigDecimal("0.36")).high(new BigDecimal("0.37")).low(new BigDecimal("0.35")).price(new BigDecimal("0.36")).volume(new BigInteger("150000")).latestTradingDay("2025-07-18").previousClose(new BigDecimal("0.36")).change(new BigDecimal("0.00")).changePercent("0.00%").build());
-        quotes.put("CTT.LS", GlobalQuote.builder().symbol("CTT.LS").open(new BigDecimal("3.74")).high(new BigDecimal("3.80")).low(new BigDecimal("3.72")).price(new BigDecimal("3.78")).volume(new BigInteger("49000")).latestTradingDay("2025-07-18").previousClose(new BigDecimal("3.74")).change(new BigDecimal("0.04")).changePercent("1.07%").build());
-        quotes.put("REN.LS", GlobalQuote.builder().symbol("REN.LS").open(new BigDecimal("2.86")).high(new BigDecimal("2.91")).low(new BigDecimal("2.84")).price(new BigDecimal("2.88")).volume(new BigInteger("38000")).latestTradingDay("2025-07-18").previousClose(new BigDecimal("2.86")).change(new BigDecimal("0.02")).changePercent("0.70%").build());
-        quotes.put("ALTR.LS", GlobalQuote.builder().symbol("ALTR.LS").open(new BigDecimal("2.88")).high(new BigDecimal("2.92")).low(new BigDecimal("2.87")).price(new BigDecimal("2.90")).volume(new BigInteger("12000")).latestTradingDay("2025-07-18").previousClose(new BigDecimal("2.88")).change(new BigDecimal("0.02")).changePercent("0.69%").build());
-
-        quotes.put("SON.LS", GlobalQuote.builder().symbol("SON.LS").open(new BigDecimal("4.52")).high(new BigDecimal("4.58")).low(new BigDecimal("4.50")).price(new BigDecimal("4.55")).volume(new BigInteger("21500")).latestTradingDay("2025-07-18").previousClose(new BigDecimal("4.52")).change(new BigDecimal("0.03")).changePercent("0.66%").build());
-        quotes.put("NVG.LS", GlobalQuote.builder().symbol("NVG.LS").open(new BigDecimal("1.70")).high(new BigDecimal("1.74")).low(new BigDecimal("1.68")).price(new BigDecimal("1.72")).volume(new BigInteger("11000")).latestTradingDay("2025-07-18").previousClose(new BigDecimal("1.70")).change(new BigDecimal("0.02")).changePercent("1.18%").build());
-        quotes.put("PHR.LS", GlobalQuote.builder().symbol("PHR.LS").open(new BigDecimal("3.12")).high(new BigDecimal("3.15")).low(new BigDecimal("3.10")).price(new BigDecimal("3.13")).volume(new BigInteger("9000")).latestTradingDay("2025-07-18").previousClose(new BigDecimal("3.12")).change(new BigDecimal("0.01")).changePercent("0.32%").build());
-        quotes.put("IBA.LS", GlobalQuote.builder().symbol("IBA.LS").open(new BigDecimal("1.50")).high(new BigDecimal("1.53")).low(new BigDecimal("1.48")).price(new BigDecimal("1.52")).volume(new BigInteger("14000")).latestTradingDay("2025-07-18").previousClose(new BigDecimal("1.50")).change(new BigDecimal("0.02")).changePercent("1.33%").build());
-        quotes.put("COR.LS", GlobalQuote.builder().symbol("COR.LS").open(new BigDecimal("5.45")).high(new BigDecimal("5.52")).low(new BigDecimal("5.40")).price(new BigDecimal("5.48")).volume(new BigInteger("13000")).latestTradingDay("2025-07-18").previousClose(new BigDecimal("5.45")).change(new BigDecimal("0.03")).changePercent("0.55%").build());
-        quotes.put("FCP.LS", GlobalQuote.builder().symbol("FCP.LS").open(new BigDecimal("7.30")).high(new BigDecimal("7.38")).low(new BigDecimal("7.28")).price(new BigDecimal("7.35")).volume(new BigInteger("8000")).latestTradingDay("2025-07-18").previousClose(new BigDecimal("7.30")).change(new BigDecimal("0.05")).changePercent("0.68%").build());
-        quotes.put("IMP.LS", GlobalQuote.builder().symbol("IMP.LS").open(new BigDecimal("5.15")).high(new BigDecimal("5.20")).low(new BigDecimal("5.10")).price(new BigDecimal("5.18")).volume(new BigInteger("7000")).latestTradingDay("2025-07-18").previousClose(new BigDecimal("5.15")).change(new BigDecimal("0.03")).changePercent("0.58%").build());
-        quotes.put("SEM.LS", GlobalQuote.builder().symbol("SEM.LS").open(new BigDecimal("1.98")).high(new BigDecimal("2.00")).low(new BigDecimal("1.95")).price(new BigDecimal("1.99")).volume(new BigInteger("10000")).latestTradingDay("2025-07-18").previousClose(new BigDecimal("1.98")).change(new BigDecimal("0.01")).changePercent("0.51%").build());
-        quotes.put("LIS.LS", GlobalQuote.builder().symbol("LIS.LS").open(new BigDecimal("1.75")).high(new BigDecimal("1.79")).low(new BigDecimal("1.73")).price(new BigDecimal("1.77")).volume(new BigInteger("12500")).latestTradingDay("2025-07-18").previousClose(new BigDecimal("1.75")).change(new BigDecimal("0.02")).changePercent("1.14%").build());
-        quotes.put("TAP.LS", GlobalQuote.builder().symbol("TAP.LS").open(new BigDecimal("1.15")).high(new BigDecimal("1.18")).low(new BigDecimal("1.14")).price(new BigDecimal("1.16")).volume(new BigInteger("35000")).latestTradingDay("2025-07-18").previousClose(new BigDecimal("1.15")).change(new BigDecimal("0.01")).changePercent("0.87%").build());
-
-        quotes.put("JMT.LS", GlobalQuote.builder().symbol("JMT.LS").open(new BigDecimal("3.45")).high(new BigDecimal("3.50")).low(new BigDecimal("3.42")).price(new BigDecimal("3.47")).volume(new BigInteger("18000")).latestTradingDay("2025-07-18").previousClose(new BigDecimal("3.45")).change(new BigDecimal("0.02")).changePercent("0.58%").build());
-        quotes.put("SNC.LS", GlobalQuote.builder().symbol("SNC.LS").open(new BigDecimal("3.20")).high(new BigDecimal("3.25")).low(new BigDecimal("3.18")).price(new BigDecimal("3.22")).volume(new BigInteger("14000")).latestTradingDay("2025-07-18").previousClose(new BigDecimal("3.20")).change(new BigDecimal("0.02")).changePercent("0.62%").build());
-        quotes.put("VAA.LS", GlobalQuote.builder().symbol("VAA.LS").open(new BigDecimal("4.10")).high(new BigDecimal("4.15")).low(new BigDecimal("4.08")).price(new BigDecimal("4.12")).volume(new BigInteger("13000")).latestTradingDay("2025-07-18").previousClose(new BigDecimal("4.10")).change(new BigDecimal("0.02")).changePercent("0.49%").build());
-        quotes.put("BNP.PA", GlobalQuote.builder().symbol("BNP.PA").open(new BigDecimal("62.00")).high(new BigDecimal("62.50")).low(new BigDecimal("61.80")).price(new BigDecimal("62.30")).volume(new BigInteger("78000")).latestTradingDay("2025-07-18").previousClose(new BigDecimal("62.00")).change(new BigDecimal("0.30")).changePercent("0.48%").build());
-        quotes.put("SAN.PA", GlobalQuote.builder().symbol("SAN.PA").open(new BigDecimal("3.65")).high(new BigDecimal("3.68")).low(new BigDecimal("3.63")).price(new BigDecimal("3.66")).volume(new BigInteger("95000")).latestTradingDay("2025-07-18").previousClose(new BigDecimal("3.65")).change(new BigDecimal("0.01")).changePercent("0.27%").build());
-        quotes.put("SU.PA", GlobalQuote.builder().symbol("SU.PA").open(new BigDecimal("70.00")).high(new BigDecimal("70.50")).low(new BigDecimal("69.80")).price(new BigDecimal("70.10")).volume(new BigInteger("45000")).latestTradingDay("2025-07-18").previousClose(new BigDecimal("70.00")).change(new BigDecimal("0.10")).changePercent("0.14%").build());
-        quotes.put("DG.PA", GlobalQuote.builder().symbol("DG.PA").open(new BigDecimal("52.00")).high(new BigDecimal("52.40")).low(new BigDecimal("51.80")).price(new BigDecimal("52.10")).volume(new BigInteger("22000")).latestTradingDay("2025-07-18").previousClose(new BigDecimal("52.00")).change(new BigDecimal("0.10")).changePercent("0.19%").build());
-        quotes.put("MC.PA", GlobalQuote.builder().symbol("MC.PA").open(new BigDecimal("760.00")).high(new BigDecimal("765.00")).low(new BigDecimal("758.00")).price(new BigDecimal("762.00")).volume(new BigInteger("187000")).latestTradingDay("2025-07-18").previousClose(new BigDecimal("760.00")).change(new BigDecimal("2.00")).changePercent("0.26%").build());
-        quotes.put("CA.PA", GlobalQuote.builder().symbol("CA.PA").open(new BigDecimal("95.20")).high(new BigDecimal("96.00")).low(new BigDecimal("94.80")).price(new BigDecimal("95.50")).volume(new BigInteger("65000")).latestTradingDay("2025-07-18").previousClose(new BigDecimal("95.20")).change(new BigDecimal("0.30")).changePercent("0.31%").build());
-        quotes.put("VIE.PA", GlobalQuote.builder().symbol("VIE.PA").open(new BigDecimal("24.50")).high(new BigDecimal("24.80")).low(new BigDecimal("24.40")).price(new BigDecimal("24.65")).volume(new BigInteger("49000")).latestTradingDay("2025-07-18").previousClose(new BigDecimal("24.50")).change(new BigDecimal("0.15")).changePercent("0.61%").build());
-
-        quotes.put("RNO.PA", GlobalQuote.builder().symbol("RNO.PA").open(new BigDecimal("45.30")).high(new BigDecimal("45.70")).low(new BigDecimal("45.10")).price(new BigDecimal("45.50")).volume(new BigInteger("83000")).latestTradingDay("2025-07-18").previousClose(new BigDecimal("45.30")).change(new BigDecimal("0.20")).changePercent("0.44%").build());
-        quotes.put("HO.PA", GlobalQuote.builder().symbol("HO.PA").open(new BigDecimal("8.90")).high(new BigDecimal("9.00")).low(new BigDecimal("8.85")).price(new BigDecimal("8.95")).volume(new BigInteger("12000")).latestTradingDay("2025-07-18").previousClose(new BigDecimal("8.90")).change(new BigDecimal("0.05")).changePercent("0.56%").build());
-        quotes.put("KER.PA", GlobalQuote.builder().symbol("KER.PA").open(new BigDecimal("21.50")).high(new BigDecimal("21.80")).low(new BigDecimal("21.40")).price(new BigDecimal("21.60")).volume(new BigInteger("17000")).latestTradingDay("2025-07-18").previousClose(new BigDecimal("21.50")).change(new BigDecimal("0.10")).changePercent("0.47%").build());
-        quotes.put("ATO.PA", GlobalQuote.builder().symbol("ATO.PA").open(new BigDecimal("80.00")).high(new BigDecimal("80.50")).low(new BigDecimal("79.80")).price(new BigDecimal("80.30")).volume(new BigInteger("29000")).latestTradingDay("2025-07-18").previousClose(new BigDecimal("80.00")).change(new BigDecimal("0.30")).changePercent("0.38%").build());
-        quotes.put("PUB.PA", GlobalQuote.builder().symbol("PUB.PA").open(new BigDecimal("43.20")).high(new BigDecimal("43.60")).low(new BigDecimal("43.00")).price(new BigDecimal("43.40")).volume(new BigInteger("21000")).latestTradingDay("2025-07-18").previousClose(new BigDecimal("43.20")).change(new BigDecimal("0.20")).changePercent("0.46%").build());
-        quotes.put("EN.PA", GlobalQuote.builder().symbol("EN.PA").open(new BigDecimal("18.40")).high(new BigDecimal("18.60")).low(new BigDecimal("18.30")).price(new BigDecimal("18.50")).volume(new BigInteger("36000")).latestTradingDay("2025-07-18").previousClose(new BigDecimal("18.40")).change(new BigDecimal("0.10")).changePercent("0.54%").build());
-        quotes.put("ACA.PA", GlobalQuote.builder().symbol("ACA.PA").open(new BigDecimal("23.80")).high(new BigDecimal("24.10")).low(new BigDecimal("23.70")).price(new BigDecimal("23.95")).volume(new BigInteger("20000")).latestTradingDay("2025-07-18").previousClose(new BigDecimal("23.80")).change(new BigDecimal("0.15")).changePercent("0.63%").build());
-        quotes.put("ML.PA", GlobalQuote.builder().symbol("ML.PA").open(new BigDecimal("7.25")).high(new BigDecimal("7.35")).low(new BigDecimal("7.20")).price(new BigDecimal("7.30")).volume(new BigInteger("15000")).latestTradingDay("2025-07-18").previousClose(new BigDecimal("7.25")).change(new BigDecimal("0.05")).changePercent("0.69%").build());
-        quotes.put("UG.PA", GlobalQuote.builder().symbol("UG.PA").open(new BigDecimal("11.60")).high(new BigDecimal("11.75")).low(new BigDecimal("11.55")).price(new BigDecimal("11.70")).volume(new BigInteger("19000")).latestTradingDay("2025-07-18").previousClose(new BigDecimal("11.60")).change(new BigDecimal("0.10")).changePercent("0.86%").build());
-        quotes.put("CAP.PA", GlobalQuote.builder().symbol("CAP.PA").open(new BigDecimal("25.30")).high(new BigDecimal("25.60")).low(new BigDecimal("25.10")).price(new BigDecimal("25.45")).volume(new BigInteger("22000")).latestTradingDay("2025-07-18").previousClose(new BigDecimal("25.30")).change(new BigDecimal("0.15")).changePercent("0.59%").build());
-
-        quotes.put("GLE.PA", GlobalQuote.builder().symbol("GLE.PA").open(new BigDecimal("50.20")).high(new BigDecimal("50.60")).low(new BigDecimal("50.00")).price(new BigDecimal("50.40")).volume(new BigInteger("46000")).latestTradingDay("2025-07-18").previousClose(new BigDecimal("50.20")).change(new BigDecimal("0.20")).changePercent("0.40%").build());
-        quotes.put("VALE3.SA", GlobalQuote.builder().symbol("VALE3.SA").open(new BigDecimal("59.80")).high(new BigDecimal("60.20")).low(new BigDecimal("59.50")).price(new BigDecimal("60.00")).volume(new BigInteger("110000")).latestTradingDay("2025-07-18").previousClose(new BigDecimal("59.80")).change(new BigDecimal("0.20")).changePercent("0.33%").build());
-        quotes.put("ITUB4.SA", GlobalQuote.builder().symbol("ITUB4.SA").open(new BigDecimal("25.40")).high(new BigDecimal("25.70")).low(new BigDecimal("25.30")).price(new BigDecimal("25.60")).volume(new BigInteger("98000")).latestTradingDay("2025-07-18").previousClose(new BigDecimal("25.40")).change(new BigDecimal("0.20")).changePercent("0.79%").build());
-        quotes.put("BBDC4.SA", GlobalQuote.builder().symbol("BBDC4.SA").open(new BigDecimal("19.10")).high(new BigDecimal("19.30")).low(new BigDecimal("19.00")).price(new BigDecimal("19.20")).volume(new BigInteger("85000")).latestTradingDay("2025-07-18").previousClose(new BigDecimal("19.10")).change(new BigDecimal("0.10")).changePercent("0.52%").build());
-        quotes.put("ABEV3.SA", GlobalQuote.builder().symbol("ABEV3.SA").open(new BigDecimal("8.75")).high(new BigDecimal("8.80")).low(new BigDecimal("8.70")).price(new BigDecimal("8.77")).volume(new BigInteger("77000")).latestTradingDay("2025-07-18").previousClose(new BigDecimal("8.75")).change(new BigDecimal("0.02")).changePercent("0.23%").build());
-        quotes.put("BBAS3.SA", GlobalQuote.builder().symbol("BBAS3.SA").open(new BigDecimal("36.50")).high(new BigDecimal("36.80")).low(new BigDecimal("36.40")).price(new BigDecimal("36.65")).volume(new BigInteger("67000")).latestTradingDay("2025-07-18").previousClose(new BigDecimal("36.50")).change(new BigDecimal("0.15")).changePercent("0.41%").build());
-        quotes.put("WEGE3.SA", GlobalQuote.builder().symbol("WEGE3.SA").open(new BigDecimal("20.10")).high(new BigDecimal("20.30")).low(new BigDecimal("20.00")).price(new BigDecimal("20.25")).volume(new BigInteger("54000")).latestTradingDay("2025-07-18").previousClose(new BigDecimal("20.10")).change(new BigDecimal("0.15")).changePercent("0.75%").build());
-        quotes.put("JBSS3.SA", GlobalQuote.builder().symbol("JBSS3.SA").open(new BigDecimal("15.30")).high(new BigDecimal("15.50")).low(new BigDecimal("15.25")).price(new BigDecimal("15.40")).volume(new BigInteger("60000")).latestTradingDay("2025-07-18").previousClose(new BigDecimal("15.30")).change(new BigDecimal("0.10")).changePercent("0.65%").build());
-        quotes.put("LREN3.SA", GlobalQuote.builder().symbol("LREN3.SA").open(new BigDecimal("21.00")).high(new BigDecimal("21.30")).low(new BigDecimal("20.90")).price(new BigDecimal("21.15")).volume(new BigInteger("45000")).latestTradingDay("2025-07-18").previousClose(new BigDecimal("21.00")).change(new BigDecimal("0.15")).changePercent("0.71%").build());
-        quotes.put("MGLU3.SA", GlobalQuote.builder().symbol("MGLU3.SA").open(new BigDecimal("9.50")).high(new BigDecimal("9.60")).low(new BigDecimal("9.45")).price(new BigDecimal("9.55")).volume(new BigInteger("83000")).latestTradingDay("2025-07-18").previousClose(new BigDecimal("9.50")).change(new BigDecimal("0.05")).changePercent("0.53%").build());
-        quotes.put("DEFAULT", GlobalQuote.builder().symbol("DEFAULT").open(new BigDecimal("10.00")).high(new BigDecimal("10.50")).low(new BigDecimal("9.80")).price(new BigDecimal("10.15")).volume(new BigInteger("100000")).latestTradingDay("2024-07-15").previousClose(new BigDecimal("10.00")).change(new BigDecimal("0.15")).changePercent("1.50%").build());
+    public void initQuoteFallBackMap() {
+        reload();
+    }
 
+    /**
+     * Returns the fallback quote for the given symbol.
+     *
+     * When the symbol has no entry of its own, the "DEFAULT" entry is returned with its
+     * symbol replaced by the requested one.
+     *
+     * @param symbol the stock ticker symbol
+     * @return the fallback quote for the symbol
+     * @throws IllegalStateException if the symbol has no entry and no "DEFAULT" entry is loaded
+     */
+    public GlobalQuote getFallBackQuote(String symbol) {
+        Map<String, GlobalQuote> quotes = snapshot.get().getQuotes();
+        GlobalQuote quote = quotes.get(symbol.toUpperCase());
+        if (quote != null) {
+            return quote;
+        }
+        GlobalQuote defaultQuote = quotes.get(DEFAULT_SYMBOL);
+        if (defaultQuote == null) {
+            throw new IllegalStateException("No fallback quote available for " + symbol);
+        }
+        return GlobalQuote.builder()
+                .symbol(symbol.toUpperCase())
+                .open(defaultQuote.getOpen())
+                .high(defaultQuote.getHigh())
+                .low(defaultQuote.getLow())
+                .price(defaultQuote.getPrice())
+                .volume(defaultQuote.getVolume())
+                .latestTradingDay(defaultQuote.getLatestTradingDay())
+                .previousClose(defaultQuote.getPreviousClose())
+                .change(defaultQuote.getChange())
+                .changePercent(defaultQuote.getChangePercent())
+                .build();
     }
 
-    public GlobalQuote getFallBackQuote(String symbol){
-        return quotes.get(symbol);
+    /**
+     * Returns the number of symbols in the current snapshot, including "DEFAULT".
+     */
+    public int size() {
+        return snapshot.get().getQuotes().size();
     }
 
+    /**
+     * Scheduled check reloading the store when one of its sources has changed.
+     */
+    @Scheduled(fixedDelayString = "${quote.fallback.reload-interval:PT30S}")
+    public void reloadIfChanged() {
+        if (!currentVersions().equals(snapshot.get().getVersions())) {
+            reload();
+        }
+    }
+
+    /**
+     * Rebuilds the store from all sources and publishes it atomically.
+     * The current snapshot is kept if any source fails to load.
+     */
+    public synchronized void reload() {
+        Map<String, GlobalQuote> quotes = new HashMap<>();
+        Map<String, Long> versions = new LinkedHashMap<>();
+        try {
+            for (Resource source : sources()) {
+                if (!source.exists()) {
+                    continue;
+                }
+                versions.put(source.getDescription(), source.lastModified());
+                try (InputStream in = source.getInputStream()) {
+                    readQuotes(in, quotes);
+                }
+            }
+        } catch (IOException | RuntimeException ex) {
+            log.warn("Reload failed, keeping current fallback quotes: {}", ex.getMessage());
+            return;
+        }
+        snapshot.set(new Snapshot(Map.copyOf(quotes), Map.copyOf(versions)));
+        log.info("Loaded {} fallback quotes", quotes.size());
+    }
 
+    /**
+     * Streams a JSON array of GLOBAL_QUOTE responses into the given map, one entry at a time.
+     */
+    private void readQuotes(InputStream in, Map<String, GlobalQuote> quotes) throws IOException {
+        try (JsonParser parser = MAPPER.getFactory().createParser(in)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IOException("Fallback quotes must be a JSON array");
+            }
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                JsonNode entry = MAPPER.readTree(parser);
+                JsonNode node = entry.path("Global Quote");
+                if (node.isMissingNode()) {
+                    continue;
+                }
+                GlobalQuote quote = parseGlobalQuote(node);
+                quotes.put(quote.getSymbol().toUpperCase(), quote);
+            }
+        }
+    }
+
+    /**
+     * Parses a JSON node representing a single Alpha Vantage-style quote into a GlobalQuote object.
+     *
+     * Each field is extracted and converted to its respective data type, such as BigDecimal
+     * for monetary values and BigInteger for volume.
+     *
+     * @param node the JSON node containing the quote data
+     * @return parsed GlobalQuote instance
+     */
+    private GlobalQuote parseGlobalQuote(JsonNode node) {
+        return GlobalQuote.builder()
+                .symbol(node.path("01. symbol").asText())
+                .open(new BigDecimal(node.path("02. open").asText()))
+                .high(new BigDecimal(node.path("03. high").asText()))
+                .low(new BigDecimal(node.path("04. low").asText()))
+                .price(new BigDecimal(node.path("05. price").asText()))
+                .volume(new BigInteger(node.path("06. volume").asText()))
+                .latestTradingDay(node.path("07. latest trading day").asText())
+                .previousClose(new BigDecimal(node.path("08. previous close").asText()))
+                .change(new BigDecimal(node.path("09. change").asText()))
+                .changePercent(node.path("10. change percent").asText())
+                .build();
+    }
+
+    private List<Resource> sources() {
+        List<Resource> sources = new ArrayList<>();
+        sources.add(new ClassPathResource(properties.getResource()));
+        properties.getFiles().forEach(file -> sources.add(new FileSystemResource(file)));
+        return sources;
+    }
+
+    private Map<String, Long> currentVersions() {
+        Map<String, Long> versions = new LinkedHashMap<>();
+        for (Resource source : sources()) {
+            if (!source.exists()) {
+                continue;
+            }
+            try {
+                versions.put(source.getDescription(), source.lastModified());
+            } catch (IOException ex) {
+                versions.put(source.getDescription(), -1L);
+            }
+        }
+        return versions;
+    }
+
+    /**
+     * Immutable set of fallback quotes, together with the last-modified time of each source
+     * it was built from.
+     */
+    @Getter
+    @AllArgsConstructor
+    private static final class Snapshot {
+        private final Map<String, GlobalQuote> quotes;
+        private final Map<String, Long> versions;
+    }
 }
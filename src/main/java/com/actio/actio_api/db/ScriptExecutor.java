@@ -7,6 +7,7 @@ import com.actio.actio_api.service.ActioUserService;
 import com.actio.actio_api.service.MovementService;
 import com.actio.actio_api.service.StockTransactionService;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.context.event.EventListener;
 import org.springframework.core.io.ClassPathResource;
@@ -28,6 +29,7 @@ import java.util.List;
  * The scripts must be stored under the 'scripts/' directory in the classpath.
  * Supported SQL Server-specific statements (e.g., 'GO') are handled via configured separator.
  */
+@Slf4j
 @Component
 @RequiredArgsConstructor
 public class ScriptExecutor {
@@ -47,6 +49,10 @@ public class ScriptExecutor {
      *
      * After executing the scripts, it also loads users, movements, and stock transactions
      * into the system using predefined loaders.
+     *
+     * Tables added after the initial schema ('stock_price_daily', 'last_quote',
+     * 'pnl_checkpoint' and 'portfolio_nav') are checked and created separately, so existing
+     * databases receive them too.
      */
     @EventListener(ApplicationReadyEvent.class)
     public void loadDataBase(){
@@ -63,6 +69,27 @@ public class ScriptExecutor {
             this.loadMovements();
             this.loadTransactions();
         }
+        createIfMissing("stock_price_daily", "schema_price_history.sql");
+        createIfMissing("last_quote", "schema_last_quote.sql");
+        createIfMissing("pnl_checkpoint", "schema_pnl.sql");
+        createIfMissing("portfolio_nav", "schema_portfolio_nav.sql");
+    }
+
+    /**
+     * Creates a table added after the initial schema by executing its script, unless the
+     * table already exists.
+     *
+     * @param table the name of the table to check
+     * @param script the name of the script creating it, under 'scripts/'
+     */
+    private void createIfMissing(String table, String script) {
+        if (mustLoad(table)) {
+            ResourceDatabasePopulator pop = new ResourceDatabasePopulator();
+            pop.setSeparator("GO");
+            pop.addScript(new ClassPathResource("scripts/" + script));
+            pop.execute(dataSource);
+            log.info("Created table {} from {}", table, script);
+        }
     }
 
     /**
@@ -0,0 +1,22 @@
+package com.actio.actio_api.model;
+
+/**
+ * State of the circuit breaker guarding an Alpha Vantage endpoint.
+ */
+public enum CircuitState {
+
+    /**
+     * Calls pass through; outcomes are recorded to detect a failing or slow upstream.
+     */
+    CLOSED,
+
+    /**
+     * Calls are rejected immediately so callers fall back without waiting for the upstream.
+     */
+    OPEN,
+
+    /**
+     * A limited number of probe calls pass through to decide whether the circuit can close again.
+     */
+    HALF_OPEN
+}
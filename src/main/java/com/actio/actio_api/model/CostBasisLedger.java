@@ -0,0 +1,175 @@
+package com.actio.actio_api.model;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Cost basis and realized gains of the stocks of one account, obtained by replaying its
+ * transactions with a {@link LotMethod}.
+ *
+ * Every purchase opens a lot. With {@link LotMethod#FIFO} a sale consumes the oldest lots
+ * first; with {@link LotMethod#AVERAGE_COST} all lots of a stock are merged into one at the
+ * weighted average unit cost. A sale realizes its price minus the unit cost of the shares
+ * consumed. Unit costs and gains are kept with eight decimals, HALF_EVEN.
+ *
+ * The ledger records the id of the last transaction applied, so it can be restored from a
+ * checkpoint and only fold in newer transactions. Transactions with an id not above it are
+ * ignored. Instances are not thread-safe.
+ */
+public final class CostBasisLedger {
+
+    private static final int SCALE = ScaledPrice.SCALE;
+
+    private final LotMethod method;
+    private final Map<Long, Position> positions = new LinkedHashMap<>();
+    private long lastTransactionId;
+
+    private CostBasisLedger(LotMethod method, long lastTransactionId) {
+        this.method = method;
+        this.lastTransactionId = lastTransactionId;
+    }
+
+    /**
+     * Returns a ledger without any transaction applied.
+     */
+    public static CostBasisLedger empty(LotMethod method) {
+        return new CostBasisLedger(method, 0);
+    }
+
+    /**
+     * Restores a ledger from a checkpoint.
+     *
+     * @param method the lot method the checkpoint was computed with
+     * @param lastTransactionId the id of the last transaction applied
+     * @param positions the positions at the checkpoint
+     * @return the restored ledger
+     */
+    public static CostBasisLedger restore(LotMethod method, long lastTransactionId, List<LedgerPosition> positions) {
+        CostBasisLedger ledger = new CostBasisLedger(method, lastTransactionId);
+        for (LedgerPosition restored : positions) {
+            Position position = new Position(restored.getStockId(), restored.getSymbol());
+            position.lots.addAll(restored.getLots());
+            position.realized = restored.getRealizedPnl();
+            ledger.positions.put(restored.getStockId(), position);
+        }
+        return ledger;
+    }
+
+    /**
+     * Applies a transaction.
+     *
+     * @param transaction the transaction to fold in
+     * @return true if the transaction was applied, false if it was already part of the ledger
+     */
+    public boolean apply(TransactionRecord transaction) {
+        if (transaction.getId() <= lastTransactionId) {
+            return false;
+        }
+        trade(transaction);
+        return true;
+    }
+
+    /**
+     * Applies a transaction whatever its id, for callers that detect duplicates themselves.
+     * The last transaction id becomes the highest id applied.
+     *
+     * @param transaction the transaction to fold in
+     * @return the state of the stock traded, after the transaction
+     */
+    public LedgerPosition trade(TransactionRecord transaction) {
+        if (transaction.getId() != null) {
+            lastTransactionId = Math.max(lastTransactionId, transaction.getId());
+        }
+        Position position = positions.computeIfAbsent(transaction.getStockId(),
+                id -> new Position(id, transaction.getStockName()));
+        if (transaction.isSell()) {
+            position.sell(transaction.getQuantity(), transaction.getPrice());
+        } else if (method == LotMethod.AVERAGE_COST) {
+            position.buyAtAverageCost(transaction.getQuantity(), transaction.getPrice());
+        } else {
+            position.lots.addLast(new LedgerPosition.Lot(transaction.getQuantity(), transaction.getPrice()));
+        }
+        return position.toLedgerPosition();
+    }
+
+    /**
+     * Returns the lot method of the ledger.
+     */
+    public LotMethod getMethod() {
+        return method;
+    }
+
+    /**
+     * Returns the id of the last transaction applied, 0 if none.
+     */
+    public long getLastTransactionId() {
+        return lastTransactionId;
+    }
+
+    /**
+     * Returns the state of every stock ever traded, including sold out ones, in the order
+     * they were first traded.
+     */
+    public List<LedgerPosition> positions() {
+        List<LedgerPosition> result = new ArrayList<>(positions.size());
+        for (Position position : positions.values()) {
+            result.add(position.toLedgerPosition());
+        }
+        return result;
+    }
+
+    /**
+     * Open lots and realized gains of one stock.
+     */
+    private static final class Position {
+        private final Long stockId;
+        private final String symbol;
+        private final Deque<LedgerPosition.Lot> lots = new ArrayDeque<>();
+        private BigDecimal realized = BigDecimal.ZERO;
+
+        private Position(Long stockId, String symbol) {
+            this.stockId = stockId;
+            this.symbol = symbol;
+        }
+
+        private LedgerPosition toLedgerPosition() {
+            return new LedgerPosition(stockId, symbol, List.copyOf(lots), realized);
+        }
+
+        private void buyAtAverageCost(int quantity, BigDecimal price) {
+            LedgerPosition.Lot held = lots.pollFirst();
+            if (held == null) {
+                lots.addLast(new LedgerPosition.Lot(quantity, price));
+                return;
+            }
+            int total = held.getQuantity() + quantity;
+            BigDecimal cost = held.getUnitCost().multiply(BigDecimal.valueOf(held.getQuantity()))
+                    .add(price.multiply(BigDecimal.valueOf(quantity)));
+            lots.addLast(new LedgerPosition.Lot(total, cost.divide(BigDecimal.valueOf(total), SCALE, RoundingMode.HALF_EVEN)));
+        }
+
+        /**
+         * Consumes the oldest lots first. Shares sold beyond the quantity held have no
+         * known cost and realize nothing.
+         */
+        private void sell(int quantity, BigDecimal price) {
+            int remaining = quantity;
+            while (remaining > 0 && !lots.isEmpty()) {
+                LedgerPosition.Lot oldest = lots.pollFirst();
+                int used = Math.min(remaining, oldest.getQuantity());
+                realized = realized.add(price.subtract(oldest.getUnitCost()).multiply(BigDecimal.valueOf(used)))
+                        .setScale(SCALE, RoundingMode.HALF_EVEN);
+                if (used < oldest.getQuantity()) {
+                    lots.addFirst(new LedgerPosition.Lot(oldest.getQuantity() - used, oldest.getUnitCost()));
+                }
+                remaining -= used;
+            }
+        }
+    }
+}
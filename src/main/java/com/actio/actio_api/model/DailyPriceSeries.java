@@ -0,0 +1,135 @@
+package com.actio.actio_api.model;
+
+import com.actio.actio_api.model.response.PriceHistoryResponse;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Immutable, column-oriented daily price history of a single stock.
+ *
+ * Each field of the bars is held in its own primitive array, in date order, with prices in
+ * {@link ScaledPrice} units. A date range is located with two binary searches on the
+ * epoch-day column and answered by copying array slices, so a query neither touches the
+ * database nor allocates an object per bar. The LocalDate instances returned are created
+ * once, when the series is built.
+ */
+public final class DailyPriceSeries {
+
+    /**
+     * Series without any bar.
+     */
+    public static final DailyPriceSeries EMPTY = of(List.of());
+
+    private final int[] epochDays;
+    private final LocalDate[] dates;
+    private final long[] open;
+    private final long[] high;
+    private final long[] low;
+    private final long[] close;
+    private final long[] volume;
+
+    private DailyPriceSeries(int size) {
+        this.epochDays = new int[size];
+        this.dates = new LocalDate[size];
+        this.open = new long[size];
+        this.high = new long[size];
+        this.low = new long[size];
+        this.close = new long[size];
+        this.volume = new long[size];
+    }
+
+    /**
+     * Builds a series from stored bars.
+     *
+     * @param bars the daily bars of one stock, in ascending date order
+     * @return the series holding the given bars
+     */
+    public static DailyPriceSeries of(List<StockPriceDaily> bars) {
+        DailyPriceSeries series = new DailyPriceSeries(bars.size());
+        for (int i = 0; i < bars.size(); i++) {
+            StockPriceDaily bar = bars.get(i);
+            LocalDate date = bar.getId().getPriceDate();
+            if (i > 0 && date.toEpochDay() <= series.epochDays[i - 1]) {
+                throw new IllegalArgumentException("Bars must be in strictly ascending date order");
+            }
+            series.epochDays[i] = (int) date.toEpochDay();
+            series.dates[i] = date;
+            series.open[i] = ScaledPrice.of(bar.getOpen());
+            series.high[i] = ScaledPrice.of(bar.getHigh());
+            series.low[i] = ScaledPrice.of(bar.getLow());
+            series.close[i] = ScaledPrice.of(bar.getClose());
+            series.volume[i] = bar.getVolume();
+        }
+        return series;
+    }
+
+    /**
+     * Returns the number of bars in the series.
+     */
+    public int size() {
+        return epochDays.length;
+    }
+
+    /**
+     * Returns the date of the first bar, or null if the series is empty.
+     */
+    public LocalDate firstDate() {
+        return dates.length == 0 ? null : dates[0];
+    }
+
+    /**
+     * Returns the date of the last bar, or null if the series is empty.
+     */
+    public LocalDate lastDate() {
+        return dates.length == 0 ? null : dates[dates.length - 1];
+    }
+
+    /**
+     * Returns the bars between two dates, both inclusive, in column form.
+     *
+     * @param symbol the stock ticker symbol the series belongs to
+     * @param currency the trading currency of the prices
+     * @param from the first day of the range
+     * @param to the last day of the range
+     * @return the bars of the range, possibly none
+     */
+    public PriceHistoryResponse slice(String symbol, String currency, LocalDate from, LocalDate to) {
+        int start = indexOf(from.toEpochDay(), false);
+        int end = Math.max(start, indexOf(to.toEpochDay(), true));
+        return PriceHistoryResponse.builder()
+                .symbol(symbol)
+                .currency(currency)
+                .from(from)
+                .to(to)
+                .dates(Arrays.copyOfRange(dates, start, end))
+                .open(toDoubles(open, start, end))
+                .high(toDoubles(high, start, end))
+                .low(toDoubles(low, start, end))
+                .close(toDoubles(close, start, end))
+                .volume(Arrays.copyOfRange(volume, start, end))
+                .build();
+    }
+
+    /**
+     * Returns the index of the first bar on or after the given day or, when {@code after}
+     * is set, strictly after it.
+     */
+    private int indexOf(long epochDay, boolean after) {
+        int key = (int) Math.max(Integer.MIN_VALUE, Math.min(Integer.MAX_VALUE, epochDay));
+        int found = Arrays.binarySearch(epochDays, key);
+        if (found >= 0) {
+            return after ? found + 1 : found;
+        }
+        return -(found + 1);
+    }
+
+    private static double[] toDoubles(long[] column, int start, int end) {
+        double[] values = new double[end - start];
+        for (int i = start; i < end; i++) {
+            values[i - start] = ScaledPrice.toDouble(column[i]);
+        }
+        return values;
+    }
+}
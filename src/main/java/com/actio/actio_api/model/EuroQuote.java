@@ -0,0 +1,54 @@
+package com.actio.actio_api.model;
+
+import com.actio.actio_api.model.webclient.GlobalQuote;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+
+/**
+ * Quote converted to EUR, as carried through the quote pipeline.
+ *
+ * Only the fields needed to answer quote and wallet requests are kept, and the price is held
+ * in {@link ScaledPrice} units, so converting a quote allocates this single object rather
+ * than one BigDecimal per price field. Prices are converted to BigDecimal only when the
+ * response is built.
+ */
+@Getter
+@AllArgsConstructor
+public final class EuroQuote {
+
+    /**
+     * Ticker symbol of the stock (e.g. "NOS.LS").
+     */
+    private final String symbol;
+
+    /**
+     * Last traded price in EUR, in units of 10^-8.
+     */
+    private final long price;
+
+    /**
+     * Percentage change compared to the previous close (e.g. "0.69%").
+     */
+    private final String changePercent;
+
+    /**
+     * Converts an upstream quote to EUR.
+     *
+     * @param quote the quote in its trading currency
+     * @param rate the exchange rate from the trading currency to EUR, in units of 10^-8
+     * @return the quote in EUR
+     */
+    public static EuroQuote convert(GlobalQuote quote, long rate) {
+        return new EuroQuote(quote.getSymbol(), ScaledPrice.multiply(ScaledPrice.of(quote.getPrice()), rate),
+                quote.getChangePercent());
+    }
+
+    /**
+     * Returns the price in EUR rounded to the API scale.
+     */
+    public BigDecimal priceForApi() {
+        return ScaledPrice.toBigDecimal(price, ScaledPrice.API_SCALE);
+    }
+}
@@ -0,0 +1,19 @@
+package com.actio.actio_api.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Read-only projection of a stock held by an account: the stock id and symbol with the
+ * quantity held.
+ *
+ * Built directly by a JPQL constructor expression, so reading the holdings of an account
+ * takes one statement instead of loading every {@link StockItem} and its {@link Stock}.
+ */
+@Getter
+@AllArgsConstructor
+public class Holding {
+    private final Long stockId;
+    private final String stockName;
+    private final Integer quantity;
+}
@@ -0,0 +1,52 @@
+package com.actio.actio_api.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * State of one stock in a {@link CostBasisLedger}: the open lots, oldest first, and the
+ * gains realized by the sales so far. Amounts are in EUR with eight decimals.
+ */
+@Getter
+@AllArgsConstructor
+public class LedgerPosition {
+    private final Long stockId;
+    private final String symbol;
+    private final List<Lot> lots;
+    private final BigDecimal realizedPnl;
+
+    /**
+     * Returns the number of shares held.
+     */
+    public int getQuantity() {
+        int quantity = 0;
+        for (Lot lot : lots) {
+            quantity += lot.getQuantity();
+        }
+        return quantity;
+    }
+
+    /**
+     * Returns the cost of the shares held.
+     */
+    public BigDecimal getCostBasis() {
+        BigDecimal cost = BigDecimal.ZERO;
+        for (Lot lot : lots) {
+            cost = cost.add(lot.getUnitCost().multiply(BigDecimal.valueOf(lot.getQuantity())));
+        }
+        return cost;
+    }
+
+    /**
+     * Shares bought together at the same unit cost and not sold yet.
+     */
+    @Getter
+    @AllArgsConstructor
+    public static final class Lot {
+        private final int quantity;
+        private final BigDecimal unitCost;
+    }
+}
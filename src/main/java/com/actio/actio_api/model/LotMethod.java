@@ -0,0 +1,18 @@
+package com.actio.actio_api.model;
+
+/**
+ * Method matching the shares sold with the shares bought, to compute cost basis and
+ * realized gains.
+ */
+public enum LotMethod {
+
+    /**
+     * Sales consume the oldest purchases first.
+     */
+    FIFO,
+
+    /**
+     * All shares held share one average unit cost; sales leave it unchanged.
+     */
+    AVERAGE_COST
+}
@@ -0,0 +1,288 @@
+package com.actio.actio_api.model;
+
+import com.actio.actio_api.model.response.WalletResponse;
+import com.actio.actio_api.model.response.WalletSummaryResponse;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * In-memory valuation of the holdings of one account, kept up to date incrementally.
+ *
+ * Each position holds its quantity, its invested value and its last mark: the EUR price in {@link ScaledPrice} units, the daily change and
+ * the moment the price stops being fresh. Trades adjust quantity and invested value of a
+ * single position, and a new price re-marks a single position; the invested and market
+ * values are adjusted by the same deltas, so reading them never iterates the positions.
+ * Whether a price is stale is decided when it is read, so a mark that is not replaced ages
+ * into a stale one.
+ *
+ * Quantities and invested values come from a {@link CostBasisLedger} using
+ * {@link LotMethod#AVERAGE_COST}, so the invested value of a stock always equals its
+ * average cost basis in the profit and loss report.
+ *
+ * Positions start unmarked, and are reported without a price until their first mark.
+ * Every transaction is applied at most once: the ids of the most recent transactions
+ * replayed or applied are remembered, and a transaction with one of those ids is ignored.
+ * Ids are compared by identity rather than order, because concurrent trades of an account
+ * may commit in a different order than their ids. All methods are thread-safe.
+ */
+public final class PortfolioSnapshot {
+
+    /** Number of transaction ids remembered to detect duplicates. */
+    static final int RECENT_TRANSACTIONS = 64;
+
+    /** Positions keyed by upper-case symbol, ordered by symbol. Guarded by {@code this}. */
+    private final Map<String, Position> positions = new TreeMap<>();
+
+    /** Cost basis of every stock traded. Guarded by {@code this}. */
+    private final CostBasisLedger ledger = CostBasisLedger.empty(LotMethod.AVERAGE_COST);
+
+    /** Ids of the most recent transactions, oldest first. Guarded by {@code this}. */
+    private final Set<Long> recentTransactionIds = new LinkedHashSet<>();
+
+    private BigDecimal investedValue = BigDecimal.ZERO;
+    private long marketValue;
+
+    private PortfolioSnapshot() {
+    }
+
+    /**
+     * Builds the snapshot of an account by replaying its transactions at average cost.
+     *
+     * Quantities and invested values both come from the replay, so the snapshot reflects
+     * exactly the transactions read, whichever trades commit while they are being read.
+     *
+     * @param transactions all transactions of the account, in execution order
+     * @return the snapshot, with every position unmarked
+     */
+    public static PortfolioSnapshot of(List<TransactionRecord> transactions) {
+        PortfolioSnapshot snapshot = new PortfolioSnapshot();
+        for (TransactionRecord transaction : transactions) {
+            if (snapshot.remember(transaction.getId())) {
+                snapshot.ledger.trade(transaction);
+            }
+        }
+        for (LedgerPosition held : snapshot.ledger.positions()) {
+            if (held.getQuantity() > 0) {
+                Position position = new Position(held.getStockId(), held.getSymbol());
+                position.update(held);
+                snapshot.positions.put(key(position.symbol), position);
+                snapshot.investedValue = snapshot.investedValue.add(position.invested);
+            }
+        }
+        return snapshot;
+    }
+
+    /**
+     * Applies a transaction to its position, creating the position on a first purchase and
+     * removing it when sold out.
+     *
+     * @param transaction the transaction just saved
+     * @return true if the transaction was applied, false if it had already been applied
+     */
+    public synchronized boolean apply(TransactionRecord transaction) {
+        if (!remember(transaction.getId())) {
+            return false;
+        }
+        String key = key(transaction.getStockName());
+        Position position = positions.computeIfAbsent(key, k -> new Position(transaction.getStockId(), transaction.getStockName()));
+        int previousQuantity = position.quantity;
+        BigDecimal previousInvested = position.invested;
+
+        position.update(ledger.trade(transaction));
+
+        investedValue = investedValue.subtract(previousInvested).add(position.invested);
+        if (position.marked) {
+            marketValue += position.price * (position.quantity - previousQuantity);
+        }
+        if (position.quantity <= 0) {
+            unmark(position);
+            positions.remove(key);
+        }
+        return true;
+    }
+
+    /**
+     * Marks a position to a new price. Symbols not held are ignored.
+     *
+     * @param symbol the stock ticker symbol
+     * @param price the price in EUR, in {@link ScaledPrice} units
+     * @param changePercent the daily change reported with the price
+     * @param freshUntil the moment the price becomes stale; a past moment for cached, last
+     *                   known or fallback prices
+     */
+    public synchronized void mark(String symbol, long price, String changePercent, Instant freshUntil) {
+        Position position = positions.get(key(symbol));
+        if (position == null) {
+            return;
+        }
+        unmark(position);
+        position.marked = true;
+        position.price = price;
+        position.changePercent = changePercent;
+        position.freshUntil = freshUntil;
+        marketValue += price * position.quantity;
+    }
+
+    /**
+     * Returns the positions that have never been marked.
+     */
+    public synchronized List<Holding> unmarkedHoldings() {
+        List<Holding> unmarked = new ArrayList<>();
+        for (Position position : positions.values()) {
+            if (!position.marked) {
+                unmarked.add(new Holding(position.stockId, position.symbol, position.quantity));
+            }
+        }
+        return unmarked;
+    }
+
+    /**
+     * Returns true if the symbol is held and its position has never been marked.
+     */
+    public synchronized boolean isUnmarked(String symbol) {
+        Position position = positions.get(key(symbol));
+        return position != null && !position.marked;
+    }
+
+    /**
+     * Returns the symbols of all positions.
+     */
+    public synchronized List<String> symbols() {
+        return List.copyOf(positions.keySet());
+    }
+
+    /**
+     * Returns one wallet entry per position, ordered by symbol. Unmarked positions are
+     * reported as stale with a zero price.
+     */
+    public List<WalletResponse> toWalletResponses() {
+        return toWalletResponses(Instant.now());
+    }
+
+    /**
+     * Returns one wallet entry per position, with staleness evaluated at the given moment.
+     */
+    public synchronized List<WalletResponse> toWalletResponses(Instant now) {
+        List<WalletResponse> wallet = new ArrayList<>(positions.size());
+        for (Position position : positions.values()) {
+            wallet.add(new WalletResponse(
+                    position.stockId,
+                    position.symbol,
+                    position.quantity,
+                    ScaledPrice.toDouble(position.price),
+                    position.changePercent,
+                    !position.isFresh(now)));
+        }
+        return wallet;
+    }
+
+    /**
+     * Returns the portfolio totals.
+     */
+    public WalletSummaryResponse toSummary() {
+        return toSummary(Instant.now());
+    }
+
+    /**
+     * Returns the portfolio totals, with staleness evaluated at the given moment.
+     */
+    public synchronized WalletSummaryResponse toSummary(Instant now) {
+        int stalePositions = 0;
+        for (Position position : positions.values()) {
+            if (position.marked && !position.isFresh(now)) {
+                stalePositions++;
+            }
+        }
+        return WalletSummaryResponse.builder()
+                .investedValue(investedValue.setScale(ScaledPrice.API_SCALE, RoundingMode.HALF_EVEN))
+                .marketValue(ScaledPrice.toBigDecimal(marketValue, ScaledPrice.API_SCALE))
+                .positions(positions.size())
+                .stalePositions(stalePositions)
+                .build();
+    }
+
+    /**
+     * Returns the invested value of all positions, in EUR.
+     */
+    public synchronized BigDecimal getInvestedValue() {
+        return investedValue;
+    }
+
+    /**
+     * Returns the market value of all marked positions, in {@link ScaledPrice} units.
+     */
+    public synchronized long getMarketValue() {
+        return marketValue;
+    }
+
+    /**
+     * Records a transaction id as seen, forgetting the oldest one beyond
+     * {@link #RECENT_TRANSACTIONS}.
+     *
+     * @return false if the id was already seen
+     */
+    private boolean remember(Long transactionId) {
+        if (transactionId == null) {
+            return true;
+        }
+        if (!recentTransactionIds.add(transactionId)) {
+            return false;
+        }
+        if (recentTransactionIds.size() > RECENT_TRANSACTIONS) {
+            Iterator<Long> oldest = recentTransactionIds.iterator();
+            oldest.next();
+            oldest.remove();
+        }
+        return true;
+    }
+
+    private void unmark(Position position) {
+        if (!position.marked) {
+            return;
+        }
+        marketValue -= position.price * position.quantity;
+        position.marked = false;
+    }
+
+    private static String key(String symbol) {
+        return symbol.toUpperCase(Locale.ROOT);
+    }
+
+    /**
+     * Holding of a single stock. Guarded by the enclosing snapshot.
+     */
+    private static final class Position {
+        private final Long stockId;
+        private final String symbol;
+        private int quantity;
+        private BigDecimal invested = BigDecimal.ZERO;
+        private boolean marked;
+        private long price;
+        private String changePercent;
+        private Instant freshUntil;
+
+        private Position(Long stockId, String symbol) {
+            this.stockId = stockId;
+            this.symbol = symbol;
+        }
+
+        private boolean isFresh(Instant now) {
+            return marked && freshUntil != null && freshUntil.isAfter(now);
+        }
+
+        private void update(LedgerPosition held) {
+            quantity = held.getQuantity();
+            invested = held.getCostBasis();
+        }
+    }
+}
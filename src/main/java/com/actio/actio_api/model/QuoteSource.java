@@ -0,0 +1,39 @@
+package com.actio.actio_api.model;
+
+/**
+ * Where the price of a quote served to a client comes from.
+ */
+public enum QuoteSource {
+
+    /**
+     * Fetched from Alpha Vantage for this request.
+     */
+    LIVE,
+
+    /**
+     * Cached quote still within its TTL.
+     */
+    CACHED,
+
+    /**
+     * Cached quote past its TTL, served while it is refreshed or because the upstream failed.
+     */
+    STALE_CACHE,
+
+    /**
+     * Last quote persisted for the symbol, used when no cached or live quote is available.
+     */
+    LAST_KNOWN,
+
+    /**
+     * Static mock data, used as a last resort.
+     */
+    MOCK;
+
+    /**
+     * Returns true if the price is current: fetched live or cached within its TTL.
+     */
+    public boolean isLive() {
+        return this == LIVE || this == CACHED;
+    }
+}
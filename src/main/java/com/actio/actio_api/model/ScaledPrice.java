@@ -0,0 +1,121 @@
+package com.actio.actio_api.model;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Fixed-point arithmetic for prices and exchange rates inside the quote pipeline.
+ *
+ * Values are held as {@code long} units of 10^-8, so 4.35 is stored as 435_000_000. This
+ * covers amounts up to about 92 billion with eight decimals, well beyond any quote or rate
+ * handled here, and lets a conversion run without allocating intermediate objects.
+ *
+ * Rounding rules:
+ * - Values entering the pipeline with more than eight decimals are rounded HALF_EVEN.
+ * - The product of two scaled values is rounded HALF_EVEN back to eight decimals.
+ * - Values leaving the pipeline are converted to BigDecimal at the scale required by the
+ *   boundary (see {@link #API_SCALE}), again rounding HALF_EVEN.
+ *
+ * Overflow is never silent: every operation throws ArithmeticException instead of wrapping.
+ */
+public final class ScaledPrice {
+
+    /**
+     * Number of decimals held by a scaled value.
+     */
+    public static final int SCALE = 8;
+
+    /**
+     * Number of decimals of prices returned by the API.
+     */
+    public static final int API_SCALE = 4;
+
+    /**
+     * Scaled representation of 1.
+     */
+    public static final long ONE = 100_000_000L;
+
+    private static final long[] POWERS_OF_TEN = {
+            1L, 10L, 100L, 1_000L, 10_000L, 100_000L, 1_000_000L, 10_000_000L, 100_000_000L
+    };
+
+    private ScaledPrice() {
+    }
+
+    /**
+     * Converts a BigDecimal into scaled units, rounding HALF_EVEN beyond eight decimals.
+     *
+     * Values with at most eight decimals and 18 significant digits take an exact fast path.
+     *
+     * @param value the value to convert
+     * @return the value in units of 10^-8
+     * @throws ArithmeticException if the value does not fit in a long once scaled
+     */
+    public static long of(BigDecimal value) {
+        int scale = value.scale();
+        if (scale >= 0 && scale <= SCALE && value.precision() <= 18) {
+            return Math.multiplyExact(value.unscaledValue().longValue(), POWERS_OF_TEN[SCALE - scale]);
+        }
+        return value.setScale(SCALE, RoundingMode.HALF_EVEN).unscaledValue().longValueExact();
+    }
+
+    /**
+     * Multiplies two scaled values, rounding the result HALF_EVEN to eight decimals.
+     *
+     * @param a the first scaled value (e.g. a price)
+     * @param b the second scaled value (e.g. an exchange rate)
+     * @return the scaled product
+     * @throws ArithmeticException if the product does not fit in a long
+     */
+    public static long multiply(long a, long b) {
+        long high = Math.multiplyHigh(a, b);
+        long low = a * b;
+        if ((high == 0 && low >= 0) || (high == -1 && low < 0)) {
+            return divideHalfEven(low, ONE);
+        }
+        return BigDecimal.valueOf(a, SCALE)
+                .multiply(BigDecimal.valueOf(b, SCALE))
+                .setScale(SCALE, RoundingMode.HALF_EVEN)
+                .unscaledValue()
+                .longValueExact();
+    }
+
+    /**
+     * Converts a scaled value into a BigDecimal with the given number of decimals,
+     * rounding HALF_EVEN.
+     *
+     * @param units the scaled value
+     * @param scale the number of decimals of the result, at most eight
+     * @return the value as BigDecimal
+     */
+    public static BigDecimal toBigDecimal(long units, int scale) {
+        if (scale < 0 || scale > SCALE) {
+            throw new IllegalArgumentException("Scale must be between 0 and " + SCALE);
+        }
+        return BigDecimal.valueOf(divideHalfEven(units, POWERS_OF_TEN[SCALE - scale]), scale);
+    }
+
+    /**
+     * Converts a scaled value into a double, for consumers that already work with doubles.
+     *
+     * @param units the scaled value
+     * @return the nearest double
+     */
+    public static double toDouble(long units) {
+        return (double) units / ONE;
+    }
+
+    private static long divideHalfEven(long dividend, long divisor) {
+        long quotient = dividend / divisor;
+        long remainder = dividend % divisor;
+        if (remainder == 0) {
+            return quotient;
+        }
+        long twice = Math.abs(remainder) * 2;
+        int sign = dividend < 0 ? -1 : 1;
+        if (twice > divisor || (twice == divisor && (quotient & 1) != 0)) {
+            return quotient + sign;
+        }
+        return quotient;
+    }
+}
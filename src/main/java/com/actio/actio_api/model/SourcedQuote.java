@@ -0,0 +1,15 @@
+package com.actio.actio_api.model;
+
+import com.actio.actio_api.model.webclient.GlobalQuote;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Quote together with where it was obtained from.
+ */
+@Getter
+@AllArgsConstructor
+public class SourcedQuote {
+    private final GlobalQuote quote;
+    private final QuoteSource source;
+}
@@ -0,0 +1,85 @@
+package com.actio.actio_api.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.springframework.data.domain.Persistable;
+
+import java.math.BigDecimal;
+
+/**
+ * Represents the daily price bar (open, high, low, close and volume) of a stock.
+ *
+ * Bars are ingested from the Alpha Vantage daily time series and stored in the trading
+ * currency of the stock. They are append-mostly: only the bar of the most recent day
+ * may be rewritten, while that day is still trading.
+ *
+ * Since the key is assigned by the application, new bars are flagged as such, so that
+ * saving them inserts directly instead of first looking them up.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@EqualsAndHashCode(of = "id")
+@Entity
+@Table(name = "stock_price_daily")
+public class StockPriceDaily implements Persistable<StockPriceDailyId> {
+
+    /**
+     * Composite identifier consisting of stock ID and trading day.
+     */
+    @EmbeddedId
+    private StockPriceDailyId id;
+
+    /**
+     * Price of the first trade of the day.
+     */
+    @Column(name = "open_price")
+    private BigDecimal open;
+
+    /**
+     * Highest traded price of the day.
+     */
+    @Column(name = "high_price")
+    private BigDecimal high;
+
+    /**
+     * Lowest traded price of the day.
+     */
+    @Column(name = "low_price")
+    private BigDecimal low;
+
+    /**
+     * Price of the last trade of the day.
+     */
+    @Column(name = "close_price")
+    private BigDecimal close;
+
+    /**
+     * Number of shares traded during the day.
+     */
+    @Column(name = "volume")
+    private Long volume;
+
+    /**
+     * Whether the bar has not been stored yet. Not persisted.
+     */
+    @Transient
+    @Builder.Default
+    private boolean newBar = true;
+
+    @Override
+    public boolean isNew() {
+        return newBar;
+    }
+
+    /**
+     * Marks bars read from or written to the database as existing.
+     */
+    @PostLoad
+    @PostPersist
+    void markStored() {
+        newBar = false;
+    }
+}
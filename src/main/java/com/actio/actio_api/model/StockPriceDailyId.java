@@ -0,0 +1,35 @@
+package com.actio.actio_api.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * Composite key class for the StockPriceDaily entity.
+ *
+ * A stock has at most one daily bar per trading day, so the stock ID and the date
+ * identify each bar.
+ */
+@Data
+@Embeddable
+@AllArgsConstructor
+@NoArgsConstructor
+public class StockPriceDailyId implements Serializable {
+
+    /**
+     * Identifier of the stock the bar belongs to.
+     */
+    @Column(name = "id_stock")
+    private Long stockId;
+
+    /**
+     * Trading day of the bar.
+     */
+    @Column(name = "price_date")
+    private LocalDate priceDate;
+}
@@ -0,0 +1,51 @@
+package com.actio.actio_api.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Read-only projection of a stock transaction with the fields needed to replay it into
+ * holdings and cost basis: the stock id and symbol, the transaction type description
+ * ("BUY" or "SELL"), quantity, unit price and execution time.
+ *
+ * Built directly by a JPQL constructor expression, so replaying the history of an account
+ * does not load the transaction, stock and transaction type entities one by one.
+ */
+@Getter
+@AllArgsConstructor
+public class TransactionRecord {
+    private final Long id;
+    private final Long stockId;
+    private final String stockName;
+    private final String type;
+    private final Integer quantity;
+    private final BigDecimal price;
+    private final LocalDateTime transactionDateTime;
+
+    /**
+     * Builds the record of a transaction that was just saved.
+     *
+     * @param transaction the persisted transaction, with its stock and type loaded
+     * @return the record of the transaction
+     */
+    public static TransactionRecord of(StockTransaction transaction) {
+        return new TransactionRecord(
+                transaction.getId(),
+                transaction.getStock().getIdStock(),
+                transaction.getStock().getStockName(),
+                transaction.getTransactionType().getTypeDescription(),
+                transaction.getQuantity(),
+                transaction.getNegotiationPrice(),
+                transaction.getTransactionDateTime());
+    }
+
+    /**
+     * Returns true for a sale, false for a purchase.
+     */
+    public boolean isSell() {
+        return "SELL".equalsIgnoreCase(type);
+    }
+}
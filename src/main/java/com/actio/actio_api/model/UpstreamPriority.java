@@ -0,0 +1,24 @@
+package com.actio.actio_api.model;
+
+/**
+ * Priority of a call to the Alpha Vantage API when the request quota is saturated.
+ *
+ * Declaration order defines precedence: calls with a lower ordinal are served first.
+ */
+public enum UpstreamPriority {
+
+    /**
+     * Quotes requested right before a trade, and the exchange rates they depend on.
+     */
+    TRADE,
+
+    /**
+     * Quotes requested to value a user's wallet or watchlist.
+     */
+    WALLET,
+
+    /**
+     * Background refreshes that no user is currently waiting for.
+     */
+    WARMING
+}
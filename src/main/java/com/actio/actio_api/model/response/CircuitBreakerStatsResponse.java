@@ -0,0 +1,60 @@
+package com.actio.actio_api.model.response;
+
+import com.actio.actio_api.model.CircuitState;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * DTO exposing the state of the circuit breaker guarding one Alpha Vantage endpoint.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CircuitBreakerStatsResponse {
+
+    /**
+     * Alpha Vantage function guarded by the breaker (e.g. "GLOBAL_QUOTE").
+     */
+    private String endpoint;
+
+    /**
+     * Current state of the circuit.
+     */
+    private CircuitState state;
+
+    /**
+     * Moment of the last state transition.
+     */
+    private Instant stateSince;
+
+    /**
+     * Calls currently recorded in the sliding window.
+     */
+    private int bufferedCalls;
+
+    /**
+     * Share of failed calls in the sliding window, between 0 and 100.
+     */
+    private double failureRate;
+
+    /**
+     * Share of slow calls in the sliding window, between 0 and 100.
+     */
+    private double slowCallRate;
+
+    /**
+     * Calls rejected without reaching the upstream since startup.
+     */
+    private long notPermittedCalls;
+
+    /**
+     * Number of transitions since startup, keyed as "FROM->TO" (e.g. "CLOSED->OPEN").
+     */
+    private Map<String, Long> transitions;
+}
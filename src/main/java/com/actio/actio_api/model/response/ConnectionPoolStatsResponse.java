@@ -0,0 +1,51 @@
+package com.actio.actio_api.model.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO exposing the state of the upstream HTTP connection pool for one remote address.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConnectionPoolStatsResponse {
+
+    /**
+     * Remote address the pool connects to.
+     */
+    private String remoteAddress;
+
+    /**
+     * Connections currently in use by a request.
+     */
+    private int acquired;
+
+    /**
+     * Connections currently open, in use or idle.
+     */
+    private int allocated;
+
+    /**
+     * Open connections waiting to be reused.
+     */
+    private int idle;
+
+    /**
+     * Requests waiting for a free connection.
+     */
+    private int pendingAcquire;
+
+    /**
+     * Maximum number of connections the pool may open.
+     */
+    private int maxAllocated;
+
+    /**
+     * Share of the maximum connections currently in use, between 0 and 100.
+     */
+    private double saturationPercent;
+}
@@ -1,5 +1,6 @@
 package com.actio.actio_api.model.response;
 
+import com.actio.actio_api.model.QuoteSource;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -38,4 +39,10 @@ public class GetAlphaVantageStockResponse {
      */
     private String changePercent;
 
+    /**
+     * Where the price comes from: a live or cached quote within its TTL, or a stale cached,
+     * last known or mock quote.
+     */
+    private QuoteSource source;
+
 }
@@ -0,0 +1,70 @@
+package com.actio.actio_api.model.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * DTO representing the profit and loss of one stock traded by a user. Amounts are in EUR.
+ */
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class PnlPositionResponse {
+
+    /**
+     * Unique identifier for the stock.
+     */
+    private Long stockId;
+
+    /**
+     * Stock symbol (ticker), e.g. "NOS.LS".
+     */
+    private String symbol;
+
+    /**
+     * Number of shares held; 0 for a stock sold out.
+     */
+    private int quantity;
+
+    /**
+     * Cost of the shares held.
+     */
+    private BigDecimal costBasis;
+
+    /**
+     * Cost of the shares held per share, null when none is held.
+     */
+    private BigDecimal averageCost;
+
+    /**
+     * Current price per share, null when none is held.
+     */
+    private BigDecimal currentPrice;
+
+    /**
+     * Current value of the shares held.
+     */
+    private BigDecimal marketValue;
+
+    /**
+     * Market value minus cost basis.
+     */
+    private BigDecimal unrealizedPnl;
+
+    /**
+     * Gains of all sales, net of the cost of the shares sold.
+     */
+    private BigDecimal realizedPnl;
+
+    /**
+     * True when the current price is a cached, last known or fallback price.
+     */
+    private boolean stale;
+}
@@ -0,0 +1,50 @@
+package com.actio.actio_api.model.response;
+
+import com.actio.actio_api.model.LotMethod;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * DTO representing the profit and loss of a user's portfolio. Amounts are in EUR.
+ */
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+public class PnlResponse {
+
+    /**
+     * Lot method used to match sales with purchases.
+     */
+    private LotMethod method;
+
+    /**
+     * Cost of all shares held.
+     */
+    private BigDecimal costBasis;
+
+    /**
+     * Current value of all shares held.
+     */
+    private BigDecimal marketValue;
+
+    /**
+     * Market value minus cost basis of all shares held.
+     */
+    private BigDecimal unrealizedPnl;
+
+    /**
+     * Gains of all sales, net of the cost of the shares sold.
+     */
+    private BigDecimal realizedPnl;
+
+    /**
+     * Profit and loss of every stock ever traded, ordered by symbol.
+     */
+    private List<PnlPositionResponse> positions;
+}
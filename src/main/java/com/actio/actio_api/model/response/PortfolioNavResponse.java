@@ -0,0 +1,39 @@
+package com.actio.actio_api.model.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * DTO representing the end-of-day net asset value of a user's account. Amounts are in EUR.
+ */
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+public class PortfolioNavResponse {
+
+    /**
+     * Day valued.
+     */
+    private LocalDate date;
+
+    /**
+     * Account balance at the end of the day.
+     */
+    private BigDecimal cash;
+
+    /**
+     * Value of the stocks held at the end of the day, at their closing prices.
+     */
+    private BigDecimal holdingsValue;
+
+    /**
+     * Cash plus holdings value.
+     */
+    private BigDecimal nav;
+}
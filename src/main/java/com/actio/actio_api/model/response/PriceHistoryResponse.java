@@ -0,0 +1,71 @@
+package com.actio.actio_api.model.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * DTO returning the daily price history of a stock in column form.
+ *
+ * Entry {@code i} of every array belongs to the same trading day, {@code dates[i]}.
+ * Prices are expressed in the trading currency of the stock.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PriceHistoryResponse {
+
+    /**
+     * Ticker symbol of the stock (e.g. "NOS.LS").
+     */
+    private String symbol;
+
+    /**
+     * Trading currency of the prices (e.g. "EUR").
+     */
+    private String currency;
+
+    /**
+     * First day of the requested range.
+     */
+    private LocalDate from;
+
+    /**
+     * Last day of the requested range.
+     */
+    private LocalDate to;
+
+    /**
+     * Trading days within the range, in ascending order.
+     */
+    private LocalDate[] dates;
+
+    /**
+     * Opening price of each day.
+     */
+    private double[] open;
+
+    /**
+     * Highest price of each day.
+     */
+    private double[] high;
+
+    /**
+     * Lowest price of each day.
+     */
+    private double[] low;
+
+    /**
+     * Closing price of each day.
+     */
+    private double[] close;
+
+    /**
+     * Number of shares traded on each day.
+     */
+    private long[] volume;
+}
@@ -0,0 +1,51 @@
+package com.actio.actio_api.model.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO exposing the counters of the per-symbol quote cache.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class QuoteCacheStatsResponse {
+
+    /**
+     * Number of symbols currently held in the cache.
+     */
+    private long size;
+
+    /**
+     * Lookups answered with a fresh entry.
+     */
+    private long hits;
+
+    /**
+     * Lookups answered with a stale entry while a background refresh was triggered.
+     */
+    private long staleHits;
+
+    /**
+     * Lookups that found no entry and had to wait for the upstream.
+     */
+    private long misses;
+
+    /**
+     * Background refreshes started for stale entries.
+     */
+    private long refreshes;
+
+    /**
+     * Background refreshes that failed; the stale entry is kept in that case.
+     */
+    private long refreshFailures;
+
+    /**
+     * Share of lookups answered from memory (fresh or stale), between 0 and 1.
+     */
+    private double hitRatio;
+}
@@ -0,0 +1,53 @@
+package com.actio.actio_api.model.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * DTO exposing the state of the background quote warmer.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class QuoteWarmerStatsResponse {
+
+    /**
+     * Distinct symbols held by at least one account in the last run.
+     */
+    private int heldSymbols;
+
+    /**
+     * Held symbols with a fresh cached quote at the end of the last run.
+     */
+    private int freshSymbols;
+
+    /**
+     * Share of held symbols with a fresh cached quote, between 0 and 100.
+     */
+    private double coveragePercent;
+
+    /**
+     * Moment the last run finished, or null if the warmer has not run yet.
+     */
+    private Instant lastRunAt;
+
+    /**
+     * Quotes refreshed by the warmer since startup.
+     */
+    private long warmed;
+
+    /**
+     * Warming calls that failed since startup.
+     */
+    private long failures;
+
+    /**
+     * Symbols left for a later run because no upstream budget was available.
+     */
+    private long deferred;
+}
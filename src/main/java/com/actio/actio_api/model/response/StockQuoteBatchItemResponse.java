@@ -0,0 +1,50 @@
+package com.actio.actio_api.model.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * DTO representing one symbol of a batch stock quote request.
+ *
+ * Successful entries carry the same data as {@link GetAlphaVantageStockResponse}.
+ * Entries that could not be resolved only carry the symbol and an error message,
+ * so that a single failing symbol does not fail the whole batch.
+ */
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class StockQuoteBatchItemResponse {
+
+    /**
+     * Unique identifier for the stock.
+     */
+    private Long stockId;
+
+    /**
+     * Stock symbol (ticker) as requested.
+     */
+    private String symbol;
+
+    /**
+     * Current price of the stock.
+     */
+    private BigDecimal price;
+
+    /**
+     * Percentage change since last day in stock price.
+     */
+    private String changePercent;
+
+    /**
+     * Error description when the symbol could not be resolved, null otherwise.
+     */
+    private String error;
+
+}
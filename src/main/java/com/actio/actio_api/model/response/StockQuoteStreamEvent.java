@@ -0,0 +1,44 @@
+package com.actio.actio_api.model.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * DTO pushed to stream subscribers whenever the quote of a symbol changes.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockQuoteStreamEvent {
+
+    /**
+     * Ticker symbol of the stock (e.g. "NOS.LS").
+     */
+    private String symbol;
+
+    /**
+     * Latest price of the stock in EUR.
+     */
+    private BigDecimal price;
+
+    /**
+     * Percentage change compared to the previous close (e.g. "0.69%").
+     */
+    private String changePercent;
+
+    /**
+     * Date of the latest trading activity in YYYY-MM-DD format.
+     */
+    private String latestTradingDay;
+
+    /**
+     * Moment the quote was received from the upstream.
+     */
+    private Instant updatedAt;
+}
@@ -0,0 +1,34 @@
+package com.actio.actio_api.model.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO representing one match of a symbol search.
+ */
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class StockSearchItemResponse {
+
+    /**
+     * Unique identifier for the stock, null if the symbol is only known from the listing.
+     */
+    private Long stockId;
+
+    /**
+     * Stock symbol (ticker), e.g. "PETR4.SA".
+     */
+    private String symbol;
+
+    /**
+     * Company name, null if unknown.
+     */
+    private String name;
+
+}
@@ -0,0 +1,68 @@
+package com.actio.actio_api.model.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * DTO exposing the state of the Alpha Vantage call scheduler.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UpstreamSchedulerStatsResponse {
+
+    /**
+     * Number of calls currently waiting for a free slot.
+     */
+    private int queueDepth;
+
+    /**
+     * Number of waiting calls per priority.
+     */
+    private Map<String, Integer> queueDepthByPriority;
+
+    /**
+     * Whole requests currently available in the per-minute bucket.
+     */
+    private int availableMinuteTokens;
+
+    /**
+     * Requests used in the current day.
+     */
+    private int dailyUsed;
+
+    /**
+     * Requests allowed per day.
+     */
+    private int dailyLimit;
+
+    /**
+     * Calls granted a slot since startup.
+     */
+    private long granted;
+
+    /**
+     * Calls rejected since startup (queue full, daily quota exhausted or waited too long).
+     */
+    private long rejected;
+
+    /**
+     * Times the upstream answered with a rate limit notice since startup.
+     */
+    private long rateLimitNotices;
+
+    /**
+     * Average time granted calls waited for a slot, in milliseconds.
+     */
+    private double averageWaitMillis;
+
+    /**
+     * Longest time a granted call waited for a slot, in milliseconds.
+     */
+    private long maxWaitMillis;
+}
@@ -18,5 +18,12 @@ public class WalletResponse {
     private Integer quantity;
     private double currentValue;
     private String dailyVariation;
+
+    /**
+     * True when the price does not come from a live quote or a cached one within its TTL:
+     * it comes from a stale cached, last known or fallback quote, or from a quote whose TTL
+     * has passed since.
+     */
+    private boolean stale;
 }
 
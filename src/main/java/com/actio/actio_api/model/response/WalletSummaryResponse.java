@@ -0,0 +1,38 @@
+package com.actio.actio_api.model.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * DTO representing the totals of a user's wallet.
+ */
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+public class WalletSummaryResponse {
+
+    /**
+     * Average cost of all shares held, in EUR.
+     */
+    private BigDecimal investedValue;
+
+    /**
+     * Current value of all shares held, in EUR.
+     */
+    private BigDecimal marketValue;
+
+    /**
+     * Number of stocks held.
+     */
+    private int positions;
+
+    /**
+     * Number of stocks valued with a cached, last known or fallback price.
+     */
+    private int stalePositions;
+}
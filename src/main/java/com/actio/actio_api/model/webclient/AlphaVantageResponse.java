@@ -9,6 +9,10 @@ import lombok.Data;
  * The Alpha Vantage API returns stock quote data under the key "Global Quote".
  * This class maps that portion of the response to a structured {@link GlobalQuote} object.
  *
+ * When the request quota is exceeded, Alpha Vantage omits the quote and returns a "Note" or
+ * "Information" message instead; both are mapped so the caller can detect rate limiting.
+ * Requests for an unknown symbol yield an empty quote or an "Error Message".
+ *
  * Used primarily in the service layer to deserialize JSON and provide access to stock quote data.
  */
 @Data
@@ -17,8 +21,24 @@ public class AlphaVantageResponse {
     @JsonProperty("Global Quote")
     private GlobalQuote globalQuote;
 
+    @JsonProperty("Note")
+    private String note;
+
+    @JsonProperty("Information")
+    private String information;
+
+    @JsonProperty("Error Message")
+    private String errorMessage;
+
     public GlobalQuote getGlobalQuote() {
         return globalQuote;
     }
 
+    /**
+     * Returns the rate limit notice sent by Alpha Vantage, or null if the response carries none.
+     */
+    public String getRateLimitNotice() {
+        return note != null ? note : information;
+    }
+
 }
@@ -4,6 +4,7 @@ import com.actio.actio_api.model.Account;
 import com.actio.actio_api.model.StockItem;
 import com.actio.actio_api.model.StockItemId;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -13,4 +14,11 @@ public interface StockItemRepository extends JpaRepository<StockItem, StockItemI
     boolean existsByAccount(Account account);
 
     List<StockItem> findByAccountId(Long id);
+
+    /**
+     * Returns the symbols currently held by at least one account, most widely held first.
+     */
+    @Query("SELECT s.stockName FROM StockItem si JOIN si.stock s WHERE si.quantity > 0 " +
+            "GROUP BY s.stockName ORDER BY COUNT(si) DESC, s.stockName")
+    List<String> findHeldSymbolsOrderByHolders();
 }
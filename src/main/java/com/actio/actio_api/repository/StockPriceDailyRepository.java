@@ -0,0 +1,17 @@
+package com.actio.actio_api.repository;
+
+import com.actio.actio_api.model.StockPriceDaily;
+import com.actio.actio_api.model.StockPriceDailyId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface StockPriceDailyRepository extends JpaRepository<StockPriceDaily, StockPriceDailyId> {
+
+    List<StockPriceDaily> findByIdStockIdOrderByIdPriceDateAsc(Long stockId);
+
+    @Query("SELECT MAX(p.id.priceDate) FROM StockPriceDaily p WHERE p.id.stockId = :stockId")
+    LocalDate findLastPriceDate(Long stockId);
+}
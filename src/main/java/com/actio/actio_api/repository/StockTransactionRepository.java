@@ -2,10 +2,24 @@ package com.actio.actio_api.repository;
 
 import com.actio.actio_api.model.Account;
 import com.actio.actio_api.model.StockTransaction;
+import com.actio.actio_api.model.TransactionRecord;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 
 public interface StockTransactionRepository extends JpaRepository<StockTransaction, Integer> {
     List<StockTransaction> findByAccount(Account account);
+
+    /**
+     * Returns the transactions of an account with an id greater than the given one, in id
+     * order, in a single statement. Ids follow execution order for transactions saved by the
+     * application, so the id of the last transaction read is a resumable position.
+     */
+    @Query("SELECT new com.actio.actio_api.model.TransactionRecord(t.id, s.idStock, s.stockName, tt.typeDescription, " +
+            "t.quantity, t.negotiationPrice, t.transactionDateTime) " +
+            "FROM StockTransaction t JOIN t.stock s JOIN t.transactionType tt " +
+            "WHERE t.account.id = :accountId AND t.id > :afterId ORDER BY t.id")
+    List<TransactionRecord> findRecordsByAccountId(@Param("accountId") Long accountId, @Param("afterId") Long afterId);
 }
@@ -87,7 +87,8 @@ public class SecurityConfig {
      * Defines the security filter chain for incoming HTTP requests.
      *
      * - Disables CSRF protection (not needed for stateless APIs) <br>
-     * - Allows unauthenticated access to endpoints such as login and registration <br>
+     * - Allows unauthenticated access to endpoints such as login and registration, and to the
+     *   Actuator health and Prometheus endpoints <br>
      * - Requires authentication for all other endpoints <br>
      * - Configures stateless session management <br>
      * - Adds a custom JWT authorization filter before the default authentication filter
@@ -107,6 +108,8 @@ public class SecurityConfig {
                         .requestMatchers("/api/test/buy-hardcoded").permitAll()
                         .requestMatchers("/users/save").permitAll()
                         .requestMatchers("/auth/login").permitAll()
+                        .requestMatchers("/actuator/health", "/actuator/prometheus").permitAll()
+                        .requestMatchers("/simulator/**").permitAll()
                         .requestMatchers("/stocks/**").permitAll()
                         .requestMatchers("/transactions/buy").hasRole("CLIENT")
                         .requestMatchers("/transactions/sell").hasRole("CLIENT")
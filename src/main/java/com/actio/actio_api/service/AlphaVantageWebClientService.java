@@ -1,126 +1,364 @@
 package com.actio.actio_api.service;
 
 import com.actio.actio_api.db.QuoteFallBackProvider;
+import com.actio.actio_api.model.EuroQuote;
+import com.actio.actio_api.model.QuoteSource;
+import com.actio.actio_api.model.ScaledPrice;
+import com.actio.actio_api.model.SourcedQuote;
 import com.actio.actio_api.model.Stock;
+import com.actio.actio_api.model.UpstreamPriority;
 import com.actio.actio_api.model.response.GetAlphaVantageStockResponse;
+import com.actio.actio_api.model.response.StockQuoteBatchItemResponse;
 import com.actio.actio_api.model.webclient.AlphaVantageResponse;
 import com.actio.actio_api.model.webclient.GlobalQuote;
-import com.fasterxml.jackson.databind.JsonNode;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 import java.math.BigDecimal;
-import java.math.BigInteger;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 
 /**
  * Service class responsible for interacting with the Alpha Vantage API to retrieve stock quotes
- * and currency exchange rates, and to convert stock price data from USD to EUR.
+ * and currency exchange rates, and to convert stock price data from its trading currency to EUR.
  *
  * This service coordinates three main operations:
- * - Fetches the current USD to EUR exchange rate using the CurrencyCacheService.
- * - Retrieves the latest stock quote for a given symbol from the Alpha Vantage API.
+ * - Fetches the exchange rate from the symbol's trading currency to EUR using the CurrencyCacheService.
+ * - Retrieves the latest stock quote for a given symbol, served from the QuoteCacheService
+ *   when available and from the Alpha Vantage API otherwise.
  * - Resolves or creates a local stock record and constructs a unified response object
  *   with all relevant financial data in EUR.
  *
- * WebClient is used for making HTTP requests to the external API, and all operations
- * are managed reactively using Mono.
+ * The shared Alpha Vantage WebClient is used for making HTTP requests to the external API, and all operations
+ * are managed reactively using Mono. Concurrent quote requests for the same symbol are
+ * coalesced into a single upstream call (single-flight), so a burst of identical requests
+ * consumes only one unit of the Alpha Vantage quota. Every upstream call goes through the
+ * {@link UpstreamCallScheduler}, which enforces the request quota and serves waiting calls
+ * by {@link UpstreamPriority}, and through the {@link UpstreamCircuitBreaker}, which fails
+ * fast to cached or fallback data while Alpha Vantage is failing or slow.
  *
  * Error handling is implemented throughout the chain to ensure fallback behaviors
- * and graceful degradation in the event of API failures or malformed responses.
+ * and graceful degradation in the event of API failures or malformed responses. Fallback
+ * activations and conversion times are recorded in {@link QuoteMetrics}.
  *
  * This service is designed to be injected into web endpoints or other components
  * requiring real-time stock and currency conversion.
  */
+@Slf4j
 @Service
 public class AlphaVantageWebClientService {
 
     private final WebClient webClient;
     private final CurrencyCacheService currencyCacheService;
     private final StockService stockService;
+    private final QuoteCacheService quoteCacheService;
+    private final UpstreamCallScheduler upstreamCallScheduler;
+    private final UpstreamCircuitBreaker upstreamCircuitBreaker;
     private final QuoteFallBackProvider quoteFallBackProvider;
+    private final LastQuoteStore lastQuoteStore;
+    private final SymbolValidator symbolValidator;
+    private final UpstreamHedger upstreamHedger;
+    private final QuoteMetrics metrics;
+
+    /**
+     * Upstream quote requests currently in progress, keyed by upper-case symbol.
+     * Every caller asking for a symbol present in this map joins the pending request
+     * instead of issuing a new one, raising its priority if the caller's is higher. Entries
+     * are removed as soon as the request terminates.
+     */
+    private final Map<String, InFlightQuote> inFlightQuotes = new ConcurrentHashMap<>();
 
     @Value("${apiKey}")
     private String apiKey;
 
-    public AlphaVantageWebClientService(CurrencyCacheService currencyCacheService, StockService stockService) {
-        this.webClient = WebClient.builder()
-                .baseUrl("https://www.alphavantage.co")
-                .build();
+    @Value("${alphavantage.batch.max-symbols:25}")
+    private int batchMaxSymbols;
+
+    @Value("${alphavantage.batch.max-concurrency:4}")
+    private int batchMaxConcurrency;
+
+    public AlphaVantageWebClientService(WebClient webClient, CurrencyCacheService currencyCacheService,
+                                        StockService stockService,
+                                        QuoteCacheService quoteCacheService,
+                                        UpstreamCallScheduler upstreamCallScheduler,
+                                        UpstreamCircuitBreaker upstreamCircuitBreaker,
+                                        QuoteFallBackProvider quoteFallBackProvider,
+                                        LastQuoteStore lastQuoteStore,
+                                        SymbolValidator symbolValidator,
+                                        UpstreamHedger upstreamHedger,
+                                        QuoteMetrics metrics) {
+        this.webClient = webClient;
         this.currencyCacheService = currencyCacheService;
         this.stockService = stockService;
-        this.quoteFallBackProvider = new QuoteFallBackProvider();
+        this.quoteCacheService = quoteCacheService;
+        this.upstreamCallScheduler = upstreamCallScheduler;
+        this.upstreamCircuitBreaker = upstreamCircuitBreaker;
+        this.quoteFallBackProvider = quoteFallBackProvider;
+        this.lastQuoteStore = lastQuoteStore;
+        this.symbolValidator = symbolValidator;
+        this.upstreamHedger = upstreamHedger;
+        this.metrics = metrics;
     }
 
     /**
-     * Retrieves stock data for the given symbol, converted from USD to EUR.
+     * Retrieves stock data for the given symbol, converted from its trading currency to EUR.
      *
      * This method performs the following steps in a reactive chain:
-     * - Fetches the current USD→EUR exchange rate.
-     * - Retrieves the raw stock quote for the symbol from Alpha Vantage.
+     * - Fetches the exchange rate from the symbol's trading currency to EUR.
+     * - Retrieves the raw stock quote for the symbol from the quote cache, which only calls
+     *   Alpha Vantage on a miss; stale entries are served while they refresh in the background.
+     * - Falls back to mock data when no cached or live quote is available.
      * - Converts relevant price fields in the quote to EUR.
      * - Resolves or stores the corresponding local Stock entity.
      * - Returns a structured response object with combined data.
      *
-     * If any step fails, the resulting error is wrapped in an IllegalStateException.
+     * If the symbol is malformed or unknown upstream, the error is an {@link UnknownSymbolException}
+     * and no stock record is created. If any other step fails, the resulting error is wrapped
+     * in an IllegalStateException.
+     *
+     * Upstream calls are made with {@link UpstreamPriority#TRADE} priority, since single quotes
+     * are requested right before a trade.
      *
      * @param symbol the stock ticker symbol to query (e.g. "AAPL", "NOS.LS")
      * @return Mono containing the stock quote response in EUR, or an error
      */
     public Mono<GetAlphaVantageStockResponse> getStock(String symbol) {
-        System.out.println("[AlphaVantageWebClientService] getStock: " + symbol);
-        return fetchExchangeRate()
-                .flatMap(exchangeRate -> fetchStockQuote(symbol)
-                        .map(quote -> convertQuoteToEuro(quote, exchangeRate))
-                        .flatMap(quote -> resolveLocalStock(symbol)
-                                .map(stock -> buildResponse(quote, stock))
-                        )
+        return getStock(symbol, UpstreamPriority.TRADE);
+    }
+
+    /**
+     * Retrieves stock data for the given symbol, converted to EUR, using the given
+     * priority for any upstream call needed to resolve the quote.
+     *
+     * @param symbol the stock ticker symbol to query (e.g. "AAPL", "NOS.LS")
+     * @param priority the priority of upstream calls when the request quota is saturated
+     * @return Mono containing the stock quote response in EUR, or an error
+     * @see #getStock(String)
+     */
+    public Mono<GetAlphaVantageStockResponse> getStock(String symbol, UpstreamPriority priority) {
+        log.debug("getStock: {}", symbol);
+        return resolveQuoteInEuro(symbol, priority)
+                .flatMap(resolved -> resolveLocalStock(symbol)
+                        .map(stock -> buildResponse(resolved, stock))
                 )
-                .onErrorResume(ex -> {
-                    System.out.println("[AlphaVantageWebClientService] Failed to process stock for symbol '" + symbol + "': " + ex.getMessage());
+                .onErrorResume(ex -> !(ex instanceof UnknownSymbolException), ex -> {
+                    log.warn("Failed to process stock for symbol '{}': {}", symbol, ex.getMessage());
                     return Mono.error(new IllegalStateException("Unable to process stock information."));
                 });
     }
 
     /**
-     * Fetches the current USD→EUR exchange rate using the CurrencyCacheService.
+     * Retrieves stock data for several symbols in a single operation, converted to EUR.
      *
-     * This method calls a synchronous service to retrieve and cache the exchange rate.
-     * Any errors during the retrieval are caught and wrapped in a reactive Mono as IllegalStateException.
+     * Quotes are resolved concurrently, with at most {@code alphavantage.batch.max-concurrency}
+     * symbols in progress at the same time, and each is converted with the rate of its own
+     * trading currency. All local Stock records are resolved with a single query.
      *
-     * @return Mono containing the exchange rate value if successful, or an error
+     * The batch never fails as a whole because of a single symbol: each symbol that cannot be
+     * processed is returned with an error marker instead of price data. Results keep the order
+     * of the requested symbols; duplicates and blank entries are ignored. Local Stock records
+     * are only resolved, and possibly created, for symbols that got a quote. Upstream calls are
+     * made with {@link UpstreamPriority#WALLET} priority.
+     *
+     * @param symbols the stock ticker symbols to query
+     * @return Mono containing one result per distinct symbol
+     * @throws IllegalArgumentException if no symbol or more than
+     *         {@code alphavantage.batch.max-symbols} are given
      */
-    private Mono<BigDecimal> fetchExchangeRate() {
-        try {
-            BigDecimal rate = currencyCacheService.getUsdToEurRate(apiKey);
-            return Mono.just(rate);
-        } catch (Exception ex) {
-            System.out.println("[AlphaVantageWebClientService]: fetchExchangeRate failed: " + ex.getMessage());
-            return Mono.error(new IllegalStateException("Failed to retrieve exchange rate."));
+    public Mono<List<StockQuoteBatchItemResponse>> getStocks(List<String> symbols) {
+        List<String> distinctSymbols = symbols.stream()
+                .map(String::trim)
+                .filter(symbol -> !symbol.isEmpty())
+                .map(String::toUpperCase)
+                .distinct()
+                .toList();
+        if (distinctSymbols.isEmpty() || distinctSymbols.size() > batchMaxSymbols) {
+            return Mono.error(new IllegalArgumentException(
+                    "Between 1 and " + batchMaxSymbols + " symbols must be requested."));
         }
+        log.debug("getStocks: {}", distinctSymbols);
+
+        return Flux.fromIterable(distinctSymbols)
+                .flatMap(symbol -> resolveQuoteInEuro(symbol, UpstreamPriority.WALLET)
+                                .map(resolved -> Map.entry(symbol, resolved.getQuote()))
+                                .onErrorResume(ex -> {
+                                    log.warn("getStocks failed for symbol '{}': {}", symbol, ex.getMessage());
+                                    return Mono.empty();
+                                }),
+                        batchMaxConcurrency)
+                .collectMap(Map.Entry::getKey, Map.Entry::getValue)
+                .map(quotes -> {
+                    Map<String, Stock> stocks = resolveLocalStocks(distinctSymbols.stream()
+                            .filter(quotes::containsKey)
+                            .toList());
+                    return distinctSymbols.stream()
+                            .map(symbol -> buildBatchItem(symbol, quotes.get(symbol), stocks.get(symbol)))
+                            .toList();
+                });
+    }
+
+    /**
+     * Retrieves stock data for the given symbol, converted to EUR, without any upstream quote
+     * call: the cached quote regardless of its age, otherwise the last known or mock quote.
+     *
+     * Used when a live quote could not be obtained in time, e.g. by the wallet valuation
+     * once its deadline has passed.
+     *
+     * @param symbol the stock ticker symbol
+     * @param cause the error that prevented serving a live quote, reported in the fallback metrics
+     * @return Mono containing the possibly stale stock quote response in EUR, or an error
+     */
+    public Mono<GetAlphaVantageStockResponse> getStaleStock(String symbol, Throwable cause) {
+        return fetchExchangeRate(symbol)
+                .flatMap(exchangeRate -> {
+                    long rate = ScaledPrice.of(exchangeRate);
+                    return Mono.justOrEmpty(quoteCacheService.peek(symbol))
+                            .switchIfEmpty(Mono.fromCallable(() -> loadFallbackQuote(symbol, cause))
+                                    .subscribeOn(Schedulers.boundedElastic()))
+                            .map(sourced -> convert(sourced, rate));
+                })
+                .flatMap(resolved -> resolveLocalStock(symbol)
+                        .map(stock -> buildResponse(resolved, stock)));
+    }
+
+    /**
+     * Fetches a live quote for the given symbol and stores it in the quote cache, replacing
+     * any cached entry. No fallback is applied and no price conversion is done: the call
+     * only exists to keep the cache warm.
+     *
+     * Concurrent requests for the same symbol still share one upstream call.
+     *
+     * @param symbol the stock ticker symbol
+     * @param priority the priority of the upstream call when the request quota is saturated
+     * @return Mono containing the live quote as stored in the cache, or an error
+     */
+    public Mono<GlobalQuote> refreshQuote(String symbol, UpstreamPriority priority) {
+        return fetchStockQuote(symbol, priority)
+                .doOnNext(quote -> quoteCacheService.put(symbol, quote));
+    }
+
+    /**
+     * Resolves the quote of a single symbol and converts its prices to EUR.
+     *
+     * The quote is served by the quote cache, which only calls Alpha Vantage on a miss.
+     * When neither a cached nor a live quote is available, the last known quote persisted
+     * by the {@link LastQuoteStore} is used, and mock data as a last resort. Unknown symbols
+     * get no fallback and fail with {@link UnknownSymbolException}.
+     * The price is converted with the rate from the symbol's trading currency to EUR using
+     * {@link ScaledPrice} arithmetic, so no BigDecimal is allocated until the response is built.
+     *
+     * @param symbol the stock ticker symbol
+     * @param priority the priority of upstream calls when the request quota is saturated
+     * @return Mono containing the quote with its price in EUR, and its source
+     */
+    private Mono<ResolvedQuote> resolveQuoteInEuro(String symbol, UpstreamPriority priority) {
+        return fetchExchangeRate(symbol)
+                .flatMap(exchangeRate -> {
+                    long rate = ScaledPrice.of(exchangeRate);
+                    return quoteCacheService.getQuote(symbol, key -> fetchStockQuote(key, priority))
+                            .onErrorResume(ex -> !(ex instanceof UnknownSymbolException),
+                                    ex -> Mono.fromCallable(() -> loadFallbackQuote(symbol, ex))
+                                            .subscribeOn(Schedulers.boundedElastic()))
+                            .map(sourced -> convert(sourced, rate));
+                });
+    }
 
+    private ResolvedQuote convert(SourcedQuote sourced, long rate) {
+        return new ResolvedQuote(metrics.timeConversion(() -> EuroQuote.convert(sourced.getQuote(), rate)), sourced.getSource());
+    }
+
+    /**
+     * Fetches the exchange rate from the trading currency of the given symbol to EUR
+     * using the CurrencyCacheService.
+     *
+     * The rate is served from memory without blocking; any error during the retrieval
+     * is wrapped as IllegalStateException.
+     *
+     * @param symbol the stock ticker symbol whose exchange suffix determines the currency
+     * @return Mono containing the exchange rate value if successful, or an error
+     */
+    private Mono<BigDecimal> fetchExchangeRate(String symbol) {
+        return currencyCacheService.getEuroRateForSymbol(symbol)
+                .onErrorResume(ex -> {
+                    log.warn("fetchExchangeRate failed for symbol {}: {}", symbol, ex.getMessage());
+                    return Mono.error(new IllegalStateException("Failed to retrieve exchange rate."));
+                });
     }
 
     /**
      * Attempts to retrieve the latest stock quote from the Alpha Vantage API for the given symbol.
      *
      * If the API call succeeds and returns a valid response, the result is returned directly.
-     * If the response is malformed or missing key fields (such as symbol or price), the service
-     * automatically switches to a fallback mechanism that reads pre-configured mock data from a file.
+     * If the response is malformed or missing key fields (such as symbol or price), or the call
+     * fails due to rate limits or connectivity issues, an error is emitted instead.
+     *
+     * Concurrent callers for the same symbol share a single upstream request: the first caller
+     * registers a cached Mono in the in-flight registry and later callers subscribe to it until
+     * it terminates. The outcome, success or error, is delivered to every caller. The request
+     * is queued in the {@link UpstreamCallScheduler} with the priority of the first caller, and
+     * moved up while it waits if a caller with a higher priority joins it.
+     *
+     * While the GLOBAL_QUOTE circuit is open the request fails immediately, without queueing,
+     * so the caller falls back at once instead of waiting for the upstream to time out.
      *
-     * This fallback also activates if the API call fails due to exceptions such as rate limits
-     * or connectivity issues.
+     * When hedging is enabled, a request still unanswered after the hedge delay of the
+     * {@link UpstreamHedger} is sent a second time, within the hedge budget, and the first
+     * answer is used.
      *
-     * If no matching symbol is found in the mock file, the method uses the default entry and
-     * replaces its symbol field with the originally requested symbol.
+     * Fallback data is deliberately not applied here: this method is the loader of the quote
+     * cache, and only live quotes may be stored there. The fallback is applied by the caller.
+     *
+     * Symbols rejected by the {@link SymbolValidator} fail with {@link UnknownSymbolException}
+     * before any upstream call.
+     *
+     * @param symbol the stock ticker to retrieve
+     * @param priority the priority of the upstream call when the request quota is saturated
+     * @return Mono containing the live GlobalQuote, or an error
+     */
+    private Mono<GlobalQuote> fetchStockQuote(String symbol, UpstreamPriority priority) {
+        String key = symbol.toUpperCase();
+        return Mono.fromRunnable(() -> symbolValidator.requireAccepted(symbol))
+                .then(Mono.defer(() -> {
+                    InFlightQuote inFlight = inFlightQuotes.computeIfAbsent(key, k -> {
+                        UpstreamCallScheduler.Ticket ticket = new UpstreamCallScheduler.Ticket(priority);
+                        Supplier<Mono<GlobalQuote>> request = () -> upstreamCircuitBreaker
+                                .execute(UpstreamCircuitBreaker.GLOBAL_QUOTE, () -> requestStockQuote(symbol));
+                        return new InFlightQuote(ticket, upstreamCircuitBreaker
+                                .checkPermitted(UpstreamCircuitBreaker.GLOBAL_QUOTE)
+                                .then(upstreamCallScheduler.schedule(ticket, () -> upstreamHedger.execute(request, request)))
+                                .doFinally(signal -> inFlightQuotes.remove(k))
+                                .cache());
+                    });
+                    upstreamCallScheduler.raise(inFlight.getTicket(), priority);
+                    return inFlight.getQuote();
+                }));
+    }
+
+    /**
+     * Performs the GLOBAL_QUOTE request against Alpha Vantage and validates the response.
+     *
+     * A "Note" or "Information" payload means the upstream quota was exceeded: the scheduler
+     * is notified so that waiting calls back off, and the request fails with
+     * {@link UpstreamQuotaExceededException}. An empty quote or an "Error Message" payload
+     * means the symbol is unknown upstream: it is added to the negative cache of the
+     * {@link SymbolValidator} and the request fails with {@link UnknownSymbolException}.
      *
      * @param symbol the stock ticker to retrieve
-     * @return Mono containing the resolved GlobalQuote from live data or fallback
+     * @return Mono containing the live GlobalQuote, or an error if the call fails or the quote is malformed
      */
-    private Mono<GlobalQuote> fetchStockQuote(String symbol) {
-        System.out.println("[AlphaVantageWebClientService] fetchStockQuote: " + symbol);
+    private Mono<GlobalQuote> requestStockQuote(String symbol) {
+        log.debug("fetchStockQuote: {}", symbol);
         return webClient.get()
                 .uri(uriBuilder -> uriBuilder
                         .path("/query")
@@ -132,51 +370,29 @@ public class AlphaVantageWebClientService {
                 .retrieve()
                 .bodyToMono(AlphaVantageResponse.class)
                 .flatMap(response -> {
+                    if (response.getRateLimitNotice() != null) {
+                        upstreamCallScheduler.onRateLimitNotice(response.getRateLimitNotice());
+                        return Mono.error(new UpstreamQuotaExceededException("Alpha Vantage rate limit notice received"));
+                    }
                     GlobalQuote quote = response.getGlobalQuote();
+                    if (response.getErrorMessage() != null || (quote != null && quote.getSymbol() == null && quote.getPrice() == null)) {
+                        symbolValidator.markUnknown(symbol);
+                        return Mono.error(new UnknownSymbolException("Unknown symbol: " + symbol));
+                    }
                     if (quote == null || quote.getPrice() == null || quote.getSymbol() == null) {
-                        System.out.println("[AlphaVantageWebClientService] fetchStockQuote failed: Invalid or empty stock quote received from API");
-                        return Mono.error(new IllegalStateException("Stock quote not found or malformed"));
+                        return Mono.error(new MalformedUpstreamResponseException("Stock quote not found or malformed"));
                     }
                     return Mono.just(quote);
                 })
-                .onErrorResume(ex -> {
-                    System.out.println("[AlphaVantageWebClientService] fetchStockQuote failed for symbol " + symbol + ": " + ex.getMessage());
-                    GlobalQuote fallbackQuote = loadMockQuote(symbol);
-                    System.out.println("[AlphaVantageWebClientService] loadedMockQuote for symbol " + symbol + ": " + fallbackQuote);
-                    return Mono.just(fallbackQuote);
-                });
-    }
-
-    /**
-     * Converts all monetary fields in the provided stock quote from USD to EUR
-     * using the given exchange rate.
-     *
-     * Only non-null values are multiplied; null values are safely defaulted to zero.
-     *
-     * @param quote the original stock quote in USD
-     * @param rate the USD→EUR exchange rate
-     * @return GlobalQuote object with price fields expressed in EUR
-     */
-    private GlobalQuote convertQuoteToEuro(GlobalQuote quote, BigDecimal rate) {
-        return GlobalQuote.builder()
-                .symbol(quote.getSymbol())
-                .price(quote.getPrice().multiply(rate))
-                .changePercent(quote.getChangePercent())
-                .low(quote.getLow().multiply(rate))
-                .open(quote.getOpen().multiply(rate))
-                .high(quote.getHigh().multiply(rate))
-                .previousClose(quote.getPreviousClose().multiply(rate))
-                .change(quote.getChange().multiply(rate))
-                .volume(quote.getVolume())
-                .latestTradingDay(quote.getLatestTradingDay())
-                .build();
+                .doOnError(ex -> log.warn("fetchStockQuote failed for symbol {}: {}", symbol, ex.getMessage()));
     }
 
     /**
      * Resolves a local stock entry based on the given symbol.
      *
-     * If the stock exists in the database, it is retrieved.
-     * If it does not exist, a new record is created and persisted.
+     * Known stocks are served from the in-memory identity cache of the StockService.
+     * If the stock does not exist, a new record is created and persisted exactly once,
+     * even when several requests resolve the same new symbol at the same time.
      * All operations are wrapped in a reactive Mono.
      *
      * @param symbol the stock ticker symbol
@@ -184,79 +400,138 @@ public class AlphaVantageWebClientService {
      */
     private Mono<Stock> resolveLocalStock(String symbol) {
         try {
-            Stock stock = stockService.stockIsSaved(symbol)
-                    ? stockService.findByStockName(symbol)
-                    : stockService.save(Stock.builder().stockName(symbol).build());
-            return Mono.just(stock);
+            return Mono.just(stockService.findOrCreate(symbol));
         } catch (Exception ex) {
-            System.out.println("[AlphaVantageWebClientService] resolveLocalStock failed: " + ex.getMessage());
+            log.error("resolveLocalStock failed for symbol {}: {}", symbol, ex.getMessage());
             return Mono.error(new IllegalStateException("Failed to access local stock data."));
         }
     }
 
     /**
-     * Constructs a unified response DTO from the given GlobalQuote and Stock entity.
+     * Resolves the local stock entries of several symbols at once.
+     *
+     * Existing records are loaded with a single query and missing ones are created in one batch.
+     * If the batch insert fails, symbols are saved one by one so that a single invalid symbol
+     * does not prevent the others from being resolved; failed symbols are left out of the result.
+     *
+     * @param symbols the stock ticker symbols
+     * @return map of symbol to resolved Stock entity
+     */
+    private Map<String, Stock> resolveLocalStocks(List<String> symbols) {
+        try {
+            return stockService.findOrCreateAll(symbols);
+        } catch (Exception ex) {
+            log.warn("resolveLocalStocks failed, resolving individually: {}", ex.getMessage());
+            Map<String, Stock> stocks = new HashMap<>();
+            for (String symbol : symbols) {
+                resolveLocalStock(symbol)
+                        .onErrorResume(error -> Mono.empty())
+                        .blockOptional()
+                        .ifPresent(stock -> stocks.put(symbol, stock));
+            }
+            return stocks;
+        }
+    }
+
+    /**
+     * Constructs a unified response DTO from the given EUR quote and Stock entity.
      *
      * The resulting object contains metadata from the database and market price data
      * obtained from the external API.
      *
-     * @param quote the market data quote in EUR
+     * @param resolved the market data quote in EUR, with its source
      * @param stock the resolved database record for the given symbol
      * @return structured response containing all relevant fields
      */
-    private GetAlphaVantageStockResponse buildResponse(GlobalQuote quote, Stock stock) {
+    private GetAlphaVantageStockResponse buildResponse(ResolvedQuote resolved, Stock stock) {
+        EuroQuote quote = resolved.getQuote();
         return GetAlphaVantageStockResponse.builder()
                 .stockId(stock.getIdStock())
                 .symbol(quote.getSymbol())
-                .price(quote.getPrice())
+                .price(quote.priceForApi())
                 .changePercent(quote.getChangePercent())
+                .source(resolved.getSource())
                 .build();
     }
 
     /**
-     * Loads a mocked GlobalQuote from a local JSON file based on the provided symbol.
+     * Constructs a single entry of a batch response.
      *
-     * The method scans a file containing simulated Alpha Vantage API responses and tries to
-     * find a quote that matches the requested symbol. If a match is found, it is parsed and returned.
+     * When either the quote or the local stock record is missing, the entry only carries
+     * the symbol and an error marker.
      *
-     * If no exact match is found, the method looks for the "DEFAULT" entry, modifies its symbol
-     * field to reflect the requested value, and returns that instead.
+     * @param symbol the requested stock ticker symbol
+     * @param quote the market data quote in EUR, or null
+     * @param stock the resolved database record, or null
+     * @return batch entry with price data or an error marker
+     */
+    private StockQuoteBatchItemResponse buildBatchItem(String symbol, EuroQuote quote, Stock stock) {
+        if (quote == null || stock == null) {
+            return StockQuoteBatchItemResponse.builder()
+                    .symbol(symbol)
+                    .error("Unable to process stock information.")
+                    .build();
+        }
+        return StockQuoteBatchItemResponse.builder()
+                .stockId(stock.getIdStock())
+                .symbol(symbol)
+                .price(quote.priceForApi())
+                .changePercent(quote.getChangePercent())
+                .build();
+    }
+
+    /**
+     * Loads the fallback quote of a symbol: its last known quote if it was ever fetched,
+     * otherwise mock data. Queries the database, so it must run off the event loop.
      *
      * @param symbol the stock ticker symbol being searched
-     * @return GlobalQuote object loaded from fallback data
+     * @param cause the error that prevented serving a live or cached quote
+     * @return the last known or mocked GlobalQuote, with its source
      */
-    private GlobalQuote loadMockQuote(String symbol) {
-        try {
-            return quoteFallBackProvider.getFallBackQuote(symbol.toUpperCase());
-        } catch (Exception ex) {
-            System.out.println("[AlphaVantageWebClientServie] loadMockQuote failed: Failed to load fallback data: " + ex.getMessage());
-            return quoteFallBackProvider.getFallBackQuote("DEFAULT");
-        }
+    private SourcedQuote loadFallbackQuote(String symbol, Throwable cause) {
+        return lastQuoteStore.find(symbol)
+                .map(lastQuote -> {
+                    metrics.countFallback(UpstreamCircuitBreaker.GLOBAL_QUOTE, cause, "last_known");
+                    log.info("Serving last known quote for symbol {}", symbol);
+                    return new SourcedQuote(lastQuote, QuoteSource.LAST_KNOWN);
+                })
+                .orElseGet(() -> {
+                    metrics.countFallback(UpstreamCircuitBreaker.GLOBAL_QUOTE, cause, "mock");
+                    log.info("Serving mock quote for symbol {}", symbol);
+                    return new SourcedQuote(loadMockQuote(symbol), QuoteSource.MOCK);
+                });
     }
 
     /**
-     * Parses a JSON node representing a single Alpha Vantage-style quote into a GlobalQuote object.
+     * Loads a mocked GlobalQuote for the provided symbol from the fallback quote store.
      *
-     * Each field is extracted and converted to its respective data type, such as BigDecimal
-     * for monetary values and BigInteger for volume. This method assumes the node structure
-     * closely matches the output format of Alpha Vantage's GLOBAL_QUOTE function.
+     * If the store has no entry for the symbol, its "DEFAULT" entry is returned with the
+     * symbol field set to the requested value.
      *
-     * @param node the JSON node containing the quote data
-     * @return parsed GlobalQuote instance
+     * @param symbol the stock ticker symbol being searched
+     * @return GlobalQuote object loaded from fallback data
      */
-    private GlobalQuote parseMockGlobalQuote(JsonNode node) {
-        return GlobalQuote.builder()
-                .symbol(node.path("01. symbol").asText())
-                .open(new BigDecimal(node.path("02. open").asText()))
-                .high(new BigDecimal(node.path("03. high").asText()))
-                .low(new BigDecimal(node.path("04. low").asText()))
-                .price(new BigDecimal(node.path("05. price").asText()))
-                .volume(new BigInteger(node.path("06. volume").asText()))
-                .latestTradingDay(node.path("07. latest trading day").asText())
-                .previousClose(new BigDecimal(node.path("08. previous close").asText()))
-                .change(new BigDecimal(node.path("09. change").asText()))
-                .changePercent(node.path("10. change percent").asText())
-                .build();
+    private GlobalQuote loadMockQuote(String symbol) {
+        return quoteFallBackProvider.getFallBackQuote(symbol);
     }
 
+    /**
+     * Upstream quote request shared by concurrent callers, with the ticket holding its priority.
+     */
+    @Getter
+    @AllArgsConstructor
+    private static final class InFlightQuote {
+        private final UpstreamCallScheduler.Ticket ticket;
+        private final Mono<GlobalQuote> quote;
+    }
+
+    /**
+     * Quote converted to EUR, together with where it was obtained from.
+     */
+    @Getter
+    @AllArgsConstructor
+    private static final class ResolvedQuote {
+        private final EuroQuote quote;
+        private final QuoteSource source;
+    }
 }
@@ -1,98 +1,352 @@
 package com.actio.actio_api.service;
 
+import com.actio.actio_api.config.FxRateProperties;
+import com.actio.actio_api.model.ScaledPrice;
+import com.actio.actio_api.model.UpstreamPriority;
 import com.fasterxml.jackson.databind.JsonNode;
-import org.springframework.cache.annotation.Cacheable;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Mono;
 
 import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
- * Service responsible for retrieving and caching the USD to EUR currency exchange rate
- * from the Alpha Vantage API using Spring WebClient.
+ * Service responsible for retrieving and caching currency exchange rates from the
+ * Alpha Vantage API using Spring WebClient.
  *
- * The exchange rate is cached for performance and reliability, reducing external API calls
- * and ensuring consistent data usage across multiple stock quote requests.
+ * Only a small set of base pairs is fetched from the upstream: the base currency (USD by
+ * default) against each configured quote currency (EUR and BRL by default). Any other pair,
+ * such as BRL→EUR or EUR→USD, is derived in memory from two base pairs and cached until one
+ * of them is refreshed. Each base pair has its own TTL, configured in {@link FxRateProperties}.
+ *
+ * The service is fully non-blocking: callers always receive a Mono, which completes
+ * immediately when the needed base pairs are cached. Base pairs are refreshed in the
+ * background before they expire (refresh-ahead), both when they are read and from a
+ * scheduled check, so no request waits for the upstream at rollover. Only the first request
+ * needing a pair after startup waits, and concurrent requests share a single upstream call.
+ *
+ * Upstream calls are made through the {@link UpstreamCallScheduler} with
+ * {@link UpstreamPriority#TRADE} priority, since every quote conversion depends on these rates,
+ * and are guarded by the CURRENCY_EXCHANGE_RATE circuit of the {@link UpstreamCircuitBreaker}.
+ * The age of each cached base pair and every fallback to a last known or configured rate are
+ * reported through {@link QuoteMetrics}.
  *
  * This service is designed to be injected into other components that require access to
  * real-time currency conversion.
  */
+@Slf4j
 @Service
 public class CurrencyCacheService {
 
+    private static final String EURO = "EUR";
+
     private final WebClient webClient;
+    private final UpstreamCallScheduler upstreamCallScheduler;
+    private final UpstreamCircuitBreaker upstreamCircuitBreaker;
+    private final FxRateProperties properties;
+    private final QuoteMetrics metrics;
+
+    /**
+     * Base pairs fetched from the upstream, keyed by quote currency.
+     */
+    private final Map<String, BasePair> basePairs = new LinkedHashMap<>();
+
+    /**
+     * Derived pairs keyed by "FROM-TO", valid as long as both base rates they were derived from are current.
+     */
+    private final Map<String, CrossRate> crossRates = new ConcurrentHashMap<>();
 
-    public CurrencyCacheService(WebClient.Builder builder) {
-        this.webClient = builder.baseUrl("https://www.alphavantage.co").build();
+    @Value("${apiKey}")
+    private String apiKey;
+
+    public CurrencyCacheService(WebClient webClient, UpstreamCallScheduler upstreamCallScheduler,
+                                UpstreamCircuitBreaker upstreamCircuitBreaker, FxRateProperties properties,
+                                QuoteMetrics metrics) {
+        this.webClient = webClient;
+        this.upstreamCallScheduler = upstreamCallScheduler;
+        this.upstreamCircuitBreaker = upstreamCircuitBreaker;
+        this.properties = properties;
+        this.metrics = metrics;
+        for (String currency : properties.getQuoteCurrencies()) {
+            String code = currency.toUpperCase();
+            BasePair pair = new BasePair(properties.getBaseCurrency().toUpperCase(), code);
+            basePairs.put(code, pair);
+            metrics.registerFxRateAge(pair.name(), () -> {
+                CachedRate cached = pair.getCurrent().get();
+                return cached != null && !cached.isFallback() ? cached.getFetchedAt() : null;
+            });
+        }
     }
 
     /**
-     * Retrieves and caches the USD to EUR exchange rate using the Alpha Vantage API.
-     *
-     * This method makes a synchronous HTTP request to the Alpha Vantage endpoint
-     * using the provided API key and extracts the current exchange rate.
-     * If the response indicates an error (rate limit exceeded, invalid key)
-     * or contains an unexpected structure, a predefined fallback value is returned instead.
+     * Returns the rate converting prices of the given symbol into EUR, based on the trading
+     * currency of the symbol's exchange (e.g. BRL for ".SA", EUR for ".LS").
      *
-     * Caching is enabled via Spring's @Cacheable annotation, allowing reuse of responses
-     * across the application. Cached entries are keyed based on the API key value.
-     * Use of .block() is intentional to support synchronous caching requirements.
+     * @param symbol the stock ticker symbol
+     * @return Mono containing the rate from the symbol's trading currency to EUR
+     */
+    public Mono<BigDecimal> getEuroRateForSymbol(String symbol) {
+        return getRate(properties.currencyFor(symbol), EURO);
+    }
+
+    /**
+     * Returns the exchange rate between two currencies without blocking.
      *
-     * Network errors, malformed responses, or missing exchange rate values
-     * are handled gracefully with logging and fallback logic.
+     * The rate is derived from the base pairs as {@code base→to / base→from}. Derived rates
+     * are cached and reused until one of the underlying base pairs is refreshed. They are
+     * rounded to {@link ScaledPrice#SCALE} decimals, the precision used by price conversion.
      *
-     * @param apiKey the Alpha Vantage API key to authenticate the request
-     * @return the USD to EUR exchange rate as a BigDecimal,
-     *         or a fallback value if the API request fails or rate is missing
-     */
-    @Cacheable(value = "usdToEurRate")
-    public BigDecimal getUsdToEurRate(String apiKey) {
-        return webClient.get()
-                .uri(uriBuilder -> uriBuilder
-                        .path("/query")
-                        .queryParam("function", "CURRENCY_EXCHANGE_RATE")
-                        .queryParam("from_currency", "USD")
-                        .queryParam("to_currency", "EUR")
-                        .queryParam("apikey", apiKey)
-                        .build())
-                .accept(MediaType.APPLICATION_JSON)
-                .retrieve()
-                .bodyToMono(JsonNode.class)
-                .map(json -> {
-                    System.out.println("[CurrencyCacheService] Alpha Vantage response:\n" + json.toPrettyString());
+     * @param from the source currency code
+     * @param to the target currency code
+     * @return Mono containing the rate converting an amount in {@code from} into {@code to}
+     * @throws IllegalArgumentException (as Mono error) if either currency is not supported
+     */
+    public Mono<BigDecimal> getRate(String from, String to) {
+        String source = from.toUpperCase();
+        String target = to.toUpperCase();
+        if (source.equals(target)) {
+            return Mono.just(BigDecimal.ONE);
+        }
+
+        String pair = source + "-" + target;
+        CrossRate cached = crossRates.get(pair);
+        if (cached != null && isCurrentBase(source, cached.getFromBase()) && isCurrentBase(target, cached.getToBase())) {
+            touch(source);
+            touch(target);
+            return Mono.just(cached.getRate());
+        }
 
+        return Mono.zip(baseRate(source), baseRate(target))
+                .map(rates -> {
+                    BigDecimal rate = rates.getT2().getRate()
+                            .divide(rates.getT1().getRate(), MathContext.DECIMAL64)
+                            .setScale(ScaledPrice.SCALE, RoundingMode.HALF_EVEN);
+                    crossRates.put(pair, new CrossRate(rates.getT1(), rates.getT2(), rate));
+                    return rate;
+                });
+    }
+
+    /**
+     * Scheduled refresh-ahead check, so base pairs are renewed before expiry even when
+     * no request reads them around that time.
+     */
+    @Scheduled(fixedDelayString = "${fx.refresh-check-interval:PT5M}")
+    public void refreshIfNeeded() {
+        basePairs.values().forEach(pair -> {
+            CachedRate cached = pair.getCurrent().get();
+            if (cached == null || needsRefresh(pair, cached)) {
+                refreshInBackground(pair);
+            }
+        });
+    }
+
+    /**
+     * Resolves the base→currency rate, which is 1 for the base currency itself.
+     */
+    private Mono<CachedRate> baseRate(String currency) {
+        if (currency.equals(properties.getBaseCurrency().toUpperCase())) {
+            return Mono.just(CachedRate.UNIT);
+        }
+        BasePair pair = basePairs.get(currency);
+        if (pair == null) {
+            return Mono.error(new IllegalArgumentException("Unsupported currency: " + currency));
+        }
+        CachedRate cached = pair.getCurrent().get();
+        if (cached == null) {
+            return refresh(pair);
+        }
+        if (needsRefresh(pair, cached)) {
+            refreshInBackground(pair);
+        }
+        return Mono.just(cached);
+    }
+
+    /**
+     * Checks whether the given base rate is still the current rate of the currency's base pair.
+     */
+    private boolean isCurrentBase(String currency, CachedRate rate) {
+        if (rate == CachedRate.UNIT) {
+            return true;
+        }
+        BasePair pair = basePairs.get(currency);
+        return pair != null && pair.getCurrent().get() == rate;
+    }
+
+    /**
+     * Triggers refresh-ahead for the base pair of the given currency when a cached cross rate is read.
+     */
+    private void touch(String currency) {
+        BasePair pair = basePairs.get(currency);
+        if (pair == null) {
+            return;
+        }
+        CachedRate cached = pair.getCurrent().get();
+        if (cached != null && needsRefresh(pair, cached)) {
+            refreshInBackground(pair);
+        }
+    }
+
+    /**
+     * Starts a refresh of the given base pair without waiting for its result.
+     */
+    private void refreshInBackground(BasePair pair) {
+        refresh(pair).subscribe(
+                rate -> { },
+                ex -> log.warn("Background refresh failed for {}: {}", pair.name(), ex.getMessage())
+        );
+    }
+
+    /**
+     * Returns the in-progress refresh of the given base pair, or starts one.
+     * At most one upstream call per pair is in flight at any time.
+     */
+    private Mono<CachedRate> refresh(BasePair pair) {
+        return pair.getLoading().updateAndGet(existing -> existing != null ? existing : fetchRate(pair)
+                .doFinally(signal -> pair.getLoading().set(null))
+                .cache());
+    }
+
+    /**
+     * Fetches a base pair from Alpha Vantage and stores it on success.
+     *
+     * If the response indicates an error (rate limit exceeded, invalid key), contains an
+     * unexpected structure, or the call fails, the last known rate is kept and returned.
+     * When the pair was never fetched, its configured fallback value is cached, marked as a
+     * fallback, and returned instead. It is used for {@code fx.fallback-ttl} only, after which
+     * the next read tries the upstream again in the background.
+     *
+     * @param pair the base pair to fetch
+     * @return Mono containing the fetched, last known or fallback rate
+     */
+    private Mono<CachedRate> fetchRate(BasePair pair) {
+        return upstreamCircuitBreaker.checkPermitted(UpstreamCircuitBreaker.CURRENCY_EXCHANGE_RATE)
+                .then(upstreamCallScheduler.schedule(UpstreamPriority.TRADE, () -> upstreamCircuitBreaker
+                        .execute(UpstreamCircuitBreaker.CURRENCY_EXCHANGE_RATE, () -> webClient.get()
+                                .uri(uriBuilder -> uriBuilder
+                                        .path("/query")
+                                        .queryParam("function", "CURRENCY_EXCHANGE_RATE")
+                                        .queryParam("from_currency", pair.getFrom())
+                                        .queryParam("to_currency", pair.getTo())
+                                        .queryParam("apikey", apiKey)
+                                        .build())
+                                .accept(MediaType.APPLICATION_JSON)
+                                .retrieve()
+                                .bodyToMono(JsonNode.class))))
+                .flatMap(json -> {
                     if (json.has("Note") || json.has("Information")) {
-                        System.out.println("[CurrencyCacheService] Exchange rate NOT retrieved from API " +
-                                "(rate limit exceeded or invalid key)");
-                        return getFallbackRate();
+                        upstreamCallScheduler.onRateLimitNotice(json.has("Note")
+                                ? json.path("Note").asText()
+                                : json.path("Information").asText());
+                        return Mono.error(new UpstreamQuotaExceededException(
+                                "Exchange rate NOT retrieved from API (rate limit exceeded or invalid key)"));
                     }
 
                     JsonNode rateNode = json.path("Realtime Currency Exchange Rate").path("5. Exchange Rate");
                     if (rateNode.isMissingNode() || rateNode.asText().isBlank()) {
-                        System.out.println("[CurrencyCacheService] Exchange rate field NOT found in API response");
-                        return getFallbackRate();
+                        return Mono.error(new MalformedUpstreamResponseException("Exchange rate field NOT found in API response"));
                     }
 
-                    System.out.println("[CurrencyCacheService] Exchange rate retrieved successfully from API");
-                    return new BigDecimal(rateNode.asText());
+                    CachedRate rate = new CachedRate(new BigDecimal(rateNode.asText()), Instant.now(), false);
+                    pair.getCurrent().set(rate);
+                    log.info("Exchange rate {} retrieved from API: {}", pair.name(), rate.getRate());
+                    return Mono.just(rate);
                 })
                 .onErrorResume(ex -> {
-                    System.out.println("[CurrencyCacheService] Error during API call: " + ex.getMessage());
-                    System.out.println("[CurrencyCacheService] Falling back to local exchange rate");
-                    return Mono.just(getFallbackRate());
+                    log.warn("Error during API call for {}: {}", pair.name(), ex.getMessage());
+                    return getFallbackRate(pair, ex);
+                });
+    }
+
+    /**
+     * Checks whether the cached rate of a base pair has entered its refresh-ahead window.
+     */
+    private boolean needsRefresh(BasePair pair, CachedRate cached) {
+        Duration age = Duration.between(cached.getFetchedAt(), Instant.now());
+        if (cached.isFallback()) {
+            return age.compareTo(properties.getFallbackTtl()) >= 0;
+        }
+        return age.compareTo(properties.ttlFor(pair.name()).minus(properties.getRefreshAhead())) >= 0;
+    }
+
+    /**
+     * Returns the last known rate of a base pair, or caches and returns its fallback rate when
+     * it was never fetched.
+     */
+    private Mono<CachedRate> getFallbackRate(BasePair pair, Throwable cause) {
+        CachedRate cached = pair.getCurrent().get();
+        if (cached != null && !cached.isFallback()) {
+            metrics.countFallback(UpstreamCircuitBreaker.CURRENCY_EXCHANGE_RATE, cause, "last_known");
+            log.info("Keeping last known exchange rate {}: {}", pair.name(), cached.getRate());
+            return Mono.just(cached);
+        }
+        return properties.fallbackRateFor(pair.name())
+                .map(rate -> {
+                    metrics.countFallback(UpstreamCircuitBreaker.CURRENCY_EXCHANGE_RATE, cause, "configured");
+                    log.info("Using configured fallback exchange rate {} for {}: {}", pair.name(), properties.getFallbackTtl(), rate);
+                    CachedRate fallback = new CachedRate(rate, Instant.now(), true);
+                    pair.getCurrent().set(fallback);
+                    return Mono.just(fallback);
                 })
-                .block();
+                .orElseGet(() -> Mono.error(new IllegalStateException("No exchange rate available for " + pair.name())));
+    }
+
+    /**
+     * A base pair fetched from the upstream, with its current rate and in-progress refresh.
+     */
+    @Getter
+    private static final class BasePair {
+        private final String from;
+        private final String to;
+        private final AtomicReference<CachedRate> current = new AtomicReference<>();
+        private final AtomicReference<Mono<CachedRate>> loading = new AtomicReference<>();
+
+        private BasePair(String from, String to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        private String name() {
+            return from + "-" + to;
+        }
     }
 
     /**
-     * Returns a fallback exchange rate when Alpha Vantage is unavailable or the response is invalid.
+     * Exchange rate together with the moment it was fetched, or stored when it is a
+     * configured fallback rather than an upstream rate.
      */
-    private BigDecimal getFallbackRate() {
-        BigDecimal fallback = BigDecimal.valueOf(0.90);
-        System.out.println("[CurrencyCacheService] Using fallback exchange rate: " + fallback);
-        return fallback;
+    @Getter
+    @AllArgsConstructor
+    private static final class CachedRate {
+        private static final CachedRate UNIT = new CachedRate(BigDecimal.ONE, Instant.EPOCH, false);
+
+        private final BigDecimal rate;
+        private final Instant fetchedAt;
+        private final boolean fallback;
     }
 
+    /**
+     * Rate derived from two base rates. It stays valid as long as both base rates are still
+     * the current ones, which is checked by identity.
+     */
+    @Getter
+    @AllArgsConstructor
+    private static final class CrossRate {
+        private final CachedRate fromBase;
+        private final CachedRate toBase;
+        private final BigDecimal rate;
+    }
 }
@@ -0,0 +1,219 @@
+package com.actio.actio_api.service;
+
+import com.actio.actio_api.config.LastQuoteProperties;
+import com.actio.actio_api.config.QuoteCacheProperties;
+import com.actio.actio_api.model.webclient.GlobalQuote;
+import jakarta.annotation.PreDestroy;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Persistent store of the last quote fetched from Alpha Vantage per symbol, kept in the
+ * last_quote table.
+ *
+ * Every quote stored in the {@link QuoteCacheService} is queued here. Writes happen behind
+ * the request path: the queue keeps only the newest quote of each symbol, and a scheduled
+ * flush sends all pending quotes as JDBC batch upserts. A failed flush puts its quotes back
+ * in the queue unless a newer quote arrived meanwhile. Pending quotes are flushed on shutdown.
+ *
+ * The stored quotes serve two purposes:
+ * - Fallback: when the upstream fails and the quote is no longer in memory, the last known
+ *   quote is used before the static mock data.
+ * - Rehydration: on startup, quotes recent enough to still be held in memory are restored
+ *   into the quote cache, with their original fetch time.
+ */
+@Slf4j
+@Service
+public class LastQuoteStore {
+
+    private static final String UPSERT_SQL = """
+            MERGE last_quote WITH (HOLDLOCK) AS target
+            USING (VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)) AS source
+                (symbol, open_price, high_price, low_price, price, volume, latest_trading_day,
+                 previous_close, change_amount, change_percent, fetched_at)
+            ON target.symbol = source.symbol
+            WHEN MATCHED AND target.fetched_at < source.fetched_at THEN UPDATE SET
+                open_price = source.open_price, high_price = source.high_price, low_price = source.low_price,
+                price = source.price, volume = source.volume, latest_trading_day = source.latest_trading_day,
+                previous_close = source.previous_close, change_amount = source.change_amount,
+                change_percent = source.change_percent, fetched_at = source.fetched_at
+            WHEN NOT MATCHED THEN INSERT
+                (symbol, open_price, high_price, low_price, price, volume, latest_trading_day,
+                 previous_close, change_amount, change_percent, fetched_at)
+                VALUES (source.symbol, source.open_price, source.high_price, source.low_price, source.price,
+                        source.volume, source.latest_trading_day, source.previous_close, source.change_amount,
+                        source.change_percent, source.fetched_at);
+            """;
+
+    private static final String SELECT_SQL = "SELECT symbol, open_price, high_price, low_price, price, volume, "
+            + "latest_trading_day, previous_close, change_amount, change_percent, fetched_at FROM last_quote";
+
+    private static final RowMapper<StoredQuote> ROW_MAPPER = (rs, rowNum) -> new StoredQuote(
+            rs.getString("symbol"),
+            GlobalQuote.builder()
+                    .symbol(rs.getString("symbol"))
+                    .open(rs.getBigDecimal("open_price"))
+                    .high(rs.getBigDecimal("high_price"))
+                    .low(rs.getBigDecimal("low_price"))
+                    .price(rs.getBigDecimal("price"))
+                    .volume(Optional.ofNullable(rs.getBigDecimal("volume")).map(BigDecimal::toBigInteger).orElse(null))
+                    .latestTradingDay(rs.getString("latest_trading_day"))
+                    .previousClose(rs.getBigDecimal("previous_close"))
+                    .change(rs.getBigDecimal("change_amount"))
+                    .changePercent(rs.getString("change_percent"))
+                    .build(),
+            rs.getTimestamp("fetched_at").toInstant());
+
+    private final JdbcTemplate jdbcTemplate;
+    private final QuoteCacheService quoteCacheService;
+    private final QuoteCacheProperties quoteCacheProperties;
+    private final LastQuoteProperties properties;
+
+    /**
+     * Quotes waiting to be written, newest per symbol.
+     */
+    private final Map<String, StoredQuote> pending = new ConcurrentHashMap<>();
+
+    public LastQuoteStore(JdbcTemplate jdbcTemplate, QuoteCacheService quoteCacheService,
+                          QuoteCacheProperties quoteCacheProperties, LastQuoteProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.quoteCacheService = quoteCacheService;
+        this.quoteCacheProperties = quoteCacheProperties;
+        this.properties = properties;
+        quoteCacheService.addListener(this::enqueue);
+    }
+
+    /**
+     * Returns the last known quote of the given symbol, including one not written yet.
+     *
+     * This method queries the database and must not be called on an event loop thread.
+     *
+     * @param symbol the stock ticker symbol
+     * @return the last known quote, or empty if the symbol was never fetched
+     */
+    public Optional<GlobalQuote> find(String symbol) {
+        if (!properties.isEnabled()) {
+            return Optional.empty();
+        }
+        String key = symbol.toUpperCase();
+        StoredQuote queued = pending.get(key);
+        if (queued != null) {
+            return Optional.of(queued.getQuote());
+        }
+        try {
+            return jdbcTemplate.query(SELECT_SQL + " WHERE symbol = ?", ROW_MAPPER, key).stream()
+                    .findFirst()
+                    .map(StoredQuote::getQuote);
+        } catch (DataAccessException ex) {
+            log.warn("Lookup failed for symbol {}: {}", key, ex.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Returns the number of quotes waiting to be written.
+     */
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * Scheduled flush writing all pending quotes in JDBC batches.
+     */
+    @Scheduled(fixedDelayString = "${quote.last-known.flush-interval:PT5S}")
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        List<StoredQuote> batch = new ArrayList<>(pending.size());
+        for (String symbol : pending.keySet()) {
+            StoredQuote quote = pending.remove(symbol);
+            if (quote != null) {
+                batch.add(quote);
+            }
+        }
+        try {
+            jdbcTemplate.batchUpdate(UPSERT_SQL, batch, properties.getBatchSize(), (ps, stored) -> {
+                GlobalQuote quote = stored.getQuote();
+                ps.setString(1, stored.getSymbol());
+                ps.setBigDecimal(2, quote.getOpen());
+                ps.setBigDecimal(3, quote.getHigh());
+                ps.setBigDecimal(4, quote.getLow());
+                ps.setBigDecimal(5, quote.getPrice());
+                ps.setObject(6, quote.getVolume() != null ? quote.getVolume().longValue() : null, Types.BIGINT);
+                ps.setString(7, quote.getLatestTradingDay());
+                ps.setBigDecimal(8, quote.getPreviousClose());
+                ps.setBigDecimal(9, quote.getChange());
+                ps.setString(10, quote.getChangePercent());
+                ps.setTimestamp(11, Timestamp.from(stored.getFetchedAt()));
+            });
+        } catch (DataAccessException ex) {
+            batch.forEach(stored -> pending.putIfAbsent(stored.getSymbol(), stored));
+            log.warn("Flush of {} quotes failed, will retry: {}", batch.size(), ex.getMessage());
+        }
+    }
+
+    /**
+     * Writes the pending quotes before the application stops.
+     */
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    /**
+     * Restores quotes recent enough to still be held in memory into the quote cache.
+     * Skipped with a message when the table cannot be read, e.g. before it is created.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rehydrate() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        Instant since = Instant.now().minus(quoteCacheProperties.longestTtl().plus(quoteCacheProperties.getMaxStale()));
+        try {
+            List<StoredQuote> quotes = jdbcTemplate.query(SELECT_SQL + " WHERE fetched_at >= ?", ROW_MAPPER, Timestamp.from(since));
+            long restored = quotes.stream()
+                    .filter(stored -> quoteCacheService.restore(stored.getSymbol(), stored.getQuote(), stored.getFetchedAt()))
+                    .count();
+            log.info("Rehydrated {} quotes into the quote cache", restored);
+        } catch (DataAccessException ex) {
+            log.info("Rehydration skipped: {}", ex.getMessage());
+        }
+    }
+
+    private void enqueue(String symbol, GlobalQuote quote) {
+        if (properties.isEnabled()) {
+            pending.put(symbol, new StoredQuote(symbol, quote, Instant.now()));
+        }
+    }
+
+    /**
+     * Quote together with its upper-case symbol and the moment it was fetched.
+     */
+    @Getter
+    @AllArgsConstructor
+    private static final class StoredQuote {
+        private final String symbol;
+        private final GlobalQuote quote;
+        private final Instant fetchedAt;
+    }
+}
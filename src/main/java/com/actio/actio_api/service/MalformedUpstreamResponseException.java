@@ -0,0 +1,20 @@
+package com.actio.actio_api.service;
+
+/**
+ * Runtime exception raised when Alpha Vantage answers with a payload that lacks the
+ * expected fields, such as a quote without a price or an exchange rate response without
+ * a rate.
+ *
+ * Callers are expected to degrade to cached or fallback data when this exception is raised.
+ */
+public class MalformedUpstreamResponseException extends IllegalStateException {
+
+    /**
+     * Constructs a new exception with the given detail message.
+     *
+     * @param message the missing or invalid part of the response
+     */
+    public MalformedUpstreamResponseException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,276 @@
+package com.actio.actio_api.service;
+
+import com.actio.actio_api.config.FxRateProperties;
+import com.actio.actio_api.config.MarketSimulatorProperties;
+import com.actio.actio_api.db.QuoteFallBackProvider;
+import com.actio.actio_api.model.webclient.GlobalQuote;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Local stand-in for the Alpha Vantage API, used for load tests and benchmarks that must not
+ * spend the real quota.
+ *
+ * It answers the {@code /query} contract consumed by {@link AlphaVantageWebClientService}
+ * and {@link CurrencyCacheService}: {@code GLOBAL_QUOTE} and {@code CURRENCY_EXCHANGE_RATE}.
+ * Each symbol follows a geometric random walk, advanced by one step per request and seeded
+ * from its fallback quote ({@code mock-stock-responses.json}, or the "DEFAULT" entry).
+ * Exchange rates walk the same way from the configured fallback rates.
+ *
+ * Latency, HTTP errors, malformed quotes and rate limit notices are drawn as configured in
+ * {@link MarketSimulatorProperties}. Each symbol and currency pair has its own random
+ * generator derived from the seed, so its sequence of answers does not depend on requests
+ * for other symbols.
+ *
+ * The simulator is served over HTTP by the MarketSimulatorController in the "simulator"
+ * profile. Tests can plug it into a WebClient directly through {@link #exchangeFunction()}.
+ */
+@Service
+@Profile("simulator")
+public class MarketSimulator {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final int PRICE_SCALE = 4;
+    private static final String RATE_LIMIT_NOTE = "Thank you for using Alpha Vantage! Our standard API call frequency "
+            + "is 5 calls per minute and 25 calls per day. (simulated)";
+
+    private final MarketSimulatorProperties properties;
+    private final QuoteFallBackProvider quoteFallBackProvider;
+    private final FxRateProperties fxRateProperties;
+
+    private final Map<String, Walk> quotes = new ConcurrentHashMap<>();
+    private final Map<String, Walk> rates = new ConcurrentHashMap<>();
+
+    /** Requests counted in the current minute, guarded by {@code this}. */
+    private Instant currentMinute = Instant.EPOCH;
+    private int requestsThisMinute;
+
+    public MarketSimulator(MarketSimulatorProperties properties, QuoteFallBackProvider quoteFallBackProvider,
+                           FxRateProperties fxRateProperties) {
+        this.properties = properties;
+        this.quoteFallBackProvider = quoteFallBackProvider;
+        this.fxRateProperties = fxRateProperties;
+    }
+
+    /**
+     * Answers a {@code /query} request.
+     *
+     * @param params the query parameters of the request
+     * @return Mono emitting the simulated response after the simulated latency
+     */
+    public Mono<SimulatedResponse> query(Map<String, String> params) {
+        return Mono.defer(() -> {
+            String function = params.getOrDefault("function", "");
+            if ("GLOBAL_QUOTE".equals(function) && params.containsKey("symbol")) {
+                String symbol = params.get("symbol").toUpperCase();
+                Walk walk = quotes.computeIfAbsent(symbol, this::newQuoteWalk);
+                return respond(walk, () -> quoteJson(symbol, walk));
+            }
+            if ("CURRENCY_EXCHANGE_RATE".equals(function) && params.containsKey("from_currency") && params.containsKey("to_currency")) {
+                String pair = params.get("from_currency").toUpperCase() + "-" + params.get("to_currency").toUpperCase();
+                Walk walk = rates.computeIfAbsent(pair, this::newRateWalk);
+                if (walk == Walk.NONE) {
+                    return Mono.just(json(Map.of("Error Message", "Invalid API call. Unknown currency pair " + pair + ".")));
+                }
+                return respond(walk, () -> rateJson(pair, walk));
+            }
+            return Mono.just(json(Map.of("Error Message", "Invalid API call. The simulator serves GLOBAL_QUOTE and CURRENCY_EXCHANGE_RATE.")));
+        });
+    }
+
+    /**
+     * Returns an exchange function answering every WebClient request from this simulator,
+     * without network access. Requests to paths other than {@code /query} get a 404.
+     *
+     * @return exchange function to pass to {@code WebClient.builder().exchangeFunction(...)}
+     */
+    public ExchangeFunction exchangeFunction() {
+        return request -> {
+            if (!"/query".equals(request.url().getPath())) {
+                return Mono.just(ClientResponse.create(HttpStatus.NOT_FOUND).build());
+            }
+            Map<String, String> params = UriComponentsBuilder.fromUri(request.url()).build().getQueryParams().toSingleValueMap();
+            return query(params).map(response -> ClientResponse.create(HttpStatus.valueOf(response.getStatus()))
+                    .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                    .body(response.getBody())
+                    .build());
+        };
+    }
+
+    /**
+     * Draws latency and outcome of one request from the generator of the given walk.
+     */
+    private Mono<SimulatedResponse> respond(Walk walk, Supplier<SimulatedResponse> answer) {
+        Duration latency;
+        SimulatedResponse response;
+        synchronized (walk) {
+            latency = drawLatency(walk.getRandom());
+            double outcome = walk.getRandom().nextDouble();
+            if (!admitWithinMinuteLimit() || outcome < properties.getRateLimitRate()) {
+                response = json(Map.of("Note", RATE_LIMIT_NOTE));
+            } else if (outcome < properties.getRateLimitRate() + properties.getErrorRate()) {
+                response = new SimulatedResponse(HttpStatus.INTERNAL_SERVER_ERROR.value(), "{}");
+            } else if (outcome < properties.getRateLimitRate() + properties.getErrorRate() + properties.getMalformedRate()) {
+                response = json(Map.of("Global Quote", Map.of("01. symbol", walk.getName())));
+            } else {
+                response = answer.get();
+            }
+        }
+        return latency.isZero() ? Mono.just(response) : Mono.delay(latency).thenReturn(response);
+    }
+
+    private SimulatedResponse quoteJson(String symbol, Walk walk) {
+        if (properties.getUnknownSymbols().stream().anyMatch(symbol::equalsIgnoreCase)) {
+            return json(Map.of("Global Quote", Map.of()));
+        }
+        walk.step(properties.getVolatility());
+        BigDecimal price = scaled(walk.getPrice());
+        BigDecimal previousClose = scaled(walk.getPreviousClose());
+        BigDecimal change = price.subtract(previousClose);
+        Map<String, String> quote = new LinkedHashMap<>();
+        quote.put("01. symbol", symbol);
+        quote.put("02. open", scaled(walk.getOpen()).toPlainString());
+        quote.put("03. high", scaled(walk.getHigh()).toPlainString());
+        quote.put("04. low", scaled(walk.getLow()).toPlainString());
+        quote.put("05. price", price.toPlainString());
+        quote.put("06. volume", Long.toString(walk.getVolume()));
+        quote.put("07. latest trading day", LocalDate.now(ZoneOffset.UTC).toString());
+        quote.put("08. previous close", previousClose.toPlainString());
+        quote.put("09. change", change.toPlainString());
+        quote.put("10. change percent", change.multiply(BigDecimal.valueOf(100))
+                .divide(previousClose, PRICE_SCALE, RoundingMode.HALF_EVEN).toPlainString() + "%");
+        return json(Map.of("Global Quote", quote));
+    }
+
+    private SimulatedResponse rateJson(String pair, Walk walk) {
+        walk.step(properties.getVolatility() / 4);
+        String[] currencies = pair.split("-");
+        BigDecimal rate = BigDecimal.valueOf(walk.getPrice()).setScale(8, RoundingMode.HALF_EVEN);
+        Map<String, String> body = new LinkedHashMap<>();
+        body.put("1. From_Currency Code", currencies[0]);
+        body.put("3. To_Currency Code", currencies[1]);
+        body.put("5. Exchange Rate", rate.toPlainString());
+        body.put("6. Last Refreshed", Instant.now().truncatedTo(ChronoUnit.SECONDS).toString());
+        body.put("7. Time Zone", "UTC");
+        return json(Map.of("Realtime Currency Exchange Rate", body));
+    }
+
+    private Walk newQuoteWalk(String symbol) {
+        GlobalQuote seed = quoteFallBackProvider.getFallBackQuote(symbol);
+        double price = seed.getPrice().doubleValue();
+        double previousClose = seed.getPreviousClose() != null ? seed.getPreviousClose().doubleValue() : price;
+        long volume = seed.getVolume() != null ? seed.getVolume().longValue() : 0L;
+        return new Walk(symbol, new Random(properties.getSeed() ^ symbol.hashCode()), price, previousClose, volume);
+    }
+
+    private Walk newRateWalk(String pair) {
+        String[] currencies = pair.split("-");
+        return fxRateProperties.fallbackRateFor(pair)
+                .or(() -> fxRateProperties.fallbackRateFor(currencies[1] + "-" + currencies[0])
+                        .map(inverse -> BigDecimal.ONE.divide(inverse, 8, RoundingMode.HALF_EVEN)))
+                .map(rate -> new Walk(pair, new Random(properties.getSeed() ^ pair.hashCode()), rate.doubleValue(), rate.doubleValue(), 0L))
+                .orElse(Walk.NONE);
+    }
+
+    private Duration drawLatency(Random random) {
+        long median = properties.getLatencyMedian().toNanos();
+        if (median <= 0) {
+            return Duration.ZERO;
+        }
+        double nanos = median * Math.exp(properties.getLatencySigma() * random.nextGaussian());
+        return Duration.ofNanos(Math.min((long) nanos, properties.getLatencyMax().toNanos()));
+    }
+
+    private synchronized boolean admitWithinMinuteLimit() {
+        if (properties.getRequestsPerMinute() <= 0) {
+            return true;
+        }
+        Instant minute = Instant.now().truncatedTo(ChronoUnit.MINUTES);
+        if (!minute.equals(currentMinute)) {
+            currentMinute = minute;
+            requestsThisMinute = 0;
+        }
+        return ++requestsThisMinute <= properties.getRequestsPerMinute();
+    }
+
+    private static BigDecimal scaled(double value) {
+        return BigDecimal.valueOf(value).setScale(PRICE_SCALE, RoundingMode.HALF_EVEN);
+    }
+
+    private static SimulatedResponse json(Object body) {
+        try {
+            return new SimulatedResponse(HttpStatus.OK.value(), MAPPER.writeValueAsString(body));
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Cannot serialize simulated response", ex);
+        }
+    }
+
+    /**
+     * Status and JSON body of a simulated response.
+     */
+    @Getter
+    @AllArgsConstructor
+    public static final class SimulatedResponse {
+        private final int status;
+        private final String body;
+    }
+
+    /**
+     * Random walk of a price or rate, with its own random generator. Guarded by {@code this}.
+     */
+    @Getter
+    private static final class Walk {
+        private static final Walk NONE = new Walk("", new Random(0), 0, 0, 0);
+
+        private final String name;
+        private final Random random;
+        private final double previousClose;
+        private final double open;
+        private double price;
+        private double high;
+        private double low;
+        private long volume;
+
+        private Walk(String name, Random random, double price, double previousClose, long volume) {
+            this.name = name;
+            this.random = random;
+            this.previousClose = previousClose;
+            this.open = price;
+            this.price = price;
+            this.high = price;
+            this.low = price;
+            this.volume = volume;
+        }
+
+        private void step(double volatility) {
+            price = price * Math.exp(volatility * random.nextGaussian());
+            high = Math.max(high, price);
+            low = Math.min(low, price);
+            volume += random.nextInt(1000);
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.actio.actio_api.service;
+
+import com.actio.actio_api.model.CostBasisLedger;
+import com.actio.actio_api.model.LedgerPosition;
+import com.actio.actio_api.model.LotMethod;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.StringJoiner;
+
+/**
+ * Persistent checkpoints of {@link CostBasisLedger}s, kept in the pnl_checkpoint and
+ * pnl_position tables, one per account and lot method.
+ *
+ * A checkpoint holds the id of the last transaction folded in and, for every stock traded,
+ * its open lots and realized gains. Open lots are stored in a single column as
+ * "quantity:unit_cost" pairs separated by ';', oldest first.
+ *
+ * A checkpoint is only replaced by one covering more transactions, so concurrent requests
+ * folding the same transactions cannot move it backwards. Storage errors are logged and
+ * never fail the caller: a missing checkpoint only means replaying from the first
+ * transaction.
+ */
+@Slf4j
+@Service
+public class PnlCheckpointStore {
+
+    private static final String UPSERT_CHECKPOINT_SQL = """
+            MERGE pnl_checkpoint WITH (HOLDLOCK) AS target
+            USING (VALUES (?, ?, ?, ?)) AS source (id_account, lot_method, last_transaction_id, updated_at)
+            ON target.id_account = source.id_account AND target.lot_method = source.lot_method
+            WHEN MATCHED AND target.last_transaction_id < source.last_transaction_id THEN UPDATE SET
+                last_transaction_id = source.last_transaction_id, updated_at = source.updated_at
+            WHEN NOT MATCHED THEN INSERT (id_account, lot_method, last_transaction_id, updated_at)
+                VALUES (source.id_account, source.lot_method, source.last_transaction_id, source.updated_at);
+            """;
+
+    private static final String DELETE_POSITIONS_SQL = "DELETE FROM pnl_position WHERE id_account = ? AND lot_method = ?";
+
+    private static final String INSERT_POSITION_SQL = "INSERT INTO pnl_position "
+            + "(id_account, lot_method, id_stock, open_lots, realized_pnl) VALUES (?, ?, ?, ?, ?)";
+
+    private static final String SELECT_CHECKPOINT_SQL = "SELECT last_transaction_id FROM pnl_checkpoint "
+            + "WHERE id_account = ? AND lot_method = ?";
+
+    private static final String SELECT_POSITIONS_SQL = "SELECT p.id_stock, s.stock_name, p.open_lots, p.realized_pnl "
+            + "FROM pnl_position p JOIN stock s ON s.id_stock = p.id_stock "
+            + "WHERE p.id_account = ? AND p.lot_method = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public PnlCheckpointStore(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    /**
+     * Restores the ledger of an account from its checkpoint.
+     *
+     * @param accountId the account id
+     * @param method the lot method
+     * @return the restored ledger, or an empty one if there is no readable checkpoint
+     */
+    public CostBasisLedger load(Long accountId, LotMethod method) {
+        try {
+            List<Long> lastIds = jdbcTemplate.queryForList(SELECT_CHECKPOINT_SQL, Long.class, accountId, method.name());
+            if (lastIds.isEmpty()) {
+                return CostBasisLedger.empty(method);
+            }
+            List<LedgerPosition> positions = jdbcTemplate.query(SELECT_POSITIONS_SQL, (rs, rowNum) -> new LedgerPosition(
+                    rs.getLong("id_stock"),
+                    rs.getString("stock_name"),
+                    decodeLots(rs.getString("open_lots")),
+                    rs.getBigDecimal("realized_pnl")), accountId, method.name());
+            return CostBasisLedger.restore(method, lastIds.get(0), positions);
+        } catch (DataAccessException ex) {
+            log.warn("P&L checkpoint of account {} could not be read: {}", accountId, ex.getMessage());
+            return CostBasisLedger.empty(method);
+        }
+    }
+
+    /**
+     * Stores the ledger of an account as its checkpoint, unless the stored checkpoint
+     * already covers the same or later transactions.
+     *
+     * @param accountId the account id
+     * @param ledger the ledger to store
+     */
+    public void save(Long accountId, CostBasisLedger ledger) {
+        String method = ledger.getMethod().name();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                int updated = jdbcTemplate.update(UPSERT_CHECKPOINT_SQL,
+                        accountId, method, ledger.getLastTransactionId(), Timestamp.from(Instant.now()));
+                if (updated == 0) {
+                    return;
+                }
+                jdbcTemplate.update(DELETE_POSITIONS_SQL, accountId, method);
+                List<Object[]> rows = new ArrayList<>();
+                for (LedgerPosition position : ledger.positions()) {
+                    rows.add(new Object[]{accountId, method, position.getStockId(),
+                            encodeLots(position.getLots()), position.getRealizedPnl()});
+                }
+                jdbcTemplate.batchUpdate(INSERT_POSITION_SQL, rows);
+            });
+        } catch (DataAccessException ex) {
+            log.warn("P&L checkpoint of account {} could not be written: {}", accountId, ex.getMessage());
+        }
+    }
+
+    static String encodeLots(List<LedgerPosition.Lot> lots) {
+        StringJoiner joiner = new StringJoiner(";");
+        for (LedgerPosition.Lot lot : lots) {
+            joiner.add(lot.getQuantity() + ":" + lot.getUnitCost().toPlainString());
+        }
+        return joiner.toString();
+    }
+
+    static List<LedgerPosition.Lot> decodeLots(String encoded) {
+        List<LedgerPosition.Lot> lots = new ArrayList<>();
+        if (encoded == null || encoded.isEmpty()) {
+            return lots;
+        }
+        for (String lot : encoded.split(";")) {
+            int separator = lot.indexOf(':');
+            lots.add(new LedgerPosition.Lot(Integer.parseInt(lot.substring(0, separator)),
+                    new BigDecimal(lot.substring(separator + 1))));
+        }
+        return lots;
+    }
+}
@@ -0,0 +1,152 @@
+package com.actio.actio_api.service;
+
+import com.actio.actio_api.model.Account;
+import com.actio.actio_api.model.ActioUser;
+import com.actio.actio_api.model.CostBasisLedger;
+import com.actio.actio_api.model.LedgerPosition;
+import com.actio.actio_api.model.LotMethod;
+import com.actio.actio_api.model.ScaledPrice;
+import com.actio.actio_api.model.TransactionRecord;
+import com.actio.actio_api.model.response.PnlPositionResponse;
+import com.actio.actio_api.model.response.PnlResponse;
+import com.actio.actio_api.model.response.WalletResponse;
+import com.actio.actio_api.repository.AccountRepository;
+import com.actio.actio_api.repository.StockTransactionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Service computing the profit and loss of a user's portfolio from its transaction history.
+ *
+ * The cost basis and realized gains are held in a {@link CostBasisLedger} per account and
+ * lot method, checkpointed by the {@link PnlCheckpointStore}. A request restores the
+ * checkpoint, folds in only the transactions saved after it, and stores the new checkpoint
+ * when there were any. Unrealized gains are the current wallet value of each stock held
+ * minus its cost basis.
+ *
+ * Transaction ids are assigned when a trade is inserted, and concurrent trades may commit
+ * in a different order. A checkpoint therefore only covers transactions older than
+ * {@code pnl.checkpoint.settle-window}: by then every transaction with a lower id has
+ * committed, so resuming after the checkpoint never skips one. Newer transactions are folded
+ * into the response without being checkpointed, and read again by the next request.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PnlService {
+
+    private final AccountRepository accountRepository;
+    private final StockTransactionRepository stockTransactionRepository;
+    private final PnlCheckpointStore pnlCheckpointStore;
+    private final WalletService walletService;
+
+    @Value("${pnl.checkpoint.settle-window:PT1M}")
+    private Duration settleWindow;
+
+    /**
+     * Computes the profit and loss of the portfolio of a user, per stock and in total.
+     *
+     * @param user the user
+     * @param method the lot method matching sales with purchases
+     * @return the profit and loss of every stock ever traded and of the portfolio
+     */
+    public PnlResponse getPnlForUser(ActioUser user, LotMethod method) {
+        Account account = accountRepository.findByActioUser(user)
+                .orElseThrow(() -> new RuntimeException("Account not found for user with id: " + user.getId()));
+
+        CostBasisLedger ledger = currentLedger(account.getId(), method);
+        Map<Long, WalletResponse> wallet = walletService.getWalletForAccount(account.getId()).stream()
+                .collect(Collectors.toMap(WalletResponse::getStockId, Function.identity(), (first, second) -> first));
+
+        List<PnlPositionResponse> positions = new ArrayList<>();
+        BigDecimal totalCost = BigDecimal.ZERO;
+        BigDecimal totalMarket = BigDecimal.ZERO;
+        BigDecimal totalRealized = BigDecimal.ZERO;
+        for (LedgerPosition position : ledger.positions()) {
+            PnlPositionResponse response = toResponse(position, wallet.get(position.getStockId()));
+            positions.add(response);
+            totalCost = totalCost.add(response.getCostBasis());
+            totalMarket = totalMarket.add(response.getMarketValue());
+            totalRealized = totalRealized.add(response.getRealizedPnl());
+        }
+        positions.sort(Comparator.comparing(PnlPositionResponse::getSymbol));
+
+        return PnlResponse.builder()
+                .method(method)
+                .costBasis(totalCost)
+                .marketValue(totalMarket)
+                .unrealizedPnl(totalMarket.subtract(totalCost))
+                .realizedPnl(totalRealized)
+                .positions(positions)
+                .build();
+    }
+
+    /**
+     * Restores the checkpointed ledger of an account and folds in the transactions saved
+     * since. The transactions older than the settle window, up to the first newer one, are
+     * stored as the new checkpoint before the remaining ones are folded in.
+     */
+    private CostBasisLedger currentLedger(Long accountId, LotMethod method) {
+        CostBasisLedger ledger = pnlCheckpointStore.load(accountId, method);
+        List<TransactionRecord> transactions = stockTransactionRepository
+                .findRecordsByAccountId(accountId, ledger.getLastTransactionId());
+        LocalDateTime settledBefore = LocalDateTime.now().minus(settleWindow);
+        int settled = 0;
+        while (settled < transactions.size() && isSettled(transactions.get(settled), settledBefore)) {
+            ledger.apply(transactions.get(settled++));
+        }
+        if (settled > 0) {
+            pnlCheckpointStore.save(accountId, ledger);
+            log.debug("Folded {} transactions into the {} ledger of account {}", settled, method, accountId);
+        }
+        transactions.subList(settled, transactions.size()).forEach(ledger::apply);
+        return ledger;
+    }
+
+    private static boolean isSettled(TransactionRecord transaction, LocalDateTime settledBefore) {
+        return transaction.getTransactionDateTime() != null && transaction.getTransactionDateTime().isBefore(settledBefore);
+    }
+
+    private PnlPositionResponse toResponse(LedgerPosition position, WalletResponse holding) {
+        int quantity = position.getQuantity();
+        BigDecimal costBasis = scaled(position.getCostBasis());
+        PnlPositionResponse.PnlPositionResponseBuilder response = PnlPositionResponse.builder()
+                .stockId(position.getStockId())
+                .symbol(position.getSymbol())
+                .quantity(quantity)
+                .costBasis(costBasis)
+                .realizedPnl(scaled(position.getRealizedPnl()));
+        if (quantity == 0) {
+            return response
+                    .marketValue(scaled(BigDecimal.ZERO))
+                    .unrealizedPnl(scaled(BigDecimal.ZERO))
+                    .build();
+        }
+        BigDecimal price = holding != null ? scaled(BigDecimal.valueOf(holding.getCurrentValue())) : scaled(BigDecimal.ZERO);
+        BigDecimal marketValue = scaled(price.multiply(BigDecimal.valueOf(quantity)));
+        return response
+                .averageCost(scaled(position.getCostBasis().divide(BigDecimal.valueOf(quantity), ScaledPrice.SCALE, RoundingMode.HALF_EVEN)))
+                .currentPrice(price)
+                .marketValue(marketValue)
+                .unrealizedPnl(marketValue.subtract(costBasis))
+                .stale(holding == null || holding.isStale())
+                .build();
+    }
+
+    private static BigDecimal scaled(BigDecimal amount) {
+        return amount.setScale(ScaledPrice.API_SCALE, RoundingMode.HALF_EVEN);
+    }
+}
@@ -0,0 +1,364 @@
+package com.actio.actio_api.service;
+
+import com.actio.actio_api.config.FxRateProperties;
+import com.actio.actio_api.config.PortfolioNavProperties;
+import com.actio.actio_api.model.Account;
+import com.actio.actio_api.model.ActioUser;
+import com.actio.actio_api.model.ScaledPrice;
+import com.actio.actio_api.model.response.PortfolioNavResponse;
+import com.actio.actio_api.model.webclient.GlobalQuote;
+import com.actio.actio_api.repository.AccountRepository;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Daily net asset value (NAV) of every active account, computed by a batch job and kept in
+ * the portfolio_nav table so value charts are read with a single range query.
+ *
+ * The NAV of a day is the cash balance plus the holdings at the end of that day, each
+ * holding marked at the last close stored in stock_price_daily on or before the day (the
+ * last known quote when there is none), converted to EUR. Cash and holdings are rebuilt
+ * from the current balance and stock items by reverting the movements and trades made
+ * after the day, so a past day can be computed at any time.
+ *
+ * Days are delimited in {@code portfolio.nav.zone}, while movement and trade times are
+ * stored as wall-clock times of the application's zone, so the end of a day is converted
+ * to that zone before it is compared with them. Only stocks held at the end of the day are
+ * priced, with one EUR rate per trading currency; stocks whose currency has no rate are
+ * valued at zero and logged rather than failing the day.
+ *
+ * The job runs every night and computes every day after the last completed one, up to
+ * yesterday, so a day is only closed once it is over and every movement and trade dated
+ * on it is known. On startup it also catches up on the days missed up to yesterday. For
+ * each day, accounts are split in chunks valued in parallel, and each chunk replaces its
+ * rows of the day with one JDBC batch insert in its own transaction. The day is recorded
+ * as completed in the batch_job_state table only after all chunks are written, so a job
+ * interrupted by a crash resumes from the first day not completed and rewrites it.
+ */
+@Slf4j
+@Service
+public class PortfolioNavService {
+
+    static final String JOB_NAME = "portfolio_nav";
+
+    private static final String EURO = "EUR";
+
+    private static final String SELECT_LAST_COMPLETED_SQL =
+            "SELECT last_completed_date FROM batch_job_state WHERE job_name = ?";
+
+    private static final String UPDATE_LAST_COMPLETED_SQL =
+            "UPDATE batch_job_state SET last_completed_date = ?, updated_at = ? WHERE job_name = ?";
+
+    private static final String INSERT_LAST_COMPLETED_SQL =
+            "INSERT INTO batch_job_state (job_name, last_completed_date, updated_at) VALUES (?, ?, ?)";
+
+    private static final String SELECT_ACTIVE_ACCOUNTS_SQL = "SELECT a.id_account FROM account a "
+            + "JOIN account_status s ON s.status_code = a.status_code "
+            + "WHERE s.status_description = 'ACTIVE' ORDER BY a.id_account";
+
+    /** Stocks held now, or traded after the day and so possibly held at its end. */
+    private static final String SELECT_CLOSES_SQL = "SELECT s.id_stock, s.stock_name, p.close_price FROM stock s "
+            + "LEFT JOIN stock_price_daily p ON p.id_stock = s.id_stock AND p.price_date = "
+            + "(SELECT MAX(d.price_date) FROM stock_price_daily d WHERE d.id_stock = s.id_stock AND d.price_date <= ?) "
+            + "WHERE s.id_stock IN (SELECT DISTINCT si.id_stock FROM stock_item si WHERE si.quantity > 0) "
+            + "OR s.id_stock IN (SELECT DISTINCT t.id_stock FROM stock_transaction t WHERE t.transaction_date_time >= ?)";
+
+    /** Balance at the end of the day: movements and trades made after it are reverted. */
+    private static final String SELECT_CASH_SQL = "SELECT a.id_account, a.current_balance"
+            + " - COALESCE((SELECT SUM(CASE WHEN m.type_code = 1 THEN m.amount ELSE -m.amount END) FROM movement m"
+            + " WHERE m.id_account = a.id_account AND m.movement_date_time >= ?), 0)"
+            + " + COALESCE((SELECT SUM(CASE WHEN t.type_code = 1 THEN t.negotiation_price * t.quantity"
+            + " ELSE -t.negotiation_price * t.quantity END) FROM stock_transaction t"
+            + " WHERE t.id_account = a.id_account AND t.transaction_date_time >= ?), 0) AS cash"
+            + " FROM account a WHERE a.id_account IN (%s)";
+
+    /** Quantities at the end of the day: trades made after it are reverted. */
+    private static final String SELECT_QUANTITIES_SQL = "SELECT si.id_account, si.id_stock, si.quantity"
+            + " - COALESCE((SELECT SUM(CASE WHEN t.type_code = 1 THEN t.quantity ELSE -t.quantity END)"
+            + " FROM stock_transaction t WHERE t.id_account = si.id_account AND t.id_stock = si.id_stock"
+            + " AND t.transaction_date_time >= ?), 0) AS quantity"
+            + " FROM stock_item si WHERE si.id_account IN (%s)";
+
+    private static final String DELETE_NAV_SQL = "DELETE FROM portfolio_nav WHERE nav_date = ? AND id_account IN (%s)";
+
+    private static final String INSERT_NAV_SQL = "INSERT INTO portfolio_nav "
+            + "(id_account, nav_date, cash, holdings_value, nav) VALUES (?, ?, ?, ?, ?)";
+
+    private static final String SELECT_SERIES_SQL = "SELECT nav_date, cash, holdings_value, nav FROM portfolio_nav "
+            + "WHERE id_account = ? AND nav_date BETWEEN ? AND ? ORDER BY nav_date";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final AccountRepository accountRepository;
+    private final CurrencyCacheService currencyCacheService;
+    private final LastQuoteStore lastQuoteStore;
+    private final FxRateProperties fxRateProperties;
+    private final PortfolioNavProperties properties;
+    private final ZoneId zone;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public PortfolioNavService(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                               AccountRepository accountRepository, CurrencyCacheService currencyCacheService,
+                               LastQuoteStore lastQuoteStore, FxRateProperties fxRateProperties,
+                               PortfolioNavProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.accountRepository = accountRepository;
+        this.currencyCacheService = currencyCacheService;
+        this.lastQuoteStore = lastQuoteStore;
+        this.fxRateProperties = fxRateProperties;
+        this.properties = properties;
+        this.zone = ZoneId.of(properties.getZone());
+    }
+
+    /**
+     * Returns the daily NAV of the account of a user between two dates, both inclusive.
+     *
+     * When {@code to} is missing, the range ends today; when {@code from} is missing, it
+     * starts {@code portfolio.nav.default-range} before the end. Days not computed yet are
+     * absent from the series.
+     *
+     * @param user the user
+     * @param from the first day of the range, or null
+     * @param to the last day of the range, or null
+     * @return the NAV of every computed day of the range, oldest first
+     * @throws IllegalArgumentException if {@code from} is after {@code to}
+     */
+    public List<PortfolioNavResponse> getNavForUser(ActioUser user, LocalDate from, LocalDate to) {
+        Account account = accountRepository.findByActioUser(user)
+                .orElseThrow(() -> new RuntimeException("Account not found for user with id: " + user.getId()));
+
+        LocalDate end = to != null ? to : LocalDate.now(zone);
+        LocalDate start = from != null ? from : end.minus(properties.getDefaultRange());
+        if (start.isAfter(end)) {
+            throw new IllegalArgumentException("'from' must not be after 'to'.");
+        }
+        return jdbcTemplate.query(SELECT_SERIES_SQL, (rs, rowNum) -> PortfolioNavResponse.builder()
+                .date(rs.getDate("nav_date").toLocalDate())
+                .cash(rs.getBigDecimal("cash"))
+                .holdingsValue(rs.getBigDecimal("holdings_value"))
+                .nav(rs.getBigDecimal("nav"))
+                .build(), account.getId(), Date.valueOf(start), Date.valueOf(end));
+    }
+
+    /**
+     * Computes the NAV of every day not computed yet, up to yesterday.
+     */
+    @Scheduled(cron = "${portfolio.nav.cron:0 30 0 * * *}", zone = "${portfolio.nav.zone:Europe/Lisbon}")
+    public void runDaily() {
+        if (properties.isEnabled()) {
+            run(LocalDate.now(zone).minusDays(1));
+        }
+    }
+
+    /**
+     * Catches up, after {@code portfolio.nav.startup-delay}, on the days missed while the
+     * application was down, up to yesterday.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void catchUp() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        Mono.delay(properties.getStartupDelay())
+                .publishOn(Schedulers.boundedElastic())
+                .subscribe(tick -> run(LocalDate.now(zone).minusDays(1)));
+    }
+
+    /**
+     * Computes the NAV of every day after the last completed one, up to a given day. The
+     * first run starts {@code portfolio.nav.initial-backfill} before that day. A day that
+     * fails stops the run; it is retried by the next one.
+     *
+     * @param through the last day to compute
+     * @return the number of days completed, 0 if another run is in progress
+     */
+    public int run(LocalDate through) {
+        if (!running.compareAndSet(false, true)) {
+            log.debug("NAV job already running, skipped");
+            return 0;
+        }
+        int completed = 0;
+        try {
+            LocalDate lastCompleted = lastCompletedDate();
+            LocalDate day = lastCompleted != null
+                    ? lastCompleted.plusDays(1)
+                    : through.minus(properties.getInitialBackfill()).plusDays(1);
+            for (; !day.isAfter(through); day = day.plusDays(1)) {
+                long started = System.nanoTime();
+                int accounts = computeDay(day);
+                markCompleted(day);
+                completed++;
+                log.info("NAV of {} accounts computed for {} in {} ms", accounts, day, (System.nanoTime() - started) / 1_000_000);
+            }
+        } catch (RuntimeException ex) {
+            log.warn("NAV job stopped after {} days: {}", completed, ex.getMessage());
+        } finally {
+            running.set(false);
+        }
+        return completed;
+    }
+
+    /**
+     * Computes and writes the NAV of all active accounts for one day.
+     *
+     * @return the number of accounts written
+     */
+    private int computeDay(LocalDate day) {
+        Timestamp endOfDay = endOfDay(day);
+        Map<Long, BigDecimal> prices = euroPrices(day, endOfDay);
+        List<Long> accountIds = jdbcTemplate.queryForList(SELECT_ACTIVE_ACCOUNTS_SQL, Long.class);
+
+        List<List<Long>> chunks = new ArrayList<>();
+        for (int i = 0; i < accountIds.size(); i += properties.getChunkSize()) {
+            chunks.add(accountIds.subList(i, Math.min(i + properties.getChunkSize(), accountIds.size())));
+        }
+        Integer written = Flux.fromIterable(chunks)
+                .flatMap(chunk -> Mono.fromCallable(() -> writeChunk(day, endOfDay, chunk, prices))
+                        .subscribeOn(Schedulers.boundedElastic()), properties.getParallelism())
+                .reduce(0, Integer::sum)
+                .block();
+        return written != null ? written : 0;
+    }
+
+    /**
+     * Values a chunk of accounts and replaces their rows of the day, in one transaction.
+     */
+    private int writeChunk(LocalDate day, Timestamp endOfDay, List<Long> accountIds, Map<Long, BigDecimal> prices) {
+        String placeholders = String.join(",", Collections.nCopies(accountIds.size(), "?"));
+
+        List<Object> cashArgs = new ArrayList<>(List.of(endOfDay, endOfDay));
+        cashArgs.addAll(accountIds);
+        Map<Long, BigDecimal> cash = new HashMap<>();
+        jdbcTemplate.query(String.format(SELECT_CASH_SQL, placeholders),
+                rs -> { cash.put(rs.getLong("id_account"), rs.getBigDecimal("cash")); }, cashArgs.toArray());
+
+        List<Object> quantityArgs = new ArrayList<>(List.of(endOfDay));
+        quantityArgs.addAll(accountIds);
+        Map<Long, BigDecimal> holdings = new HashMap<>();
+        jdbcTemplate.query(String.format(SELECT_QUANTITIES_SQL, placeholders), rs -> {
+            long quantity = rs.getLong("quantity");
+            BigDecimal price = prices.get(rs.getLong("id_stock"));
+            if (quantity > 0 && price != null) {
+                holdings.merge(rs.getLong("id_account"), price.multiply(BigDecimal.valueOf(quantity)), BigDecimal::add);
+            }
+        }, quantityArgs.toArray());
+
+        Date navDate = Date.valueOf(day);
+        List<Object[]> rows = new ArrayList<>(accountIds.size());
+        for (Long accountId : accountIds) {
+            BigDecimal balance = cash.getOrDefault(accountId, BigDecimal.ZERO).setScale(2, RoundingMode.HALF_EVEN);
+            BigDecimal holdingsValue = holdings.getOrDefault(accountId, BigDecimal.ZERO)
+                    .setScale(ScaledPrice.API_SCALE, RoundingMode.HALF_EVEN);
+            rows.add(new Object[]{accountId, navDate, balance, holdingsValue, balance.add(holdingsValue)});
+        }
+
+        List<Object> deleteArgs = new ArrayList<>(List.of(navDate));
+        deleteArgs.addAll(accountIds);
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update(String.format(DELETE_NAV_SQL, placeholders), deleteArgs.toArray());
+            jdbcTemplate.batchUpdate(INSERT_NAV_SQL, rows);
+        });
+        return rows.size();
+    }
+
+    /**
+     * Returns the end of a day of {@code portfolio.nav.zone} as a timestamp of the application's
+     * zone, the zone movement and trade times are written in.
+     */
+    private Timestamp endOfDay(LocalDate day) {
+        return Timestamp.from(day.plusDays(1).atStartOfDay(zone).toInstant());
+    }
+
+    /**
+     * Returns the EUR price of every stock possibly held at the end of a day, keyed by stock
+     * id: the last close on or before the day, else the last known quote. Stocks without
+     * either, or whose trading currency has no EUR rate, are left out and valued at zero.
+     */
+    private Map<Long, BigDecimal> euroPrices(LocalDate day, Timestamp endOfDay) {
+        List<StockClose> closes = jdbcTemplate.query(SELECT_CLOSES_SQL, (rs, rowNum) -> new StockClose(
+                rs.getLong("id_stock"), rs.getString("stock_name"), rs.getBigDecimal("close_price")),
+                Date.valueOf(day), endOfDay);
+
+        Map<String, Optional<BigDecimal>> rates = new HashMap<>();
+        Map<Long, BigDecimal> prices = new HashMap<>();
+        for (StockClose stockClose : closes) {
+            String symbol = stockClose.getSymbol();
+            BigDecimal close = stockClose.getClose() != null
+                    ? stockClose.getClose()
+                    : lastQuoteStore.find(symbol).map(GlobalQuote::getPrice).orElse(null);
+            if (close == null) {
+                log.debug("No price for {} on {}, valued at zero", symbol, day);
+                continue;
+            }
+            String currency = fxRateProperties.currencyFor(symbol);
+            Optional<BigDecimal> rate = rates.computeIfAbsent(currency, this::euroRate);
+            if (rate.isEmpty()) {
+                log.warn("No EUR rate for {} on {}, {} valued at zero", currency, day, symbol);
+                continue;
+            }
+            prices.put(stockClose.getStockId(), close.multiply(rate.get()));
+        }
+        return prices;
+    }
+
+    /**
+     * Returns the current rate from a currency to EUR, or empty if it cannot be obtained in time.
+     */
+    private Optional<BigDecimal> euroRate(String currency) {
+        try {
+            return Optional.ofNullable(currencyCacheService.getRate(currency, EURO).block(properties.getRateTimeout()));
+        } catch (RuntimeException ex) {
+            log.warn("EUR rate for {} unavailable: {}", currency, ex.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private LocalDate lastCompletedDate() {
+        List<Date> dates = jdbcTemplate.queryForList(SELECT_LAST_COMPLETED_SQL, Date.class, JOB_NAME);
+        return dates.isEmpty() ? null : dates.get(0).toLocalDate();
+    }
+
+    private void markCompleted(LocalDate day) {
+        Timestamp now = Timestamp.from(Instant.now());
+        if (jdbcTemplate.update(UPDATE_LAST_COMPLETED_SQL, Date.valueOf(day), now, JOB_NAME) == 0) {
+            jdbcTemplate.update(INSERT_LAST_COMPLETED_SQL, JOB_NAME, Date.valueOf(day), now);
+        }
+    }
+
+    /**
+     * Last close of a stock on or before a day, null if none is stored.
+     */
+    @Getter
+    @AllArgsConstructor
+    private static final class StockClose {
+        private final Long stockId;
+        private final String symbol;
+        private final BigDecimal close;
+    }
+}
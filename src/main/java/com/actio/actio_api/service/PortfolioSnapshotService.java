@@ -0,0 +1,181 @@
+package com.actio.actio_api.service;
+
+import com.actio.actio_api.config.PortfolioSnapshotProperties;
+import com.actio.actio_api.model.EuroQuote;
+import com.actio.actio_api.model.PortfolioSnapshot;
+import com.actio.actio_api.model.ScaledPrice;
+import com.actio.actio_api.model.StockTransaction;
+import com.actio.actio_api.model.TransactionRecord;
+import com.actio.actio_api.model.webclient.GlobalQuote;
+import com.actio.actio_api.repository.StockTransactionRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps one {@link PortfolioSnapshot} per account in memory, so the wallet is read from a
+ * precomputed valuation instead of being recomputed on every request.
+ *
+ * A snapshot is built on first access from the replay of the transactions of the account,
+ * read with a single query. From then on it is updated incrementally:
+ * - every saved transaction is applied to its position through {@link #applyTransaction};
+ * - every quote stored in the {@link QuoteCacheService} re-marks the positions in that
+ *   symbol of every account holding it.
+ *
+ * Positions opened by a trade are marked from the quote cache when it has their symbol;
+ * otherwise they stay unmarked until the wallet values them. A mark stays fresh until the
+ * cached quote it came from leaves its TTL, and is reported as stale afterwards unless a
+ * newer quote re-marks it.
+ */
+@Slf4j
+@Service
+public class PortfolioSnapshotService {
+
+    private final StockTransactionRepository stockTransactionRepository;
+    private final QuoteCacheService quoteCacheService;
+    private final CurrencyCacheService currencyCacheService;
+    private final Cache<Long, PortfolioSnapshot> snapshots;
+
+    /**
+     * Ids of the accounts with a snapshot holding each symbol, keyed by upper-case symbol.
+     * Entries may outlive a position; a stale entry only costs an ignored mark.
+     */
+    private final Map<String, Set<Long>> holders = new ConcurrentHashMap<>();
+
+    public PortfolioSnapshotService(StockTransactionRepository stockTransactionRepository,
+                                    QuoteCacheService quoteCacheService,
+                                    CurrencyCacheService currencyCacheService,
+                                    PortfolioSnapshotProperties properties) {
+        this.stockTransactionRepository = stockTransactionRepository;
+        this.quoteCacheService = quoteCacheService;
+        this.currencyCacheService = currencyCacheService;
+        this.snapshots = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterAccess(properties.getExpireAfterAccess())
+                .removalListener((Long accountId, PortfolioSnapshot snapshot, RemovalCause cause) -> {
+                    if (accountId != null && snapshot != null) {
+                        snapshot.symbols().forEach(symbol -> unindex(symbol, accountId));
+                    }
+                })
+                .build();
+        quoteCacheService.addListener(this::onQuote);
+    }
+
+    /**
+     * Returns the snapshot of an account, building it on first access.
+     *
+     * @param accountId the account id
+     * @return the snapshot of the account; positions may still be unmarked
+     */
+    public PortfolioSnapshot getSnapshot(Long accountId) {
+        return snapshots.get(accountId, this::load);
+    }
+
+    /**
+     * Applies a saved transaction to the snapshot of its account, if the account has one.
+     * A transaction already seen by the snapshot is not applied twice.
+     *
+     * @param transaction the persisted transaction, with its account, stock and type loaded
+     */
+    public void applyTransaction(StockTransaction transaction) {
+        Long accountId = transaction.getAccount().getId();
+        TransactionRecord record = TransactionRecord.of(transaction);
+        PortfolioSnapshot updated = snapshots.asMap().computeIfPresent(accountId, (id, snapshot) -> {
+            snapshot.apply(record);
+            return snapshot;
+        });
+        if (updated == null) {
+            return;
+        }
+        String symbol = record.getStockName().toUpperCase(Locale.ROOT);
+        index(symbol, accountId);
+        if (updated.isUnmarked(symbol)) {
+            quoteCacheService.getIfPresent(symbol)
+                    .ifPresent(quote -> mark(symbol, quote, Set.of(accountId)));
+        }
+    }
+
+    /**
+     * Marks a position of a snapshot with a price obtained by the caller. A price from the
+     * quote cache stays fresh until its cached quote leaves its TTL; any other price is
+     * stale from the start.
+     *
+     * @param snapshot the snapshot holding the position
+     * @param symbol the stock ticker symbol
+     * @param price the price in EUR, in {@link ScaledPrice} units
+     * @param changePercent the daily change reported with the price
+     * @param cached whether the price comes from the quote currently cached for the symbol
+     */
+    public void markPosition(PortfolioSnapshot snapshot, String symbol, long price, String changePercent, boolean cached) {
+        snapshot.mark(symbol, price, changePercent, cached ? freshUntil(symbol) : Instant.EPOCH);
+    }
+
+    /**
+     * Returns the number of accounts with a snapshot in memory.
+     */
+    public long size() {
+        return snapshots.estimatedSize();
+    }
+
+    private PortfolioSnapshot load(Long accountId) {
+        PortfolioSnapshot snapshot = PortfolioSnapshot.of(stockTransactionRepository.findRecordsByAccountId(accountId, 0L));
+        snapshot.symbols().forEach(symbol -> index(symbol, accountId));
+        log.debug("Built portfolio snapshot of account {}", accountId);
+        return snapshot;
+    }
+
+    /**
+     * Re-marks the positions of every account holding the symbol of a newly stored quote.
+     */
+    private void onQuote(String symbol, GlobalQuote quote) {
+        Set<Long> accountIds = holders.get(symbol);
+        if (accountIds == null || accountIds.isEmpty()) {
+            return;
+        }
+        mark(symbol, quote, accountIds);
+    }
+
+    private void mark(String symbol, GlobalQuote quote, Set<Long> accountIds) {
+        currencyCacheService.getEuroRateForSymbol(symbol)
+                .subscribe(
+                        rate -> {
+                            long price = EuroQuote.convert(quote, ScaledPrice.of(rate)).getPrice();
+                            Instant freshUntil = freshUntil(symbol);
+                            for (Long accountId : accountIds) {
+                                PortfolioSnapshot snapshot = snapshots.policy().getIfPresentQuietly(accountId);
+                                if (snapshot != null) {
+                                    snapshot.mark(symbol, price, quote.getChangePercent(), freshUntil);
+                                }
+                            }
+                        },
+                        ex -> log.warn("Re-marking {} failed: {}", symbol, ex.getMessage())
+                );
+    }
+
+    /**
+     * Returns the end of the TTL of the quote cached for a symbol, or a past moment if none
+     * is cached.
+     */
+    private Instant freshUntil(String symbol) {
+        return quoteCacheService.freshUntil(symbol).orElse(Instant.EPOCH);
+    }
+
+    private void index(String symbol, Long accountId) {
+        holders.computeIfAbsent(symbol, key -> ConcurrentHashMap.newKeySet()).add(accountId);
+    }
+
+    private void unindex(String symbol, Long accountId) {
+        holders.computeIfPresent(symbol, (key, accountIds) -> {
+            accountIds.remove(accountId);
+            return accountIds.isEmpty() ? null : accountIds;
+        });
+    }
+}
@@ -0,0 +1,308 @@
+package com.actio.actio_api.service;
+
+import com.actio.actio_api.config.FxRateProperties;
+import com.actio.actio_api.config.PriceHistoryProperties;
+import com.actio.actio_api.model.DailyPriceSeries;
+import com.actio.actio_api.model.Stock;
+import com.actio.actio_api.model.StockPriceDaily;
+import com.actio.actio_api.model.StockPriceDailyId;
+import com.actio.actio_api.model.UpstreamPriority;
+import com.actio.actio_api.model.response.PriceHistoryResponse;
+import com.actio.actio_api.repository.StockItemRepository;
+import com.actio.actio_api.repository.StockPriceDailyRepository;
+import com.actio.actio_api.repository.StockRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Daily price history of stocks: ingestion from Alpha Vantage and range queries.
+ *
+ * Daily bars are fetched with the TIME_SERIES_DAILY function and stored in the
+ * stock_price_daily table. Only bars from the last stored day onwards are written, and
+ * the compact series (latest 100 days) is requested whenever it covers the gap.
+ *
+ * Every symbol read or ingested is kept in memory as a {@link DailyPriceSeries}, loaded
+ * from the database once and replaced after each ingestion. History requests are answered
+ * from that series alone. Requests for malformed symbols are rejected by the
+ * {@link SymbolValidator}, and symbols without a stock row are remembered for
+ * {@code price.history.unknown-ttl}, so neither reaches the database on every request.
+ *
+ * A scheduled check ingests the history of held symbols and of symbols held in memory once
+ * it is older than {@code price.history.max-age}, spending only the upstream calls that
+ * are available right away, minus a reserve for user requests.
+ */
+@Slf4j
+@Service
+public class PriceHistoryService {
+
+    private static final String SERIES_FIELD = "Time Series (Daily)";
+
+    private final WebClient webClient;
+    private final StockRepository stockRepository;
+    private final StockPriceDailyRepository stockPriceDailyRepository;
+    private final StockItemRepository stockItemRepository;
+    private final UpstreamCallScheduler upstreamCallScheduler;
+    private final UpstreamCircuitBreaker upstreamCircuitBreaker;
+    private final PriceHistoryProperties properties;
+    private final FxRateProperties fxRateProperties;
+    private final SymbolValidator symbolValidator;
+
+    /**
+     * Upper-case symbols recently found without a stock row.
+     */
+    private final Cache<String, Boolean> unknownSymbols;
+
+    /**
+     * In-memory series keyed by upper-case symbol.
+     */
+    private final Map<String, LoadedSeries> series = new ConcurrentHashMap<>();
+
+    @Value("${apiKey}")
+    private String apiKey;
+
+    public PriceHistoryService(WebClient webClient, StockRepository stockRepository,
+                               StockPriceDailyRepository stockPriceDailyRepository,
+                               StockItemRepository stockItemRepository,
+                               UpstreamCallScheduler upstreamCallScheduler,
+                               UpstreamCircuitBreaker upstreamCircuitBreaker,
+                               PriceHistoryProperties properties, FxRateProperties fxRateProperties,
+                               SymbolValidator symbolValidator) {
+        this.webClient = webClient.mutate()
+                .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize((int) properties.getMaxResponseSize().toBytes()))
+                .build();
+        this.stockRepository = stockRepository;
+        this.stockPriceDailyRepository = stockPriceDailyRepository;
+        this.stockItemRepository = stockItemRepository;
+        this.upstreamCallScheduler = upstreamCallScheduler;
+        this.upstreamCircuitBreaker = upstreamCircuitBreaker;
+        this.properties = properties;
+        this.fxRateProperties = fxRateProperties;
+        this.symbolValidator = symbolValidator;
+        this.unknownSymbols = Caffeine.newBuilder()
+                .maximumSize(properties.getUnknownMaximumSize())
+                .expireAfterWrite(properties.getUnknownTtl())
+                .build();
+    }
+
+    /**
+     * Returns the daily bars of a symbol between two dates, both inclusive.
+     *
+     * When {@code to} is missing, the range ends at the last stored bar; when {@code from}
+     * is missing, it starts {@code price.history.default-range} before the end.
+     *
+     * @param symbol the stock ticker symbol
+     * @param from the first day of the range, or null
+     * @param to the last day of the range, or null
+     * @return the bars in column form, or empty if the symbol is not a known stock
+     * @throws IllegalArgumentException if {@code from} is after {@code to}
+     */
+    public Optional<PriceHistoryResponse> getHistory(String symbol, LocalDate from, LocalDate to) {
+        String key = symbol.toUpperCase();
+        LoadedSeries loaded = series.get(key);
+        if (loaded == null) {
+            if (!symbolValidator.isWellFormed(key) || unknownSymbols.getIfPresent(key) != null) {
+                return Optional.empty();
+            }
+            Optional<Stock> stock = findStock(key);
+            if (stock.isEmpty()) {
+                unknownSymbols.put(key, Boolean.TRUE);
+                return Optional.empty();
+            }
+            LoadedSeries read = new LoadedSeries(readSeries(stock.get().getIdStock()), null);
+            LoadedSeries existing = series.putIfAbsent(key, read);
+            loaded = existing != null ? existing : read;
+        }
+
+        DailyPriceSeries prices = loaded.getSeries();
+        LocalDate end = to != null ? to : Optional.ofNullable(prices.lastDate()).orElse(LocalDate.now());
+        LocalDate start = from != null ? from : end.minus(properties.getDefaultRange());
+        if (start.isAfter(end)) {
+            throw new IllegalArgumentException("'from' must not be after 'to'.");
+        }
+        return Optional.of(prices.slice(key, fxRateProperties.currencyFor(key), start, end));
+    }
+
+    /**
+     * Fetches the daily series of a symbol from Alpha Vantage, stores the new bars and
+     * replaces the in-memory series.
+     *
+     * @param symbol the stock ticker symbol, which must exist in the stock table
+     * @param priority the priority of the upstream call when the request quota is saturated
+     * @return Mono containing the number of bars written
+     */
+    public Mono<Integer> ingest(String symbol, UpstreamPriority priority) {
+        String key = symbol.toUpperCase();
+        return Mono.fromCallable(() -> {
+                    Stock stock = findStock(key)
+                            .orElseThrow(() -> new IllegalArgumentException("Unknown stock: " + symbol));
+                    unknownSymbols.invalidate(key);
+                    return new IngestTarget(stock.getIdStock(), stockPriceDailyRepository.findLastPriceDate(stock.getIdStock()));
+                })
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMap(target -> requestDailySeries(key, outputSize(target.getLastStored()), priority)
+                        .publishOn(Schedulers.boundedElastic())
+                        .map(json -> store(key, target, json)));
+    }
+
+    /**
+     * Scheduled check ingesting the history of held symbols and of symbols held in memory,
+     * most widely held first, as long as upstream budget is available.
+     */
+    @Scheduled(fixedDelayString = "${price.history.ingest-check-interval:PT15M}", initialDelayString = "${price.history.ingest-check-interval:PT15M}")
+    public void ingestDueSymbols() {
+        if (!properties.isIngestEnabled()) {
+            return;
+        }
+        try {
+            Set<String> symbols = new LinkedHashSet<>(stockItemRepository.findHeldSymbolsOrderByHolders());
+            symbols.addAll(series.keySet());
+            List<String> dueSymbols = symbols.stream().filter(this::isDue).toList();
+
+            int budget = Math.max(0, upstreamCallScheduler.availablePermits() - properties.getReservedPermits());
+            List<String> toIngest = dueSymbols.subList(0, Math.min(budget, dueSymbols.size()));
+            for (String symbol : toIngest) {
+                try {
+                    ingest(symbol, UpstreamPriority.WARMING).block();
+                } catch (Exception ex) {
+                    log.warn("Failed to ingest history of {}: {}", symbol, ex.getMessage());
+                }
+            }
+            if (!toIngest.isEmpty()) {
+                log.info("Ingested history of {} of {} due symbols", toIngest.size(), dueSymbols.size());
+            }
+        } catch (Exception ex) {
+            log.warn("Ingestion check failed: {}", ex.getMessage());
+        }
+    }
+
+    private boolean isDue(String symbol) {
+        LoadedSeries loaded = series.get(symbol.toUpperCase());
+        return loaded == null
+                || loaded.getIngestedAt() == null
+                || Duration.between(loaded.getIngestedAt(), Instant.now()).compareTo(properties.getMaxAge()) >= 0;
+    }
+
+    /**
+     * Requests the compact series when the bars missing since the last stored day fit in it.
+     */
+    private String outputSize(LocalDate lastStored) {
+        return lastStored != null && !lastStored.isBefore(LocalDate.now().minusDays(properties.getCompactDays()))
+                ? "compact"
+                : "full";
+    }
+
+    /**
+     * Performs the TIME_SERIES_DAILY request against Alpha Vantage and validates the response.
+     *
+     * A "Note" or "Information" payload means the upstream quota was exceeded: the scheduler
+     * is notified and the request fails with {@link UpstreamQuotaExceededException}.
+     */
+    private Mono<JsonNode> requestDailySeries(String symbol, String outputSize, UpstreamPriority priority) {
+        return upstreamCircuitBreaker.checkPermitted(UpstreamCircuitBreaker.TIME_SERIES_DAILY)
+                .then(upstreamCallScheduler.schedule(priority, () -> upstreamCircuitBreaker
+                        .execute(UpstreamCircuitBreaker.TIME_SERIES_DAILY, () -> webClient.get()
+                                .uri(uriBuilder -> uriBuilder
+                                        .path("/query")
+                                        .queryParam("function", "TIME_SERIES_DAILY")
+                                        .queryParam("symbol", symbol)
+                                        .queryParam("outputsize", outputSize)
+                                        .queryParam("apikey", apiKey)
+                                        .build())
+                                .accept(MediaType.APPLICATION_JSON)
+                                .retrieve()
+                                .bodyToMono(JsonNode.class))))
+                .flatMap(json -> {
+                    if (json.has("Note") || json.has("Information")) {
+                        upstreamCallScheduler.onRateLimitNotice(json.has("Note")
+                                ? json.path("Note").asText()
+                                : json.path("Information").asText());
+                        return Mono.error(new UpstreamQuotaExceededException("Alpha Vantage rate limit notice received"));
+                    }
+                    if (!json.path(SERIES_FIELD).isObject()) {
+                        return Mono.error(new IllegalStateException("Daily series not found in API response for " + symbol));
+                    }
+                    return Mono.just(json);
+                });
+    }
+
+    /**
+     * Writes the bars from the last stored day onwards and reloads the in-memory series.
+     *
+     * @return the number of bars written
+     */
+    private int store(String symbol, IngestTarget target, JsonNode json) {
+        List<StockPriceDaily> bars = new ArrayList<>();
+        for (Map.Entry<String, JsonNode> day : json.path(SERIES_FIELD).properties()) {
+            LocalDate date = LocalDate.parse(day.getKey());
+            if (target.getLastStored() != null && date.isBefore(target.getLastStored())) {
+                continue;
+            }
+            JsonNode bar = day.getValue();
+            bars.add(StockPriceDaily.builder()
+                    .id(new StockPriceDailyId(target.getStockId(), date))
+                    .open(new BigDecimal(bar.path("1. open").asText()))
+                    .high(new BigDecimal(bar.path("2. high").asText()))
+                    .low(new BigDecimal(bar.path("3. low").asText()))
+                    .close(new BigDecimal(bar.path("4. close").asText()))
+                    .volume(Long.parseLong(bar.path("5. volume").asText()))
+                    .newBar(!date.equals(target.getLastStored()))
+                    .build());
+        }
+        stockPriceDailyRepository.saveAll(bars);
+        series.put(symbol, new LoadedSeries(readSeries(target.getStockId()), Instant.now()));
+        log.info("Stored {} daily bars for {}", bars.size(), symbol);
+        return bars.size();
+    }
+
+    private Optional<Stock> findStock(String symbol) {
+        return stockRepository.findStockByStockName(symbol).stream().findFirst();
+    }
+
+    private DailyPriceSeries readSeries(Long stockId) {
+        return DailyPriceSeries.of(stockPriceDailyRepository.findByIdStockIdOrderByIdPriceDateAsc(stockId));
+    }
+
+    /**
+     * In-memory series of a symbol, with the moment it was last ingested, or null if it
+     * was only read from the database.
+     */
+    @Getter
+    @AllArgsConstructor
+    private static final class LoadedSeries {
+        private final DailyPriceSeries series;
+        private final Instant ingestedAt;
+    }
+
+    /**
+     * Stock being ingested, with its last stored day, or null if it has no bars yet.
+     */
+    @Getter
+    @AllArgsConstructor
+    private static final class IngestTarget {
+        private final Long stockId;
+        private final LocalDate lastStored;
+    }
+}
@@ -0,0 +1,296 @@
+package com.actio.actio_api.service;
+
+import com.actio.actio_api.config.QuoteCacheProperties;
+import com.actio.actio_api.model.QuoteSource;
+import com.actio.actio_api.model.SourcedQuote;
+import com.actio.actio_api.model.response.QuoteCacheStatsResponse;
+import com.actio.actio_api.model.webclient.GlobalQuote;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Service that keeps the latest upstream stock quote per symbol in a bounded in-memory cache.
+ *
+ * Each entry is considered fresh for the TTL configured for the symbol's exchange suffix
+ * (see {@link QuoteCacheProperties}). Once that TTL has elapsed the entry becomes stale:
+ * it is still returned immediately to the caller, while a single background refresh is
+ * started to replace it (stale-while-revalidate). Entries are evicted once they are older
+ * than the longest TTL plus the configured maximum staleness, counted from the moment they
+ * were fetched, or when the cache is full.
+ *
+ * Only live upstream quotes should be stored here; fallback data is applied by the caller
+ * so that a failed refresh never replaces a real quote with mock data.
+ *
+ * Components may register listeners to be notified of every quote stored, which is how
+ * streaming subscribers receive updates without polling.
+ *
+ * Lookup and refresh counts are published through {@link QuoteMetrics}.
+ */
+@Slf4j
+@Service
+public class QuoteCacheService {
+
+    private final QuoteCacheProperties properties;
+    private final Cache<String, CachedQuote> cache;
+    private final Set<String> refreshing = ConcurrentHashMap.newKeySet();
+    private final List<BiConsumer<String, GlobalQuote>> listeners = new CopyOnWriteArrayList<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder staleHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder refreshes = new LongAdder();
+    private final LongAdder refreshFailures = new LongAdder();
+
+    public QuoteCacheService(QuoteCacheProperties properties, QuoteMetrics metrics) {
+        this.properties = properties;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfter(new RetentionExpiry(properties.longestTtl().plus(properties.getMaxStale())))
+                .build();
+        metrics.registerQuoteCacheLookups("hit", hits);
+        metrics.registerQuoteCacheLookups("stale_hit", staleHits);
+        metrics.registerQuoteCacheLookups("miss", misses);
+        metrics.registerQuoteCacheRefreshes("started", refreshes);
+        metrics.registerQuoteCacheRefreshes("failed", refreshFailures);
+    }
+
+    /**
+     * Returns the quote for the given symbol, loading it through the provided loader when needed.
+     *
+     * - Fresh entry: returned immediately.
+     * - Stale entry: returned immediately, and a background refresh is triggered through the
+     *   loader unless one is already running for the same symbol.
+     * - No entry: the loader is subscribed and its result is stored before being returned.
+     *
+     * Errors raised by the loader on a miss are propagated to the caller, which is expected
+     * to apply its own fallback.
+     *
+     * @param symbol the stock ticker symbol
+     * @param loader function fetching a live quote from the upstream API
+     * @return Mono containing the cached or freshly loaded quote, with its source
+     */
+    public Mono<SourcedQuote> getQuote(String symbol, Function<String, Mono<GlobalQuote>> loader) {
+        String key = normalize(symbol);
+        CachedQuote cached = cache.getIfPresent(key);
+
+        if (cached == null) {
+            misses.increment();
+            return loader.apply(symbol)
+                    .doOnNext(quote -> put(key, quote))
+                    .map(quote -> new SourcedQuote(quote, QuoteSource.LIVE));
+        }
+
+        if (isFresh(key, cached)) {
+            hits.increment();
+            return Mono.just(new SourcedQuote(cached.getQuote(), QuoteSource.CACHED));
+        }
+        staleHits.increment();
+        refreshInBackground(symbol, key, loader);
+        return Mono.just(new SourcedQuote(cached.getQuote(), QuoteSource.STALE_CACHE));
+    }
+
+    /**
+     * Stores a live quote for the given symbol, replacing any previous entry.
+     *
+     * @param symbol the stock ticker symbol
+     * @param quote the quote returned by the upstream API
+     */
+    public void put(String symbol, GlobalQuote quote) {
+        String key = normalize(symbol);
+        cache.put(key, new CachedQuote(quote, Instant.now()));
+        for (BiConsumer<String, GlobalQuote> listener : listeners) {
+            try {
+                listener.accept(key, quote);
+            } catch (Exception ex) {
+                log.warn("Quote listener failed for symbol {}: {}", key, ex.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Stores a quote fetched earlier, for example one persisted before a restart, unless the
+     * symbol already has an entry. The entry keeps its original fetch time, so it is served
+     * as stale and expires as if it had stayed in memory. Listeners are not notified.
+     *
+     * @param symbol the stock ticker symbol
+     * @param quote the quote returned by the upstream API
+     * @param fetchedAt the moment the quote was fetched
+     * @return true if the quote was stored, false if the symbol already had an entry
+     */
+    public boolean restore(String symbol, GlobalQuote quote, Instant fetchedAt) {
+        return cache.asMap().putIfAbsent(normalize(symbol), new CachedQuote(quote, fetchedAt)) == null;
+    }
+
+    /**
+     * Registers a listener called with the upper-case symbol and the quote every time a
+     * quote is stored. Listeners run on the thread storing the quote and must not block.
+     *
+     * @param listener the listener to register
+     */
+    public void addListener(BiConsumer<String, GlobalQuote> listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Returns the cached quote for the given symbol regardless of its age.
+     *
+     * @param symbol the stock ticker symbol
+     * @return the cached quote, or empty if the symbol is not cached
+     */
+    public Optional<GlobalQuote> getIfPresent(String symbol) {
+        return Optional.ofNullable(cache.getIfPresent(normalize(symbol))).map(CachedQuote::getQuote);
+    }
+
+    /**
+     * Returns the cached quote for the given symbol regardless of its age, with whether it
+     * is still within its TTL. Neither counts a lookup nor triggers a refresh.
+     *
+     * @param symbol the stock ticker symbol
+     * @return the cached quote with its source, or empty if the symbol is not cached
+     */
+    public Optional<SourcedQuote> peek(String symbol) {
+        String key = normalize(symbol);
+        return Optional.ofNullable(cache.getIfPresent(key))
+                .map(cached -> new SourcedQuote(cached.getQuote(),
+                        isFresh(key, cached) ? QuoteSource.CACHED : QuoteSource.STALE_CACHE));
+    }
+
+    /**
+     * Checks whether the given symbol has a cached quote that is still within its TTL.
+     *
+     * @param symbol the stock ticker symbol
+     * @return true if a fresh quote is cached, false otherwise
+     */
+    public boolean isFresh(String symbol) {
+        String key = normalize(symbol);
+        CachedQuote cached = cache.getIfPresent(key);
+        return cached != null && isFresh(key, cached);
+    }
+
+    /**
+     * Returns the moment the cached quote of the given symbol leaves its TTL.
+     *
+     * @param symbol the stock ticker symbol
+     * @return the end of the TTL of the cached quote, or empty if the symbol is not cached
+     */
+    public Optional<Instant> freshUntil(String symbol) {
+        String key = normalize(symbol);
+        return Optional.ofNullable(cache.getIfPresent(key))
+                .map(cached -> cached.getFetchedAt().plus(properties.ttlFor(key)));
+    }
+
+    /**
+     * Checks whether the given symbol has no cached quote, or one that leaves its TTL within
+     * the given window. Used to refresh entries ahead of demand.
+     *
+     * @param symbol the stock ticker symbol
+     * @param ahead how long before the end of its TTL an entry already needs a refresh
+     * @return true if the symbol should be refreshed, false otherwise
+     */
+    public boolean needsRefresh(String symbol, Duration ahead) {
+        String key = normalize(symbol);
+        CachedQuote cached = cache.getIfPresent(key);
+        return cached == null
+                || !cached.getFetchedAt().plus(properties.ttlFor(key)).minus(ahead).isAfter(Instant.now());
+    }
+
+    /**
+     * Returns a snapshot of the cache counters.
+     *
+     * @return cache size, hit, stale hit, miss and refresh counts
+     */
+    public QuoteCacheStatsResponse getStats() {
+        long fresh = hits.sum();
+        long stale = staleHits.sum();
+        long missed = misses.sum();
+        long lookups = fresh + stale + missed;
+        return QuoteCacheStatsResponse.builder()
+                .size(cache.estimatedSize())
+                .hits(fresh)
+                .staleHits(stale)
+                .misses(missed)
+                .refreshes(refreshes.sum())
+                .refreshFailures(refreshFailures.sum())
+                .hitRatio(lookups == 0 ? 0.0 : (double) (fresh + stale) / lookups)
+                .build();
+    }
+
+    /**
+     * Starts a background refresh for a stale entry, at most one per symbol at a time.
+     * A failed refresh keeps the stale entry in place until it is evicted.
+     */
+    private void refreshInBackground(String symbol, String key, Function<String, Mono<GlobalQuote>> loader) {
+        if (!refreshing.add(key)) {
+            return;
+        }
+        refreshes.increment();
+        loader.apply(symbol)
+                .doFinally(signal -> refreshing.remove(key))
+                .subscribe(
+                        quote -> put(key, quote),
+                        ex -> {
+                            refreshFailures.increment();
+                            log.warn("Background refresh failed for symbol {}: {}", symbol, ex.getMessage());
+                        }
+                );
+    }
+
+    private boolean isFresh(String key, CachedQuote cached) {
+        return cached.getFetchedAt().plus(properties.ttlFor(key)).isAfter(Instant.now());
+    }
+
+    private String normalize(String symbol) {
+        return symbol.toUpperCase();
+    }
+
+    /**
+     * Expires entries a fixed retention after the moment their quote was fetched, whether
+     * they were just fetched or restored.
+     */
+    @AllArgsConstructor
+    private static final class RetentionExpiry implements Expiry<String, CachedQuote> {
+        private final Duration retention;
+
+        @Override
+        public long expireAfterCreate(String key, CachedQuote cached, long currentTime) {
+            return Math.max(0, Duration.between(Instant.now(), cached.getFetchedAt().plus(retention)).toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, CachedQuote cached, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, cached, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, CachedQuote cached, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+
+    /**
+     * Cache entry holding a quote together with the moment it was fetched.
+     */
+    @Getter
+    @AllArgsConstructor
+    private static final class CachedQuote {
+        private final GlobalQuote quote;
+        private final Instant fetchedAt;
+    }
+}
@@ -0,0 +1,337 @@
+package com.actio.actio_api.service;
+
+import com.actio.actio_api.model.CircuitState;
+import com.actio.actio_api.model.UpstreamPriority;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+import reactor.netty.resources.ConnectionPoolMetrics;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Micrometer meters of the quote pipeline, exposed through the Actuator Prometheus endpoint.
+ *
+ * <ul>
+ *   <li>{@code actio.upstream.requests}: latency of every Alpha Vantage call, tagged by
+ *       {@code function} and {@code outcome} (success, error).</li>
+ *   <li>{@code actio.upstream.fallbacks}: responses served from fallback data because the
+ *       upstream could not answer, tagged by {@code function}, {@code reason} (rate_limit,
+ *       circuit_open, malformed, timeout, error) and {@code source} of the data served.</li>
+ *   <li>{@code actio.fx.rate.age}: age in seconds of each cached base exchange rate, tagged
+ *       by {@code pair}; NaN until the pair is fetched.</li>
+ *   <li>{@code actio.quote.conversion}: time spent converting a quote to EUR.</li>
+ *   <li>{@code actio.upstream.hedge.calls}, {@code actio.upstream.hedges} and
+ *       {@code actio.upstream.hedges.skipped}: calls eligible for hedging, hedges sent by
+ *       {@code outcome} (won, lost, failed) and hedges not sent by {@code reason}. The hedge
+ *       rate is hedges over calls, the win rate is won hedges over hedges.</li>
+ *   <li>{@code actio.upstream.hedge.delay}: current delay after which a call is hedged.</li>
+ *   <li>{@code actio.upstream.circuit.transitions}: circuit state changes, tagged by
+ *       {@code endpoint}, {@code from} and {@code to}.</li>
+ *   <li>{@code actio.upstream.circuit.state}: 1 for the current state of each circuit and 0
+ *       for the others, tagged by {@code endpoint} and {@code state}.</li>
+ *   <li>{@code actio.upstream.pool.connections}: connections of the upstream HTTP pool,
+ *       tagged by {@code remote_address} and {@code state} (acquired, allocated, idle,
+ *       pending, max).</li>
+ *   <li>{@code actio.quote.cache.lookups}: quote cache lookups, tagged by {@code result}
+ *       (hit, stale_hit, miss).</li>
+ *   <li>{@code actio.quote.cache.refreshes}: background refreshes of stale quotes, tagged by
+ *       {@code outcome} (started, failed).</li>
+ *   <li>{@code actio.upstream.queue.depth}: calls waiting for an upstream slot, tagged by
+ *       {@code priority}.</li>
+ *   <li>{@code actio.upstream.queue.wait}: time calls waited for an upstream slot before
+ *       being granted one, tagged by {@code priority}.</li>
+ *   <li>{@code actio.quote.warmer.coverage}: share of held symbols with a fresh quote at the
+ *       end of the last warming run, in percent; NaN until the first run.</li>
+ * </ul>
+ */
+@Component
+public class QuoteMetrics {
+
+    private final MeterRegistry registry;
+    private final Timer conversionTimer;
+    private final Counter hedgeableCalls;
+
+    public QuoteMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        this.conversionTimer = Timer.builder("actio.quote.conversion")
+                .description("Time spent converting a quote to EUR")
+                .register(registry);
+        this.hedgeableCalls = Counter.builder("actio.upstream.hedge.calls")
+                .description("Upstream calls eligible for hedging")
+                .register(registry);
+    }
+
+    /**
+     * Records the duration of an upstream call.
+     *
+     * @param function the Alpha Vantage function name
+     * @param failure the error the call ended with, or null if it succeeded
+     * @param durationNanos the call duration in nanoseconds
+     */
+    public void recordUpstreamCall(String function, Throwable failure, long durationNanos) {
+        Timer.builder("actio.upstream.requests")
+                .description("Latency of Alpha Vantage calls")
+                .tag("function", function)
+                .tag("outcome", failure == null ? "success" : "error")
+                .register(registry)
+                .record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Counts a response served from fallback data.
+     *
+     * @param function the Alpha Vantage function that could not be used
+     * @param cause the error that triggered the fallback
+     * @param source where the fallback data came from (e.g. last_known, mock)
+     */
+    public void countFallback(String function, Throwable cause, String source) {
+        Counter.builder("actio.upstream.fallbacks")
+                .description("Responses served from fallback data")
+                .tag("function", function)
+                .tag("reason", fallbackReason(cause))
+                .tag("source", source)
+                .register(registry)
+                .increment();
+    }
+
+    /**
+     * Registers a gauge reporting the age of a cached exchange rate.
+     *
+     * @param pair the base pair name (e.g. USD-EUR)
+     * @param fetchedAt supplier of the moment the current rate was fetched, or null if never fetched
+     */
+    public void registerFxRateAge(String pair, Supplier<Instant> fetchedAt) {
+        Gauge.builder("actio.fx.rate.age", fetchedAt, supplier -> {
+                    Instant instant = supplier.get();
+                    return instant == null ? Double.NaN : Duration.between(instant, Instant.now()).toMillis() / 1000.0;
+                })
+                .description("Age of the cached exchange rate")
+                .tag("pair", pair)
+                .baseUnit("seconds")
+                .strongReference(true)
+                .register(registry);
+    }
+
+    /**
+     * Runs a quote conversion and records its duration.
+     *
+     * @param conversion the conversion to run
+     * @return the converted quote
+     */
+    public <T> T timeConversion(Supplier<T> conversion) {
+        return conversionTimer.record(conversion);
+    }
+
+    /**
+     * Counts a call that may be hedged.
+     */
+    public void countHedgeableCall() {
+        hedgeableCalls.increment();
+    }
+
+    /**
+     * Counts a hedge sent, once its outcome is known.
+     *
+     * @param outcome won if the hedge answered first, lost if the primary did, failed if it failed
+     */
+    public void countHedge(String outcome) {
+        Counter.builder("actio.upstream.hedges")
+                .description("Hedge requests sent")
+                .tag("outcome", outcome)
+                .register(registry)
+                .increment();
+    }
+
+    /**
+     * Counts a hedge that was due but not sent.
+     *
+     * @param reason budget if the daily hedge budget is spent, no_slot if no request slot was free
+     */
+    public void countHedgeSkipped(String reason) {
+        Counter.builder("actio.upstream.hedges.skipped")
+                .description("Hedge requests not sent")
+                .tag("reason", reason)
+                .register(registry)
+                .increment();
+    }
+
+    /**
+     * Registers a gauge reporting the current hedge delay.
+     *
+     * @param delay supplier of the current hedge delay
+     */
+    public void registerHedgeDelay(Supplier<Duration> delay) {
+        Gauge.builder("actio.upstream.hedge.delay", delay, supplier -> supplier.get().toMillis() / 1000.0)
+                .description("Delay after which a slow upstream call is hedged")
+                .baseUnit("seconds")
+                .strongReference(true)
+                .register(registry);
+    }
+
+    /**
+     * Counts a circuit breaker state change.
+     *
+     * @param endpoint the Alpha Vantage function name
+     * @param from the state the circuit left
+     * @param to the state the circuit entered
+     */
+    public void countCircuitTransition(String endpoint, CircuitState from, CircuitState to) {
+        Counter.builder("actio.upstream.circuit.transitions")
+                .description("Circuit breaker state changes")
+                .tag("endpoint", endpoint)
+                .tag("from", from.name())
+                .tag("to", to.name())
+                .register(registry)
+                .increment();
+    }
+
+    /**
+     * Registers one gauge per circuit state, reporting 1 while the circuit of the endpoint
+     * is in that state and 0 otherwise.
+     *
+     * @param endpoint the Alpha Vantage function name
+     * @param state supplier of the current state of the circuit
+     */
+    public void registerCircuitState(String endpoint, Supplier<CircuitState> state) {
+        for (CircuitState candidate : CircuitState.values()) {
+            Gauge.builder("actio.upstream.circuit.state", state, supplier -> supplier.get() == candidate ? 1 : 0)
+                    .description("Current state of the circuit breaker")
+                    .tag("endpoint", endpoint)
+                    .tag("state", candidate.name())
+                    .strongReference(true)
+                    .register(registry);
+        }
+    }
+
+    /**
+     * Registers gauges reporting the connections of an upstream HTTP connection pool.
+     *
+     * @param remoteAddress the remote address the pool connects to
+     * @param pool live metrics of the pool
+     */
+    public void registerConnectionPool(String remoteAddress, ConnectionPoolMetrics pool) {
+        registerPoolGauge(remoteAddress, "acquired", pool, ConnectionPoolMetrics::acquiredSize);
+        registerPoolGauge(remoteAddress, "allocated", pool, ConnectionPoolMetrics::allocatedSize);
+        registerPoolGauge(remoteAddress, "idle", pool, ConnectionPoolMetrics::idleSize);
+        registerPoolGauge(remoteAddress, "pending", pool, ConnectionPoolMetrics::pendingAcquireSize);
+        registerPoolGauge(remoteAddress, "max", pool, ConnectionPoolMetrics::maxAllocatedSize);
+    }
+
+    /**
+     * Removes the gauges of an upstream HTTP connection pool that has been disposed.
+     *
+     * @param remoteAddress the remote address the pool connected to
+     */
+    public void removeConnectionPool(String remoteAddress) {
+        registry.find("actio.upstream.pool.connections")
+                .tag("remote_address", remoteAddress)
+                .meters()
+                .forEach(registry::remove);
+    }
+
+    private void registerPoolGauge(String remoteAddress, String state, ConnectionPoolMetrics pool,
+                                   ToDoubleFunction<ConnectionPoolMetrics> value) {
+        Gauge.builder("actio.upstream.pool.connections", pool, value)
+                .description("Connections of the upstream HTTP connection pool")
+                .tag("remote_address", remoteAddress)
+                .tag("state", state)
+                .strongReference(true)
+                .register(registry);
+    }
+
+    /**
+     * Registers a counter reading the quote cache lookups with the given result.
+     *
+     * @param result hit, stale_hit or miss
+     * @param lookups the running count kept by the cache
+     */
+    public void registerQuoteCacheLookups(String result, LongAdder lookups) {
+        FunctionCounter.builder("actio.quote.cache.lookups", lookups, LongAdder::sum)
+                .description("Quote cache lookups")
+                .tag("result", result)
+                .register(registry);
+    }
+
+    /**
+     * Registers a counter reading the background refreshes of the quote cache with the given outcome.
+     *
+     * @param outcome started or failed
+     * @param refreshes the running count kept by the cache
+     */
+    public void registerQuoteCacheRefreshes(String outcome, LongAdder refreshes) {
+        FunctionCounter.builder("actio.quote.cache.refreshes", refreshes, LongAdder::sum)
+                .description("Background refreshes of stale quotes")
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+
+    /**
+     * Registers a gauge reporting the number of calls of a priority waiting for an upstream slot.
+     *
+     * @param priority the priority of the waiting calls
+     * @param depth supplier of the number of waiting calls
+     */
+    public void registerQueueDepth(UpstreamPriority priority, Supplier<Integer> depth) {
+        Gauge.builder("actio.upstream.queue.depth", depth, Supplier::get)
+                .description("Calls waiting for an upstream slot")
+                .tag("priority", priority.name())
+                .strongReference(true)
+                .register(registry);
+    }
+
+    /**
+     * Records how long a call waited for an upstream slot.
+     *
+     * @param priority the priority of the call
+     * @param waitedNanos the wait in nanoseconds
+     */
+    public void recordQueueWait(UpstreamPriority priority, long waitedNanos) {
+        Timer.builder("actio.upstream.queue.wait")
+                .description("Time calls waited for an upstream slot")
+                .tag("priority", priority.name())
+                .register(registry)
+                .record(waitedNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Registers a gauge reporting the warm coverage of the last warming run.
+     *
+     * @param coveragePercent supplier of the coverage in percent, or null before the first run
+     */
+    public void registerWarmCoverage(Supplier<Double> coveragePercent) {
+        Gauge.builder("actio.quote.warmer.coverage", coveragePercent, supplier -> {
+                    Double percent = supplier.get();
+                    return percent == null ? Double.NaN : percent;
+                })
+                .description("Share of held symbols with a fresh quote after the last warming run")
+                .baseUnit("percent")
+                .strongReference(true)
+                .register(registry);
+    }
+
+    private static String fallbackReason(Throwable cause) {
+        if (cause instanceof UpstreamQuotaExceededException) {
+            return "rate_limit";
+        }
+        if (cause instanceof UpstreamCircuitOpenException) {
+            return "circuit_open";
+        }
+        if (cause instanceof MalformedUpstreamResponseException) {
+            return "malformed";
+        }
+        if (cause instanceof TimeoutException) {
+            return "timeout";
+        }
+        return "error";
+    }
+}
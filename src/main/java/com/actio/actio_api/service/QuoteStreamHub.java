@@ -0,0 +1,168 @@
+package com.actio.actio_api.service;
+
+import com.actio.actio_api.config.QuoteStreamProperties;
+import com.actio.actio_api.model.EuroQuote;
+import com.actio.actio_api.model.ScaledPrice;
+import com.actio.actio_api.model.UpstreamPriority;
+import com.actio.actio_api.model.response.StockQuoteStreamEvent;
+import com.actio.actio_api.model.webclient.GlobalQuote;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Broadcast hub pushing quote updates to streaming subscribers.
+ *
+ * Each subscribed symbol has one shared topic, however many connections follow it. Topics
+ * are fed by the {@link QuoteCacheService}: every quote stored there, whether by a regular
+ * request, the quote warmer or this hub, is converted to EUR and emitted to all subscribers
+ * of the symbol. A scheduled check refreshes the stale quotes of subscribed symbols, so N
+ * subscribers of a symbol cost one upstream refresh per TTL rather than N polls.
+ *
+ * Topics replay only their latest event, so a new subscriber receives the current price
+ * right away, and a slow subscriber skips intermediate prices instead of buffering them.
+ * A topic is removed when its last subscriber disconnects.
+ */
+@Slf4j
+@Service
+public class QuoteStreamHub {
+
+    private final QuoteCacheService quoteCacheService;
+    private final CurrencyCacheService currencyCacheService;
+    private final AlphaVantageWebClientService alphaVantageWebClientService;
+    private final QuoteStreamProperties properties;
+    private final Map<String, Topic> topics = new ConcurrentHashMap<>();
+
+    public QuoteStreamHub(QuoteCacheService quoteCacheService, CurrencyCacheService currencyCacheService,
+                          AlphaVantageWebClientService alphaVantageWebClientService,
+                          QuoteStreamProperties properties) {
+        this.quoteCacheService = quoteCacheService;
+        this.currencyCacheService = currencyCacheService;
+        this.alphaVantageWebClientService = alphaVantageWebClientService;
+        this.properties = properties;
+        quoteCacheService.addListener(this::publish);
+    }
+
+    /**
+     * Opens a stream of quote updates for the given symbols.
+     *
+     * Symbols are trimmed, upper-cased and deduplicated. Each symbol is conflated
+     * independently: when the consumer cannot keep up, only the latest price of each
+     * symbol is kept.
+     *
+     * @param symbols the stock ticker symbols to follow
+     * @return Flux emitting a quote event whenever the price of one of the symbols changes
+     * @throws IllegalArgumentException if no symbol or more than {@code quote.stream.max-symbols-per-connection} are given
+     */
+    public Flux<StockQuoteStreamEvent> stream(List<String> symbols) {
+        List<String> distinctSymbols = symbols.stream()
+                .map(String::trim)
+                .filter(symbol -> !symbol.isEmpty())
+                .map(String::toUpperCase)
+                .distinct()
+                .toList();
+        int max = properties.getMaxSymbolsPerConnection();
+        if (distinctSymbols.isEmpty() || distinctSymbols.size() > max) {
+            throw new IllegalArgumentException("Between 1 and " + max + " symbols must be requested.");
+        }
+        return Flux.merge(distinctSymbols.stream().map(this::subscribe).toList());
+    }
+
+    /**
+     * Returns the number of symbols that currently have at least one subscriber.
+     */
+    public int getActiveSymbols() {
+        return topics.size();
+    }
+
+    /**
+     * Refreshes the stale quotes of all subscribed symbols. Refreshed quotes reach the
+     * subscribers through the quote cache listener.
+     */
+    @Scheduled(fixedDelayString = "${quote.stream.refresh-interval:PT15S}")
+    public void refreshSubscribedSymbols() {
+        topics.keySet().stream()
+                .filter(symbol -> quoteCacheService.needsRefresh(symbol, Duration.ZERO))
+                .forEach(this::refresh);
+    }
+
+    private Flux<StockQuoteStreamEvent> subscribe(String symbol) {
+        return Flux.defer(() -> {
+                    Topic topic = topics.compute(symbol, (key, existing) -> {
+                        Topic current = existing != null ? existing : new Topic();
+                        current.subscribers++;
+                        return current;
+                    });
+                    if (topic.subscribers == 1) {
+                        quoteCacheService.getIfPresent(symbol)
+                                .ifPresentOrElse(quote -> publish(symbol, quote), () -> refresh(symbol));
+                    }
+                    return topic.sink.asFlux().doFinally(signal -> release(symbol));
+                })
+                .onBackpressureLatest();
+    }
+
+    private void release(String symbol) {
+        topics.computeIfPresent(symbol, (key, topic) -> {
+            if (--topic.subscribers > 0) {
+                return topic;
+            }
+            topic.complete();
+            return null;
+        });
+    }
+
+    private void refresh(String symbol) {
+        alphaVantageWebClientService.refreshQuote(symbol, UpstreamPriority.WALLET)
+                .subscribe(
+                        quote -> { },
+                        ex -> log.warn("Refresh failed for symbol {}: {}", symbol, ex.getMessage())
+                );
+    }
+
+    /**
+     * Converts a stored quote to EUR and emits it to the subscribers of its symbol, if any.
+     */
+    private void publish(String symbol, GlobalQuote quote) {
+        Topic topic = topics.get(symbol);
+        if (topic == null) {
+            return;
+        }
+        Instant updatedAt = Instant.now();
+        currencyCacheService.getEuroRateForSymbol(symbol)
+                .subscribe(
+                        rate -> topic.emit(StockQuoteStreamEvent.builder()
+                                .symbol(symbol)
+                                .price(EuroQuote.convert(quote, ScaledPrice.of(rate)).priceForApi())
+                                .changePercent(quote.getChangePercent())
+                                .latestTradingDay(quote.getLatestTradingDay())
+                                .updatedAt(updatedAt)
+                                .build()),
+                        ex -> log.warn("Conversion failed for symbol {}: {}", symbol, ex.getMessage())
+                );
+    }
+
+    /**
+     * Shared stream of a single symbol. The subscriber count is guarded by the topic map.
+     */
+    private static final class Topic {
+        private final Sinks.Many<StockQuoteStreamEvent> sink = Sinks.many().replay().latest();
+        private int subscribers;
+
+        private synchronized void emit(StockQuoteStreamEvent event) {
+            sink.tryEmitNext(event);
+        }
+
+        private synchronized void complete() {
+            sink.tryEmitComplete();
+        }
+    }
+}
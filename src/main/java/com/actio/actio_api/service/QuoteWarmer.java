@@ -0,0 +1,142 @@
+package com.actio.actio_api.service;
+
+import com.actio.actio_api.config.QuoteWarmerProperties;
+import com.actio.actio_api.model.UpstreamPriority;
+import com.actio.actio_api.model.response.QuoteWarmerStatsResponse;
+import com.actio.actio_api.repository.StockItemRepository;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Background job keeping the quotes of held stocks warm in the {@link QuoteCacheService}.
+ *
+ * On each run, the symbols held by at least one account (quantity above zero) are loaded,
+ * most widely held first. Symbols whose cached quote is missing or about to leave its TTL
+ * are refreshed, in that order, as long as upstream budget is available. Warming calls use
+ * {@link UpstreamPriority#WARMING}, and each run only spends the permits the
+ * {@link UpstreamCallScheduler} can grant right away, minus a reserve for user requests.
+ * Symbols that do not fit in the budget are left for the next run.
+ *
+ * After each run the warm coverage, the share of held symbols with a fresh quote, is recorded
+ * and published through {@link QuoteMetrics}.
+ */
+@Slf4j
+@Service
+public class QuoteWarmer {
+
+    private final StockItemRepository stockItemRepository;
+    private final QuoteCacheService quoteCacheService;
+    private final AlphaVantageWebClientService alphaVantageWebClientService;
+    private final UpstreamCallScheduler upstreamCallScheduler;
+    private final QuoteWarmerProperties properties;
+
+    private final AtomicReference<Coverage> lastCoverage = new AtomicReference<>();
+    private final LongAdder warmed = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder deferred = new LongAdder();
+
+    public QuoteWarmer(StockItemRepository stockItemRepository,
+                       QuoteCacheService quoteCacheService,
+                       AlphaVantageWebClientService alphaVantageWebClientService,
+                       UpstreamCallScheduler upstreamCallScheduler,
+                       QuoteWarmerProperties properties,
+                       QuoteMetrics metrics) {
+        this.stockItemRepository = stockItemRepository;
+        this.quoteCacheService = quoteCacheService;
+        this.alphaVantageWebClientService = alphaVantageWebClientService;
+        this.upstreamCallScheduler = upstreamCallScheduler;
+        this.properties = properties;
+        metrics.registerWarmCoverage(() -> {
+            Coverage coverage = lastCoverage.get();
+            return coverage == null ? null : coverage.percent();
+        });
+    }
+
+    /**
+     * Scheduled entry point. Runs never overlap, since the next one is only scheduled
+     * once the previous one has finished.
+     */
+    @Scheduled(fixedDelayString = "${quote.warmer.interval:PT1M}", initialDelayString = "${quote.warmer.interval:PT1M}")
+    public void warmHeldSymbols() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        try {
+            List<String> heldSymbols = stockItemRepository.findHeldSymbolsOrderByHolders();
+            List<String> dueSymbols = heldSymbols.stream()
+                    .filter(symbol -> quoteCacheService.needsRefresh(symbol, properties.getRefreshAhead()))
+                    .toList();
+
+            int budget = Math.max(0, upstreamCallScheduler.availablePermits() - properties.getReservedPermits());
+            List<String> toWarm = dueSymbols.subList(0, Math.min(budget, dueSymbols.size()));
+            deferred.add(dueSymbols.size() - toWarm.size());
+
+            Flux.fromIterable(toWarm)
+                    .flatMap(symbol -> alphaVantageWebClientService.refreshQuote(symbol, UpstreamPriority.WARMING)
+                                    .doOnNext(quote -> warmed.increment())
+                                    .onErrorResume(ex -> {
+                                        failures.increment();
+                                        log.warn("Failed to warm symbol {}: {}", symbol, ex.getMessage());
+                                        return Mono.empty();
+                                    }),
+                            properties.getMaxConcurrency())
+                    .then()
+                    .block(properties.getRunTimeout());
+
+            recordCoverage(heldSymbols);
+            log.info("Warmed {} of {} due symbols ({} held)", toWarm.size(), dueSymbols.size(), heldSymbols.size());
+        } catch (Exception ex) {
+            log.warn("Warming run failed: {}", ex.getMessage());
+        }
+    }
+
+    /**
+     * Returns the warm coverage of the last run together with the warmer counters.
+     *
+     * @return held and fresh symbol counts, coverage percentage and warming counts
+     */
+    public QuoteWarmerStatsResponse getStats() {
+        Coverage coverage = lastCoverage.get();
+        QuoteWarmerStatsResponse.QuoteWarmerStatsResponseBuilder stats = QuoteWarmerStatsResponse.builder()
+                .warmed(warmed.sum())
+                .failures(failures.sum())
+                .deferred(deferred.sum());
+        if (coverage != null) {
+            stats.heldSymbols(coverage.getHeld())
+                    .freshSymbols(coverage.getFresh())
+                    .coveragePercent(coverage.percent())
+                    .lastRunAt(coverage.getMeasuredAt());
+        }
+        return stats.build();
+    }
+
+    private void recordCoverage(List<String> heldSymbols) {
+        int fresh = (int) heldSymbols.stream().filter(quoteCacheService::isFresh).count();
+        lastCoverage.set(new Coverage(heldSymbols.size(), fresh, Instant.now()));
+    }
+
+    /**
+     * Warm coverage measured at the end of a run.
+     */
+    @Getter
+    @AllArgsConstructor
+    private static final class Coverage {
+        private final int held;
+        private final int fresh;
+        private final Instant measuredAt;
+
+        private double percent() {
+            return held == 0 ? 100.0 : fresh * 100.0 / held;
+        }
+    }
+}
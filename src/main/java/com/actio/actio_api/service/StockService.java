@@ -3,21 +3,60 @@ package com.actio.actio_api.service;
 import com.actio.actio_api.model.Stock;
 import com.actio.actio_api.repository.StockRepository;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.hibernate.NonUniqueObjectException;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.StringJoiner;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Service class responsible for managing stock-related operations.
  *
+ * Stocks are never deleted and their identity never changes, so every stock resolved by
+ * symbol is kept in a write-through in-memory map. The map holds only the id and name of
+ * each stock, and every caller receives its own detached copy. Database lookups and inserts
+ * run outside the map, so resolving a new symbol never blocks callers of other symbols.
+ * Every stock added to the map is also added to the {@link SymbolSearchIndex}.
  */
+@Slf4j
 @RequiredArgsConstructor
 @Service
 public class StockService {
 
+    /**
+     * Inserts the listed stock names that are not stored yet, as one statement. The values
+     * list is appended per call, with one placeholder per name.
+     */
+    private static final String INSERT_MISSING_SQL_PREFIX = "INSERT INTO stock (stock_name) "
+            + "SELECT v.stock_name FROM (VALUES ";
+    private static final String INSERT_MISSING_SQL_SUFFIX = ") AS v(stock_name) "
+            + "WHERE NOT EXISTS (SELECT 1 FROM stock s WHERE s.stock_name = v.stock_name)";
+
     private final StockRepository stockRepository;
+    private final SymbolSearchIndex symbolSearchIndex;
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Stocks resolved so far, keyed by upper-case stock name. A future is incomplete while
+     * the first caller of its symbol reads or inserts the stock.
+     */
+    private final Map<String, CompletableFuture<Stock>> stocksBySymbol = new ConcurrentHashMap<>();
 
 
     /**
@@ -32,7 +71,7 @@ public class StockService {
         List<Stock> stocks = stockRepository.findStockByStockName(symbol);
         if(stocks.stream().count() > 1){
             String errorMessage = "No unique stock " + symbol + ", found: ";
-            System.out.println("[StockService]: " + errorMessage + stocks.size());
+            log.warn("{}{}", errorMessage, stocks.size());
             throw new NonUniqueObjectException(errorMessage, String.valueOf(stocks.size()));
         }
         return stocks.get(0);
@@ -50,7 +89,49 @@ public class StockService {
      * @return the persisted stock instance
      */
     public Stock save(Stock stock){
-        return stockRepository.save(stock);
+        Stock saved = stockRepository.save(stock);
+        Stock identity = identityOf(saved);
+        stocksBySymbol.put(normalize(saved.getStockName()), CompletableFuture.completedFuture(identity));
+        symbolSearchIndex.add(identity);
+        return saved;
+    }
+
+    /**
+     * Returns the stock with the given symbol, creating it if it does not exist yet.
+     *
+     * Known symbols are answered from memory without any database access. On a miss, the
+     * stock is read and, if absent, inserted by the first caller; concurrent first calls for
+     * the same symbol wait for that single lookup and insert. Should another instance insert the same symbol
+     * first, the unique constraint on stock_name rejects the second insert and the stock
+     * inserted by the other instance is read instead.
+     *
+     * @param symbol the stock name, stored upper-case when created
+     * @return a detached copy of the persisted Stock, with its id and name
+     */
+    public Stock findOrCreate(String symbol) {
+        String key = normalize(symbol);
+        CompletableFuture<Stock> resolved = stocksBySymbol.get(key);
+        if (resolved == null) {
+            CompletableFuture<Stock> created = new CompletableFuture<>();
+            resolved = stocksBySymbol.putIfAbsent(key, created);
+            if (resolved == null) {
+                resolved = created;
+                try {
+                    Stock identity = identityOf(loadOrInsert(key));
+                    symbolSearchIndex.add(identity);
+                    created.complete(identity);
+                } catch (RuntimeException ex) {
+                    stocksBySymbol.remove(key, created);
+                    created.completeExceptionally(ex);
+                    throw ex;
+                }
+            }
+        }
+        try {
+            return identityOf(resolved.join());
+        } catch (CompletionException ex) {
+            throw ex.getCause() instanceof RuntimeException cause ? cause : ex;
+        }
     }
 
     /**
@@ -63,4 +144,136 @@ public class StockService {
         return stockRepository.existsStockByStockName(symbol);
     }
 
+    /**
+     * Resolves the stocks matching the given names, creating the missing ones.
+     *
+     * Stocks already in memory are returned without any query. The others are loaded with
+     * a single query; the missing ones are then inserted with one multi-row statement that
+     * skips names stored in the meantime, and read back with a single query. At most three
+     * statements are run, whatever the number of names, and the insert is atomic.
+     *
+     * @param symbols the stock names to resolve
+     * @return map of stock name to persisted Stock
+     */
+    public Map<String, Stock> findOrCreateAll(Collection<String> symbols) {
+        Map<String, Stock> stocks = new HashMap<>();
+        List<String> uncached = new ArrayList<>();
+        for (String symbol : symbols) {
+            Stock cached = cached(normalize(symbol));
+            if (cached != null) {
+                stocks.put(symbol, cached);
+            } else {
+                uncached.add(symbol);
+            }
+        }
+        if (uncached.isEmpty()) {
+            return stocks;
+        }
+
+        Map<String, Stock> existing = stockRepository.findByStockNameIn(uncached).stream()
+                .collect(Collectors.toMap(
+                        stock -> normalize(stock.getStockName()),
+                        Function.identity(),
+                        (first, second) -> first));
+        existing.values().forEach(this::cache);
+
+        List<String> missing = uncached.stream()
+                .map(this::normalize)
+                .filter(symbol -> !existing.containsKey(symbol))
+                .distinct()
+                .toList();
+        if (!missing.isEmpty()) {
+            try {
+                insertMissing(missing);
+                stockRepository.findByStockNameIn(missing).forEach(this::cache);
+            } catch (DataIntegrityViolationException ex) {
+                log.info("Concurrent stock creation detected, resolving individually");
+                missing.forEach(this::findOrCreate);
+            }
+        }
+        for (String symbol : uncached) {
+            stocks.put(symbol, findOrCreate(symbol));
+        }
+        return stocks;
+    }
+
+    /**
+     * Loads all existing stocks into memory, so the first quote of each known symbol does
+     * not need a database round trip. Skipped with a message if the table cannot be read.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void preloadStocks() {
+        try {
+            stockRepository.findAll().forEach(this::cache);
+            log.info("Preloaded {} stocks", stocksBySymbol.size());
+        } catch (DataAccessException ex) {
+            log.info("Stock preload skipped: {}", ex.getMessage());
+        }
+    }
+
+    /**
+     * Inserts the given upper-case symbols that are not stored yet with a single statement.
+     * Another writer inserting one of them concurrently makes the whole statement fail.
+     */
+    private void insertMissing(List<String> symbols) {
+        StringJoiner values = new StringJoiner(", ", INSERT_MISSING_SQL_PREFIX, INSERT_MISSING_SQL_SUFFIX);
+        symbols.forEach(symbol -> values.add("(?)"));
+        int inserted = jdbcTemplate.update(values.toString(), symbols.toArray());
+        log.debug("Inserted {} of {} new stocks", inserted, symbols.size());
+    }
+
+    /**
+     * Reads the stock with the given upper-case symbol, inserting it when absent.
+     * A unique constraint violation means another writer inserted it first.
+     */
+    private Stock loadOrInsert(String symbol) {
+        List<Stock> stocks = stockRepository.findStockByStockName(symbol);
+        if (!stocks.isEmpty()) {
+            return stocks.get(0);
+        }
+        try {
+            return stockRepository.saveAndFlush(Stock.builder().stockName(symbol).build());
+        } catch (DataIntegrityViolationException ex) {
+            log.info("Stock {} was created concurrently, reading it", symbol);
+            return stockRepository.findStockByStockName(symbol).stream()
+                    .findFirst()
+                    .orElseThrow(() -> ex);
+        }
+    }
+
+    /**
+     * Returns a copy of the stock with the given upper-case symbol, or null if it is not
+     * resolved yet.
+     */
+    private Stock cached(String key) {
+        CompletableFuture<Stock> resolved = stocksBySymbol.get(key);
+        if (resolved == null || !resolved.isDone() || resolved.isCompletedExceptionally()) {
+            return null;
+        }
+        return identityOf(resolved.join());
+    }
+
+    /**
+     * Adds a persisted stock to the map and the search index, unless its symbol is already
+     * resolved or being resolved.
+     */
+    private void cache(Stock stock) {
+        Stock identity = identityOf(stock);
+        CompletableFuture<Stock> resolved = CompletableFuture.completedFuture(identity);
+        if (stocksBySymbol.putIfAbsent(normalize(identity.getStockName()), resolved) == null) {
+            symbolSearchIndex.add(identity);
+        }
+    }
+
+    /**
+     * Returns the id and name of a stock, detached from any persistence context.
+     */
+    private static Stock identityOf(Stock stock) {
+        return Stock.builder().idStock(stock.getIdStock()).stockName(stock.getStockName()).build();
+    }
+
+    private String normalize(String symbol) {
+        return symbol.toUpperCase();
+    }
+
 }
@@ -31,6 +31,7 @@ public class StockTransactionService {
     private final StockService stockService;
     private final StockItemService stockItemService;
     private final StockTransactionRepository stockTransactionRepository;
+    private final PortfolioSnapshotService portfolioSnapshotService;
 
     /**
      * Executes a purchase operation for a stock transaction.
@@ -107,7 +108,9 @@ public class StockTransactionService {
         validateTransaction(account, stock.getIdStock(), transactionType, quantity, totalValue);
 
         StockTransaction transaction = buildTransaction(account, stock, transactionType, quantity, unitPrice);
-        return transactionToResponse(stockTransactionRepository.save(transaction));
+        StockTransaction saved = stockTransactionRepository.save(transaction);
+        portfolioSnapshotService.applyTransaction(saved);
+        return transactionToResponse(saved);
     }
 
     /**
@@ -194,6 +197,6 @@ public class StockTransactionService {
     }
 
     public void saveTransaction(StockTransaction transaction) {
-        stockTransactionRepository.save(transaction);
+        portfolioSnapshotService.applyTransaction(stockTransactionRepository.save(transaction));
     }
 }
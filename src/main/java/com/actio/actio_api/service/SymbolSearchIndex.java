@@ -0,0 +1,236 @@
+package com.actio.actio_api.service;
+
+import com.actio.actio_api.model.Stock;
+import com.actio.actio_api.model.response.StockSearchItemResponse;
+import jakarta.annotation.PostConstruct;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory prefix index over known ticker symbols and company names, backing symbol
+ * search and autocomplete.
+ *
+ * Every symbol is indexed under its full ticker (e.g. "PETR4.SA"), its ticker without the
+ * exchange suffix ("PETR4") and each word of its company name ("PETROLEO", "BRASILEIRO",
+ * ...). Tokens are upper-case without accents and kept in a sorted map, so all tokens
+ * starting with a prefix are a contiguous range. Searches never touch the database or the
+ * upstream.
+ *
+ * Symbols come from the bundled listing file ({@code stock.search.listing}), loaded at
+ * startup, and from the stock table: the {@link StockService} adds every stock it loads or
+ * creates.
+ */
+@Slf4j
+@Service
+public class SymbolSearchIndex {
+
+    private static final Pattern ACCENTS = Pattern.compile("\\p{M}+");
+    private static final Pattern NAME_SEPARATORS = Pattern.compile("[^A-Z0-9]+");
+    private static final Pattern QUERY_SEPARATORS = Pattern.compile("[^A-Z0-9.\\-]+");
+
+    /**
+     * Upper bound of the tokens scanned per search, so short prefixes stay cheap.
+     */
+    private static final int MAX_SCANNED_TOKENS = 1000;
+
+    private final NavigableMap<String, Set<String>> tokens = new ConcurrentSkipListMap<>();
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    @Value("${stock.search.listing:listing/stock-listing.csv}")
+    private String listing;
+
+    @Value("${stock.search.max-results:20}")
+    private int maxResults;
+
+    /**
+     * Loads the bundled listing file. A missing or unreadable file leaves the index with
+     * the symbols of the stock table only.
+     */
+    @PostConstruct
+    public void loadListing() {
+        Resource resource = new ClassPathResource(listing);
+        if (!resource.exists()) {
+            log.warn("Stock listing {} not found", listing);
+            return;
+        }
+        int loaded = 0;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8))) {
+            String line = reader.readLine();
+            while ((line = reader.readLine()) != null) {
+                String[] columns = line.split(",", 2);
+                if (!columns[0].isBlank()) {
+                    add(columns[0].trim(), columns.length > 1 ? columns[1].trim() : null, null);
+                    loaded++;
+                }
+            }
+            log.info("Indexed {} listed symbols", loaded);
+        } catch (IOException ex) {
+            log.warn("Stock listing {} could not be read: {}", listing, ex.getMessage());
+        }
+    }
+
+    /**
+     * Adds a stock of the stock table to the index, or attaches its id to a listed symbol.
+     *
+     * @param stock the persisted stock
+     */
+    public void add(Stock stock) {
+        add(stock.getStockName(), null, stock.getIdStock());
+    }
+
+    /**
+     * Adds a symbol to the index. Name and id are kept from a previous entry when not given.
+     *
+     * @param symbol the stock ticker symbol
+     * @param name the company name, or null
+     * @param stockId the id in the stock table, or null
+     */
+    public void add(String symbol, String name, Long stockId) {
+        String key = symbol.toUpperCase(Locale.ROOT);
+        Entry entry = entries.compute(key, (k, previous) -> {
+            String mergedName = name != null && !name.isBlank() ? name : previous != null ? previous.getName() : null;
+            Long mergedId = stockId != null ? stockId : previous != null ? previous.getStockId() : null;
+            return new Entry(k, mergedName, mergedId, tokensOf(k, mergedName));
+        });
+        for (String token : entry.getTokens()) {
+            tokens.computeIfAbsent(token, t -> ConcurrentHashMap.newKeySet()).add(key);
+        }
+    }
+
+    /**
+     * Returns the symbols matching a query, best matches first.
+     *
+     * Every word of the query must be the prefix of a token of the symbol. An exact ticker
+     * ranks first, then tickers starting with the query, then company name matches; ties
+     * are broken by ticker length and alphabetically.
+     *
+     * @param query the text typed by the user, e.g. "petr" or "banco bra"
+     * @param limit the maximum number of results, capped at {@code stock.search.max-results}
+     * @return the matching symbols, empty if the query has no letters or digits
+     */
+    public List<StockSearchItemResponse> search(String query, int limit) {
+        String[] words = Arrays.stream(QUERY_SEPARATORS.split(normalize(query)))
+                .filter(word -> !word.isEmpty())
+                .toArray(String[]::new);
+        if (words.length == 0 || limit < 1) {
+            return List.of();
+        }
+        String first = words[0];
+
+        Set<String> candidates = new LinkedHashSet<>();
+        int scanned = 0;
+        for (Set<String> symbols : tokens.subMap(first, true, first + Character.MAX_VALUE, false).values()) {
+            candidates.addAll(symbols);
+            if (++scanned >= MAX_SCANNED_TOKENS) {
+                break;
+            }
+        }
+
+        List<Entry> matches = new ArrayList<>();
+        for (String symbol : candidates) {
+            Entry entry = entries.get(symbol);
+            if (entry != null && entry.matchesAll(words)) {
+                matches.add(entry);
+            }
+        }
+        matches.sort(Comparator.<Entry>comparingInt(entry -> entry.rank(first))
+                .thenComparingInt(entry -> entry.getSymbol().length())
+                .thenComparing(Entry::getSymbol));
+
+        return matches.stream()
+                .limit(Math.min(limit, maxResults))
+                .map(entry -> StockSearchItemResponse.builder()
+                        .stockId(entry.getStockId())
+                        .symbol(entry.getSymbol())
+                        .name(entry.getName())
+                        .build())
+                .toList();
+    }
+
+    /**
+     * Returns the number of indexed symbols.
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    private static String[] tokensOf(String symbol, String name) {
+        Set<String> result = new LinkedHashSet<>();
+        result.add(symbol);
+        int suffix = symbol.indexOf('.');
+        if (suffix > 0) {
+            result.add(symbol.substring(0, suffix));
+        }
+        if (name != null) {
+            for (String word : NAME_SEPARATORS.split(normalize(name))) {
+                if (!word.isEmpty()) {
+                    result.add(word);
+                }
+            }
+        }
+        return result.toArray(String[]::new);
+    }
+
+    private static String normalize(String text) {
+        String decomposed = Normalizer.normalize(text.trim(), Normalizer.Form.NFD);
+        return ACCENTS.matcher(decomposed).replaceAll("").toUpperCase(Locale.ROOT);
+    }
+
+    /**
+     * Indexed symbol with its name, stock id and tokens.
+     */
+    @Getter
+    @AllArgsConstructor
+    private static final class Entry {
+        private final String symbol;
+        private final String name;
+        private final Long stockId;
+        private final String[] tokens;
+
+        private boolean matchesAll(String[] words) {
+            for (String word : words) {
+                boolean matched = false;
+                for (String token : tokens) {
+                    if (token.startsWith(word)) {
+                        matched = true;
+                        break;
+                    }
+                }
+                if (!matched) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private int rank(String word) {
+            if (symbol.equals(word)) {
+                return 0;
+            }
+            return symbol.startsWith(word) ? 1 : 2;
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.actio.actio_api.service;
+
+import com.actio.actio_api.config.SymbolValidationProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Gatekeeper deciding which ticker symbols may reach Alpha Vantage and the stock table.
+ *
+ * A symbol is rejected when it does not match the configured pattern and maximum length,
+ * when an allow-list is configured and does not contain it, or when Alpha Vantage reported
+ * it as unknown within the last {@code quote.symbols.unknown-ttl} (negative cache). Checks
+ * only touch memory, so rejected symbols cost neither upstream quota nor database access.
+ */
+@Slf4j
+@Service
+public class SymbolValidator {
+
+    private final SymbolValidationProperties properties;
+    private final Pattern pattern;
+    private final Set<String> allowList;
+    private final Cache<String, Boolean> unknownSymbols;
+
+    private final LongAdder rejectedInvalid = new LongAdder();
+    private final LongAdder rejectedUnknown = new LongAdder();
+
+    public SymbolValidator(SymbolValidationProperties properties) {
+        this.properties = properties;
+        this.pattern = Pattern.compile(properties.getPattern());
+        this.allowList = properties.getAllowList().stream()
+                .map(String::toUpperCase)
+                .collect(Collectors.toUnmodifiableSet());
+        this.unknownSymbols = Caffeine.newBuilder()
+                .maximumSize(properties.getUnknownMaximumSize())
+                .expireAfterWrite(properties.getUnknownTtl())
+                .build();
+    }
+
+    /**
+     * Checks that a symbol may be looked up upstream.
+     *
+     * @param symbol the stock ticker symbol
+     * @throws UnknownSymbolException if the symbol is malformed, not allowed, or known to be unknown
+     */
+    public void requireAccepted(String symbol) {
+        String key = symbol.toUpperCase();
+        if (!isWellFormed(key)) {
+            rejectedInvalid.increment();
+            throw new UnknownSymbolException("Invalid symbol: " + symbol);
+        }
+        if (unknownSymbols.getIfPresent(key) != null) {
+            rejectedUnknown.increment();
+            throw new UnknownSymbolException("Unknown symbol: " + symbol);
+        }
+    }
+
+    /**
+     * Checks whether a symbol matches the pattern, the maximum length and the allow-list,
+     * regardless of what the upstream reported about it.
+     *
+     * @param symbol the stock ticker symbol
+     * @return true if the symbol is well-formed and allowed
+     */
+    public boolean isWellFormed(String symbol) {
+        String key = symbol.toUpperCase();
+        return key.length() <= properties.getMaxLength()
+                && pattern.matcher(key).matches()
+                && (allowList.isEmpty() || allowList.contains(key));
+    }
+
+    /**
+     * Remembers a symbol reported as unknown by the upstream, so it is rejected without
+     * further upstream calls until the negative TTL elapses.
+     *
+     * @param symbol the stock ticker symbol
+     */
+    public void markUnknown(String symbol) {
+        unknownSymbols.put(symbol.toUpperCase(), Boolean.TRUE);
+        log.info("Symbol {} reported as unknown, rejecting it for {}", symbol.toUpperCase(), properties.getUnknownTtl());
+    }
+
+    /**
+     * Returns the number of malformed or disallowed symbols rejected since startup.
+     */
+    public long getRejectedInvalid() {
+        return rejectedInvalid.sum();
+    }
+
+    /**
+     * Returns the number of symbols rejected by the negative cache since startup.
+     */
+    public long getRejectedUnknown() {
+        return rejectedUnknown.sum();
+    }
+}
@@ -0,0 +1,19 @@
+package com.actio.actio_api.service;
+
+/**
+ * Runtime exception raised when a ticker symbol is malformed, not allowed, or reported as
+ * unknown by Alpha Vantage.
+ *
+ * Unlike upstream failures, no cached or fallback data is served for such symbols.
+ */
+public class UnknownSymbolException extends RuntimeException {
+
+    /**
+     * Constructs a new exception with the given detail message.
+     *
+     * @param message the reason the symbol was rejected
+     */
+    public UnknownSymbolException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,403 @@
+package com.actio.actio_api.service;
+
+import com.actio.actio_api.config.UpstreamRateLimitProperties;
+import com.actio.actio_api.model.UpstreamPriority;
+import com.actio.actio_api.model.response.UpstreamSchedulerStatsResponse;
+import jakarta.annotation.PreDestroy;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Central scheduler for every call made to the Alpha Vantage API.
+ *
+ * Calls are admitted by two token buckets: a per-minute bucket refilled continuously and a
+ * per-day counter reset at midnight UTC. When no token is available, calls wait in a queue
+ * ordered by {@link UpstreamPriority} (trade-time quotes first, wallet refreshes second,
+ * background warming last) and, within the same priority, by arrival order.
+ *
+ * A call is rejected with {@link UpstreamQuotaExceededException} when the daily quota is
+ * exhausted, when the queue is full, or when it waits longer than the configured maximum.
+ * Callers then degrade to cached or fallback data, so behavior under saturation is
+ * predictable instead of depending on which request happens to hit the upstream limit.
+ *
+ * A call scheduled with a {@link Ticket} can have its priority raised while it waits, when
+ * a more urgent caller comes to share its result.
+ *
+ * When the upstream itself reports a rate limit notice, {@link #onRateLimitNotice(String)}
+ * empties the per-minute bucket so that pending calls back off instead of wasting requests.
+ *
+ * Queue depth and wait times per priority are published through {@link QuoteMetrics}.
+ */
+@Service
+public class UpstreamCallScheduler {
+
+    private static final long NANOS_PER_MINUTE = TimeUnit.MINUTES.toNanos(1);
+
+    private final UpstreamRateLimitProperties properties;
+    private final QuoteMetrics metrics;
+    private final ScheduledExecutorService timer;
+    private final AtomicLong sequence = new AtomicLong();
+
+    /** Guarded by {@code this}. */
+    private final PriorityQueue<PendingCall> queue = new PriorityQueue<>(
+            Comparator.comparing(PendingCall::getPriority).thenComparingLong(PendingCall::getSequence));
+    private double minuteTokens;
+    private long lastRefillNanos;
+    private LocalDate currentDay;
+    private int dailyUsed;
+    private ScheduledFuture<?> pendingDrain;
+
+    private final LongAdder granted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder rateLimitNotices = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+
+    public UpstreamCallScheduler(UpstreamRateLimitProperties properties, QuoteMetrics metrics) {
+        this.properties = properties;
+        this.metrics = metrics;
+        this.minuteTokens = properties.getRequestsPerMinute();
+        this.lastRefillNanos = System.nanoTime();
+        this.currentDay = LocalDate.now(ZoneOffset.UTC);
+        this.timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "upstream-call-scheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (UpstreamPriority priority : UpstreamPriority.values()) {
+            metrics.registerQueueDepth(priority, () -> getQueueDepth(priority));
+        }
+    }
+
+    /**
+     * Runs the given upstream call once a slot is available for the given priority.
+     *
+     * The call is subscribed lazily, only after a token has been granted. If no token is
+     * granted within the configured maximum wait, the returned Mono fails with
+     * {@link UpstreamQuotaExceededException} and the call is never made.
+     *
+     * @param priority the priority of the call
+     * @param call supplier of the upstream call to perform
+     * @return Mono emitting the result of the upstream call
+     */
+    public <T> Mono<T> schedule(UpstreamPriority priority, Supplier<Mono<T>> call) {
+        return schedule(new Ticket(priority), call);
+    }
+
+    /**
+     * Runs the given upstream call once a slot is available for the priority of the given
+     * ticket, which may be raised with {@link #raise(Ticket, UpstreamPriority)} while it waits.
+     *
+     * @param ticket the ticket holding the priority of the call
+     * @param call supplier of the upstream call to perform
+     * @return Mono emitting the result of the upstream call
+     */
+    public <T> Mono<T> schedule(Ticket ticket, Supplier<Mono<T>> call) {
+        return acquire(ticket).then(Mono.defer(call));
+    }
+
+    /**
+     * Raises the priority of a call to the given one if it is more urgent. A call still
+     * waiting is moved in the queue accordingly; a call already granted is left as it is.
+     *
+     * @param ticket the ticket the call was scheduled with
+     * @param priority the priority of the caller joining the call
+     */
+    public synchronized void raise(Ticket ticket, UpstreamPriority priority) {
+        if (priority.compareTo(ticket.priority) >= 0) {
+            return;
+        }
+        boolean queued = ticket.pending != null && queue.remove(ticket.pending);
+        ticket.priority = priority;
+        if (queued) {
+            queue.add(ticket.pending);
+        }
+    }
+
+    /**
+     * Signals that the upstream answered with a rate limit notice ("Note" or "Information").
+     *
+     * The per-minute bucket is emptied so waiting calls back off until tokens refill.
+     * If the notice mentions the daily limit, the remaining daily quota is also consumed.
+     *
+     * @param notice the notice text returned by the upstream, may be null
+     */
+    public synchronized void onRateLimitNotice(String notice) {
+        rateLimitNotices.increment();
+        refill();
+        minuteTokens = 0;
+        if (notice != null && notice.toLowerCase().contains("per day")) {
+            dailyUsed = Math.max(dailyUsed, properties.getRequestsPerDay());
+        }
+    }
+
+    /**
+     * Returns a snapshot of the queue and quota state.
+     *
+     * @return queue depth per priority, available tokens, daily usage and wait time statistics
+     */
+    public synchronized UpstreamSchedulerStatsResponse getStats() {
+        refill();
+        rollDay();
+        Map<UpstreamPriority, Integer> depth = new EnumMap<>(UpstreamPriority.class);
+        for (UpstreamPriority priority : UpstreamPriority.values()) {
+            depth.put(priority, 0);
+        }
+        queue.forEach(pending -> depth.merge(pending.getPriority(), 1, Integer::sum));
+        Map<String, Integer> depthByName = new LinkedHashMap<>();
+        depth.forEach((priority, count) -> depthByName.put(priority.name(), count));
+
+        long grantedCount = granted.sum();
+        return UpstreamSchedulerStatsResponse.builder()
+                .queueDepth(queue.size())
+                .queueDepthByPriority(depthByName)
+                .availableMinuteTokens((int) minuteTokens)
+                .dailyUsed(dailyUsed)
+                .dailyLimit(properties.getRequestsPerDay())
+                .granted(grantedCount)
+                .rejected(rejected.sum())
+                .rateLimitNotices(rateLimitNotices.sum())
+                .averageWaitMillis(grantedCount == 0 ? 0.0 : totalWaitNanos.sum() / 1_000_000.0 / grantedCount)
+                .maxWaitMillis(TimeUnit.NANOSECONDS.toMillis(maxWaitNanos.get()))
+                .build();
+    }
+
+    /**
+     * Returns the number of calls currently waiting for a slot.
+     */
+    public synchronized int getQueueDepth() {
+        return queue.size();
+    }
+
+    /**
+     * Returns the number of calls of the given priority currently waiting for a slot.
+     */
+    public synchronized int getQueueDepth(UpstreamPriority priority) {
+        return (int) queue.stream().filter(pending -> pending.getPriority() == priority).count();
+    }
+
+    /**
+     * Returns the number of calls that can still be made right now without waiting,
+     * bounded by both the per-minute and the per-day quota.
+     */
+    public synchronized int availablePermits() {
+        refill();
+        rollDay();
+        int daily = properties.getRequestsPerDay() - dailyUsed;
+        return Math.max(0, Math.min((int) minuteTokens, daily) - queue.size());
+    }
+
+    /**
+     * Takes a slot right away if one is free, without queueing. A slot is only free when no
+     * call is waiting, so calls taking this path never get ahead of queued ones.
+     *
+     * @return true if a slot was taken, false if the call would have to wait
+     */
+    public boolean tryAcquireNow() {
+        synchronized (this) {
+            refill();
+            rollDay();
+            if (!queue.isEmpty() || minuteTokens < 1 || dailyUsed >= properties.getRequestsPerDay()) {
+                return false;
+            }
+            minuteTokens -= 1;
+            dailyUsed++;
+        }
+        granted.increment();
+        return true;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        timer.shutdownNow();
+    }
+
+    /**
+     * Waits for a slot for the priority of the given ticket. Completes empty once a token is granted.
+     */
+    private Mono<Void> acquire(Ticket ticket) {
+        Duration maxWait = properties.getMaxWait();
+        return Mono.<Void>create(sink -> {
+                    PendingCall pending = new PendingCall(ticket, sequence.incrementAndGet(), System.nanoTime(), sink);
+                    sink.onCancel(() -> cancel(pending));
+                    enqueue(pending);
+                })
+                .timeout(maxWait, Mono.defer(() -> {
+                    rejected.increment();
+                    return Mono.error(new UpstreamQuotaExceededException(
+                            "No upstream slot available within " + maxWait.toMillis() + " ms"));
+                }));
+    }
+
+    private void enqueue(PendingCall pending) {
+        UpstreamQuotaExceededException rejection = null;
+        synchronized (this) {
+            rollDay();
+            if (dailyUsed >= properties.getRequestsPerDay()) {
+                rejection = new UpstreamQuotaExceededException("Daily upstream quota exhausted");
+            } else if (queue.size() >= properties.getMaxQueueSize()) {
+                rejection = new UpstreamQuotaExceededException("Upstream call queue is full");
+            } else {
+                queue.add(pending);
+                pending.getTicket().pending = pending;
+            }
+        }
+        if (rejection != null) {
+            rejected.increment();
+            pending.getSink().error(rejection);
+            return;
+        }
+        drain();
+    }
+
+    private synchronized void cancel(PendingCall pending) {
+        queue.remove(pending);
+    }
+
+    /**
+     * Grants tokens to waiting calls in priority order. Sinks are completed outside the lock,
+     * because completing a sink subscribes the upstream call on the current thread.
+     */
+    private void drain() {
+        List<PendingCall> grantedCalls = new ArrayList<>();
+        List<PendingCall> rejectedCalls = new ArrayList<>();
+        synchronized (this) {
+            refill();
+            rollDay();
+            while (!queue.isEmpty()) {
+                if (dailyUsed >= properties.getRequestsPerDay()) {
+                    rejectedCalls.addAll(queue);
+                    queue.clear();
+                    break;
+                }
+                if (minuteTokens < 1) {
+                    scheduleDrain();
+                    break;
+                }
+                minuteTokens -= 1;
+                dailyUsed++;
+                PendingCall next = queue.poll();
+                next.getTicket().pending = null;
+                grantedCalls.add(next);
+            }
+        }
+
+        long now = System.nanoTime();
+        for (PendingCall pending : grantedCalls) {
+            long waited = now - pending.getEnqueuedAtNanos();
+            granted.increment();
+            totalWaitNanos.add(waited);
+            maxWaitNanos.accumulateAndGet(waited, Math::max);
+            metrics.recordQueueWait(pending.getPriority(), waited);
+            pending.getSink().success();
+        }
+        for (PendingCall pending : rejectedCalls) {
+            rejected.increment();
+            pending.getSink().error(new UpstreamQuotaExceededException("Daily upstream quota exhausted"));
+        }
+    }
+
+    /**
+     * Schedules a drain for the moment the next per-minute token becomes available.
+     * Must be called while holding the lock.
+     */
+    private void scheduleDrain() {
+        if (pendingDrain != null && !pendingDrain.isDone()) {
+            return;
+        }
+        long nanosPerToken = NANOS_PER_MINUTE / Math.max(1, properties.getRequestsPerMinute());
+        long delay = (long) Math.ceil((1 - minuteTokens) * nanosPerToken);
+        pendingDrain = timer.schedule(this::scheduledDrain, Math.max(delay, 1), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Timer entry point: clears the pending drain marker first, so that the drain can schedule
+     * the next one while the current task is still running.
+     */
+    private void scheduledDrain() {
+        synchronized (this) {
+            pendingDrain = null;
+        }
+        drain();
+    }
+
+    /**
+     * Adds the tokens accrued since the last refill to the per-minute bucket.
+     * Must be called while holding the lock.
+     */
+    private void refill() {
+        long now = System.nanoTime();
+        int capacity = properties.getRequestsPerMinute();
+        double accrued = (double) (now - lastRefillNanos) * capacity / NANOS_PER_MINUTE;
+        minuteTokens = Math.min(capacity, minuteTokens + accrued);
+        lastRefillNanos = now;
+    }
+
+    /**
+     * Resets the daily counter when the UTC date changes. Must be called while holding the lock.
+     */
+    private void rollDay() {
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        if (!today.equals(currentDay)) {
+            currentDay = today;
+            dailyUsed = 0;
+        }
+    }
+
+    /**
+     * Priority of a scheduled call, shared by the callers waiting for its result.
+     * Fields are guarded by the scheduler.
+     */
+    public static final class Ticket {
+        private volatile UpstreamPriority priority;
+        private PendingCall pending;
+
+        public Ticket(UpstreamPriority priority) {
+            this.priority = priority;
+        }
+
+        /**
+         * Returns the current priority of the call.
+         */
+        public UpstreamPriority getPriority() {
+            return priority;
+        }
+    }
+
+    /**
+     * A call waiting for a token, ordered by priority and then by arrival.
+     */
+    @Getter
+    @AllArgsConstructor
+    private static final class PendingCall {
+        private final Ticket ticket;
+        private final long sequence;
+        private final long enqueuedAtNanos;
+        private final MonoSink<Void> sink;
+
+        private UpstreamPriority getPriority() {
+            return ticket.getPriority();
+        }
+    }
+}
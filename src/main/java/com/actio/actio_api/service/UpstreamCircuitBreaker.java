@@ -0,0 +1,335 @@
+package com.actio.actio_api.service;
+
+import com.actio.actio_api.config.CircuitBreakerProperties;
+import com.actio.actio_api.model.CircuitState;
+import com.actio.actio_api.model.response.CircuitBreakerStatsResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClientException;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Circuit breakers guarding the Alpha Vantage endpoints, one per API function.
+ *
+ * While a circuit is closed, every call passes through and its outcome is recorded in a
+ * sliding window of the most recent calls. A call fails when the upstream cannot be reached,
+ * answers with an HTTP error, or exceeds the call timeout; a call is slow when it takes longer
+ * than the slow call duration. Once enough calls are recorded and either the failure rate or
+ * the slow call rate reaches its threshold, the circuit opens.
+ *
+ * While open, calls are rejected immediately with {@link UpstreamCircuitOpenException}, so
+ * callers serve cached or fallback data instead of waiting for a timeout. After the open
+ * duration, a scheduled check moves the circuit to half-open, where a limited number of real
+ * calls are let through as probes. The circuit closes when all probes succeed, and opens again
+ * as soon as one of them fails or is slow.
+ *
+ * Rate limit answers are not failures: the upstream responded, and quota handling belongs to
+ * the {@link UpstreamCallScheduler}.
+ *
+ * The latency of every call, each state change and the current state of every circuit are
+ * also recorded in {@link QuoteMetrics}, per function.
+ */
+@Slf4j
+@Service
+public class UpstreamCircuitBreaker {
+
+    /**
+     * Endpoint name of the stock quote function.
+     */
+    public static final String GLOBAL_QUOTE = "GLOBAL_QUOTE";
+
+    /**
+     * Endpoint name of the exchange rate function.
+     */
+    public static final String CURRENCY_EXCHANGE_RATE = "CURRENCY_EXCHANGE_RATE";
+
+    /**
+     * Endpoint name of the daily price series function.
+     */
+    public static final String TIME_SERIES_DAILY = "TIME_SERIES_DAILY";
+
+    private final CircuitBreakerProperties properties;
+    private final QuoteMetrics metrics;
+    private final Map<String, Breaker> breakers = new ConcurrentHashMap<>();
+
+    public UpstreamCircuitBreaker(CircuitBreakerProperties properties, QuoteMetrics metrics) {
+        this.properties = properties;
+        this.metrics = metrics;
+        breakerFor(GLOBAL_QUOTE);
+        breakerFor(CURRENCY_EXCHANGE_RATE);
+        breakerFor(TIME_SERIES_DAILY);
+    }
+
+    /**
+     * Fails immediately when the circuit of the given endpoint is open, without taking a
+     * probe slot. Used before queueing a call for a request slot, so that calls to an open
+     * circuit never wait in the queue.
+     *
+     * @param endpoint the Alpha Vantage function name
+     * @return Mono completing empty if calls may currently be attempted
+     */
+    public Mono<Void> checkPermitted(String endpoint) {
+        return Mono.defer(() -> breakerFor(endpoint).isOpen()
+                ? Mono.error(rejection(endpoint))
+                : Mono.empty());
+    }
+
+    /**
+     * Runs the given upstream call through the circuit of the given endpoint.
+     *
+     * The call is only subscribed if the circuit permits it. Its duration and outcome are
+     * recorded, and it is cancelled with a {@link TimeoutException} once the call timeout
+     * has elapsed.
+     *
+     * @param endpoint the Alpha Vantage function name
+     * @param call supplier of the upstream call to perform
+     * @return Mono emitting the result of the call, or {@link UpstreamCircuitOpenException} if rejected
+     */
+    public <T> Mono<T> execute(String endpoint, Supplier<Mono<T>> call) {
+        return Mono.defer(() -> {
+            Breaker breaker = breakerFor(endpoint);
+            if (!breaker.tryAcquire()) {
+                return Mono.error(rejection(endpoint));
+            }
+            long start = System.nanoTime();
+            AtomicBoolean recorded = new AtomicBoolean();
+            return call.get()
+                    .timeout(properties.getCallTimeout())
+                    .doOnEach(signal -> {
+                        if ((signal.isOnNext() || signal.isOnComplete() || signal.isOnError())
+                                && recorded.compareAndSet(false, true)) {
+                            long duration = System.nanoTime() - start;
+                            boolean failed = signal.isOnError() && isFailure(signal.getThrowable());
+                            breaker.record(failed, duration);
+                            metrics.recordUpstreamCall(breaker.endpoint, signal.getThrowable(), duration);
+                        }
+                    })
+                    .doOnCancel(() -> {
+                        if (recorded.compareAndSet(false, true)) {
+                            breaker.release();
+                        }
+                    });
+        });
+    }
+
+    /**
+     * Returns the current state of the circuit of the given endpoint.
+     */
+    public CircuitState getState(String endpoint) {
+        return breakerFor(endpoint).getState();
+    }
+
+    /**
+     * Moves circuits whose open duration has elapsed to half-open, so probe calls are let through.
+     */
+    @Scheduled(fixedDelayString = "${alphavantage.circuit-breaker.probe-check-interval:PT5S}")
+    public void checkOpenCircuits() {
+        breakers.values().forEach(Breaker::halfOpenIfDue);
+    }
+
+    /**
+     * Forces the circuit of the given endpoint back to closed and clears its sliding window.
+     *
+     * @param endpoint the Alpha Vantage function name
+     * @throws IllegalArgumentException if no circuit exists for the endpoint
+     */
+    public void reset(String endpoint) {
+        Breaker breaker = breakers.get(endpoint.toUpperCase());
+        if (breaker == null) {
+            throw new IllegalArgumentException("Unknown upstream endpoint: " + endpoint);
+        }
+        breaker.reset();
+    }
+
+    /**
+     * Returns a snapshot of every circuit.
+     *
+     * @return state, rates and transition counts per endpoint
+     */
+    public List<CircuitBreakerStatsResponse> getStats() {
+        return new TreeMap<>(breakers).values().stream()
+                .map(Breaker::getStats)
+                .toList();
+    }
+
+    private Breaker breakerFor(String endpoint) {
+        return breakers.computeIfAbsent(endpoint.toUpperCase(), name -> {
+            Breaker breaker = new Breaker(name, properties, metrics);
+            metrics.registerCircuitState(name, breaker::getState);
+            return breaker;
+        });
+    }
+
+    private UpstreamCircuitOpenException rejection(String endpoint) {
+        breakerFor(endpoint).countNotPermitted();
+        return new UpstreamCircuitOpenException("Circuit for " + endpoint + " is open");
+    }
+
+    /**
+     * Only transport-level problems count as failures; any answer from the upstream,
+     * including rate limit notices and unknown symbols, shows it is reachable.
+     */
+    private static boolean isFailure(Throwable ex) {
+        return ex instanceof WebClientException || ex instanceof TimeoutException;
+    }
+
+    /**
+     * State machine and sliding window of a single endpoint. All state is guarded by {@code this}.
+     */
+    private static final class Breaker {
+        private final String endpoint;
+        private final CircuitBreakerProperties properties;
+        private final QuoteMetrics metrics;
+        private final boolean[] failures;
+        private final boolean[] slowCalls;
+        private final Map<String, Long> transitions = new TreeMap<>();
+
+        private CircuitState state = CircuitState.CLOSED;
+        private Instant stateSince = Instant.now();
+        private int next;
+        private int buffered;
+        private int probesInFlight;
+        private int probesSucceeded;
+        private long notPermitted;
+
+        private Breaker(String endpoint, CircuitBreakerProperties properties, QuoteMetrics metrics) {
+            this.endpoint = endpoint;
+            this.properties = properties;
+            this.metrics = metrics;
+            this.failures = new boolean[Math.max(1, properties.getWindowSize())];
+            this.slowCalls = new boolean[failures.length];
+        }
+
+        private synchronized CircuitState getState() {
+            return state;
+        }
+
+        private synchronized boolean isOpen() {
+            halfOpenIfDue();
+            return state == CircuitState.OPEN;
+        }
+
+        private synchronized boolean tryAcquire() {
+            halfOpenIfDue();
+            switch (state) {
+                case CLOSED:
+                    return true;
+                case HALF_OPEN:
+                    if (probesInFlight + probesSucceeded < properties.getHalfOpenProbes()) {
+                        probesInFlight++;
+                        return true;
+                    }
+                    return false;
+                default:
+                    return false;
+            }
+        }
+
+        private synchronized void release() {
+            if (state == CircuitState.HALF_OPEN && probesInFlight > 0) {
+                probesInFlight--;
+            }
+        }
+
+        private synchronized void record(boolean failed, long durationNanos) {
+            boolean slow = durationNanos > properties.getSlowCallDuration().toNanos();
+            if (state == CircuitState.HALF_OPEN) {
+                probesInFlight = Math.max(0, probesInFlight - 1);
+                if (failed || slow) {
+                    transitionTo(CircuitState.OPEN);
+                } else if (++probesSucceeded >= properties.getHalfOpenProbes()) {
+                    transitionTo(CircuitState.CLOSED);
+                }
+                return;
+            }
+            if (state != CircuitState.CLOSED) {
+                return;
+            }
+            failures[next] = failed;
+            slowCalls[next] = slow;
+            next = (next + 1) % failures.length;
+            buffered = Math.min(buffered + 1, failures.length);
+            if (buffered >= properties.getMinimumCalls()
+                    && (rate(failures) >= properties.getFailureRateThreshold()
+                    || rate(slowCalls) >= properties.getSlowCallRateThreshold())) {
+                transitionTo(CircuitState.OPEN);
+            }
+        }
+
+        private synchronized void halfOpenIfDue() {
+            if (state == CircuitState.OPEN
+                    && Duration.between(stateSince, Instant.now()).compareTo(properties.getOpenDuration()) >= 0) {
+                transitionTo(CircuitState.HALF_OPEN);
+            }
+        }
+
+        private synchronized void reset() {
+            if (state != CircuitState.CLOSED) {
+                transitionTo(CircuitState.CLOSED);
+            } else {
+                clearWindow();
+            }
+        }
+
+        private synchronized void countNotPermitted() {
+            notPermitted++;
+        }
+
+        private synchronized CircuitBreakerStatsResponse getStats() {
+            halfOpenIfDue();
+            return CircuitBreakerStatsResponse.builder()
+                    .endpoint(endpoint)
+                    .state(state)
+                    .stateSince(stateSince)
+                    .bufferedCalls(buffered)
+                    .failureRate(rate(failures))
+                    .slowCallRate(rate(slowCalls))
+                    .notPermittedCalls(notPermitted)
+                    .transitions(Map.copyOf(transitions))
+                    .build();
+        }
+
+        private void transitionTo(CircuitState target) {
+            transitions.merge(state + "->" + target, 1L, Long::sum);
+            metrics.countCircuitTransition(endpoint, state, target);
+            log.warn("Circuit {}: {} -> {}", endpoint, state, target);
+            state = target;
+            stateSince = Instant.now();
+            probesInFlight = 0;
+            probesSucceeded = 0;
+            clearWindow();
+        }
+
+        private void clearWindow() {
+            Arrays.fill(failures, false);
+            Arrays.fill(slowCalls, false);
+            next = 0;
+            buffered = 0;
+        }
+
+        private double rate(boolean[] outcomes) {
+            if (buffered == 0) {
+                return 0.0;
+            }
+            int count = 0;
+            for (int i = 0; i < buffered; i++) {
+                if (outcomes[i]) {
+                    count++;
+                }
+            }
+            return count * 100.0 / buffered;
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.actio.actio_api.service;
+
+/**
+ * Runtime exception raised when a call to an Alpha Vantage endpoint is rejected because
+ * its circuit breaker is open, or because all half-open probe slots are taken.
+ *
+ * Callers are expected to degrade to cached or fallback data when this exception is raised.
+ */
+public class UpstreamCircuitOpenException extends RuntimeException {
+
+    /**
+     * Constructs a new exception with the given detail message.
+     *
+     * @param message the reason the call was rejected
+     */
+    public UpstreamCircuitOpenException(String message) {
+        super(message);
+    }
+}
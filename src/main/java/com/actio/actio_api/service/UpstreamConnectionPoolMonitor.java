@@ -0,0 +1,70 @@
+package com.actio.actio_api.service;
+
+import com.actio.actio_api.model.response.ConnectionPoolStatsResponse;
+import org.springframework.stereotype.Component;
+import reactor.netty.resources.ConnectionPoolMetrics;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.net.SocketAddress;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Collects the connection pool metrics of the upstream HTTP client.
+ *
+ * Reactor Netty creates one pool per remote address and registers it here when the first
+ * connection to that address is made. The registered metrics are live views of the pool,
+ * so every snapshot reflects the current number of acquired, idle and pending connections.
+ * A pool with pending acquires has no free connection left: requests are queueing.
+ *
+ * Every registered pool is also published as {@link QuoteMetrics} gauges, removed again
+ * when Reactor Netty disposes the pool.
+ */
+@Component
+public class UpstreamConnectionPoolMonitor implements ConnectionProvider.MeterRegistrar {
+
+    private final Map<String, ConnectionPoolMetrics> pools = new ConcurrentHashMap<>();
+    private final QuoteMetrics quoteMetrics;
+
+    public UpstreamConnectionPoolMonitor(QuoteMetrics quoteMetrics) {
+        this.quoteMetrics = quoteMetrics;
+    }
+
+    @Override
+    public void registerMetrics(String poolName, String id, SocketAddress remoteAddress, ConnectionPoolMetrics metrics) {
+        String address = remoteAddress.toString();
+        pools.put(address, metrics);
+        quoteMetrics.registerConnectionPool(address, metrics);
+    }
+
+    @Override
+    public void deRegisterMetrics(String poolName, String id, SocketAddress remoteAddress) {
+        String address = remoteAddress.toString();
+        pools.remove(address);
+        quoteMetrics.removeConnectionPool(address);
+    }
+
+    /**
+     * Returns a snapshot of every registered pool.
+     *
+     * @return acquired, idle and pending connection counts per remote address
+     */
+    public List<ConnectionPoolStatsResponse> getStats() {
+        return pools.entrySet().stream()
+                .map(entry -> {
+                    ConnectionPoolMetrics metrics = entry.getValue();
+                    int max = metrics.maxAllocatedSize();
+                    return ConnectionPoolStatsResponse.builder()
+                            .remoteAddress(entry.getKey())
+                            .acquired(metrics.acquiredSize())
+                            .allocated(metrics.allocatedSize())
+                            .idle(metrics.idleSize())
+                            .pendingAcquire(metrics.pendingAcquireSize())
+                            .maxAllocated(max)
+                            .saturationPercent(max == 0 ? 0.0 : metrics.acquiredSize() * 100.0 / max)
+                            .build();
+                })
+                .toList();
+    }
+}
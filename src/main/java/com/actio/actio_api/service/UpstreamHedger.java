@@ -0,0 +1,249 @@
+package com.actio.actio_api.service;
+
+import com.actio.actio_api.config.HedgingProperties;
+import com.actio.actio_api.config.UpstreamRateLimitProperties;
+import org.springframework.stereotype.Service;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.function.Supplier;
+
+/**
+ * Hedging of upstream quote requests against the latency tail of Alpha Vantage.
+ *
+ * A hedged call starts the primary attempt and, if it has not answered after the hedge
+ * delay, a second identical attempt. The first value wins and the other attempt is cancelled.
+ * The hedge delay is the configured percentile of the latencies of recent successful
+ * primary attempts, clamped to the configured bounds. When the hedge wins, the time the
+ * primary had been running is recorded instead, as a lower bound of its latency, so that
+ * hedging does not hide the tail it reacts to.
+ *
+ * Hedges cost upstream quota, so a hedge is skipped when the daily hedge budget
+ * ({@code max-quota-fraction} of the daily request quota) is spent, or when the
+ * {@link UpstreamCallScheduler} cannot grant a slot right away: a hedge never waits in the
+ * queue ahead of, or behind, real requests. The slot is reserved by the hedger itself, so the
+ * hedge attempt must not acquire another one.
+ *
+ * Errors of the primary attempt are passed on as they are: no hedge is started once the
+ * primary has failed, and a primary failure while a hedge is running only surfaces if the
+ * hedge fails as well. Hedge rate and win rate are reported through {@link QuoteMetrics}.
+ */
+@Service
+public class UpstreamHedger {
+
+    private final HedgingProperties properties;
+    private final UpstreamRateLimitProperties rateLimitProperties;
+    private final UpstreamCallScheduler upstreamCallScheduler;
+    private final QuoteMetrics metrics;
+
+    /** Latencies of recent primary attempts in nanoseconds, guarded by {@code this}. */
+    private final long[] latencies;
+    private int next;
+    private int recorded;
+
+    /** Hedges sent on the current UTC day, guarded by {@code this}. */
+    private LocalDate currentDay = LocalDate.now(ZoneOffset.UTC);
+    private int hedgesToday;
+
+    public UpstreamHedger(HedgingProperties properties, UpstreamRateLimitProperties rateLimitProperties,
+                          UpstreamCallScheduler upstreamCallScheduler, QuoteMetrics metrics) {
+        this.properties = properties;
+        this.rateLimitProperties = rateLimitProperties;
+        this.upstreamCallScheduler = upstreamCallScheduler;
+        this.metrics = metrics;
+        this.latencies = new long[Math.max(1, properties.getWindowSize())];
+        metrics.registerHedgeDelay(this::currentDelay);
+    }
+
+    /**
+     * Runs a call, hedging it with a second attempt when the first one is slow.
+     *
+     * When hedging is disabled the primary attempt is returned unchanged.
+     *
+     * @param primary supplier of the primary attempt, subscribed immediately
+     * @param hedge supplier of the hedge attempt, subscribed only if a hedge is sent, in a slot
+     *              already taken from the {@link UpstreamCallScheduler}
+     * @return Mono emitting the first value of either attempt
+     */
+    public <T> Mono<T> execute(Supplier<Mono<T>> primary, Supplier<Mono<T>> hedge) {
+        if (!properties.isEnabled()) {
+            return primary.get();
+        }
+        return Mono.create(sink -> {
+            metrics.countHedgeableCall();
+            new HedgedCall<>(sink, primary, hedge).start(currentDelay());
+        });
+    }
+
+    /**
+     * Returns the delay after which a slow call is hedged.
+     */
+    public synchronized Duration currentDelay() {
+        Duration max = properties.getMaxDelay();
+        if (recorded < Math.max(1, properties.getMinSamples())) {
+            return max;
+        }
+        long[] sorted = Arrays.copyOf(latencies, recorded);
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(properties.getPercentile() * sorted.length) - 1;
+        Duration delay = Duration.ofNanos(sorted[Math.min(sorted.length - 1, Math.max(0, index))]);
+        if (delay.compareTo(properties.getMinDelay()) < 0) {
+            return properties.getMinDelay();
+        }
+        return delay.compareTo(max) > 0 ? max : delay;
+    }
+
+    private synchronized void recordLatency(long nanos) {
+        latencies[next] = nanos;
+        next = (next + 1) % latencies.length;
+        recorded = Math.min(recorded + 1, latencies.length);
+    }
+
+    /**
+     * Takes one hedge from the daily budget and one request slot, if both are available right now.
+     *
+     * @return null if the hedge may be sent, otherwise the reason it is skipped
+     */
+    private synchronized String acquireHedge() {
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        if (!today.equals(currentDay)) {
+            currentDay = today;
+            hedgesToday = 0;
+        }
+        if (hedgesToday >= (int) (properties.getMaxQuotaFraction() * rateLimitProperties.getRequestsPerDay())) {
+            return "budget";
+        }
+        if (!upstreamCallScheduler.tryAcquireNow()) {
+            return "no_slot";
+        }
+        hedgesToday++;
+        return null;
+    }
+
+    /**
+     * State of a single hedged call. All state is guarded by {@code this}; the sink is
+     * completed outside the lock, after cancelling the attempt still running and the hedge timer.
+     */
+    private final class HedgedCall<T> {
+        private final MonoSink<T> sink;
+        private final Supplier<Mono<T>> primary;
+        private final Supplier<Mono<T>> hedge;
+        private final Disposable.Composite attempts = Disposables.composite();
+
+        private long primaryStartNanos;
+        private boolean done;
+        private boolean hedgeRunning;
+        private Throwable primaryError;
+
+        private HedgedCall(MonoSink<T> sink, Supplier<Mono<T>> primary, Supplier<Mono<T>> hedge) {
+            this.sink = sink;
+            this.primary = primary;
+            this.hedge = hedge;
+        }
+
+        private void start(Duration delay) {
+            sink.onDispose(attempts);
+            synchronized (this) {
+                primaryStartNanos = System.nanoTime();
+            }
+            attempts.add(primary.get().subscribe(
+                    value -> onValue(value, false),
+                    this::onPrimaryError,
+                    this::onEmpty));
+            attempts.add(Mono.delay(delay).subscribe(tick -> startHedge()));
+        }
+
+        private void startHedge() {
+            synchronized (this) {
+                if (done || primaryError != null) {
+                    return;
+                }
+                String skipped = acquireHedge();
+                if (skipped != null) {
+                    metrics.countHedgeSkipped(skipped);
+                    return;
+                }
+                hedgeRunning = true;
+            }
+            attempts.add(hedge.get().subscribe(
+                    value -> onValue(value, true),
+                    this::onHedgeError,
+                    this::onEmpty));
+        }
+
+        /**
+         * Completes the call with the first value. The primary's running time is recorded
+         * whichever attempt won, unless the primary had already failed.
+         */
+        private void onValue(T value, boolean fromHedge) {
+            boolean primaryFailed;
+            long primaryElapsed;
+            synchronized (this) {
+                if (done) {
+                    return;
+                }
+                done = true;
+                if (hedgeRunning) {
+                    metrics.countHedge(fromHedge ? "won" : "lost");
+                }
+                primaryFailed = primaryError != null;
+                primaryElapsed = System.nanoTime() - primaryStartNanos;
+            }
+            if (!primaryFailed) {
+                recordLatency(primaryElapsed);
+            }
+            attempts.dispose();
+            sink.success(value);
+        }
+
+        private void onEmpty() {
+            synchronized (this) {
+                if (done) {
+                    return;
+                }
+                done = true;
+            }
+            attempts.dispose();
+            sink.success();
+        }
+
+        private void onPrimaryError(Throwable ex) {
+            synchronized (this) {
+                if (done) {
+                    return;
+                }
+                if (hedgeRunning) {
+                    primaryError = ex;
+                    return;
+                }
+                done = true;
+            }
+            attempts.dispose();
+            sink.error(ex);
+        }
+
+        private void onHedgeError(Throwable ex) {
+            Throwable error;
+            synchronized (this) {
+                if (done) {
+                    return;
+                }
+                metrics.countHedge("failed");
+                hedgeRunning = false;
+                if (primaryError == null) {
+                    return;
+                }
+                done = true;
+                error = primaryError;
+            }
+            attempts.dispose();
+            sink.error(error);
+        }
+    }
+}
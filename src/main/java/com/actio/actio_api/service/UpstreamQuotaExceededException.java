@@ -0,0 +1,20 @@
+package com.actio.actio_api.service;
+
+/**
+ * Runtime exception raised when a call to the Alpha Vantage API cannot be made within
+ * the configured request quota, either because the daily limit is exhausted, the waiting
+ * queue is full, or the call waited longer than allowed for a free slot.
+ *
+ * Callers are expected to degrade to cached or fallback data when this exception is raised.
+ */
+public class UpstreamQuotaExceededException extends RuntimeException {
+
+    /**
+     * Constructs a new exception with the given detail message.
+     *
+     * @param message the reason the call was rejected
+     */
+    public UpstreamQuotaExceededException(String message) {
+        super(message);
+    }
+}
@@ -2,15 +2,25 @@ package com.actio.actio_api.service;
 
 import com.actio.actio_api.model.Account;
 import com.actio.actio_api.model.ActioUser;
+import com.actio.actio_api.model.Holding;
+import com.actio.actio_api.model.PortfolioSnapshot;
+import com.actio.actio_api.model.ScaledPrice;
+import com.actio.actio_api.model.UpstreamPriority;
 import com.actio.actio_api.model.response.GetAlphaVantageStockResponse;
 import com.actio.actio_api.model.response.StockQuantityResponse;
 import com.actio.actio_api.model.response.WalletResponse;
+import com.actio.actio_api.model.response.WalletSummaryResponse;
 import com.actio.actio_api.repository.AccountRepository;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
+import java.time.Duration;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.concurrent.TimeoutException;
 
 
 /**
@@ -18,6 +28,7 @@ import java.util.stream.Collectors;
  *
  */
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class WalletService {
@@ -26,36 +37,124 @@ public class WalletService {
     private final AlphaVantageWebClientService  alphaVantageWebClientService;
     private final StockItemService stockItemService;
     private final ActioUserService  actioUserService;
+    private final PortfolioSnapshotService portfolioSnapshotService;
+
+    @Value("${wallet.valuation.max-concurrency:4}")
+    private int maxConcurrency;
+
+    @Value("${wallet.valuation.deadline:PT3S}")
+    private Duration deadline;
+
+    @Value("${wallet.valuation.fallback-timeout:PT1S}")
+    private Duration fallbackTimeout;
 
 
     /**
      * Retrieves the wallet(stock holdings) for a given user, including current market data.
+     *
+     * The wallet is read from the {@link PortfolioSnapshotService}, which keeps it up to
+     * date as trades are saved and quotes change, and is returned ordered by symbol.
+     * Only positions never valued before, e.g. on the first request of the account, are
+     * quoted here: concurrently, with at most {@code wallet.valuation.max-concurrency} in
+     * progress, and within one deadline ({@code wallet.valuation.deadline}). A holding whose
+     * quote is not ready when the deadline passes, or whose quote fails, is valued with its
+     * cached, last known or fallback quote instead of failing the wallet. A holding is flagged
+     * as stale whenever its price is not a live quote or a cached one within its TTL.
+     *
      * @param user to be found
      * @return a list of all WalletResponse objects representing the user's wallet
      */
     public List<WalletResponse> getWalletForUser(ActioUser user) {
+        return valuedSnapshot(user).toWalletResponses();
+    }
+
+    /**
+     * Retrieves the wallet of an account.
+     *
+     * @param accountId the account id
+     * @return the wallet entries of the account
+     * @see #getWalletForUser(ActioUser)
+     */
+    public List<WalletResponse> getWalletForAccount(Long accountId) {
+        return valuedSnapshot(accountId).toWalletResponses();
+    }
+
+    /**
+     * Retrieves the invested and market value totals of the wallet of a given user. Apart
+     * from positions never valued before, totals are read without any computation.
+     *
+     * @param user to be found
+     * @return the totals of the user's wallet
+     */
+    public WalletSummaryResponse getWalletSummaryForUser(ActioUser user) {
+        return valuedSnapshot(user).toSummary();
+    }
+
+    /**
+     * Returns the portfolio snapshot of a user, after valuing its unmarked positions.
+     */
+    private PortfolioSnapshot valuedSnapshot(ActioUser user) {
         Account account = accountRepository.findByActioUser(user)
                 .orElseThrow(() -> new RuntimeException("Account not found for user with id: " + user.getId()));
+        return valuedSnapshot(account.getId());
+    }
 
-        return account.getItems().stream()
-                .filter(item -> item.getQuantity() > 0)
-                .map(item -> {
-                    GetAlphaVantageStockResponse stockData = alphaVantageWebClientService
-                            .getStock(item.getStock().getStockName())
-                            .block();
+    /**
+     * Returns the portfolio snapshot of an account, after valuing its unmarked positions.
+     */
+    private PortfolioSnapshot valuedSnapshot(Long accountId) {
+        PortfolioSnapshot snapshot = portfolioSnapshotService.getSnapshot(accountId);
+        List<Holding> unmarked = snapshot.unmarkedHoldings();
+        if (!unmarked.isEmpty()) {
+            long deadlineNanos = System.nanoTime() + deadline.toNanos();
+            Flux.fromIterable(unmarked)
+                    .flatMap(holding -> valueHolding(snapshot, holding, deadlineNanos), Math.max(1, maxConcurrency))
+                    .then()
+                    .block();
+        }
+        return snapshot;
+    }
 
-                    if(stockData == null) {
-                        throw new RuntimeException("Failed to retrieve stock data for: " + item.getStock().getStockName());
+    /**
+     * Values a single holding with its live quote if it arrives before the wallet deadline,
+     * otherwise with its stale quote, and marks its position in the snapshot.
+     *
+     * @param snapshot the snapshot holding the position
+     * @param holding the holding
+     * @param deadlineNanos the wallet deadline, in {@link System#nanoTime()} units
+     * @return Mono completing once the position is marked; never fails
+     */
+    private Mono<Void> valueHolding(PortfolioSnapshot snapshot, Holding holding, long deadlineNanos) {
+        String symbol = holding.getStockName();
+        return Mono.defer(() -> {
+                    long remaining = deadlineNanos - System.nanoTime();
+                    if (remaining <= 0) {
+                        return Mono.error(new TimeoutException("Wallet deadline passed before the quote was requested"));
                     }
-                    return new WalletResponse(
-                            stockData.getStockId(),
-                            stockData.getSymbol(),
-                            item.getQuantity(),
-                            stockData.getPrice().doubleValue(),
-                            stockData.getChangePercent()
-                    );
+                    return alphaVantageWebClientService.getStock(symbol, UpstreamPriority.WALLET)
+                            .timeout(Duration.ofNanos(remaining));
+                })
+                .doOnNext(stockData -> mark(snapshot, stockData))
+                .onErrorResume(ex -> {
+                    log.warn("Valuing {} with a stale quote: {}", symbol, ex.toString());
+                    return alphaVantageWebClientService.getStaleStock(symbol, ex)
+                            .timeout(fallbackTimeout)
+                            .doOnNext(stockData -> mark(snapshot, stockData));
+                })
+                .onErrorResume(ex -> {
+                    log.warn("No quote at all for {}: {}", symbol, ex.toString());
+                    return Mono.empty();
                 })
-                .collect(Collectors.toList());
+                .then();
+    }
+
+    /**
+     * Marks a position with a quote, as fresh only if the quote is live or cached within its TTL.
+     */
+    private void mark(PortfolioSnapshot snapshot, GetAlphaVantageStockResponse stockData) {
+        boolean live = stockData.getSource() != null && stockData.getSource().isLive();
+        portfolioSnapshotService.markPosition(snapshot, stockData.getSymbol(), ScaledPrice.of(stockData.getPrice()),
+                stockData.getChangePercent(), live);
     }
 
 
@@ -0,0 +1,18 @@
+-- ========================
+-- LAST KNOWN QUOTES
+-- ========================
+-- Most recent quote fetched from Alpha Vantage per symbol, in the trading currency.
+-- Used as fallback when the upstream fails and the quote is no longer in memory.
+CREATE TABLE last_quote (
+                            symbol VARCHAR(20) PRIMARY KEY,
+                            open_price DECIMAL(18,4),
+                            high_price DECIMAL(18,4),
+                            low_price DECIMAL(18,4),
+                            price DECIMAL(18,4) NOT NULL,
+                            volume BIGINT,
+                            latest_trading_day VARCHAR(10),
+                            previous_close DECIMAL(18,4),
+                            change_amount DECIMAL(18,4),
+                            change_percent VARCHAR(16),
+                            fetched_at DATETIME2 NOT NULL
+);
@@ -0,0 +1,28 @@
+-- ========================
+-- P&L CHECKPOINTS
+-- ========================
+-- Cost basis state per account and lot method, as of the last transaction folded in.
+-- Later P&L requests restore it and only replay transactions with a greater id.
+CREATE TABLE pnl_checkpoint (
+                                id_account INT NOT NULL,
+                                lot_method VARCHAR(16) NOT NULL,
+                                last_transaction_id INT NOT NULL,
+                                updated_at DATETIME2 NOT NULL,
+                                CONSTRAINT pk_pnl_checkpoint PRIMARY KEY (id_account, lot_method),
+                                CONSTRAINT fk_pnl_checkpoint_account FOREIGN KEY (id_account) REFERENCES account(id_account)
+);
+GO
+
+-- Open lots ("quantity:unit_cost" pairs separated by ';', oldest first) and realized
+-- gains of every stock traded by the account, in EUR.
+CREATE TABLE pnl_position (
+                              id_account INT NOT NULL,
+                              lot_method VARCHAR(16) NOT NULL,
+                              id_stock INT NOT NULL,
+                              open_lots VARCHAR(MAX) NOT NULL,
+                              realized_pnl DECIMAL(19,8) NOT NULL,
+                              CONSTRAINT pk_pnl_position PRIMARY KEY (id_account, lot_method, id_stock),
+                              CONSTRAINT fk_pnl_position_checkpoint FOREIGN KEY (id_account, lot_method)
+                                  REFERENCES pnl_checkpoint(id_account, lot_method),
+                              CONSTRAINT fk_pnl_position_stock FOREIGN KEY (id_stock) REFERENCES stock(id_stock)
+);
@@ -0,0 +1,23 @@
+-- ========================
+-- PORTFOLIO NAV
+-- ========================
+-- End-of-day net asset value per account: cash plus holdings marked at the close, in EUR.
+-- The primary key clusters the rows of each account by date, so a series is read with a
+-- single range scan.
+CREATE TABLE portfolio_nav (
+                               id_account INT NOT NULL,
+                               nav_date DATE NOT NULL,
+                               cash DECIMAL(18,2) NOT NULL,
+                               holdings_value DECIMAL(19,4) NOT NULL,
+                               nav DECIMAL(19,4) NOT NULL,
+                               CONSTRAINT pk_portfolio_nav PRIMARY KEY (id_account, nav_date),
+                               CONSTRAINT fk_portfolio_nav_account FOREIGN KEY (id_account) REFERENCES account(id_account)
+);
+GO
+
+-- Last day fully computed by each batch job, where a restarted job resumes.
+CREATE TABLE batch_job_state (
+                                 job_name VARCHAR(32) PRIMARY KEY,
+                                 last_completed_date DATE NOT NULL,
+                                 updated_at DATETIME2 NOT NULL
+);
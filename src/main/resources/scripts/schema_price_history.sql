@@ -0,0 +1,17 @@
+-- ========================
+-- PRICE HISTORY
+-- ========================
+-- Daily OHLCV bars per stock, in the trading currency of the stock.
+-- The primary key clusters the rows of each stock by date, so a symbol's
+-- history is read with a single range scan.
+CREATE TABLE stock_price_daily (
+                                   id_stock INT NOT NULL,
+                                   price_date DATE NOT NULL,
+                                   open_price DECIMAL(18,4) NOT NULL,
+                                   high_price DECIMAL(18,4) NOT NULL,
+                                   low_price DECIMAL(18,4) NOT NULL,
+                                   close_price DECIMAL(18,4) NOT NULL,
+                                   volume BIGINT NOT NULL CHECK (volume >= 0),
+                                   CONSTRAINT pk_stock_price_daily PRIMARY KEY (id_stock, price_date),
+                                   CONSTRAINT fk_stock_price_daily_stock FOREIGN KEY (id_stock) REFERENCES stock(id_stock)
+);
@@ -0,0 +1,111 @@
+package com.actio.actio_api.benchmark;
+
+import com.actio.actio_api.model.EuroQuote;
+import com.actio.actio_api.model.ScaledPrice;
+import com.actio.actio_api.model.webclient.GlobalQuote;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the EUR conversion of a quote with BigDecimal arithmetic against the
+ * {@link ScaledPrice} conversion into an {@link EuroQuote}.
+ *
+ * The new path does less work than the previous one: {@link EuroQuote} only keeps the symbol,
+ * price and change percent, so only the price is converted. {@code bigDecimal} measures the
+ * previous conversion of all six price fields, which is what each quote served used to cost;
+ * {@code bigDecimalPriceOnly} converts the same fields as {@code scaledPrice} with BigDecimal,
+ * isolating the gain of the scaled arithmetic itself.
+ *
+ * Not part of the test suite. Run from the IDE, or with:
+ * <pre>
+ * mvn test-compile
+ * java -cp "target/test-classes:target/classes:$(mvn -q dependency:build-classpath -Dmdep.outputFile=/dev/stdout)" \
+ *     com.actio.actio_api.benchmark.QuoteConversionBenchmark
+ * </pre>
+ * The GC profiler reports the bytes allocated per conversion ({@code gc.alloc.rate.norm}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QuoteConversionBenchmark {
+
+    private GlobalQuote quote;
+    private BigDecimal rate;
+    private long scaledRate;
+
+    @Setup
+    public void setUp() {
+        quote = GlobalQuote.builder()
+                .symbol("IBM")
+                .open(new BigDecimal("288.1500"))
+                .high(new BigDecimal("291.4300"))
+                .low(new BigDecimal("287.2100"))
+                .price(new BigDecimal("290.7600"))
+                .volume(new BigInteger("3587123"))
+                .latestTradingDay("2025-07-11")
+                .previousClose(new BigDecimal("288.7700"))
+                .change(new BigDecimal("1.9900"))
+                .changePercent("0.6891%")
+                .build();
+        rate = BigDecimal.ONE.divide(new BigDecimal("1.16930000"), MathContext.DECIMAL64);
+        scaledRate = ScaledPrice.of(rate.setScale(ScaledPrice.SCALE, RoundingMode.HALF_EVEN));
+    }
+
+    @Benchmark
+    public GlobalQuote bigDecimal() {
+        return GlobalQuote.builder()
+                .symbol(quote.getSymbol())
+                .price(quote.getPrice().multiply(rate))
+                .changePercent(quote.getChangePercent())
+                .low(quote.getLow().multiply(rate))
+                .open(quote.getOpen().multiply(rate))
+                .high(quote.getHigh().multiply(rate))
+                .previousClose(quote.getPreviousClose().multiply(rate))
+                .change(quote.getChange().multiply(rate))
+                .volume(quote.getVolume())
+                .latestTradingDay(quote.getLatestTradingDay())
+                .build();
+    }
+
+    @Benchmark
+    public GlobalQuote bigDecimalPriceOnly() {
+        return GlobalQuote.builder()
+                .symbol(quote.getSymbol())
+                .price(quote.getPrice().multiply(rate))
+                .changePercent(quote.getChangePercent())
+                .build();
+    }
+
+    @Benchmark
+    public EuroQuote scaledPrice() {
+        return EuroQuote.convert(quote, scaledRate);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(QuoteConversionBenchmark.class.getSimpleName())
+                .addProfiler("gc")
+                .build())
+                .run();
+    }
+}
@@ -0,0 +1,65 @@
+package com.actio.actio_api.db;
+
+import com.actio.actio_api.config.QuoteFallbackProperties;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Tests for {@link QuoteFallBackProvider}.
+ */
+class QuoteFallBackProviderTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void loadsBundledQuotesAndDefaultsUnknownSymbols() {
+        QuoteFallBackProvider provider = new QuoteFallBackProvider(new QuoteFallbackProperties());
+        provider.initQuoteFallBackMap();
+
+        assertEquals(51, provider.size());
+        assertEquals(0, new BigDecimal("4.34").compareTo(provider.getFallBackQuote("nos.ls").getPrice()));
+        assertEquals("XYZ.LS", provider.getFallBackQuote("XYZ.LS").getSymbol());
+        assertEquals(0, new BigDecimal("10.15").compareTo(provider.getFallBackQuote("XYZ.LS").getPrice()));
+    }
+
+    @Test
+    void externalFileOverridesBundledQuotesAndReloadsWhenChanged() throws IOException {
+        Path file = tempDir.resolve("quotes.json");
+        writeQuote(file, "NOS.LS", "5.00", Instant.parse("2025-01-01T00:00:00Z"));
+
+        QuoteFallbackProperties properties = new QuoteFallbackProperties();
+        properties.setFiles(List.of(file.toString()));
+        QuoteFallBackProvider provider = new QuoteFallBackProvider(properties);
+        provider.initQuoteFallBackMap();
+        assertEquals(0, new BigDecimal("5.00").compareTo(provider.getFallBackQuote("NOS.LS").getPrice()));
+
+        writeQuote(file, "NOS.LS", "6.00", Instant.parse("2025-01-02T00:00:00Z"));
+        provider.reloadIfChanged();
+        assertEquals(0, new BigDecimal("6.00").compareTo(provider.getFallBackQuote("NOS.LS").getPrice()));
+
+        Files.writeString(file, "not json");
+        Files.setLastModifiedTime(file, FileTime.from(Instant.parse("2025-01-03T00:00:00Z")));
+        provider.reloadIfChanged();
+        assertEquals(0, new BigDecimal("6.00").compareTo(provider.getFallBackQuote("NOS.LS").getPrice()));
+    }
+
+    private static void writeQuote(Path file, String symbol, String price, Instant modifiedAt) throws IOException {
+        Files.writeString(file, """
+                [{"Global Quote": {"01. symbol": "%s", "02. open": "%s", "03. high": "%s", "04. low": "%s",
+                  "05. price": "%s", "06. volume": "1000", "07. latest trading day": "2025-07-18",
+                  "08. previous close": "%s", "09. change": "0.00", "10. change percent": "0.00%%"}}]
+                """.formatted(symbol, price, price, price, price, price));
+        Files.setLastModifiedTime(file, FileTime.from(modifiedAt));
+    }
+}
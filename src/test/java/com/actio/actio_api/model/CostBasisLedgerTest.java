@@ -0,0 +1,64 @@
+package com.actio.actio_api.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Tests for the lot matching of {@link CostBasisLedger}.
+ */
+class CostBasisLedgerTest {
+
+    private static final List<TransactionRecord> HISTORY = List.of(
+            trade(1, "BUY", 10, "4"),
+            trade(2, "BUY", 10, "6"),
+            trade(3, "SELL", 15, "7"));
+
+    @Test
+    void fifoSalesConsumeTheOldestLotsFirst() {
+        CostBasisLedger ledger = CostBasisLedger.empty(LotMethod.FIFO);
+        HISTORY.forEach(ledger::apply);
+
+        LedgerPosition position = ledger.positions().get(0);
+        assertEquals(5, position.getQuantity());
+        assertEquals(0, new BigDecimal("30").compareTo(position.getCostBasis()));
+        assertEquals(0, new BigDecimal("35").compareTo(position.getRealizedPnl()));
+    }
+
+    @Test
+    void averageCostSalesKeepTheAverageUnitCost() {
+        CostBasisLedger ledger = CostBasisLedger.empty(LotMethod.AVERAGE_COST);
+        HISTORY.forEach(ledger::apply);
+
+        LedgerPosition position = ledger.positions().get(0);
+        assertEquals(5, position.getQuantity());
+        assertEquals(0, new BigDecimal("25").compareTo(position.getCostBasis()));
+        assertEquals(0, new BigDecimal("30").compareTo(position.getRealizedPnl()));
+    }
+
+    @Test
+    void restoredLedgerOnlyFoldsInNewerTransactions() {
+        CostBasisLedger first = CostBasisLedger.empty(LotMethod.FIFO);
+        first.apply(HISTORY.get(0));
+        first.apply(HISTORY.get(1));
+
+        CostBasisLedger restored = CostBasisLedger.restore(LotMethod.FIFO, first.getLastTransactionId(), first.positions());
+        HISTORY.forEach(restored::apply);
+
+        CostBasisLedger full = CostBasisLedger.empty(LotMethod.FIFO);
+        HISTORY.forEach(full::apply);
+        assertFalse(restored.apply(HISTORY.get(2)));
+        assertEquals(3, restored.getLastTransactionId());
+        assertEquals(0, full.positions().get(0).getCostBasis().compareTo(restored.positions().get(0).getCostBasis()));
+        assertEquals(0, full.positions().get(0).getRealizedPnl().compareTo(restored.positions().get(0).getRealizedPnl()));
+    }
+
+    private static TransactionRecord trade(long id, String type, int quantity, String price) {
+        return new TransactionRecord(id, 1L, "NOS.LS", type, quantity, new BigDecimal(price), LocalDateTime.now());
+    }
+}
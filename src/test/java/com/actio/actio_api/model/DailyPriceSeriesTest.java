@@ -0,0 +1,70 @@
+package com.actio.actio_api.model;
+
+import com.actio.actio_api.model.response.PriceHistoryResponse;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Tests for {@link DailyPriceSeries}.
+ */
+class DailyPriceSeriesTest {
+
+    private static final LocalDate MON = LocalDate.of(2025, 7, 7);
+    private static final LocalDate TUE = MON.plusDays(1);
+    private static final LocalDate THU = MON.plusDays(3);
+    private static final LocalDate FRI = MON.plusDays(4);
+
+    private final DailyPriceSeries series = DailyPriceSeries.of(List.of(
+            bar(MON, "10.00", 100), bar(TUE, "10.50", 200), bar(THU, "11.25", 300), bar(FRI, "11.0001", 400)));
+
+    @Test
+    void slicesInclusiveRangesByDate() {
+        PriceHistoryResponse week = series.slice("NOS.LS", "EUR", MON, FRI);
+        assertArrayEquals(new LocalDate[]{MON, TUE, THU, FRI}, week.getDates());
+        assertArrayEquals(new double[]{10.0, 10.5, 11.25, 11.0001}, week.getClose());
+        assertArrayEquals(new long[]{100, 200, 300, 400}, week.getVolume());
+
+        PriceHistoryResponse gap = series.slice("NOS.LS", "EUR", MON.plusDays(2), THU);
+        assertArrayEquals(new LocalDate[]{THU}, gap.getDates());
+        assertArrayEquals(new double[]{11.25}, gap.getOpen());
+
+        PriceHistoryResponse wide = series.slice("NOS.LS", "EUR", MON.minusYears(1), FRI.plusYears(1));
+        assertEquals(4, wide.getDates().length);
+    }
+
+    @Test
+    void rangesWithoutBarsAreEmpty() {
+        assertEquals(0, series.slice("NOS.LS", "EUR", FRI.plusDays(1), FRI.plusDays(9)).getDates().length);
+        assertEquals(0, series.slice("NOS.LS", "EUR", MON.plusDays(2), MON.plusDays(2)).getClose().length);
+        assertEquals(0, series.slice("NOS.LS", "EUR", FRI, MON).getDates().length);
+
+        assertNull(DailyPriceSeries.EMPTY.lastDate());
+        assertEquals(0, DailyPriceSeries.EMPTY.slice("NOS.LS", "EUR", MON, FRI).getDates().length);
+    }
+
+    @Test
+    void rejectsUnorderedBars() {
+        assertThrows(IllegalArgumentException.class,
+                () -> DailyPriceSeries.of(List.of(bar(TUE, "1", 1), bar(MON, "1", 1))));
+    }
+
+    private static StockPriceDaily bar(LocalDate date, String price, long volume) {
+        BigDecimal value = new BigDecimal(price);
+        return StockPriceDaily.builder()
+                .id(new StockPriceDailyId(1L, date))
+                .open(value)
+                .high(value)
+                .low(value)
+                .close(value)
+                .volume(volume)
+                .build();
+    }
+}
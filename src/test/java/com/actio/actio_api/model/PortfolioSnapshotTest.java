@@ -0,0 +1,103 @@
+package com.actio.actio_api.model;
+
+import com.actio.actio_api.model.response.WalletSummaryResponse;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for the incremental valuation of {@link PortfolioSnapshot}.
+ */
+class PortfolioSnapshotTest {
+
+    private static final Instant FRESH = Instant.now().plusSeconds(3600);
+
+    @Test
+    void investedValueIsTheAverageCostOfTheSharesStillHeld() {
+        PortfolioSnapshot snapshot = PortfolioSnapshot.of(
+                List.of(trade(1, "NOS.LS", "BUY", 10, "4"), trade(2, "NOS.LS", "BUY", 10, "6"),
+                        trade(3, "NOS.LS", "SELL", 5, "7")));
+
+        assertEquals(0, new BigDecimal("75").compareTo(snapshot.getInvestedValue()));
+        assertEquals(15, snapshot.unmarkedHoldings().get(0).getQuantity());
+        assertEquals(List.of("NOS.LS"), snapshot.unmarkedHoldings().stream().map(Holding::getStockName).toList());
+    }
+
+    @Test
+    void investedValueMatchesTheAverageCostBasisOfTheLedger() {
+        List<TransactionRecord> trades = List.of(trade(1, "NOS.LS", "BUY", 1, "1"), trade(2, "NOS.LS", "BUY", 2, "2"),
+                trade(3, "NOS.LS", "SELL", 1, "3"));
+        PortfolioSnapshot snapshot = PortfolioSnapshot.of(trades);
+        CostBasisLedger ledger = CostBasisLedger.empty(LotMethod.AVERAGE_COST);
+        trades.forEach(ledger::apply);
+
+        assertEquals(ledger.positions().get(0).getCostBasis(), snapshot.getInvestedValue());
+        assertEquals(new BigDecimal("3.33333334"), snapshot.getInvestedValue().stripTrailingZeros());
+    }
+
+    @Test
+    void marksAndTradesAdjustTheTotalsIncrementally() {
+        PortfolioSnapshot snapshot = PortfolioSnapshot.of(List.of(trade(1, "NOS.LS", "BUY", 10, "4")));
+
+        snapshot.mark("NOS.LS", ScaledPrice.of(new BigDecimal("5")), "1%", FRESH);
+        snapshot.apply(trade(2, "EDP.LS", "BUY", 4, "3"));
+        snapshot.mark("EDP.LS", ScaledPrice.of(new BigDecimal("3.5")), "-1%", Instant.EPOCH);
+        snapshot.apply(trade(3, "NOS.LS", "SELL", 4, "5"));
+        snapshot.mark("NOS.LS", ScaledPrice.of(new BigDecimal("6")), "2%", FRESH);
+
+        WalletSummaryResponse summary = snapshot.toSummary();
+        assertEquals(new BigDecimal("50.0000"), summary.getMarketValue());
+        assertEquals(new BigDecimal("36.0000"), summary.getInvestedValue());
+        assertEquals(2, summary.getPositions());
+        assertEquals(1, summary.getStalePositions());
+    }
+
+    @Test
+    void transactionsAreAppliedOnceAndSoldOutPositionsRemoved() {
+        PortfolioSnapshot snapshot = PortfolioSnapshot.of(List.of(trade(7, "NOS.LS", "BUY", 10, "4")));
+        snapshot.mark("NOS.LS", ScaledPrice.of(new BigDecimal("5")), "1%", Instant.EPOCH);
+
+        assertFalse(snapshot.apply(trade(7, "NOS.LS", "BUY", 10, "4")));
+        assertTrue(snapshot.apply(trade(8, "NOS.LS", "SELL", 10, "5")));
+
+        WalletSummaryResponse summary = snapshot.toSummary();
+        assertEquals(0, summary.getPositions());
+        assertEquals(0, summary.getStalePositions());
+        assertEquals(0, summary.getMarketValue().signum());
+        assertEquals(0, summary.getInvestedValue().signum());
+    }
+
+    @Test
+    void aFreshMarkTurnsStaleOnceItsQuoteExpires() {
+        PortfolioSnapshot snapshot = PortfolioSnapshot.of(List.of(trade(1, "NOS.LS", "BUY", 10, "4")));
+        Instant markedAt = Instant.parse("2026-10-14T10:00:00Z");
+        snapshot.mark("NOS.LS", ScaledPrice.of(new BigDecimal("5")), "1%", markedAt.plusSeconds(60));
+
+        assertFalse(snapshot.toWalletResponses(markedAt.plusSeconds(30)).get(0).isStale());
+        assertEquals(0, snapshot.toSummary(markedAt.plusSeconds(30)).getStalePositions());
+        assertTrue(snapshot.toWalletResponses(markedAt.plusSeconds(61)).get(0).isStale());
+        assertEquals(1, snapshot.toSummary(markedAt.plusSeconds(61)).getStalePositions());
+    }
+
+    @Test
+    void aTradeCommittedAfterAHigherIdIsStillApplied() {
+        PortfolioSnapshot snapshot = PortfolioSnapshot.of(List.of(trade(5, "NOS.LS", "BUY", 10, "4"), trade(9, "NOS.LS", "BUY", 2, "4")));
+
+        assertTrue(snapshot.apply(trade(8, "NOS.LS", "BUY", 3, "4")));
+        assertFalse(snapshot.apply(trade(9, "NOS.LS", "BUY", 2, "4")));
+
+        assertEquals(15, snapshot.unmarkedHoldings().get(0).getQuantity());
+        assertEquals(0, new BigDecimal("60").compareTo(snapshot.getInvestedValue()));
+    }
+
+    private static TransactionRecord trade(long id, String symbol, String type, int quantity, String price) {
+        return new TransactionRecord(id, "NOS.LS".equals(symbol) ? 1L : 2L, symbol, type, quantity, new BigDecimal(price), LocalDateTime.now());
+    }
+}
@@ -0,0 +1,70 @@
+package com.actio.actio_api.model;
+
+import com.actio.actio_api.model.webclient.GlobalQuote;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Tests for {@link ScaledPrice} and {@link EuroQuote}.
+ */
+class ScaledPriceTest {
+
+    @Test
+    void convertsBigDecimalsRoundingHalfEven() {
+        assertEquals(435_000_000L, ScaledPrice.of(new BigDecimal("4.35")));
+        assertEquals(-435_000_000L, ScaledPrice.of(new BigDecimal("-4.3500")));
+        assertEquals(12L, ScaledPrice.of(new BigDecimal("0.000000125")));
+        assertEquals(14L, ScaledPrice.of(new BigDecimal("0.000000135")));
+        assertEquals(100_000_000_000L, ScaledPrice.of(new BigDecimal("1E+3")));
+    }
+
+    @Test
+    void multipliesLikeBigDecimal() {
+        String[][] cases = {
+                {"4.35", "0.9234"},
+                {"123.4567", "1.08765432"},
+                {"0.00000001", "0.5"},
+                {"0.00000003", "0.5"},
+                {"-17.125", "0.87654321"},
+                {"98765.4321", "5.55555555"},
+        };
+        for (String[] operands : cases) {
+            BigDecimal expected = new BigDecimal(operands[0]).multiply(new BigDecimal(operands[1]))
+                    .setScale(ScaledPrice.SCALE, RoundingMode.HALF_EVEN);
+            long product = ScaledPrice.multiply(
+                    ScaledPrice.of(new BigDecimal(operands[0])), ScaledPrice.of(new BigDecimal(operands[1])));
+            assertEquals(expected, ScaledPrice.toBigDecimal(product, ScaledPrice.SCALE), operands[0] + " x " + operands[1]);
+        }
+    }
+
+    @Test
+    void productsBeyondLongRangeThrow() {
+        long large = ScaledPrice.of(new BigDecimal("50000000000"));
+
+        assertEquals(ScaledPrice.of(new BigDecimal("50000000000")), ScaledPrice.multiply(large, ScaledPrice.ONE));
+        assertThrows(ArithmeticException.class, () -> ScaledPrice.multiply(large, large));
+        assertThrows(ArithmeticException.class, () -> ScaledPrice.of(new BigDecimal("1E+12")));
+    }
+
+    @Test
+    void convertsQuotesToApiScale() {
+        GlobalQuote quote = GlobalQuote.builder()
+                .symbol("IBM")
+                .price(new BigDecimal("100.125"))
+                .changePercent("0.69%")
+                .build();
+
+        EuroQuote euroQuote = EuroQuote.convert(quote, ScaledPrice.of(new BigDecimal("0.5")));
+
+        assertEquals("IBM", euroQuote.getSymbol());
+        assertEquals(new BigDecimal("50.0625"), euroQuote.priceForApi());
+        assertEquals(new BigDecimal("50.0625"), EuroQuote.convert(quote, ScaledPrice.ONE / 2).priceForApi());
+        assertEquals(new BigDecimal("0.0000"), ScaledPrice.toBigDecimal(5_000L, ScaledPrice.API_SCALE));
+        assertEquals(new BigDecimal("0.0002"), ScaledPrice.toBigDecimal(15_000L, ScaledPrice.API_SCALE));
+    }
+}
@@ -0,0 +1,156 @@
+package com.actio.actio_api.service;
+
+import com.actio.actio_api.config.CircuitBreakerProperties;
+import com.actio.actio_api.config.HedgingProperties;
+import com.actio.actio_api.config.QuoteCacheProperties;
+import com.actio.actio_api.config.SymbolValidationProperties;
+import com.actio.actio_api.config.UpstreamRateLimitProperties;
+import com.actio.actio_api.db.QuoteFallBackProvider;
+import com.actio.actio_api.model.QuoteSource;
+import com.actio.actio_api.model.Stock;
+import com.actio.actio_api.model.response.GetAlphaVantageStockResponse;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for {@link AlphaVantageWebClientService} against a local stub of the Alpha Vantage API.
+ */
+class AlphaVantageWebClientServiceTest {
+
+    private static final String QUOTE_JSON = """
+            {"Global Quote": {"01. symbol": "NOS.LS", "02. open": "4.32", "03. high": "4.37",
+             "04. low": "4.30", "05. price": "4.35", "06. volume": "51000",
+             "07. latest trading day": "2025-07-18", "08. previous close": "4.32",
+             "09. change": "0.03", "10. change percent": "0.69%"}}
+            """;
+
+    private final AtomicInteger quoteCalls = new AtomicInteger();
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private HttpServer server;
+    private AlphaVantageWebClientService service;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/query", exchange -> {
+            String query = exchange.getRequestURI().getQuery();
+            if (query.contains("function=GLOBAL_QUOTE")) {
+                quoteCalls.incrementAndGet();
+            }
+            sleep(300);
+            String json = query.contains("symbol=NOS.LS") ? QUOTE_JSON : "{\"Global Quote\": {}}";
+            byte[] body = json.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+
+        CurrencyCacheService currencyCacheService = mock(CurrencyCacheService.class);
+        when(currencyCacheService.getEuroRateForSymbol(anyString())).thenReturn(Mono.just(BigDecimal.ONE));
+
+        StockService stockService = mock(StockService.class);
+        when(stockService.findOrCreate(anyString()))
+                .thenReturn(Stock.builder().idStock(1L).stockName("NOS.LS").build());
+
+        QuoteMetrics metrics = new QuoteMetrics(registry);
+        UpstreamCallScheduler scheduler = new UpstreamCallScheduler(new UpstreamRateLimitProperties(), metrics);
+        WebClient webClient = WebClient.builder()
+                .baseUrl("http://localhost:" + server.getAddress().getPort())
+                .build();
+        service = new AlphaVantageWebClientService(webClient, currencyCacheService, stockService,
+                new QuoteCacheService(new QuoteCacheProperties(), metrics),
+                scheduler,
+                new UpstreamCircuitBreaker(new CircuitBreakerProperties(), metrics),
+                mock(QuoteFallBackProvider.class), mock(LastQuoteStore.class),
+                new SymbolValidator(new SymbolValidationProperties()),
+                new UpstreamHedger(new HedgingProperties(), new UpstreamRateLimitProperties(), scheduler, metrics), metrics);
+        ReflectionTestUtils.setField(service, "apiKey", "test-key");
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void concurrentCallersForSameSymbolShareOneUpstreamCall() throws Exception {
+        int callers = 16;
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<GetAlphaVantageStockResponse>> results = new ArrayList<>();
+
+        for (int i = 0; i < callers; i++) {
+            results.add(executor.submit(() -> {
+                start.await();
+                return service.getStock("NOS.LS").block();
+            }));
+        }
+        start.countDown();
+
+        for (Future<GetAlphaVantageStockResponse> result : results) {
+            assertEquals(0, new BigDecimal("4.35").compareTo(result.get(5, TimeUnit.SECONDS).getPrice()));
+        }
+        executor.shutdown();
+
+        assertEquals(1, quoteCalls.get());
+    }
+
+    @Test
+    void responseReportsWhetherTheQuoteWasFetchedOrCached() {
+        assertEquals(QuoteSource.LIVE, service.getStock("NOS.LS").block().getSource());
+        assertEquals(QuoteSource.CACHED, service.getStock("NOS.LS").block().getSource());
+
+        assertEquals(1, quoteCalls.get());
+        assertEquals(1.0, registry.get("actio.quote.cache.lookups").tag("result", "miss").functionCounter().count());
+        assertEquals(1.0, registry.get("actio.quote.cache.lookups").tag("result", "hit").functionCounter().count());
+        assertEquals(1, registry.get("actio.upstream.queue.wait").timer().count());
+        assertEquals(0.0, registry.get("actio.upstream.queue.depth").tag("priority", "TRADE").gauge().value());
+    }
+
+    @Test
+    void unknownSymbolIsRejectedWithoutFurtherUpstreamCalls() {
+        assertThrows(UnknownSymbolException.class, () -> service.getStock("NOPE").block());
+        assertThrows(UnknownSymbolException.class, () -> service.getStock("nope").block());
+        assertThrows(UnknownSymbolException.class, () -> service.getStock("../etc").block());
+
+        assertEquals(1, quoteCalls.get());
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.actio.actio_api.service;
+
+import com.actio.actio_api.config.CircuitBreakerProperties;
+import com.actio.actio_api.config.FxRateProperties;
+import com.actio.actio_api.config.UpstreamRateLimitProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Tests for {@link CurrencyCacheService} against an upstream that always fails.
+ */
+class CurrencyCacheServiceTest {
+
+    private final AtomicInteger upstreamCalls = new AtomicInteger();
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private FxRateProperties properties;
+    private CurrencyCacheService service;
+
+    @BeforeEach
+    void setUp() {
+        WebClient failing = WebClient.builder()
+                .exchangeFunction(request -> {
+                    upstreamCalls.incrementAndGet();
+                    return Mono.just(ClientResponse.create(HttpStatus.INTERNAL_SERVER_ERROR).build());
+                })
+                .build();
+        properties = new FxRateProperties();
+        QuoteMetrics metrics = new QuoteMetrics(registry);
+        service = new CurrencyCacheService(failing,
+                new UpstreamCallScheduler(new UpstreamRateLimitProperties(), metrics),
+                new UpstreamCircuitBreaker(new CircuitBreakerProperties(), metrics), properties, metrics);
+        ReflectionTestUtils.setField(service, "apiKey", "test-key");
+    }
+
+    @Test
+    void fallbackRateIsReusedUntilItsTtlElapses() throws InterruptedException {
+        assertEquals(new BigDecimal("0.90000000"), service.getRate("USD", "EUR").block());
+        assertEquals(new BigDecimal("0.90000000"), service.getRate("USD", "EUR").block());
+        assertEquals(1, upstreamCalls.get());
+        assertEquals(Double.NaN, registry.get("actio.fx.rate.age").tag("pair", "USD-EUR").gauge().value());
+
+        properties.setFallbackTtl(Duration.ofMillis(50));
+        Thread.sleep(100);
+        assertEquals(new BigDecimal("0.90000000"), service.getRate("USD", "EUR").block());
+        Thread.sleep(100);
+        assertEquals(2, upstreamCalls.get());
+    }
+}
@@ -0,0 +1,98 @@
+package com.actio.actio_api.service;
+
+import com.actio.actio_api.config.LastQuoteProperties;
+import com.actio.actio_api.config.QuoteCacheProperties;
+import com.actio.actio_api.model.webclient.GlobalQuote;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for {@link LastQuoteStore}.
+ */
+class LastQuoteStoreTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private QuoteCacheService quoteCacheService;
+    private LastQuoteStore store;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        QuoteCacheProperties cacheProperties = new QuoteCacheProperties();
+        quoteCacheService = new QuoteCacheService(cacheProperties, new QuoteMetrics(new SimpleMeterRegistry()));
+        store = new LastQuoteStore(jdbcTemplate, quoteCacheService, cacheProperties, new LastQuoteProperties());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void coalescesQuotesPerSymbolIntoOneBatch() {
+        quoteCacheService.put("nos.ls", quote("NOS.LS", "4.35"));
+        quoteCacheService.put("NOS.LS", quote("NOS.LS", "4.40"));
+        quoteCacheService.put("BCP.LS", quote("BCP.LS", "0.61"));
+
+        assertEquals(2, store.getPendingCount());
+        assertEquals(0, new BigDecimal("4.40").compareTo(store.find("NOS.LS").orElseThrow().getPrice()));
+        verifyNoInteractions(jdbcTemplate);
+
+        store.flush();
+
+        ArgumentCaptor<Collection<Object>> batch = ArgumentCaptor.forClass(Collection.class);
+        verify(jdbcTemplate, times(1)).batchUpdate(anyString(), batch.capture(), anyInt(), any(ParameterizedPreparedStatementSetter.class));
+        assertEquals(2, batch.getValue().size());
+        assertEquals(0, store.getPendingCount());
+
+        store.flush();
+        verify(jdbcTemplate, times(1)).batchUpdate(anyString(), any(Collection.class), anyInt(), any(ParameterizedPreparedStatementSetter.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void failedFlushKeepsQuotesForTheNextOne() {
+        when(jdbcTemplate.batchUpdate(anyString(), any(Collection.class), anyInt(), any(ParameterizedPreparedStatementSetter.class)))
+                .thenThrow(new DataAccessResourceFailureException("database down"));
+        quoteCacheService.put("NOS.LS", quote("NOS.LS", "4.35"));
+
+        store.flush();
+
+        assertEquals(1, store.getPendingCount());
+        assertEquals(0, new BigDecimal("4.35").compareTo(store.find("NOS.LS").orElseThrow().getPrice()));
+    }
+
+    @Test
+    void restoredQuotesAreStaleAndNotRequeued() {
+        Instant fetchedAt = Instant.now().minusSeconds(300);
+
+        assertTrue(quoteCacheService.restore("nos.ls", quote("NOS.LS", "4.35"), fetchedAt));
+        assertFalse(quoteCacheService.restore("NOS.LS", quote("NOS.LS", "9.99"), fetchedAt));
+
+        assertEquals(0, new BigDecimal("4.35").compareTo(quoteCacheService.getIfPresent("NOS.LS").orElseThrow().getPrice()));
+        assertFalse(quoteCacheService.isFresh("NOS.LS"));
+        assertEquals(0, store.getPendingCount());
+    }
+
+    private static GlobalQuote quote(String symbol, String price) {
+        return GlobalQuote.builder().symbol(symbol).price(new BigDecimal(price)).build();
+    }
+}
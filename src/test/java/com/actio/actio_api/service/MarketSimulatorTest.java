@@ -0,0 +1,103 @@
+package com.actio.actio_api.service;
+
+import com.actio.actio_api.config.CircuitBreakerProperties;
+import com.actio.actio_api.config.FxRateProperties;
+import com.actio.actio_api.config.MarketSimulatorProperties;
+import com.actio.actio_api.config.QuoteFallbackProperties;
+import com.actio.actio_api.config.UpstreamRateLimitProperties;
+import com.actio.actio_api.db.QuoteFallBackProvider;
+import com.actio.actio_api.model.webclient.AlphaVantageResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Tests for {@link MarketSimulator}, driven through a WebClient as the quote services use it.
+ */
+class MarketSimulatorTest {
+
+    private QuoteFallBackProvider quoteFallBackProvider;
+    private MarketSimulatorProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        quoteFallBackProvider = new QuoteFallBackProvider(new QuoteFallbackProperties());
+        quoteFallBackProvider.initQuoteFallBackMap();
+        properties = new MarketSimulatorProperties();
+        properties.setLatencyMedian(Duration.ZERO);
+    }
+
+    @Test
+    void pricesFollowTheSameWalkForTheSameSeed() {
+        List<BigDecimal> first = prices(client(), "NOS.LS", 5);
+        List<BigDecimal> second = prices(client(), "NOS.LS", 5);
+
+        assertEquals(first, second);
+        assertNotEquals(first.get(0), first.get(4));
+        assertEquals(4.34, first.get(0).doubleValue(), 0.1);
+    }
+
+    @Test
+    void answersWithRateLimitNotesAndErrorsAsConfigured() {
+        properties.setRequestsPerMinute(2);
+        WebClient client = client();
+
+        assertNotNull(quote(client, "IBM").getGlobalQuote());
+        assertNotNull(quote(client, "IBM").getGlobalQuote());
+        AlphaVantageResponse limited = quote(client, "IBM");
+        assertNull(limited.getGlobalQuote());
+        assertNotNull(limited.getRateLimitNotice());
+
+        properties.setRequestsPerMinute(0);
+        properties.setErrorRate(1.0);
+        assertThrows(WebClientResponseException.InternalServerError.class, () -> quote(client, "IBM"));
+    }
+
+    @Test
+    void servesExchangeRatesToTheCurrencyCache() {
+        QuoteMetrics metrics = new QuoteMetrics(new SimpleMeterRegistry());
+        UpstreamCallScheduler scheduler = new UpstreamCallScheduler(new UpstreamRateLimitProperties(), metrics);
+        CurrencyCacheService currencyCacheService = new CurrencyCacheService(client(), scheduler,
+                new UpstreamCircuitBreaker(new CircuitBreakerProperties(), metrics), new FxRateProperties(), metrics);
+        ReflectionTestUtils.setField(currencyCacheService, "apiKey", "simulator");
+
+        BigDecimal usdToEur = currencyCacheService.getRate("USD", "EUR").block();
+
+        assertNotNull(usdToEur);
+        assertNotEquals(0, usdToEur.compareTo(new BigDecimal("0.90")));
+        assertEquals(0.90, usdToEur.doubleValue(), 0.05);
+    }
+
+    private WebClient client() {
+        MarketSimulator simulator = new MarketSimulator(properties, quoteFallBackProvider, new FxRateProperties());
+        return WebClient.builder().exchangeFunction(simulator.exchangeFunction()).build();
+    }
+
+    private static AlphaVantageResponse quote(WebClient client, String symbol) {
+        return client.get()
+                .uri("http://simulator/query?function=GLOBAL_QUOTE&symbol={symbol}&apikey=test", symbol)
+                .retrieve()
+                .bodyToMono(AlphaVantageResponse.class)
+                .block();
+    }
+
+    private static List<BigDecimal> prices(WebClient client, String symbol, int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> quote(client, symbol).getGlobalQuote().getPrice())
+                .toList();
+    }
+}
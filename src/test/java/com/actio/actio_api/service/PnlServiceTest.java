@@ -0,0 +1,115 @@
+package com.actio.actio_api.service;
+
+import com.actio.actio_api.model.Account;
+import com.actio.actio_api.model.ActioUser;
+import com.actio.actio_api.model.CostBasisLedger;
+import com.actio.actio_api.model.LotMethod;
+import com.actio.actio_api.model.TransactionRecord;
+import com.actio.actio_api.model.response.PnlPositionResponse;
+import com.actio.actio_api.model.response.PnlResponse;
+import com.actio.actio_api.model.response.WalletResponse;
+import com.actio.actio_api.repository.AccountRepository;
+import com.actio.actio_api.repository.StockTransactionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for the checkpointed profit and loss computation of {@link PnlService}.
+ */
+class PnlServiceTest {
+
+    private final AccountRepository accountRepository = mock(AccountRepository.class);
+    private final StockTransactionRepository transactions = mock(StockTransactionRepository.class);
+    private final PnlCheckpointStore store = mock(PnlCheckpointStore.class);
+    private final WalletService walletService = mock(WalletService.class);
+    private final PnlService service = new PnlService(accountRepository, transactions, store, walletService);
+    private final ActioUser user = new ActioUser();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(service, "settleWindow", Duration.ofMinutes(1));
+    }
+
+    @Test
+    void onlyTransactionsAfterTheCheckpointAreFoldedIn() {
+        when(accountRepository.findByActioUser(user)).thenReturn(Optional.of(Account.builder().id(5L).build()));
+        CostBasisLedger checkpoint = CostBasisLedger.empty(LotMethod.FIFO);
+        checkpoint.apply(trade(1, 1L, "NOS.LS", "BUY", 10, "4"));
+        checkpoint.apply(trade(2, 2L, "EDP.LS", "BUY", 2, "3"));
+        when(store.load(5L, LotMethod.FIFO)).thenReturn(checkpoint);
+        when(transactions.findRecordsByAccountId(5L, 2L)).thenReturn(List.of(
+                trade(3, 1L, "NOS.LS", "SELL", 4, "5"),
+                trade(4, 2L, "EDP.LS", "SELL", 2, "2.5")));
+        when(walletService.getWalletForAccount(5L))
+                .thenReturn(List.of(new WalletResponse(1L, "NOS.LS", 6, 6.0, "1%", false)));
+
+        PnlResponse pnl = service.getPnlForUser(user, LotMethod.FIFO);
+
+        verify(store).save(5L, checkpoint);
+        assertEquals(4, checkpoint.getLastTransactionId());
+        assertEquals(List.of("EDP.LS", "NOS.LS"), pnl.getPositions().stream().map(PnlPositionResponse::getSymbol).toList());
+        PnlPositionResponse nos = pnl.getPositions().get(1);
+        assertEquals(new BigDecimal("24.0000"), nos.getCostBasis());
+        assertEquals(new BigDecimal("36.0000"), nos.getMarketValue());
+        assertEquals(new BigDecimal("12.0000"), nos.getUnrealizedPnl());
+        assertEquals(new BigDecimal("4.0000"), nos.getRealizedPnl());
+        assertEquals(new BigDecimal("-1.0000"), pnl.getPositions().get(0).getRealizedPnl());
+        assertEquals(new BigDecimal("12.0000"), pnl.getUnrealizedPnl());
+        assertEquals(new BigDecimal("3.0000"), pnl.getRealizedPnl());
+    }
+
+    @Test
+    void checkpointIsNotRewrittenWithoutNewTransactions() {
+        when(accountRepository.findByActioUser(user)).thenReturn(Optional.of(Account.builder().id(5L).build()));
+        when(store.load(5L, LotMethod.AVERAGE_COST)).thenReturn(CostBasisLedger.empty(LotMethod.AVERAGE_COST));
+        when(transactions.findRecordsByAccountId(5L, 0L)).thenReturn(List.of());
+        when(walletService.getWalletForAccount(5L)).thenReturn(List.of());
+
+        PnlResponse pnl = service.getPnlForUser(user, LotMethod.AVERAGE_COST);
+
+        verify(store, never()).save(any(), any());
+        assertEquals(0, pnl.getPositions().size());
+    }
+
+    @Test
+    void transactionsWithinTheSettleWindowAreReportedButNotCheckpointed() {
+        when(accountRepository.findByActioUser(user)).thenReturn(Optional.of(Account.builder().id(5L).build()));
+        when(store.load(5L, LotMethod.FIFO)).thenReturn(CostBasisLedger.empty(LotMethod.FIFO));
+        // Id 3 is still recent; id 4 is older but must wait, as it is ordered after 3.
+        when(transactions.findRecordsByAccountId(5L, 0L)).thenReturn(List.of(
+                trade(1, 1L, "NOS.LS", "BUY", 10, "4"),
+                trade(2, 1L, "NOS.LS", "BUY", 10, "5"),
+                new TransactionRecord(3L, 1L, "NOS.LS", "SELL", 5, new BigDecimal("6"), LocalDateTime.now()),
+                trade(4, 1L, "NOS.LS", "SELL", 5, "6")));
+        when(walletService.getWalletForAccount(5L)).thenReturn(List.of());
+        List<Long> checkpointed = new ArrayList<>();
+        doAnswer(invocation -> checkpointed.add(invocation.<CostBasisLedger>getArgument(1).getLastTransactionId()))
+                .when(store).save(any(), any());
+
+        PnlResponse pnl = service.getPnlForUser(user, LotMethod.FIFO);
+
+        assertEquals(List.of(2L), checkpointed);
+        assertEquals(10, pnl.getPositions().get(0).getQuantity());
+        assertEquals(new BigDecimal("20.0000"), pnl.getRealizedPnl());
+    }
+
+    private static TransactionRecord trade(long id, long stockId, String symbol, String type, int quantity, String price) {
+        return new TransactionRecord(id, stockId, symbol, type, quantity, new BigDecimal(price), LocalDateTime.now().minusMinutes(10));
+    }
+}
@@ -0,0 +1,182 @@
+package com.actio.actio_api.service;
+
+import com.actio.actio_api.config.FxRateProperties;
+import com.actio.actio_api.config.PortfolioNavProperties;
+import com.actio.actio_api.repository.AccountRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.Period;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for the daily NAV job of {@link PortfolioNavService}, on an in-memory H2 database.
+ *
+ * Rows are committed, since chunks are written from other threads, and removed after each test.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class PortfolioNavServiceTest {
+
+    private static final LocalDate DAY = LocalDate.of(2026, 10, 14);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private CurrencyCacheService currencyCacheService;
+    private LastQuoteStore lastQuoteStore;
+    private PortfolioNavProperties properties;
+    private PortfolioNavService service;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS portfolio_nav (id_account INT NOT NULL, nav_date DATE NOT NULL, "
+                + "cash DECIMAL(18,2) NOT NULL, holdings_value DECIMAL(19,4) NOT NULL, nav DECIMAL(19,4) NOT NULL, "
+                + "PRIMARY KEY (id_account, nav_date))");
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS batch_job_state (job_name VARCHAR(32) PRIMARY KEY, "
+                + "last_completed_date DATE NOT NULL, updated_at TIMESTAMP NOT NULL)");
+
+        jdbcTemplate.update("INSERT INTO account_status (status_code, status_description) VALUES (1, 'ACTIVE'), (2, 'SUSPENDED')");
+        jdbcTemplate.update("INSERT INTO movement_type (type_code, type_description) VALUES (1, 'DEPOSIT'), (2, 'RESCUE')");
+        jdbcTemplate.update("INSERT INTO transaction_type (type_code, type_description) VALUES (1, 'BUY'), (2, 'SELL')");
+        jdbcTemplate.update("INSERT INTO stock (id_stock, stock_name) VALUES (1, 'NOS.LS'), (2, 'IBM')");
+        jdbcTemplate.update("INSERT INTO stock_price_daily (id_stock, price_date, open_price, high_price, low_price, close_price, volume) "
+                + "VALUES (1, ?, 4, 4, 4, 4, 0), (1, ?, 5, 5, 5, 5, 0)", Date.valueOf(DAY.minusDays(2)), Date.valueOf(DAY));
+
+        // Account 1 bought 10 NOS.LS at 4 on the day before DAY and deposited 100 on DAY.
+        jdbcTemplate.update("INSERT INTO account (id_account, current_balance, status_code) VALUES (1, 1000, 1), (2, 50, 1), (3, 70, 2)");
+        jdbcTemplate.update("INSERT INTO stock_item (id_account, id_stock, quantity) VALUES (1, 1, 10), (3, 1, 5)");
+        jdbcTemplate.update("INSERT INTO stock_transaction (id_transaction, id_account, id_stock, negotiation_price, quantity, type_code, transaction_date_time) "
+                + "VALUES (1, 1, 1, 4, 10, 1, ?)", Timestamp.valueOf(DAY.minusDays(1).atTime(10, 0)));
+        jdbcTemplate.update("INSERT INTO movement (id_movement, id_account, amount, type_code, movement_date_time) VALUES (1, 1, 100, 1, ?)",
+                Timestamp.valueOf(DAY.atTime(12, 0)));
+
+        currencyCacheService = mock(CurrencyCacheService.class);
+        when(currencyCacheService.getRate(anyString(), eq("EUR"))).thenReturn(Mono.just(BigDecimal.ONE));
+        lastQuoteStore = mock(LastQuoteStore.class);
+        when(lastQuoteStore.find(anyString())).thenReturn(Optional.empty());
+
+        properties = new PortfolioNavProperties();
+        properties.setChunkSize(1);
+        properties.setParallelism(2);
+        properties.setInitialBackfill(Period.ofDays(3));
+        service = newService();
+    }
+
+    @AfterEach
+    void tearDown() {
+        for (String table : List.of("portfolio_nav", "batch_job_state", "movement", "stock_transaction", "stock_item",
+                "stock_price_daily", "account", "stock", "transaction_type", "movement_type", "account_status")) {
+            jdbcTemplate.update("DELETE FROM " + table);
+        }
+    }
+
+    @Test
+    void navIsRebuiltAtTheEndOfEachDayForActiveAccounts() {
+        assertEquals(3, service.run(DAY));
+
+        assertEquals(List.of("2026-10-12 1 940.00 0.0000", "2026-10-12 2 50.00 0.0000",
+                        "2026-10-13 1 900.00 40.0000", "2026-10-13 2 50.00 0.0000",
+                        "2026-10-14 1 1000.00 50.0000", "2026-10-14 2 50.00 0.0000"),
+                navRows());
+        assertEquals(DAY, jdbcTemplate.queryForObject(
+                "SELECT last_completed_date FROM batch_job_state WHERE job_name = ?", Date.class, PortfolioNavService.JOB_NAME).toLocalDate());
+    }
+
+    @Test
+    void jobResumesAfterTheLastCompletedDayAndRewritesIt() {
+        jdbcTemplate.update("INSERT INTO batch_job_state (job_name, last_completed_date, updated_at) VALUES (?, ?, ?)",
+                PortfolioNavService.JOB_NAME, Date.valueOf(DAY.minusDays(1)), Timestamp.valueOf(DAY.atStartOfDay()));
+        // Left behind by a job interrupted while writing DAY.
+        jdbcTemplate.update("INSERT INTO portfolio_nav (id_account, nav_date, cash, holdings_value, nav) VALUES (1, ?, 1, 1, 2)",
+                Date.valueOf(DAY));
+
+        assertEquals(1, service.run(DAY));
+        assertEquals(0, service.run(DAY));
+
+        assertEquals(List.of("2026-10-14 1 1000.00 50.0000", "2026-10-14 2 50.00 0.0000"), navRows());
+    }
+
+    @Test
+    void stocksWithoutARateAreValuedAtZeroWithoutFailingTheDay() {
+        jdbcTemplate.update("INSERT INTO stock (id_stock, stock_name) VALUES (3, 'PETR4.SA'), (4, 'VALE3.SA')");
+        jdbcTemplate.update("INSERT INTO stock_price_daily (id_stock, price_date, open_price, high_price, low_price, close_price, volume) "
+                + "VALUES (3, ?, 30, 30, 30, 30, 0), (4, ?, 60, 60, 60, 60, 0)", Date.valueOf(DAY), Date.valueOf(DAY));
+        jdbcTemplate.update("INSERT INTO stock_item (id_account, id_stock, quantity) VALUES (2, 3, 1), (2, 4, 1)");
+        when(currencyCacheService.getRate("BRL", "EUR")).thenReturn(Mono.error(new IllegalStateException("no rate")));
+
+        assertEquals(3, service.run(DAY));
+
+        assertEquals(List.of("2026-10-14 1 1000.00 50.0000", "2026-10-14 2 50.00 0.0000"),
+                navRows().subList(4, 6));
+        verify(currencyCacheService, times(1)).getRate("BRL", "EUR");
+    }
+
+    @Test
+    void daysEndAtMidnightOfTheNavZone() {
+        ZoneId navZone = ZoneId.of("Pacific/Kiritimati");
+        properties.setZone(navZone.getId());
+        service = newService();
+        // Deposited one hour after DAY ended in the NAV zone, recorded in the application's zone.
+        jdbcTemplate.update("INSERT INTO movement (id_movement, id_account, amount, type_code, movement_date_time) VALUES (2, 2, 30, 1, ?)",
+                Timestamp.from(DAY.plusDays(1).atStartOfDay(navZone).toInstant().plusSeconds(3600)));
+
+        assertEquals(3, service.run(DAY));
+
+        assertEquals("2026-10-14 2 20.00 0.0000", navRows().get(5));
+    }
+
+    @Test
+    void scheduledRunClosesOnlyDaysThatAreOver() {
+        LocalDate today = LocalDate.now(ZoneId.of(properties.getZone()));
+        jdbcTemplate.update("INSERT INTO batch_job_state (job_name, last_completed_date, updated_at) VALUES (?, ?, ?)",
+                PortfolioNavService.JOB_NAME, Date.valueOf(today.minusDays(2)), Timestamp.valueOf(today.atStartOfDay()));
+
+        service.runDaily();
+
+        assertEquals(today.minusDays(1), jdbcTemplate.queryForObject(
+                "SELECT last_completed_date FROM batch_job_state WHERE job_name = ?", Date.class, PortfolioNavService.JOB_NAME).toLocalDate());
+        assertEquals(List.of(today.minusDays(1).toString()),
+                navRows().stream().map(row -> row.split(" ")[0]).distinct().toList());
+    }
+
+    private PortfolioNavService newService() {
+        return new PortfolioNavService(jdbcTemplate, new TransactionTemplate(transactionManager),
+                mock(AccountRepository.class), currencyCacheService, lastQuoteStore, new FxRateProperties(), properties);
+    }
+
+    private List<String> navRows() {
+        return jdbcTemplate.query("SELECT nav_date, id_account, cash, holdings_value, nav FROM portfolio_nav ORDER BY nav_date, id_account",
+                (rs, rowNum) -> {
+                    assertEquals(0, rs.getBigDecimal("cash").add(rs.getBigDecimal("holdings_value")).compareTo(rs.getBigDecimal("nav")));
+                    return rs.getDate("nav_date").toLocalDate() + " " + rs.getLong("id_account") + " "
+                            + rs.getBigDecimal("cash").toPlainString() + " " + rs.getBigDecimal("holdings_value").toPlainString();
+                });
+    }
+}
@@ -0,0 +1,60 @@
+package com.actio.actio_api.service;
+
+import com.actio.actio_api.config.CircuitBreakerProperties;
+import com.actio.actio_api.config.FxRateProperties;
+import com.actio.actio_api.config.PriceHistoryProperties;
+import com.actio.actio_api.config.SymbolValidationProperties;
+import com.actio.actio_api.config.UpstreamRateLimitProperties;
+import com.actio.actio_api.repository.StockItemRepository;
+import com.actio.actio_api.repository.StockPriceDailyRepository;
+import com.actio.actio_api.repository.StockRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for {@link PriceHistoryService}.
+ */
+class PriceHistoryServiceTest {
+
+    private final StockRepository stockRepository = mock(StockRepository.class);
+    private PriceHistoryService service;
+
+    @BeforeEach
+    void setUp() {
+        when(stockRepository.findStockByStockName(anyString())).thenReturn(List.of());
+        QuoteMetrics metrics = new QuoteMetrics(new SimpleMeterRegistry());
+        service = new PriceHistoryService(WebClient.builder().build(), stockRepository,
+                mock(StockPriceDailyRepository.class), mock(StockItemRepository.class),
+                new UpstreamCallScheduler(new UpstreamRateLimitProperties(), metrics),
+                new UpstreamCircuitBreaker(new CircuitBreakerProperties(), metrics),
+                new PriceHistoryProperties(), new FxRateProperties(),
+                new SymbolValidator(new SymbolValidationProperties()));
+    }
+
+    @Test
+    void symbolWithoutAStockIsLookedUpOnce() {
+        assertTrue(service.getHistory("NOPE.LS", null, null).isEmpty());
+        assertTrue(service.getHistory("nope.ls", null, null).isEmpty());
+
+        verify(stockRepository, times(1)).findStockByStockName("NOPE.LS");
+    }
+
+    @Test
+    void malformedSymbolIsNeverLookedUp() {
+        assertTrue(service.getHistory("../etc", null, null).isEmpty());
+
+        verify(stockRepository, never()).findStockByStockName(anyString());
+    }
+}
@@ -0,0 +1,75 @@
+package com.actio.actio_api.service;
+
+import com.actio.actio_api.config.QuoteCacheProperties;
+import com.actio.actio_api.config.QuoteStreamProperties;
+import com.actio.actio_api.model.UpstreamPriority;
+import com.actio.actio_api.model.response.StockQuoteStreamEvent;
+import com.actio.actio_api.model.webclient.GlobalQuote;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for {@link QuoteStreamHub}.
+ */
+class QuoteStreamHubTest {
+
+    private QuoteCacheService quoteCacheService;
+    private AlphaVantageWebClientService alphaVantageWebClientService;
+    private QuoteStreamHub hub;
+
+    @BeforeEach
+    void setUp() {
+        quoteCacheService = new QuoteCacheService(new QuoteCacheProperties(), new QuoteMetrics(new SimpleMeterRegistry()));
+        CurrencyCacheService currencyCacheService = mock(CurrencyCacheService.class);
+        when(currencyCacheService.getEuroRateForSymbol(anyString())).thenReturn(Mono.just(new BigDecimal("2")));
+        alphaVantageWebClientService = mock(AlphaVantageWebClientService.class);
+        when(alphaVantageWebClientService.refreshQuote(anyString(), any()))
+                .thenReturn(Mono.empty());
+
+        QuoteStreamProperties properties = new QuoteStreamProperties();
+        properties.setMaxSymbolsPerConnection(2);
+        hub = new QuoteStreamHub(quoteCacheService, currencyCacheService, alphaVantageWebClientService, properties);
+    }
+
+    @Test
+    void subscribersOfASymbolShareOneTopicAndRefresh() {
+        List<StockQuoteStreamEvent> first = new CopyOnWriteArrayList<>();
+        List<StockQuoteStreamEvent> second = new CopyOnWriteArrayList<>();
+        Disposable a = hub.stream(List.of("nos.ls")).subscribe(first::add);
+        Disposable b = hub.stream(List.of("NOS.LS")).subscribe(second::add);
+
+        assertEquals(1, hub.getActiveSymbols());
+        verify(alphaVantageWebClientService, times(1)).refreshQuote("NOS.LS", UpstreamPriority.WALLET);
+
+        quoteCacheService.put("NOS.LS", GlobalQuote.builder().symbol("NOS.LS").price(new BigDecimal("4.35")).build());
+
+        assertEquals(1, first.size());
+        assertEquals(1, second.size());
+        assertEquals(0, new BigDecimal("8.70").compareTo(first.get(0).getPrice()));
+
+        a.dispose();
+        b.dispose();
+        assertEquals(0, hub.getActiveSymbols());
+    }
+
+    @Test
+    void rejectsTooManySymbolsPerConnection() {
+        assertThrows(IllegalArgumentException.class, () -> hub.stream(List.of("A", "B", "C")));
+    }
+}
@@ -0,0 +1,121 @@
+package com.actio.actio_api.service;
+
+import com.actio.actio_api.model.Stock;
+import com.actio.actio_api.repository.StockRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for the symbol identity cache of {@link StockService}.
+ */
+class StockServiceTest {
+
+    @Test
+    void parallelFirstAccessInsertsOnceAndLaterCallsSkipTheDatabase() throws Exception {
+        StockRepository repository = mock(StockRepository.class);
+        when(repository.findStockByStockName(anyString())).thenReturn(List.of());
+        when(repository.saveAndFlush(any(Stock.class))).thenAnswer(invocation -> {
+            Thread.sleep(50);
+            Stock stock = invocation.getArgument(0);
+            return Stock.builder().idStock(7L).stockName(stock.getStockName()).build();
+        });
+        StockService service = new StockService(repository, new SymbolSearchIndex(), mock(JdbcTemplate.class));
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Stock>> results = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            String symbol = i % 2 == 0 ? "nos.ls" : "NOS.LS";
+            Callable<Stock> call = () -> {
+                start.await();
+                return service.findOrCreate(symbol);
+            };
+            results.add(executor.submit(call));
+        }
+        start.countDown();
+        Stock first = results.get(0).get(5, TimeUnit.SECONDS);
+        for (Future<Stock> result : results) {
+            assertEquals(first, result.get(5, TimeUnit.SECONDS));
+        }
+        assertNotSame(first, results.get(1).get());
+        executor.shutdown();
+
+        assertEquals("NOS.LS", first.getStockName());
+        verify(repository, times(1)).findStockByStockName("NOS.LS");
+        verify(repository, times(1)).saveAndFlush(any(Stock.class));
+
+        assertEquals(first, service.findOrCreate("NOS.LS"));
+        assertEquals(first, service.findOrCreateAll(List.of("NOS.LS")).get("NOS.LS"));
+        verifyNoMoreInteractions(repository);
+    }
+
+    @Test
+    void readsTheStockInsertedByAnotherWriter() {
+        Stock existing = Stock.builder().idStock(3L).stockName("AIR.PA").build();
+        StockRepository repository = mock(StockRepository.class);
+        when(repository.findStockByStockName("AIR.PA")).thenReturn(List.of()).thenReturn(List.of(existing));
+        when(repository.saveAndFlush(any(Stock.class))).thenThrow(new DataIntegrityViolationException("duplicate stock_name"));
+        StockService service = new StockService(repository, new SymbolSearchIndex(), mock(JdbcTemplate.class));
+
+        assertEquals(existing, service.findOrCreate("AIR.PA"));
+        assertEquals(existing, service.findOrCreate("air.pa"));
+        verify(repository, times(2)).findStockByStockName("AIR.PA");
+    }
+
+    @Test
+    void aFailedLookupIsRetriedByTheNextCall() {
+        Stock existing = Stock.builder().idStock(5L).stockName("GALP.LS").build();
+        StockRepository repository = mock(StockRepository.class);
+        when(repository.findStockByStockName("GALP.LS"))
+                .thenThrow(new DataAccessResourceFailureException("connection reset"))
+                .thenReturn(List.of(existing));
+        StockService service = new StockService(repository, new SymbolSearchIndex(), mock(JdbcTemplate.class));
+
+        assertThrows(DataAccessResourceFailureException.class, () -> service.findOrCreate("GALP.LS"));
+        assertEquals(existing, service.findOrCreate("GALP.LS"));
+    }
+
+    @Test
+    void missingStocksAreInsertedWithOneStatementAndReadBackOnce() {
+        Stock nos = Stock.builder().idStock(1L).stockName("NOS.LS").build();
+        Stock ibm = Stock.builder().idStock(8L).stockName("IBM").build();
+        Stock aapl = Stock.builder().idStock(9L).stockName("AAPL").build();
+        StockRepository repository = mock(StockRepository.class);
+        when(repository.findByStockNameIn(List.of("nos.ls", "ibm", "AAPL"))).thenReturn(List.of(nos));
+        when(repository.findByStockNameIn(List.of("IBM", "AAPL"))).thenReturn(List.of(ibm, aapl));
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        StockService service = new StockService(repository, new SymbolSearchIndex(), jdbcTemplate);
+
+        Map<String, Stock> stocks = service.findOrCreateAll(List.of("nos.ls", "ibm", "AAPL"));
+
+        assertEquals(Map.of("nos.ls", nos, "ibm", ibm, "AAPL", aapl), stocks);
+        verify(jdbcTemplate, times(1)).update(startsWith("INSERT INTO stock"), eq("IBM"), eq("AAPL"));
+        verify(repository, times(2)).findByStockNameIn(any());
+        verifyNoMoreInteractions(repository, jdbcTemplate);
+    }
+}
@@ -0,0 +1,65 @@
+package com.actio.actio_api.service;
+
+import com.actio.actio_api.model.Stock;
+import com.actio.actio_api.model.response.StockSearchItemResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for {@link SymbolSearchIndex}.
+ */
+class SymbolSearchIndexTest {
+
+    private SymbolSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new SymbolSearchIndex();
+        ReflectionTestUtils.setField(index, "listing", "listing/stock-listing.csv");
+        ReflectionTestUtils.setField(index, "maxResults", 20);
+        index.loadListing();
+    }
+
+    @Test
+    void matchesTickerPrefixesBeforeCompanyNames() {
+        index.add("PETR3.SA", null, null);
+
+        List<String> symbols = symbols(index.search("petr", 10));
+
+        assertEquals(List.of("PETR3.SA", "PETR4.SA"), symbols);
+        assertEquals("Petroleo Brasileiro Petrobras PN", index.search("PETR4.SA", 1).get(0).getName());
+        assertEquals(List.of("PETR4.SA"), symbols(index.search("petrobras", 10)));
+    }
+
+    @Test
+    void everyWordMustMatchAndAccentsAreIgnored() {
+        assertEquals(List.of("BCP.LS", "BBAS3.SA", "BBDC4.SA"), symbols(index.search("banco", 10)));
+        assertEquals(List.of("BBAS3.SA"), symbols(index.search("banco do", 10)));
+        assertEquals(List.of("BBDC4.SA"), symbols(index.search("Banco Bradésco", 10)));
+        assertEquals(List.of("OR.PA"), symbols(index.search("l'oréal", 10)));
+        assertTrue(index.search("  ", 10).isEmpty());
+        assertTrue(index.search("zzz", 10).isEmpty());
+    }
+
+    @Test
+    void stocksAddedLaterAreSearchableWithTheirId() {
+        index.add(Stock.builder().idStock(12L).stockName("nos.ls").build());
+        index.add(Stock.builder().idStock(40L).stockName("XYZ.LS").build());
+
+        StockSearchItemResponse nos = index.search("nos", 1).get(0);
+        assertEquals(12L, nos.getStockId());
+        assertEquals("NOS SGPS", nos.getName());
+        assertEquals(List.of("XYZ.LS"), symbols(index.search("xy", 10)));
+        assertEquals(3, index.search("b", 3).size());
+    }
+
+    private static List<String> symbols(List<StockSearchItemResponse> results) {
+        return results.stream().map(StockSearchItemResponse::getSymbol).toList();
+    }
+}
@@ -0,0 +1,55 @@
+package com.actio.actio_api.service;
+
+import com.actio.actio_api.config.SymbolValidationProperties;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for {@link SymbolValidator}.
+ */
+class SymbolValidatorTest {
+
+    @Test
+    void acceptsExchangeSuffixesAndRejectsMalformedSymbols() {
+        SymbolValidator validator = new SymbolValidator(new SymbolValidationProperties());
+
+        assertTrue(validator.isWellFormed("IBM"));
+        assertTrue(validator.isWellFormed("nos.ls"));
+        assertTrue(validator.isWellFormed("BRK-B"));
+        assertFalse(validator.isWellFormed(""));
+        assertFalse(validator.isWellFormed("IBM US"));
+        assertFalse(validator.isWellFormed("../etc"));
+        assertFalse(validator.isWellFormed("ABCDEFGHIJK"));
+
+        assertThrows(UnknownSymbolException.class, () -> validator.requireAccepted("IBM;DROP"));
+        assertEquals(1, validator.getRejectedInvalid());
+    }
+
+    @Test
+    void allowListRestrictsAcceptedSymbols() {
+        SymbolValidationProperties properties = new SymbolValidationProperties();
+        properties.setAllowList(Set.of("nos.ls"));
+        SymbolValidator validator = new SymbolValidator(properties);
+
+        assertDoesNotThrow(() -> validator.requireAccepted("NOS.LS"));
+        assertThrows(UnknownSymbolException.class, () -> validator.requireAccepted("IBM"));
+    }
+
+    @Test
+    void symbolsReportedUnknownAreRejectedUntilTheTtlElapses() {
+        SymbolValidator validator = new SymbolValidator(new SymbolValidationProperties());
+
+        validator.markUnknown("zzzz");
+
+        assertThrows(UnknownSymbolException.class, () -> validator.requireAccepted("ZZZZ"));
+        assertDoesNotThrow(() -> validator.requireAccepted("IBM"));
+        assertEquals(1, validator.getRejectedUnknown());
+    }
+}
@@ -0,0 +1,68 @@
+package com.actio.actio_api.service;
+
+import com.actio.actio_api.config.UpstreamRateLimitProperties;
+import com.actio.actio_api.model.UpstreamPriority;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Tests for {@link UpstreamCallScheduler}.
+ */
+class UpstreamCallSchedulerTest {
+
+    private UpstreamCallScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        UpstreamRateLimitProperties properties = new UpstreamRateLimitProperties();
+        properties.setRequestsPerMinute(600);
+        scheduler = new UpstreamCallScheduler(properties, new QuoteMetrics(new SimpleMeterRegistry()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        scheduler.shutdown();
+    }
+
+    @Test
+    void raisedCallIsGrantedBeforeCallsItNowOutranks() {
+        List<String> granted = new CopyOnWriteArrayList<>();
+        scheduler.schedule(UpstreamPriority.TRADE, () -> Mono.just("warm-up")).block();
+        scheduler.onRateLimitNotice(null);
+
+        UpstreamCallScheduler.Ticket warming = new UpstreamCallScheduler.Ticket(UpstreamPriority.WARMING);
+        Mono<String> first = scheduler.schedule(warming, () -> Mono.fromCallable(() -> record(granted, "warming"))).cache();
+        Mono<String> second = scheduler.schedule(UpstreamPriority.WALLET, () -> Mono.fromCallable(() -> record(granted, "wallet"))).cache();
+        first.subscribe();
+        second.subscribe();
+        scheduler.raise(warming, UpstreamPriority.TRADE);
+
+        Mono.when(first, second).block(Duration.ofSeconds(2));
+
+        assertEquals(List.of("warming", "wallet"), granted);
+        assertEquals(UpstreamPriority.TRADE, warming.getPriority());
+    }
+
+    @Test
+    void lowerPriorityDoesNotDemoteACall() {
+        UpstreamCallScheduler.Ticket trade = new UpstreamCallScheduler.Ticket(UpstreamPriority.TRADE);
+
+        scheduler.raise(trade, UpstreamPriority.WARMING);
+
+        assertEquals(UpstreamPriority.TRADE, trade.getPriority());
+    }
+
+    private static String record(List<String> granted, String name) {
+        granted.add(name);
+        return name;
+    }
+}
@@ -0,0 +1,78 @@
+package com.actio.actio_api.service;
+
+import com.actio.actio_api.config.CircuitBreakerProperties;
+import com.actio.actio_api.model.CircuitState;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import reactor.core.publisher.Mono;
+
+import java.net.ConnectException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Tests for {@link UpstreamCircuitBreaker}.
+ */
+class UpstreamCircuitBreakerTest {
+
+    private static final String ENDPOINT = UpstreamCircuitBreaker.GLOBAL_QUOTE;
+
+    @Test
+    void opensAfterFailuresFailsFastAndClosesAfterSuccessfulProbes() throws InterruptedException {
+        CircuitBreakerProperties properties = new CircuitBreakerProperties();
+        properties.setMinimumCalls(4);
+        properties.setOpenDuration(Duration.ofMillis(100));
+        properties.setHalfOpenProbes(1);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        UpstreamCircuitBreaker breaker = new UpstreamCircuitBreaker(properties, new QuoteMetrics(registry));
+        System.gc();
+        AtomicInteger calls = new AtomicInteger();
+        Mono<String> failing = Mono.error(new WebClientRequestException(
+                new ConnectException("refused"), HttpMethod.GET, URI.create("http://localhost"), new HttpHeaders()));
+
+        for (int i = 0; i < 4; i++) {
+            assertThrows(WebClientRequestException.class,
+                    () -> breaker.execute(ENDPOINT, () -> failing.doOnSubscribe(s -> calls.incrementAndGet())).block());
+        }
+        assertEquals(CircuitState.OPEN, breaker.getState(ENDPOINT));
+        assertEquals(1.0, registry.get("actio.upstream.circuit.state").tags("endpoint", ENDPOINT, "state", "OPEN").gauge().value());
+        assertEquals(0.0, registry.get("actio.upstream.circuit.state").tags("endpoint", ENDPOINT, "state", "CLOSED").gauge().value());
+
+        assertThrows(UpstreamCircuitOpenException.class,
+                () -> breaker.execute(ENDPOINT, () -> Mono.just("ok").doOnSubscribe(s -> calls.incrementAndGet())).block());
+        assertEquals(4, calls.get());
+
+        Thread.sleep(150);
+        breaker.checkOpenCircuits();
+        assertEquals(CircuitState.HALF_OPEN, breaker.getState(ENDPOINT));
+
+        assertEquals("ok", breaker.execute(ENDPOINT, () -> Mono.just("ok")).block());
+        assertEquals(CircuitState.CLOSED, breaker.getState(ENDPOINT));
+        assertEquals(1.0, registry.get("actio.upstream.circuit.transitions")
+                .tags("endpoint", ENDPOINT, "from", "HALF_OPEN", "to", "CLOSED").counter().count());
+        assertEquals(1.0, registry.get("actio.upstream.circuit.state").tags("endpoint", ENDPOINT, "state", "CLOSED").gauge().value());
+    }
+
+    @Test
+    void upstreamAnswersDoNotCountAsFailures() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        UpstreamCircuitBreaker breaker = new UpstreamCircuitBreaker(new CircuitBreakerProperties(), new QuoteMetrics(registry));
+
+        for (int i = 0; i < 10; i++) {
+            assertThrows(UpstreamQuotaExceededException.class, () -> breaker.execute(ENDPOINT,
+                    () -> Mono.error(new UpstreamQuotaExceededException("limit"))).block());
+        }
+        assertEquals("ok", breaker.execute(ENDPOINT, () -> Mono.just("ok")).block());
+        assertEquals(CircuitState.CLOSED, breaker.getState(ENDPOINT));
+
+        assertEquals(10, registry.get("actio.upstream.requests").tags("function", ENDPOINT, "outcome", "error").timer().count());
+        assertEquals(1, registry.get("actio.upstream.requests").tags("function", ENDPOINT, "outcome", "success").timer().count());
+    }
+}
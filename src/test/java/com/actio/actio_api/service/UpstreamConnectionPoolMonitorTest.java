@@ -0,0 +1,40 @@
+package com.actio.actio_api.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.netty.resources.ConnectionPoolMetrics;
+
+import java.net.InetSocketAddress;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for {@link UpstreamConnectionPoolMonitor}.
+ */
+class UpstreamConnectionPoolMonitorTest {
+
+    @Test
+    void registeredPoolsArePublishedAsGaugesUntilDisposed() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        UpstreamConnectionPoolMonitor monitor = new UpstreamConnectionPoolMonitor(new QuoteMetrics(registry));
+        InetSocketAddress address = InetSocketAddress.createUnresolved("www.alphavantage.co", 443);
+        ConnectionPoolMetrics pool = mock(ConnectionPoolMetrics.class);
+        when(pool.acquiredSize()).thenReturn(3);
+        when(pool.pendingAcquireSize()).thenReturn(2);
+
+        monitor.registerMetrics("alphavantage", "1", address, pool);
+
+        assertEquals(3.0, registry.get("actio.upstream.pool.connections")
+                .tags("remote_address", address.toString(), "state", "acquired").gauge().value());
+        assertEquals(2.0, registry.get("actio.upstream.pool.connections")
+                .tags("remote_address", address.toString(), "state", "pending").gauge().value());
+
+        monitor.deRegisterMetrics("alphavantage", "1", address);
+
+        assertTrue(registry.find("actio.upstream.pool.connections").meters().isEmpty());
+        assertTrue(monitor.getStats().isEmpty());
+    }
+}
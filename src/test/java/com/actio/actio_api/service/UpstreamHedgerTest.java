@@ -0,0 +1,114 @@
+package com.actio.actio_api.service;
+
+import com.actio.actio_api.config.HedgingProperties;
+import com.actio.actio_api.config.UpstreamRateLimitProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for {@link UpstreamHedger}.
+ */
+class UpstreamHedgerTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final AtomicInteger hedges = new AtomicInteger();
+    private HedgingProperties properties;
+    private UpstreamRateLimitProperties rateLimitProperties;
+    private UpstreamHedger hedger;
+
+    @BeforeEach
+    void setUp() {
+        properties = new HedgingProperties();
+        properties.setEnabled(true);
+        properties.setMinDelay(Duration.ofMillis(50));
+        properties.setMaxDelay(Duration.ofMillis(100));
+        rateLimitProperties = new UpstreamRateLimitProperties();
+        rateLimitProperties.setRequestsPerDay(100);
+        QuoteMetrics metrics = new QuoteMetrics(registry);
+        hedger = new UpstreamHedger(properties, rateLimitProperties,
+                new UpstreamCallScheduler(rateLimitProperties, metrics), metrics);
+    }
+
+    @Test
+    void slowPrimaryIsHedgedAndCancelledWhenTheHedgeWins() {
+        AtomicBoolean primaryCancelled = new AtomicBoolean();
+        Mono<String> primary = Mono.delay(Duration.ofSeconds(2)).thenReturn("primary")
+                .doOnCancel(() -> primaryCancelled.set(true));
+
+        assertEquals("hedge", hedger.execute(() -> primary, this::hedge).block(Duration.ofSeconds(1)));
+
+        assertEquals(1, hedges.get());
+        assertTrue(primaryCancelled.get());
+        assertEquals(1.0, registry.get("actio.upstream.hedges").tag("outcome", "won").counter().count());
+    }
+
+    @Test
+    void fastPrimaryIsNotHedged() {
+        assertEquals("primary", hedger.execute(() -> Mono.just("primary"), this::hedge).block());
+        assertEquals(0, hedges.get());
+    }
+
+    @Test
+    void failedPrimaryKeepsItsErrorAndIsNotHedged() throws InterruptedException {
+        Mono<String> primary = Mono.error(new UnknownSymbolException("Unknown symbol: NOPE"));
+
+        assertThrows(UnknownSymbolException.class, () -> hedger.execute(() -> primary, this::hedge).block());
+        Thread.sleep(150);
+        assertEquals(0, hedges.get());
+    }
+
+    @Test
+    void hedgesStopWhenTheBudgetIsSpent() {
+        rateLimitProperties.setRequestsPerDay(10);
+        properties.setMaxQuotaFraction(0.1);
+
+        for (int i = 0; i < 3; i++) {
+            hedger.execute(() -> Mono.delay(Duration.ofMillis(300)).thenReturn("primary"), this::hedge).block();
+        }
+
+        assertEquals(1, hedges.get());
+        assertEquals(2.0, registry.get("actio.upstream.hedges.skipped").tag("reason", "budget").counter().count());
+    }
+
+    @Test
+    void aLosingPrimaryStillRaisesTheHedgeDelay() {
+        properties.setMinSamples(1);
+        properties.setMaxDelay(Duration.ofMillis(300));
+
+        hedger.execute(() -> Mono.delay(Duration.ofSeconds(2)).thenReturn("primary"), this::hedge).block();
+
+        assertEquals(Duration.ofMillis(300), hedger.currentDelay());
+    }
+
+    @Test
+    void hedgeTakesItsSlotFromTheScheduler() {
+        rateLimitProperties.setRequestsPerMinute(1);
+        UpstreamCallScheduler scheduler = new UpstreamCallScheduler(rateLimitProperties, new QuoteMetrics(registry));
+        hedger = new UpstreamHedger(properties, rateLimitProperties, scheduler, new QuoteMetrics(registry));
+
+        for (int i = 0; i < 2; i++) {
+            hedger.execute(() -> Mono.delay(Duration.ofMillis(300)).thenReturn("primary"), this::hedge).block();
+        }
+
+        assertEquals(1, hedges.get());
+        assertEquals(0, scheduler.availablePermits());
+        assertEquals(1.0, registry.get("actio.upstream.hedges.skipped").tag("reason", "no_slot").counter().count());
+    }
+
+    private Mono<String> hedge() {
+        return Mono.fromCallable(() -> {
+            hedges.incrementAndGet();
+            return "hedge";
+        });
+    }
+}
@@ -0,0 +1,215 @@
+package com.actio.actio_api.service;
+
+import com.actio.actio_api.config.PortfolioSnapshotProperties;
+import com.actio.actio_api.config.QuoteCacheProperties;
+import com.actio.actio_api.model.Account;
+import com.actio.actio_api.model.ActioUser;
+import com.actio.actio_api.model.QuoteSource;
+import com.actio.actio_api.model.Stock;
+import com.actio.actio_api.model.StockTransaction;
+import com.actio.actio_api.model.TransactionRecord;
+import com.actio.actio_api.model.TransactionType;
+import com.actio.actio_api.model.UpstreamPriority;
+import com.actio.actio_api.model.response.GetAlphaVantageStockResponse;
+import com.actio.actio_api.model.response.WalletResponse;
+import com.actio.actio_api.model.response.WalletSummaryResponse;
+import com.actio.actio_api.model.webclient.GlobalQuote;
+import com.actio.actio_api.repository.AccountRepository;
+import com.actio.actio_api.repository.StockTransactionRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for the wallet valuation of {@link WalletService} over the portfolio snapshots.
+ */
+class WalletServiceTest {
+
+    private final AccountRepository accountRepository = mock(AccountRepository.class);
+    private final AlphaVantageWebClientService quotes = mock(AlphaVantageWebClientService.class);
+    private final StockItemService stockItemService = mock(StockItemService.class);
+    private final CurrencyCacheService currencyCacheService = mock(CurrencyCacheService.class);
+    private final QuoteCacheService quoteCacheService = new QuoteCacheService(new QuoteCacheProperties(), new QuoteMetrics(new SimpleMeterRegistry()));
+    private final StockTransactionRepository transactions = mock(StockTransactionRepository.class);
+    private final PortfolioSnapshotService snapshots = new PortfolioSnapshotService(transactions, quoteCacheService, currencyCacheService, new PortfolioSnapshotProperties());
+    private final WalletService service = new WalletService(accountRepository, quotes, stockItemService, null, snapshots);
+    private final ActioUser user = new ActioUser();
+    private final Account account = Account.builder().id(5L).build();
+    private final List<TransactionRecord> history = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        when(accountRepository.findByActioUser(user)).thenReturn(Optional.of(account));
+        when(transactions.findRecordsByAccountId(5L, 0L)).thenReturn(history);
+        when(currencyCacheService.getEuroRateForSymbol(anyString())).thenReturn(Mono.just(BigDecimal.ONE));
+        ReflectionTestUtils.setField(service, "maxConcurrency", 4);
+        ReflectionTestUtils.setField(service, "deadline", Duration.ofSeconds(2));
+        ReflectionTestUtils.setField(service, "fallbackTimeout", Duration.ofSeconds(1));
+    }
+
+    @Test
+    void holdingsAreQuotedConcurrentlyInSymbolOrder() {
+        // Each quote is only answered once all four have been requested, so a wallet quoting
+        // them one at a time would wait out the latch and value them as stale.
+        CountDownLatch requested = new CountDownLatch(4);
+        Mono<Boolean> allRequested = Mono.defer(() -> {
+            requested.countDown();
+            return Mono.fromCallable(() -> requested.await(1, TimeUnit.SECONDS))
+                    .subscribeOn(Schedulers.boundedElastic());
+        }).filter(Boolean::booleanValue).switchIfEmpty(Mono.error(new TimeoutException("quoted one at a time")));
+        holding("NOS.LS", 1L, allRequested, 10);
+        holding("EDP.LS", 2L, allRequested, 5);
+        holding("GALP.LS", 3L, allRequested, 2);
+        holding("BCP.LS", 4L, allRequested, 1);
+        when(quotes.getStaleStock(anyString(), any())).thenReturn(Mono.empty());
+
+        List<WalletResponse> wallet = service.getWalletForUser(user);
+
+        assertEquals(List.of("BCP.LS", "EDP.LS", "GALP.LS", "NOS.LS"), wallet.stream().map(WalletResponse::getStockName).toList());
+        assertEquals(0, requested.getCount());
+        assertTrue(wallet.stream().noneMatch(WalletResponse::isStale));
+    }
+
+    @Test
+    void holdingMissingTheDeadlineIsValuedWithStaleQuote() {
+        ReflectionTestUtils.setField(service, "deadline", Duration.ofMillis(200));
+        holding("NOS.LS", 1L, 10, 10);
+        holding("EDP.LS", 2L, 5_000, 5);
+        when(quotes.getStaleStock(eq("EDP.LS"), any(TimeoutException.class)))
+                .thenReturn(Mono.just(quote("EDP.LS", 2L, "3.5", QuoteSource.STALE_CACHE)));
+
+        List<WalletResponse> wallet = service.getWalletForUser(user);
+
+        assertEquals(2, wallet.size());
+        WalletResponse edp = wallet.get(0);
+        assertTrue(edp.isStale());
+        assertEquals(3.5, edp.getCurrentValue());
+        assertEquals(5, edp.getQuantity());
+        assertFalse(wallet.get(1).isStale());
+    }
+
+    @Test
+    void holdingWithoutAnyQuoteDoesNotFailTheWallet() {
+        ReflectionTestUtils.setField(service, "maxConcurrency", 1);
+        ReflectionTestUtils.setField(service, "fallbackTimeout", Duration.ofMillis(100));
+        holding("NOS.LS", 1L, 10, 10);
+        bought(9L, "XYZ.LS", 3);
+        when(quotes.getStock("XYZ.LS", UpstreamPriority.WALLET))
+                .thenReturn(Mono.error(new IllegalStateException("Unable to process stock information.")));
+        when(quotes.getStaleStock(eq("XYZ.LS"), any())).thenReturn(Mono.never());
+
+        List<WalletResponse> wallet = service.getWalletForUser(user);
+
+        assertEquals(2, wallet.size());
+        WalletResponse missing = wallet.get(1);
+        assertEquals(9L, missing.getStockId());
+        assertTrue(missing.isStale());
+        assertEquals(0.0, missing.getCurrentValue());
+    }
+
+    @Test
+    void aPriceNotFromTheQuoteCacheIsStale() {
+        bought(9L, "XYZ.LS", 3);
+        when(quotes.getStock("XYZ.LS", UpstreamPriority.WALLET)).thenReturn(Mono.just(quote("XYZ.LS", 9L, "2.0", QuoteSource.LIVE)));
+
+        List<WalletResponse> wallet = service.getWalletForUser(user);
+
+        assertEquals(2.0, wallet.get(0).getCurrentValue());
+        assertTrue(wallet.get(0).isStale());
+    }
+
+    @Test
+    void aFallbackPriceIsStaleEvenWhenTheSymbolIsCached() {
+        bought(9L, "XYZ.LS", 3);
+        quoteCacheService.put("XYZ.LS", GlobalQuote.builder().symbol("XYZ.LS").price(new BigDecimal("2.5")).build());
+        when(quotes.getStock("XYZ.LS", UpstreamPriority.WALLET))
+                .thenReturn(Mono.just(quote("XYZ.LS", 9L, "2.0", QuoteSource.MOCK)));
+
+        List<WalletResponse> wallet = service.getWalletForUser(user);
+
+        assertEquals(2.0, wallet.get(0).getCurrentValue());
+        assertTrue(wallet.get(0).isStale());
+    }
+
+    @Test
+    void laterRequestsReadTheSnapshotUpdatedByQuotesAndTrades() {
+        holding("NOS.LS", 1L, 10, 10);
+        service.getWalletForUser(user);
+
+        quoteCacheService.put("NOS.LS", GlobalQuote.builder().symbol("NOS.LS").price(new BigDecimal("12.5")).changePercent("2%").build());
+        snapshots.applyTransaction(trade(100L, "NOS.LS", "BUY", 5, "12.5"));
+        List<WalletResponse> wallet = service.getWalletForUser(user);
+        WalletSummaryResponse summary = service.getWalletSummaryForUser(user);
+
+        verify(quotes, times(1)).getStock("NOS.LS", UpstreamPriority.WALLET);
+        assertEquals(15, wallet.get(0).getQuantity());
+        assertEquals(12.5, wallet.get(0).getCurrentValue());
+        assertEquals("2%", wallet.get(0).getDailyVariation());
+        assertEquals(new BigDecimal("187.5000"), summary.getMarketValue());
+        assertEquals(new BigDecimal("72.5000"), summary.getInvestedValue());
+    }
+
+    private void holding(String symbol, long stockId, long latencyMillis, int quantity) {
+        holding(symbol, stockId, Mono.delay(Duration.ofMillis(latencyMillis)), quantity);
+    }
+
+    private void holding(String symbol, long stockId, Mono<?> answered, int quantity) {
+        bought(stockId, symbol, quantity);
+        when(quotes.getStock(symbol, UpstreamPriority.WALLET))
+                .thenReturn(answered
+                        .doOnNext(tick -> quoteCacheService.put(symbol, GlobalQuote.builder().symbol(symbol).price(new BigDecimal("10.0")).build()))
+                        .thenReturn(quote(symbol, stockId, "10.0", QuoteSource.LIVE)));
+    }
+
+    private void bought(long stockId, String symbol, int quantity) {
+        history.add(new TransactionRecord(history.size() + 1L, stockId, symbol, "BUY", quantity, BigDecimal.ONE, LocalDateTime.now()));
+    }
+
+    private StockTransaction trade(long id, String symbol, String type, int quantity, String price) {
+        TransactionType transactionType = new TransactionType();
+        transactionType.setTypeDescription(type);
+        return StockTransaction.builder()
+                .id(id)
+                .account(account)
+                .stock(Stock.builder().idStock(1L).stockName(symbol).build())
+                .transactionType(transactionType)
+                .quantity(quantity)
+                .negotiationPrice(new BigDecimal(price))
+                .transactionDateTime(LocalDateTime.now())
+                .build();
+    }
+
+    private static GetAlphaVantageStockResponse quote(String symbol, long stockId, String price, QuoteSource source) {
+        return GetAlphaVantageStockResponse.builder()
+                .stockId(stockId)
+                .symbol(symbol)
+                .price(new BigDecimal(price))
+                .changePercent("0.1%")
+                .source(source)
+                .build();
+    }
+}